@@ -2,6 +2,7 @@ package de.akquinet.jbosscc.guttenbase.connector;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 
 import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
 
@@ -29,4 +30,12 @@ public interface Connector {
 	 * Return information about database and tables
 	 */
 	DatabaseMetaData retrieveDatabaseMetaData() throws SQLException;
+
+	/**
+	 * Update information about the given tables only in meta data returned by {@link #retrieveDatabaseMetaData()} before. The given
+	 * meta data must not be modified, since it may be read concurrently.
+	 *
+	 * @return updated meta data, a new instance unless nothing changed
+	 */
+	DatabaseMetaData refreshDatabaseMetaData(DatabaseMetaData databaseMetaData, Collection<String> tableNames) throws SQLException;
 }
\ No newline at end of file
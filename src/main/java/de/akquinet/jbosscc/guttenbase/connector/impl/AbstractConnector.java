@@ -2,6 +2,7 @@ package de.akquinet.jbosscc.guttenbase.connector.impl;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 
 import org.apache.log4j.Logger;
 
@@ -81,4 +82,21 @@ public abstract class AbstractConnector implements Connector {
     closeConnection();
     return databaseMetaData;
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public DatabaseMetaData refreshDatabaseMetaData(final DatabaseMetaData databaseMetaData, final Collection<String> tableNames)
+      throws SQLException {
+    final DatabaseMetaDataInspectorTool tableMetaDataInspector = new DatabaseMetaDataInspectorTool(_connectorRepository, _connectorId);
+    final Connection connection = openConnection();
+    final SourceDatabaseConfiguration sourceDatabaseConfiguration = _connectorRepository.getSourceDatabaseConfiguration(_connectorId);
+
+    sourceDatabaseConfiguration.initializeSourceConnection(connection, _connectorId);
+    final DatabaseMetaData result = tableMetaDataInspector.refreshDatabaseMetaData(connection, databaseMetaData, tableNames);
+    sourceDatabaseConfiguration.finalizeSourceConnection(connection, _connectorId);
+    closeConnection();
+    return result;
+  }
 }
\ No newline at end of file
@@ -0,0 +1,292 @@
+package de.akquinet.jbosscc.guttenbase.connector.impl;
+
+import de.akquinet.jbosscc.guttenbase.connector.Connector;
+import de.akquinet.jbosscc.guttenbase.connector.ConnectorInfo;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import org.apache.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded pool of connections to a data base. Connections are created by the connector of the underlying {@link ConnectorInfo},
+ * e.g. {@link URLConnectorInfo} or {@link DataSourceConnectorInfo}, and validated before they are leased again.
+ * <br>
+ * A lease blocks until a connection becomes available and fails after the given timeout. When a connection is returned,
+ * pending changes are rolled back, and its read-only mode, auto-commit mode, transaction isolation, catalog and schema are
+ * reset to the state after opening, since the connection may be used as source or target next time. Thread-safe.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class ConnectionPool {
+  private static final Logger LOG = Logger.getLogger(ConnectionPool.class);
+
+  /**
+   * Seconds to wait for {@link Connection#isValid(int)}
+   */
+  public static final int VALIDATION_TIMEOUT = 5;
+
+  private final ConnectorRepository _connectorRepository;
+  private final String _connectorId;
+  private final ConnectorInfo _connectorInfo;
+  private final int _minNumberOfConnections;
+  private final long _leaseTimeoutMillis;
+  private final Semaphore _permits;
+
+  private final Deque<PooledConnection> _idleConnections = new ArrayDeque<>();
+  private final Map<Connection, PooledConnection> _leasedConnections = new IdentityHashMap<>();
+  private boolean _warmedUp;
+  private boolean _closed;
+
+  public ConnectionPool(final ConnectorRepository connectorRepository, final String connectorId, final ConnectorInfo connectorInfo,
+                        final int minNumberOfConnections, final int maxNumberOfConnections, final long leaseTimeoutMillis) {
+    assert connectorRepository != null : "connectorRepository != null";
+    assert connectorId != null : "connectorId != null";
+    assert connectorInfo != null : "connectorInfo != null";
+    assert maxNumberOfConnections > 0 : "maxNumberOfConnections > 0";
+    assert minNumberOfConnections <= maxNumberOfConnections : "minNumberOfConnections <= maxNumberOfConnections";
+
+    _connectorRepository = connectorRepository;
+    _connectorId = connectorId;
+    _connectorInfo = connectorInfo;
+    _minNumberOfConnections = minNumberOfConnections;
+    _leaseTimeoutMillis = leaseTimeoutMillis;
+    _permits = new Semaphore(maxNumberOfConnections, true);
+  }
+
+  /**
+   * Lease a valid connection, which must be returned with {@link #release(Connection)} or {@link #discard(Connection)}.
+   */
+  public Connection lease() throws SQLException {
+    try {
+      if (!_permits.tryAcquire(_leaseTimeoutMillis, TimeUnit.MILLISECONDS)) {
+        throw new SQLException("No connection available for " + _connectorId + " within " + _leaseTimeoutMillis + " ms");
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while waiting for connection", e);
+    }
+
+    try {
+      warmUp();
+
+      for (PooledConnection pooledConnection = pollIdleConnection(); pooledConnection != null;
+           pooledConnection = pollIdleConnection()) {
+        if (isValid(pooledConnection._connection)) {
+          return leased(pooledConnection);
+        }
+
+        LOG.info("Discarding invalid connection of " + _connectorId);
+        closeQuietly(pooledConnection);
+      }
+
+      return leased(createConnection());
+    } catch (final SQLException | RuntimeException e) {
+      _permits.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Return connection to the pool. Changes not committed by the caller are rolled back.
+   */
+  public void release(final Connection connection) {
+    final PooledConnection pooledConnection = removeLeasedConnection(connection);
+    boolean reusable;
+
+    try {
+      pooledConnection.resetState();
+      reusable = true;
+    } catch (final SQLException e) {
+      LOG.warn("Resetting connection of " + _connectorId + " failed", e);
+      reusable = false;
+    }
+
+    synchronized (this) {
+      reusable &= !_closed;
+
+      if (reusable) {
+        _idleConnections.push(pooledConnection);
+      }
+    }
+
+    if (!reusable) {
+      closeQuietly(pooledConnection);
+    }
+
+    _permits.release();
+  }
+
+  /**
+   * Close connection instead of returning it to the pool, e.g. after an error
+   */
+  public void discard(final Connection connection) {
+    closeQuietly(removeLeasedConnection(connection));
+    _permits.release();
+  }
+
+  /**
+   * Close all idle connections. Leased connections are closed when they are returned.
+   */
+  public void close() {
+    final PooledConnection[] pooledConnections;
+
+    synchronized (this) {
+      _closed = true;
+      pooledConnections = _idleConnections.toArray(new PooledConnection[0]);
+      _idleConnections.clear();
+    }
+
+    for (final PooledConnection pooledConnection : pooledConnections) {
+      closeQuietly(pooledConnection);
+    }
+  }
+
+  public synchronized int getNumberOfIdleConnections() {
+    return _idleConnections.size();
+  }
+
+  public synchronized int getNumberOfLeasedConnections() {
+    return _leasedConnections.size();
+  }
+
+  /**
+   * Open the minimum number of connections with the first lease
+   */
+  private void warmUp() throws SQLException {
+    synchronized (this) {
+      if (_warmedUp || _closed) {
+        return;
+      }
+
+      _warmedUp = true;
+    }
+
+    for (int i = 0; i < _minNumberOfConnections; i++) {
+      final PooledConnection pooledConnection = createConnection();
+
+      synchronized (this) {
+        _idleConnections.push(pooledConnection);
+      }
+    }
+  }
+
+  private PooledConnection createConnection() throws SQLException {
+    final Connector connector = _connectorInfo.createConnector(_connectorRepository, _connectorId);
+
+    return new PooledConnection(connector, connector.openConnection());
+  }
+
+  private synchronized PooledConnection pollIdleConnection() throws SQLException {
+    if (_closed) {
+      throw new SQLException("Connection pool of " + _connectorId + " has been closed");
+    }
+
+    return _idleConnections.poll();
+  }
+
+  private synchronized Connection leased(final PooledConnection pooledConnection) {
+    _leasedConnections.put(pooledConnection._connection, pooledConnection);
+    return pooledConnection._connection;
+  }
+
+  private synchronized PooledConnection removeLeasedConnection(final Connection connection) {
+    final PooledConnection pooledConnection = _leasedConnections.remove(connection);
+
+    assert pooledConnection != null : "Connection not leased from this pool";
+    return pooledConnection;
+  }
+
+  private static boolean isValid(final Connection connection) throws SQLException {
+    if (connection.isClosed()) {
+      return false;
+    }
+
+    try {
+      return connection.isValid(VALIDATION_TIMEOUT);
+    } catch (final SQLFeatureNotSupportedException | AbstractMethodError e) {
+      return true;
+    }
+  }
+
+  private void closeQuietly(final PooledConnection pooledConnection) {
+    try {
+      pooledConnection._connector.closeConnection();
+    } catch (final SQLException e) {
+      LOG.warn("Closing connection of " + _connectorId + " failed", e);
+    }
+  }
+
+  /**
+   * Physical connection with the connector that opened it and its initial state
+   */
+  private static final class PooledConnection {
+    private final Connector _connector;
+    private final Connection _connection;
+    private final boolean _readOnly;
+    private final boolean _autoCommit;
+    private final int _transactionIsolation;
+    private final String _catalog;
+    private final String _schema;
+
+    private PooledConnection(final Connector connector, final Connection connection) throws SQLException {
+      _connector = connector;
+      _connection = connection;
+      _readOnly = connection.isReadOnly();
+      _autoCommit = connection.getAutoCommit();
+      _transactionIsolation = connection.getTransactionIsolation();
+      _catalog = connection.getCatalog();
+      _schema = getSchema(connection);
+    }
+
+    /**
+     * Roll back before changing the auto-commit mode, since enabling it would commit pending changes.
+     */
+    private void resetState() throws SQLException {
+      if (!_connection.getAutoCommit()) {
+        _connection.rollback();
+      }
+
+      if (_connection.getAutoCommit() != _autoCommit) {
+        _connection.setAutoCommit(_autoCommit);
+      }
+
+      if (_connection.isReadOnly() != _readOnly) {
+        _connection.setReadOnly(_readOnly);
+      }
+
+      if (_connection.getTransactionIsolation() != _transactionIsolation) {
+        _connection.setTransactionIsolation(_transactionIsolation);
+      }
+
+      if (_catalog != null && !_catalog.equals(_connection.getCatalog())) {
+        _connection.setCatalog(_catalog);
+      }
+
+      if (_schema != null && !_schema.equals(getSchema(_connection))) {
+        _connection.setSchema(_schema);
+      }
+    }
+
+    /**
+     * @return current schema or null if the driver does not implement JDBC 4.1
+     */
+    private static String getSchema(final Connection connection) throws SQLException {
+      try {
+        return connection.getSchema();
+      } catch (final SQLFeatureNotSupportedException | AbstractMethodError e) {
+        return null;
+      }
+    }
+  }
+}
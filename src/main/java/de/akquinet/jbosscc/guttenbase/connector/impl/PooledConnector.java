@@ -0,0 +1,68 @@
+package de.akquinet.jbosscc.guttenbase.connector.impl;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TargetDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Lease the connection from a {@link ConnectionPool} and return it when the connection is closed. Thus several connectors of
+ * the same connector ID may be used concurrently, without opening a new physical connection each time.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class PooledConnector extends AbstractConnector {
+  private final ConnectionPool _connectionPool;
+
+  public PooledConnector(final ConnectorRepository connectorRepository, final String connectorId,
+                         final PooledConnectorInfo connectorInfo, final ConnectionPool connectionPool) {
+    super(connectorRepository, connectorId, connectorInfo);
+
+    assert connectionPool != null : "connectionPool != null";
+    _connectionPool = connectionPool;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Connection openConnection() throws SQLException {
+    if (_connection == null) {
+      _connection = _connectionPool.lease();
+    }
+
+    return _connection;
+  }
+
+  /**
+   * Commit pending changes like {@link AbstractConnector#closeConnection()}, but return the connection to the pool.
+   */
+  @Override
+  public void closeConnection() throws SQLException {
+    if (_connection == null) {
+      return;
+    }
+
+    final Connection connection = _connection;
+    _connection = null;
+
+    try {
+      final TargetDatabaseConfiguration targetDatabaseConfiguration = _connectorRepository.getTargetDatabaseConfiguration(_connectorId);
+
+      if (!connection.isClosed() && !connection.getAutoCommit() && targetDatabaseConfiguration.isMayCommit()) {
+        connection.commit();
+      }
+    } catch (final SQLException e) {
+      LOG.warn("Closing connection failed", e);
+      _connectionPool.discard(connection);
+      throw e;
+    }
+
+    _connectionPool.release(connection);
+  }
+}
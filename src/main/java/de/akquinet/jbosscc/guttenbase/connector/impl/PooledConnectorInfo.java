@@ -0,0 +1,122 @@
+package de.akquinet.jbosscc.guttenbase.connector.impl;
+
+import de.akquinet.jbosscc.guttenbase.connector.Connector;
+import de.akquinet.jbosscc.guttenbase.connector.ConnectorInfo;
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+
+/**
+ * Share a bounded pool of connections between all connectors created for the given connector info, e.g.
+ * {@link URLConnectorInfo} or {@link DataSourceConnectorInfo}. Tools copying or checking data concurrently then reuse open
+ * connections, instead of opening a new connection for each thread or unit of work.
+ * <br>
+ * The pool is created when the first connector is created. Call {@link #closeConnectionPool()} when done.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class PooledConnectorInfo implements ConnectorInfo {
+  private static final long serialVersionUID = 1L;
+
+  public static final long DEFAULT_LEASE_TIMEOUT_MILLIS = 60000;
+
+  private final ConnectorInfo _connectorInfo;
+  private final int _minNumberOfConnections;
+  private final int _maxNumberOfConnections;
+  private final long _leaseTimeoutMillis;
+  private transient ConnectionPool _connectionPool;
+
+  public PooledConnectorInfo(final ConnectorInfo connectorInfo, final int maxNumberOfConnections) {
+    this(connectorInfo, 0, maxNumberOfConnections, DEFAULT_LEASE_TIMEOUT_MILLIS);
+  }
+
+  /**
+   * @param minNumberOfConnections number of connections opened in advance with the first lease
+   * @param leaseTimeoutMillis     maximum time to wait for a connection to be returned to the pool
+   */
+  public PooledConnectorInfo(final ConnectorInfo connectorInfo, final int minNumberOfConnections, final int maxNumberOfConnections,
+                             final long leaseTimeoutMillis) {
+    assert connectorInfo != null : "connectorInfo != null";
+    assert !(connectorInfo instanceof PooledConnectorInfo) : "!(connectorInfo instanceof PooledConnectorInfo)";
+    assert maxNumberOfConnections > 0 : "maxNumberOfConnections > 0";
+    assert minNumberOfConnections >= 0 && minNumberOfConnections <= maxNumberOfConnections : "0 <= min <= max";
+
+    _connectorInfo = connectorInfo;
+    _minNumberOfConnections = minNumberOfConnections;
+    _maxNumberOfConnections = maxNumberOfConnections;
+    _leaseTimeoutMillis = leaseTimeoutMillis;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String getUser() {
+    return _connectorInfo.getUser();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String getPassword() {
+    return _connectorInfo.getPassword();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String getSchema() {
+    return _connectorInfo.getSchema();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public DatabaseType getDatabaseType() {
+    return _connectorInfo.getDatabaseType();
+  }
+
+  public ConnectorInfo getConnectorInfo() {
+    return _connectorInfo;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Connector createConnector(final ConnectorRepository connectorRepository, final String connectorId) {
+    return new PooledConnector(connectorRepository, connectorId, this, getConnectionPool(connectorRepository, connectorId));
+  }
+
+  /**
+   * @return pool or null if no connector has been created yet
+   */
+  public synchronized ConnectionPool getConnectionPool() {
+    return _connectionPool;
+  }
+
+  /**
+   * Close idle connections, connections still leased are closed when returned. A new pool is created with the next connector.
+   */
+  public synchronized void closeConnectionPool() {
+    if (_connectionPool != null) {
+      _connectionPool.close();
+      _connectionPool = null;
+    }
+  }
+
+  private synchronized ConnectionPool getConnectionPool(final ConnectorRepository connectorRepository, final String connectorId) {
+    if (_connectionPool == null) {
+      _connectionPool = new ConnectionPool(connectorRepository, connectorId, _connectorInfo, _minNumberOfConnections,
+        _maxNumberOfConnections, _leaseTimeoutMillis);
+    }
+
+    return _connectionPool;
+  }
+}
@@ -10,6 +10,7 @@ import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
 import de.akquinet.jbosscc.guttenbase.utils.Util;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 
 /**
  * Connection info for exporting data base contents to a file.
@@ -41,7 +42,15 @@ public class ExportDumpConnector extends AbstractConnector {
         final Exporter exporter = _connectorRepository.getConnectorHint(_connectorId, ExporterFactory.class).getValue().createExporter();
 
         exporter.initializeExport(_connectorRepository, _connectorId, _exportDumpConnectionInfo);
-        exporter.writeDatabaseMetaData(retrieveSourceDatabaseMetaData());
+        final DatabaseMetaData sourceDatabaseMetaData = retrieveSourceDatabaseMetaData();
+
+        // Row counts not yet known must be computed, since the dump is read according to them
+        for (final TableMetaData tableMetaData : sourceDatabaseMetaData.getTableMetaData()) {
+          tableMetaData.getTotalRowCount();
+          tableMetaData.getFilteredRowCount();
+        }
+
+        exporter.writeDatabaseMetaData(sourceDatabaseMetaData);
         _connection = new ExportDumpConnection(exporter);
       } catch (final Exception e) {
         throw new ExportException("openConnection", e);
@@ -69,6 +78,17 @@ public class ExportDumpConnector extends AbstractConnector {
     return result;
   }
 
+  /**
+   * Meta data is derived from the source connector, thus it is simply retrieved again.
+   *
+   * {@inheritDoc}
+   */
+  @Override
+  public DatabaseMetaData refreshDatabaseMetaData(final DatabaseMetaData databaseMetaData, final Collection<String> tableNames)
+      throws SQLException {
+    return retrieveDatabaseMetaData();
+  }
+
   private DatabaseMetaData retrieveSourceDatabaseMetaData() throws SQLException {
     return _connectorRepository.getDatabaseMetaData(_exportDumpConnectionInfo.getSourceConnectorId());
   }
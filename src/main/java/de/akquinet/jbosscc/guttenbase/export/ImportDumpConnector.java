@@ -2,6 +2,7 @@ package de.akquinet.jbosscc.guttenbase.export;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 
 import de.akquinet.jbosscc.guttenbase.connector.impl.AbstractConnector;
 import de.akquinet.jbosscc.guttenbase.exceptions.ImportException;
@@ -72,4 +73,16 @@ public class ImportDumpConnector extends AbstractConnector
 
     return _databaseMetaData;
   }
+
+  /**
+   * The dump cannot change, thus there is nothing to refresh.
+   *
+   * {@inheritDoc}
+   */
+  @Override
+  public DatabaseMetaData refreshDatabaseMetaData(final DatabaseMetaData databaseMetaData, final Collection<String> tableNames)
+      throws SQLException
+  {
+    return databaseMetaData;
+  }
 }
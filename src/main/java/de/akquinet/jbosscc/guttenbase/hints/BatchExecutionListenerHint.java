@@ -0,0 +1,26 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.tools.AdaptiveNumberOfRowsPerBatch;
+import de.akquinet.jbosscc.guttenbase.tools.BatchExecutionListener;
+import de.akquinet.jbosscc.guttenbase.tools.DefaultTableCopyTool;
+import de.akquinet.jbosscc.guttenbase.tools.KeysetTableCopyTool;
+
+/**
+ * Measure execution of INSERT batches. Register an {@link AdaptiveNumberOfRowsPerBatch} with this hint and the
+ * {@link NumberOfRowsPerBatchHint} to tune the batch size while copying.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @gb.ApplicableForTarget
+ * @gb.HintUsedBy {@link DefaultTableCopyTool} to report execution time of batches
+ * @gb.HintUsedBy {@link KeysetTableCopyTool} to report execution time of batches
+ */
+public abstract class BatchExecutionListenerHint implements ConnectorHint<BatchExecutionListener> {
+  @Override
+  public final Class<BatchExecutionListener> getConnectorHintType() {
+    return BatchExecutionListener.class;
+  }
+}
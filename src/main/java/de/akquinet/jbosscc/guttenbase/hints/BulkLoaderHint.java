@@ -0,0 +1,24 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.hints.impl.VendorBulkLoaderHint;
+import de.akquinet.jbosscc.guttenbase.tools.AbstractTableCopyTool;
+import de.akquinet.jbosscc.guttenbase.tools.BulkLoader;
+
+/**
+ * Use native bulk import facility of target data base instead of INSERT statements, see {@link VendorBulkLoaderHint}. The value
+ * may be null, if tables shall not be loaded in bulk at all.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @gb.ApplicableForTarget
+ * @gb.HintUsedBy {@link AbstractTableCopyTool} to load tables
+ */
+public abstract class BulkLoaderHint implements ConnectorHint<BulkLoader> {
+  @Override
+  public final Class<BulkLoader> getConnectorHintType() {
+    return BulkLoader.class;
+  }
+}
@@ -0,0 +1,24 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.repository.CatalogQueries;
+import de.akquinet.jbosscc.guttenbase.repository.impl.DatabaseMetaDataInspectorTool;
+
+/**
+ * Queries reading primary keys, indexes and foreign keys of a whole schema in a single round trip each. This speeds up reading
+ * the meta data of schemas with many tables considerably.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @gb.ApplicableForSource
+ * @gb.ApplicableForTarget
+ * @gb.HintUsedBy {@link DatabaseMetaDataInspectorTool} to read the catalog of a schema at once
+ * @author M. Dahm
+ */
+public abstract class CatalogQueriesHint implements ConnectorHint<CatalogQueries> {
+  @Override
+  public final Class<CatalogQueries> getConnectorHintType() {
+    return CatalogQueries.class;
+  }
+}
@@ -0,0 +1,22 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.tools.ChangeColumn;
+import de.akquinet.jbosscc.guttenbase.tools.IncrementalTableCopyTool;
+
+/**
+ * Select the column used to determine rows changed since the last incremental copy, e.g. a last-modified timestamp.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @gb.ApplicableForSource
+ * @gb.HintUsedBy {@link IncrementalTableCopyTool} to restrict the data to be copied
+ */
+public abstract class ChangeColumnHint implements ConnectorHint<ChangeColumn> {
+  @Override
+  public final Class<ChangeColumn> getConnectorHintType() {
+    return ChangeColumn.class;
+  }
+}
@@ -0,0 +1,22 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.tools.CheckEqualTableDataTool;
+import de.akquinet.jbosscc.guttenbase.tools.ChecksumVerification;
+
+/**
+ * Configure number of threads and size of ranges when verifying copied data by checksums.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @gb.ApplicableForSource
+ * @gb.HintUsedBy {@link CheckEqualTableDataTool} to split tables into ranges checked concurrently
+ */
+public abstract class ChecksumVerificationHint implements ConnectorHint<ChecksumVerification> {
+  @Override
+  public final Class<ChecksumVerification> getConnectorHintType() {
+    return ChecksumVerification.class;
+  }
+}
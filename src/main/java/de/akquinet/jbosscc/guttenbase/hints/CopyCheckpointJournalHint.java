@@ -0,0 +1,25 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.tools.AbstractTableCopyTool;
+import de.akquinet.jbosscc.guttenbase.tools.CopyCheckpointJournal;
+import de.akquinet.jbosscc.guttenbase.tools.FileCopyCheckpointJournal;
+
+/**
+ * Record the progress of copying, so that a failed copy process can be resumed with
+ * {@link AbstractTableCopyTool#resume(String, String)} instead of starting all over again. Use e.g. a
+ * {@link FileCopyCheckpointJournal}.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @gb.ApplicableForTarget
+ * @gb.HintUsedBy {@link AbstractTableCopyTool} to record copied tables and committed positions
+ */
+public abstract class CopyCheckpointJournalHint implements ConnectorHint<CopyCheckpointJournal> {
+  @Override
+  public final Class<CopyCheckpointJournal> getConnectorHintType() {
+    return CopyCheckpointJournal.class;
+  }
+}
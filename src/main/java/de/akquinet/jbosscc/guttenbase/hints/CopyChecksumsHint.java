@@ -0,0 +1,27 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.statements.InsertStatementFiller;
+import de.akquinet.jbosscc.guttenbase.tools.AbstractTableCopyTool;
+import de.akquinet.jbosscc.guttenbase.tools.CheckEqualTableDataTool;
+import de.akquinet.jbosscc.guttenbase.tools.CopyChecksums;
+import de.akquinet.jbosscc.guttenbase.tools.TableCopyChecksums;
+
+/**
+ * Compute checksums of the data while copying, see {@link TableCopyChecksums}.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @gb.ApplicableForTarget
+ * @gb.HintUsedBy {@link AbstractTableCopyTool} to start recording checksums of a table
+ * @gb.HintUsedBy {@link InsertStatementFiller} to report checksums of batches copied
+ * @gb.HintUsedBy {@link CheckEqualTableDataTool} to compare recorded checksums with target data
+ */
+public abstract class CopyChecksumsHint implements ConnectorHint<CopyChecksums> {
+  @Override
+  public final Class<CopyChecksums> getConnectorHintType() {
+    return CopyChecksums.class;
+  }
+}
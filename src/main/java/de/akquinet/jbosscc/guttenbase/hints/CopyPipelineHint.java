@@ -0,0 +1,25 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.tools.CopyPipeline;
+import de.akquinet.jbosscc.guttenbase.tools.DefaultTableCopyTool;
+
+/**
+ * Overlap reading from the source data base with writing to the target data base. This is useful when both data bases are
+ * remote, since the latency of fetching data and executing/committing INSERT statements then adds up otherwise.
+ * <br>
+ * Buffered rows are held in memory, so keep the capacity small for tables with large rows.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @gb.ApplicableForTarget
+ * @gb.HintUsedBy {@link DefaultTableCopyTool} to determine number of batches read in advance
+ */
+public abstract class CopyPipelineHint implements ConnectorHint<CopyPipeline> {
+  @Override
+  public final Class<CopyPipeline> getConnectorHintType() {
+    return CopyPipeline.class;
+  }
+}
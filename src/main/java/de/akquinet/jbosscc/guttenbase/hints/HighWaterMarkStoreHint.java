@@ -0,0 +1,24 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.tools.HighWaterMarkStore;
+import de.akquinet.jbosscc.guttenbase.tools.IncrementalTableCopyTool;
+import de.akquinet.jbosscc.guttenbase.tools.TableHighWaterMarkStore;
+
+/**
+ * Store the highest value of the change column copied so far for each table. Default is a {@link TableHighWaterMarkStore} in the
+ * target data base.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @gb.ApplicableForTarget
+ * @gb.HintUsedBy {@link IncrementalTableCopyTool} to determine rows changed since the last run
+ */
+public abstract class HighWaterMarkStoreHint implements ConnectorHint<HighWaterMarkStore> {
+  @Override
+  public final Class<HighWaterMarkStore> getConnectorHintType() {
+    return HighWaterMarkStore.class;
+  }
+}
@@ -0,0 +1,25 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.statements.InsertStatementFiller;
+import de.akquinet.jbosscc.guttenbase.tools.AbstractTableCopyTool;
+import de.akquinet.jbosscc.guttenbase.tools.LobStreaming;
+import de.akquinet.jbosscc.guttenbase.tools.PooledLobStreaming;
+
+/**
+ * Stream LOBs into the target data base with bounded memory, see {@link PooledLobStreaming}.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @gb.ApplicableForTarget
+ * @gb.HintUsedBy {@link InsertStatementFiller} to set LOB values as streams
+ * @gb.HintUsedBy {@link AbstractTableCopyTool} to limit the number of open LOBs per batch
+ */
+public abstract class LobStreamingHint implements ConnectorHint<LobStreaming> {
+  @Override
+  public final Class<LobStreaming> getConnectorHintType() {
+    return LobStreaming.class;
+  }
+}
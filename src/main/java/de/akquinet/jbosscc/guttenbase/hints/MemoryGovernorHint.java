@@ -0,0 +1,30 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.statements.AbstractSelectStatementCreator;
+import de.akquinet.jbosscc.guttenbase.statements.InsertStatementFiller;
+import de.akquinet.jbosscc.guttenbase.tools.AbstractTableCopyTool;
+import de.akquinet.jbosscc.guttenbase.tools.ByteBudgetMemoryGovernor;
+import de.akquinet.jbosscc.guttenbase.tools.MemoryGovernor;
+
+/**
+ * Fit the number of rows fetched and inserted at once into a memory budget, see {@link ByteBudgetMemoryGovernor}. Register the
+ * same governor for source and target connector, so observations made while copying are used for both. Observations are matched
+ * by table name, i.e. they do not refine the fetch size of renamed tables.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @gb.ApplicableForSource
+ * @gb.ApplicableForTarget
+ * @gb.HintUsedBy {@link AbstractTableCopyTool} to determine number of rows per batch
+ * @gb.HintUsedBy {@link AbstractSelectStatementCreator} to determine fetch size
+ * @gb.HintUsedBy {@link InsertStatementFiller} to report sizes of values copied
+ */
+public abstract class MemoryGovernorHint implements ConnectorHint<MemoryGovernor> {
+  @Override
+  public final Class<MemoryGovernor> getConnectorHintType() {
+    return MemoryGovernor.class;
+  }
+}
@@ -0,0 +1,24 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.repository.MetaDataCache;
+import de.akquinet.jbosscc.guttenbase.repository.impl.DatabaseMetaDataInspectorTool;
+
+/**
+ * Store the meta data of a data base in a local file, so that later runs need not inspect the schema again, as long as it has
+ * not changed. Use e.g. {@link de.akquinet.jbosscc.guttenbase.repository.impl.FileMetaDataCache}.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @gb.ApplicableForSource
+ * @gb.ApplicableForTarget
+ * @gb.HintUsedBy {@link DatabaseMetaDataInspectorTool} to load and store cached meta data
+ * @author M. Dahm
+ */
+public abstract class MetaDataCacheHint implements ConnectorHint<MetaDataCache> {
+  @Override
+  public final Class<MetaDataCache> getConnectorHintType() {
+    return MetaDataCache.class;
+  }
+}
@@ -0,0 +1,27 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.repository.NumberOfMetaDataInspectionThreads;
+import de.akquinet.jbosscc.guttenbase.repository.impl.DatabaseMetaDataInspectorTool;
+
+/**
+ * How many tables shall be inspected concurrently when reading the meta data of a data base? Each thread opens its own
+ * connection, so make sure the data base accepts that many additional connections, or use a
+ * {@link de.akquinet.jbosscc.guttenbase.connector.impl.PooledConnectorInfo}.
+ *
+ * Note that this will not work with connectors that do not support multiple connections, such as the export dump connector.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @gb.ApplicableForSource
+ * @gb.ApplicableForTarget
+ * @gb.HintUsedBy {@link DatabaseMetaDataInspectorTool} to determine number of concurrently inspected tables
+ * @author M. Dahm
+ */
+public abstract class NumberOfMetaDataInspectionThreadsHint implements ConnectorHint<NumberOfMetaDataInspectionThreads> {
+  @Override
+  public final Class<NumberOfMetaDataInspectionThreads> getConnectorHintType() {
+    return NumberOfMetaDataInspectionThreads.class;
+  }
+}
@@ -0,0 +1,25 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.tools.AbstractTableCopyTool;
+import de.akquinet.jbosscc.guttenbase.tools.NumberOfTableCopyThreads;
+
+/**
+ * How many tables shall be copied concurrently? Each copy thread opens its own source and target connection, so make sure the
+ * data bases accept that many additional connections.
+ *
+ * Note that this will not work with connectors that do not support multiple connections, such as the export dump connector.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @gb.ApplicableForTarget
+ * @gb.HintUsedBy {@link AbstractTableCopyTool} to determine number of concurrently copied tables
+ * @author M. Dahm
+ */
+public abstract class NumberOfTableCopyThreadsHint implements ConnectorHint<NumberOfTableCopyThreads> {
+  @Override
+  public final Class<NumberOfTableCopyThreads> getConnectorHintType() {
+    return NumberOfTableCopyThreads.class;
+  }
+}
@@ -0,0 +1,24 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.tools.ParallelRangeCopy;
+import de.akquinet.jbosscc.guttenbase.tools.SplitByRangeTableCopyTool;
+
+/**
+ * Copy the ranges of a (large) table concurrently. Each thread opens its own connections, so make sure the data bases allow
+ * for enough connections. Since ranges are written with separate transactions, the target data base must not check
+ * self-referencing foreign keys during the copy process.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @gb.ApplicableForTarget
+ * @gb.HintUsedBy {@link SplitByRangeTableCopyTool} to determine the number of threads per table
+ */
+public abstract class ParallelRangeCopyHint implements ConnectorHint<ParallelRangeCopy> {
+  @Override
+  public final Class<ParallelRangeCopy> getConnectorHintType() {
+    return ParallelRangeCopy.class;
+  }
+}
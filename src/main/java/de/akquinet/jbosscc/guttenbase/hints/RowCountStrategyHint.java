@@ -0,0 +1,24 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.repository.RowCountStrategy;
+import de.akquinet.jbosscc.guttenbase.repository.impl.DatabaseMetaDataInspectorTool;
+
+/**
+ * Determine whether row counts are computed when reading the meta data of a data base, estimated from catalog statistics, or
+ * computed when they are needed. Row counts computed later use a new connection.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @gb.ApplicableForSource
+ * @gb.ApplicableForTarget
+ * @gb.HintUsedBy {@link DatabaseMetaDataInspectorTool} to determine how rows of tables are counted
+ * @author M. Dahm
+ */
+public abstract class RowCountStrategyHint implements ConnectorHint<RowCountStrategy> {
+  @Override
+  public final Class<RowCountStrategy> getConnectorHintType() {
+    return RowCountStrategy.class;
+  }
+}
@@ -3,6 +3,7 @@ package de.akquinet.jbosscc.guttenbase.hints;
 import de.akquinet.jbosscc.guttenbase.statements.SplitByColumnSelectCountStatementCreator;
 import de.akquinet.jbosscc.guttenbase.statements.SplitByColumnSelectMinMaxStatementCreator;
 import de.akquinet.jbosscc.guttenbase.statements.SplitByColumnSelectStatementCreator;
+import de.akquinet.jbosscc.guttenbase.statements.SplitByColumnSelectValuesStatementCreator;
 import de.akquinet.jbosscc.guttenbase.tools.SplitByRangeTableCopyTool;
 import de.akquinet.jbosscc.guttenbase.tools.SplitColumn;
 
@@ -20,6 +21,7 @@ import de.akquinet.jbosscc.guttenbase.tools.SplitColumn;
  * @gb.HintUsedBy {@link SplitByColumnSelectCountStatementCreator}
  * @gb.HintUsedBy {@link SplitByColumnSelectMinMaxStatementCreator}
  * @gb.HintUsedBy {@link SplitByColumnSelectStatementCreator}
+ * @gb.HintUsedBy {@link SplitByColumnSelectValuesStatementCreator}
  * @gb.HintUsedBy {@link SplitByRangeTableCopyTool}
  *
  * @author M. Dahm
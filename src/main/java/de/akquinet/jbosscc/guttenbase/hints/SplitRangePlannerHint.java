@@ -0,0 +1,24 @@
+package de.akquinet.jbosscc.guttenbase.hints;
+
+import de.akquinet.jbosscc.guttenbase.tools.HistogramSplitRangePlanner;
+import de.akquinet.jbosscc.guttenbase.tools.SplitByRangeTableCopyTool;
+import de.akquinet.jbosscc.guttenbase.tools.SplitRangePlanner;
+
+/**
+ * Determine how the values of the split column are divided into ranges. By default, ranges of equal width are used. If the
+ * values are distributed unevenly, use {@link HistogramSplitRangePlanner} to get ranges with equal numbers of rows.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @gb.ApplicableForSource
+ * @gb.HintUsedBy {@link SplitByRangeTableCopyTool} to compute ranges to be copied
+ */
+public abstract class SplitRangePlannerHint implements ConnectorHint<SplitRangePlanner> {
+  @Override
+  public final Class<SplitRangePlanner> getConnectorHintType() {
+    return SplitRangePlanner.class;
+  }
+}
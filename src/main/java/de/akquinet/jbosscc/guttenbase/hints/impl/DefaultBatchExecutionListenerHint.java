@@ -0,0 +1,21 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.BatchExecutionListenerHint;
+import de.akquinet.jbosscc.guttenbase.tools.BatchExecutionListener;
+
+/**
+ * By default, execution of batches is not observed.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultBatchExecutionListenerHint extends BatchExecutionListenerHint {
+  @Override
+  public BatchExecutionListener getValue() {
+    return (targetTableMetaData, numberOfRows, useMultipleValuesClauses, durationNanos) -> {
+    };
+  }
+}
@@ -0,0 +1,20 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.BulkLoaderHint;
+import de.akquinet.jbosscc.guttenbase.tools.BulkLoader;
+
+/**
+ * By default, there is no bulk loader, i.e. data is always copied with INSERT statements.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultBulkLoaderHint extends BulkLoaderHint {
+  @Override
+  public BulkLoader getValue() {
+    return null;
+  }
+}
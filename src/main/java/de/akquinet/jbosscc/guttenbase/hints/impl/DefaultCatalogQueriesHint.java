@@ -0,0 +1,21 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.CatalogQueriesHint;
+import de.akquinet.jbosscc.guttenbase.repository.CatalogQueries;
+import de.akquinet.jbosscc.guttenbase.repository.impl.InformationSchemaCatalogQueries;
+
+/**
+ * By default, the INFORMATION_SCHEMA views are used where known, i.e. for HSQLDB and H2.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultCatalogQueriesHint extends CatalogQueriesHint {
+  @Override
+  public CatalogQueries getValue() {
+    return new InformationSchemaCatalogQueries();
+  }
+}
@@ -0,0 +1,20 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.ChangeColumnHint;
+import de.akquinet.jbosscc.guttenbase.tools.ChangeColumn;
+
+/**
+ * By default, tables have no change column, i.e. all rows are copied.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultChangeColumnHint extends ChangeColumnHint {
+  @Override
+  public ChangeColumn getValue() {
+    return sourceTableMetaData -> null;
+  }
+}
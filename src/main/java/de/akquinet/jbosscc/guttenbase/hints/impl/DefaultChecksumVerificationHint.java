@@ -0,0 +1,34 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.ChecksumVerificationHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.tools.ChecksumVerification;
+
+/**
+ * By default, use up to four threads and ranges of 100000 values.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultChecksumVerificationHint extends ChecksumVerificationHint {
+  public static final int MAX_NUMBER_OF_THREADS = 4;
+  public static final long RANGE_SIZE = 100000;
+
+  @Override
+  public ChecksumVerification getValue() {
+    return new ChecksumVerification() {
+      @Override
+      public int getNumberOfThreads() {
+        return Math.min(MAX_NUMBER_OF_THREADS, Runtime.getRuntime().availableProcessors());
+      }
+
+      @Override
+      public long getRangeSize(final TableMetaData sourceTableMetaData) {
+        return RANGE_SIZE;
+      }
+    };
+  }
+}
@@ -0,0 +1,66 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.CopyCheckpointJournalHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.tools.CopyCheckpointJournal;
+
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * By default, no progress is recorded.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultCopyCheckpointJournalHint extends CopyCheckpointJournalHint {
+  @Override
+  public CopyCheckpointJournal getValue() {
+    return new CopyCheckpointJournal() {
+      @Override
+      public void clear(final Connection targetConnection) {
+      }
+
+      @Override
+      public boolean isTableCompleted(final Connection targetConnection, final TableMetaData sourceTableMetaData) {
+        return false;
+      }
+
+      @Override
+      public String getPosition(final Connection targetConnection, final TableMetaData sourceTableMetaData) {
+        return null;
+      }
+
+      @Override
+      public void positionCommitting(final Connection targetConnection, final TableMetaData sourceTableMetaData,
+                                     final String position) {
+      }
+
+      @Override
+      public void positionCommitted(final TableMetaData sourceTableMetaData, final String position) {
+      }
+
+      @Override
+      public Collection<String> getCommittedRanges(final Connection targetConnection, final TableMetaData sourceTableMetaData) {
+        return Collections.emptyList();
+      }
+
+      @Override
+      public void rangeCommitting(final Connection targetConnection, final TableMetaData sourceTableMetaData,
+                                  final String range) {
+      }
+
+      @Override
+      public void rangeCommitted(final TableMetaData sourceTableMetaData, final String range) {
+      }
+
+      @Override
+      public void tableCompleted(final Connection targetConnection, final TableMetaData sourceTableMetaData) {
+      }
+    };
+  }
+}
@@ -0,0 +1,40 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.CopyChecksumsHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.tools.CopyChecksums;
+import de.akquinet.jbosscc.guttenbase.tools.RangeChecksum;
+
+/**
+ * By default, no checksums are computed while copying.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultCopyChecksumsHint extends CopyChecksumsHint {
+  @Override
+  public CopyChecksums getValue() {
+    return new CopyChecksums() {
+      @Override
+      public boolean isComputingChecksums() {
+        return false;
+      }
+
+      @Override
+      public void tableCopyStarted(final TableMetaData targetTableMetaData) {
+      }
+
+      @Override
+      public void batchCopied(final TableMetaData targetTableMetaData, final RangeChecksum checksum) {
+      }
+
+      @Override
+      public RangeChecksum getChecksum(final TableMetaData targetTableMetaData) {
+        return null;
+      }
+    };
+  }
+}
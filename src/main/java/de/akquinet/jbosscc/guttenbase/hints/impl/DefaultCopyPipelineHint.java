@@ -0,0 +1,20 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.CopyPipelineHint;
+import de.akquinet.jbosscc.guttenbase.tools.CopyPipeline;
+
+/**
+ * By default, reading and writing alternate in a single thread.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultCopyPipelineHint extends CopyPipelineHint {
+  @Override
+  public CopyPipeline getValue() {
+    return targetTableMetaData -> 0;
+  }
+}
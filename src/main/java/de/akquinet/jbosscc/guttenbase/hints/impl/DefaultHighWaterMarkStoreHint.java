@@ -0,0 +1,23 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.HighWaterMarkStoreHint;
+import de.akquinet.jbosscc.guttenbase.tools.HighWaterMarkStore;
+import de.akquinet.jbosscc.guttenbase.tools.TableHighWaterMarkStore;
+
+/**
+ * By default, marks are stored in the table {@link TableHighWaterMarkStore#DEFAULT_TABLE_NAME} of the target data base.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultHighWaterMarkStoreHint extends HighWaterMarkStoreHint {
+  private final HighWaterMarkStore _highWaterMarkStore = new TableHighWaterMarkStore();
+
+  @Override
+  public HighWaterMarkStore getValue() {
+    return _highWaterMarkStore;
+  }
+}
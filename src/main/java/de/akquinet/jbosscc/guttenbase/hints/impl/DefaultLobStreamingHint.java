@@ -0,0 +1,37 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.LobStreamingHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.tools.LobBufferPool;
+import de.akquinet.jbosscc.guttenbase.tools.LobStreaming;
+
+/**
+ * By default, LOBs are passed to the driver as they are.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultLobStreamingHint extends LobStreamingHint {
+  @Override
+  public LobStreaming getValue() {
+    return new LobStreaming() {
+      @Override
+      public boolean isStreamingLobs(final TableMetaData targetTableMetaData) {
+        return false;
+      }
+
+      @Override
+      public int getMaxNumberOfOpenLobs(final TableMetaData targetTableMetaData) {
+        return Integer.MAX_VALUE;
+      }
+
+      @Override
+      public LobBufferPool getBufferPool() {
+        return null;
+      }
+    };
+  }
+}
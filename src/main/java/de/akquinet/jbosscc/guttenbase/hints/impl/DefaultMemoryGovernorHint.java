@@ -0,0 +1,40 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.MemoryGovernorHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.tools.MemoryGovernor;
+
+/**
+ * By default, the configured number of rows per batch and fetch size are used as they are.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultMemoryGovernorHint extends MemoryGovernorHint {
+  @Override
+  public MemoryGovernor getValue() {
+    return new MemoryGovernor() {
+      @Override
+      public int getNumberOfRowsPerBatch(final TableMetaData targetTableMetaData, final int numberOfRowsPerBatch) {
+        return numberOfRowsPerBatch;
+      }
+
+      @Override
+      public int getFetchSize(final TableMetaData sourceTableMetaData, final int fetchSize) {
+        return fetchSize;
+      }
+
+      @Override
+      public boolean isObservingValues() {
+        return false;
+      }
+
+      @Override
+      public void valuesObserved(final TableMetaData targetTableMetaData, final long numberOfBytes, final int numberOfRows) {
+      }
+    };
+  }
+}
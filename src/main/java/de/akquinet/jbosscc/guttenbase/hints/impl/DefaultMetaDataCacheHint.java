@@ -0,0 +1,20 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.MetaDataCacheHint;
+import de.akquinet.jbosscc.guttenbase.repository.MetaDataCache;
+
+/**
+ * By default, meta data is not cached on disk.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultMetaDataCacheHint extends MetaDataCacheHint {
+  @Override
+  public MetaDataCache getValue() {
+    return connectorId -> null;
+  }
+}
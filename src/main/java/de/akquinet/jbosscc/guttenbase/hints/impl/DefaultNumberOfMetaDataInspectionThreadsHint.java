@@ -0,0 +1,20 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfMetaDataInspectionThreadsHint;
+import de.akquinet.jbosscc.guttenbase.repository.NumberOfMetaDataInspectionThreads;
+
+/**
+ * By default tables are inspected sequentially, i.e. using a single connection.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultNumberOfMetaDataInspectionThreadsHint extends NumberOfMetaDataInspectionThreadsHint {
+  @Override
+  public NumberOfMetaDataInspectionThreads getValue() {
+    return () -> 1;
+  }
+}
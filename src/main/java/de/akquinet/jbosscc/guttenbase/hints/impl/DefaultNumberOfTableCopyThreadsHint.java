@@ -0,0 +1,20 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfTableCopyThreadsHint;
+import de.akquinet.jbosscc.guttenbase.tools.NumberOfTableCopyThreads;
+
+/**
+ * By default tables are copied sequentially, i.e. using a single thread.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultNumberOfTableCopyThreadsHint extends NumberOfTableCopyThreadsHint {
+  @Override
+  public NumberOfTableCopyThreads getValue() {
+    return () -> 1;
+  }
+}
@@ -0,0 +1,31 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.ParallelRangeCopyHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.tools.ParallelRangeCopy;
+
+/**
+ * By default, ranges are copied sequentially.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultParallelRangeCopyHint extends ParallelRangeCopyHint {
+  @Override
+  public ParallelRangeCopy getValue() {
+    return new ParallelRangeCopy() {
+      @Override
+      public int getNumberOfThreads(final TableMetaData targetTableMetaData) {
+        return 1;
+      }
+
+      @Override
+      public boolean isOrderedCommits(final TableMetaData targetTableMetaData) {
+        return true;
+      }
+    };
+  }
+}
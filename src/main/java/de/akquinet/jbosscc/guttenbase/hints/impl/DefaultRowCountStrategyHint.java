@@ -0,0 +1,20 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.RowCountStrategyHint;
+import de.akquinet.jbosscc.guttenbase.repository.RowCountStrategy;
+
+/**
+ * By default, the rows of all tables are counted when reading the meta data.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultRowCountStrategyHint extends RowCountStrategyHint {
+  @Override
+  public RowCountStrategy getValue() {
+    return RowCountStrategy.EXACT;
+  }
+}
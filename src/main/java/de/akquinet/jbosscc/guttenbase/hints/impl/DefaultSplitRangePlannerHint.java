@@ -0,0 +1,21 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.SplitRangePlannerHint;
+import de.akquinet.jbosscc.guttenbase.tools.FixedStepSplitRangePlanner;
+import de.akquinet.jbosscc.guttenbase.tools.SplitRangePlanner;
+
+/**
+ * By default, use ranges of equal width between MIN and MAX of the split column.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DefaultSplitRangePlannerHint extends SplitRangePlannerHint {
+  @Override
+  public SplitRangePlanner getValue() {
+    return new FixedStepSplitRangePlanner();
+  }
+}
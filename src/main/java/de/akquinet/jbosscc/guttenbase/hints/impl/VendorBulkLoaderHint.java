@@ -0,0 +1,22 @@
+package de.akquinet.jbosscc.guttenbase.hints.impl;
+
+import de.akquinet.jbosscc.guttenbase.hints.BulkLoaderHint;
+import de.akquinet.jbosscc.guttenbase.tools.BulkLoader;
+import de.akquinet.jbosscc.guttenbase.tools.bulkload.VendorBulkLoader;
+
+/**
+ * Use the bulk import facility of the target data base, if there is an implementation for its type, see
+ * {@link VendorBulkLoader}.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class VendorBulkLoaderHint extends BulkLoaderHint {
+  @Override
+  public BulkLoader getValue() {
+    return new VendorBulkLoader();
+  }
+}
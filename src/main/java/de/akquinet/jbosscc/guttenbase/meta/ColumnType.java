@@ -215,6 +215,151 @@ public enum ColumnType
     return result;
   }
 
+  /**
+   * @return true if values of this type may be transferred with
+   * {@link #copyValue(ResultSet, int, PreparedStatement, int, int)}, i.e. without creating intermediate objects
+   */
+  public boolean isDirectCopySupported()
+  {
+    switch (this)
+    {
+      case CLASS_INTEGER:
+      case CLASS_LONG:
+      case CLASS_DOUBLE:
+      case CLASS_FLOAT:
+      case CLASS_SHORT:
+      case CLASS_BOOLEAN:
+      case CLASS_TIMESTAMP:
+      case CLASS_DATE:
+      case CLASS_TIME:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Transfer value from {@link ResultSet} to {@link PreparedStatement} using the primitive getters and setters. Only applicable
+   * if the value is not mapped in between and source and target column have the same type.
+   */
+  public void copyValue(final ResultSet resultSet, final int columnIndex, final PreparedStatement insertStatement,
+                        final int targetColumnIndex, final int sqlType) throws SQLException
+  {
+    switch (this)
+    {
+      case CLASS_INTEGER:
+        final int intValue = resultSet.getInt(columnIndex);
+
+        if (resultSet.wasNull())
+        {
+          insertStatement.setNull(targetColumnIndex, sqlType);
+        }
+        else
+        {
+          insertStatement.setInt(targetColumnIndex, intValue);
+        }
+        break;
+      case CLASS_LONG:
+        final long longValue = resultSet.getLong(columnIndex);
+
+        if (resultSet.wasNull())
+        {
+          insertStatement.setNull(targetColumnIndex, sqlType);
+        }
+        else
+        {
+          insertStatement.setLong(targetColumnIndex, longValue);
+        }
+        break;
+      case CLASS_DOUBLE:
+        final double doubleValue = resultSet.getDouble(columnIndex);
+
+        if (resultSet.wasNull())
+        {
+          insertStatement.setNull(targetColumnIndex, sqlType);
+        }
+        else
+        {
+          insertStatement.setDouble(targetColumnIndex, doubleValue);
+        }
+        break;
+      case CLASS_FLOAT:
+        final float floatValue = resultSet.getFloat(columnIndex);
+
+        if (resultSet.wasNull())
+        {
+          insertStatement.setNull(targetColumnIndex, sqlType);
+        }
+        else
+        {
+          insertStatement.setFloat(targetColumnIndex, floatValue);
+        }
+        break;
+      case CLASS_SHORT:
+        final short shortValue = resultSet.getShort(columnIndex);
+
+        if (resultSet.wasNull())
+        {
+          insertStatement.setNull(targetColumnIndex, sqlType);
+        }
+        else
+        {
+          insertStatement.setShort(targetColumnIndex, shortValue);
+        }
+        break;
+      case CLASS_BOOLEAN:
+        final boolean booleanValue = resultSet.getBoolean(columnIndex);
+
+        if (resultSet.wasNull())
+        {
+          insertStatement.setNull(targetColumnIndex, sqlType);
+        }
+        else
+        {
+          insertStatement.setBoolean(targetColumnIndex, booleanValue);
+        }
+        break;
+      case CLASS_TIMESTAMP:
+        final Timestamp timestamp = resultSet.getTimestamp(columnIndex);
+
+        if (timestamp == null)
+        {
+          insertStatement.setNull(targetColumnIndex, sqlType);
+        }
+        else
+        {
+          insertStatement.setTimestamp(targetColumnIndex, timestamp);
+        }
+        break;
+      case CLASS_DATE:
+        final Date date = resultSet.getDate(columnIndex);
+
+        if (date == null)
+        {
+          insertStatement.setNull(targetColumnIndex, sqlType);
+        }
+        else
+        {
+          insertStatement.setDate(targetColumnIndex, date);
+        }
+        break;
+      case CLASS_TIME:
+        final Time time = resultSet.getTime(columnIndex);
+
+        if (time == null)
+        {
+          insertStatement.setNull(targetColumnIndex, sqlType);
+        }
+        else
+        {
+          insertStatement.setTime(targetColumnIndex, time);
+        }
+        break;
+      default:
+        throw new UnhandledColumnTypeException("Direct copy not supported for column type (" + this + ")");
+    }
+  }
+
   private boolean driverSupportsStream(final DatabaseType databaseType)
   {
     return !(DatabaseType.POSTGRESQL.equals(databaseType) || DatabaseType.DB2.equals(databaseType) || DatabaseType.MSSQL.equals(databaseType));
@@ -1,5 +1,8 @@
 package de.akquinet.jbosscc.guttenbase.meta;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+
 /**
  * Extension for internal access.
  * <p>
@@ -14,6 +17,19 @@ public interface InternalTableMetaData extends TableMetaData
 
   void setFilteredRowCount(final int rowCount);
 
+  /**
+   * Row counts that are negative, i.e. not yet known, will be computed by the given counter when accessed
+   */
+  void setRowCounter(RowCounter rowCounter);
+
+  RowCounter getRowCounter();
+
+  /**
+   * Like {@link #getFilteredRowCount()}, but rows not yet counted are counted using the given connection of the table's
+   * connector, instead of letting the row counter open another one
+   */
+  int getFilteredRowCount(Connection connection) throws SQLException;
+
   void addColumn(final ColumnMetaData column);
 
   void removeColumn(ColumnMetaData columnMetaData);
@@ -23,4 +39,8 @@ public interface InternalTableMetaData extends TableMetaData
   void addImportedForeignKey(ForeignKeyMetaData fkMetaData);
 
   void addExportedForeignKey(ForeignKeyMetaData fkMetaData);
+
+  void removeImportedForeignKey(ForeignKeyMetaData fkMetaData);
+
+  void removeExportedForeignKey(ForeignKeyMetaData fkMetaData);
 }
@@ -0,0 +1,24 @@
+package de.akquinet.jbosscc.guttenbase.meta;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Compute the row counts of a table on demand, i.e. when they are first accessed via
+ * {@link TableMetaData#getTotalRowCount()} or {@link TableMetaData#getFilteredRowCount()}.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface RowCounter {
+  int countTotalRows(TableMetaData tableMetaData);
+
+  int countFilteredRows(TableMetaData tableMetaData);
+
+  /**
+   * Count the filtered rows using a connection of the table's connector, which has been initialized by the caller
+   */
+  int countFilteredRows(TableMetaData tableMetaData, Connection connection) throws SQLException;
+}
@@ -13,8 +13,16 @@ import java.util.List;
  */
 public interface TableMetaData extends Comparable<TableMetaData>, Serializable
 {
+  /**
+   * @return number of rows matching the {@link de.akquinet.jbosscc.guttenbase.tools.SelectWhereClause}, computed on first access
+   * depending on the {@link de.akquinet.jbosscc.guttenbase.repository.RowCountStrategy}
+   */
   int getFilteredRowCount();
 
+  /**
+   * @return number of rows of the table, computed on first access or estimated depending on the
+   * {@link de.akquinet.jbosscc.guttenbase.repository.RowCountStrategy}
+   */
   int getTotalRowCount();
 
   List<ColumnMetaData> getColumnMetaData();
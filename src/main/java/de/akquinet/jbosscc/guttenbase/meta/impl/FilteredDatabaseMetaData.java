@@ -0,0 +1,98 @@
+package de.akquinet.jbosscc.guttenbase.meta.impl;
+
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.InternalDatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * View on the meta data of a data base containing a subset of its tables. Schema, type and properties are taken from the
+ * original data base meta data. Adding or removing tables only affects the view.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class FilteredDatabaseMetaData implements InternalDatabaseMetaData {
+  private static final long serialVersionUID = 1L;
+
+  private final DatabaseMetaData _databaseMetaData;
+  private final Map<String, TableMetaData> _tableMetaDataMap = new LinkedHashMap<>();
+
+  public FilteredDatabaseMetaData(final DatabaseMetaData databaseMetaData) {
+    assert databaseMetaData != null : "databaseMetaData != null";
+
+    _databaseMetaData = databaseMetaData;
+  }
+
+  /**
+   * @return underlying (unfiltered) meta data
+   */
+  public DatabaseMetaData getOriginalDatabaseMetaData() {
+    return _databaseMetaData;
+  }
+
+  @Override
+  public java.sql.DatabaseMetaData getDatabaseMetaData() {
+    return _databaseMetaData.getDatabaseMetaData();
+  }
+
+  @Override
+  public DatabaseType getDatabaseType() {
+    return _databaseMetaData.getDatabaseType();
+  }
+
+  @Override
+  public String getSchema() {
+    return _databaseMetaData.getSchema();
+  }
+
+  @Override
+  public String getSchemaPrefix() {
+    return _databaseMetaData.getSchemaPrefix();
+  }
+
+  @Override
+  public List<TableMetaData> getTableMetaData() {
+    return new ArrayList<>(_tableMetaDataMap.values());
+  }
+
+  @Override
+  public TableMetaData getTableMetaData(final String tableName) {
+    assert tableName != null : "tableName != null";
+    return _tableMetaDataMap.get(tableName.toUpperCase());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void addTableMetaData(final TableMetaData tableMetaData) {
+    _tableMetaDataMap.put(tableMetaData.getTableName().toUpperCase(), tableMetaData);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void removeTableMetaData(final TableMetaData tableMetaData) {
+    _tableMetaDataMap.remove(tableMetaData.getTableName().toUpperCase());
+  }
+
+  @Override
+  public int hashCode() {
+    return getDatabaseType().hashCode() + getSchema().toUpperCase().hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    final DatabaseMetaData that = (DatabaseMetaData) obj;
+
+    return this.getDatabaseType().equals(that.getDatabaseType()) && this.getSchema().equalsIgnoreCase(that.getSchema());
+  }
+}
@@ -0,0 +1,206 @@
+package de.akquinet.jbosscc.guttenbase.meta.impl;
+
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.ForeignKeyMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.IndexMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.InternalTableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.RowCounter;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * View on the meta data of a table containing a subset of its columns. Row counts, indexes and foreign keys are taken from the
+ * original table, i.e. row counts computed lazily are shared with the original. Adding or removing columns only affects the view,
+ * indexes and foreign keys cannot be modified.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class FilteredTableMetaData implements InternalTableMetaData {
+  private static final long serialVersionUID = 1L;
+
+  private final InternalTableMetaData _tableMetaData;
+  private final DatabaseMetaData _databaseMetaData;
+  private final Map<String, ColumnMetaData> _columns = new LinkedHashMap<>();
+
+  /**
+   * @param databaseMetaData the (filtered) data base the view belongs to
+   */
+  public FilteredTableMetaData(final InternalTableMetaData tableMetaData, final DatabaseMetaData databaseMetaData) {
+    assert tableMetaData != null : "tableMetaData != null";
+    assert databaseMetaData != null : "databaseMetaData != null";
+
+    _tableMetaData = tableMetaData;
+    _databaseMetaData = databaseMetaData;
+  }
+
+  /**
+   * @return underlying (unfiltered) meta data
+   */
+  public TableMetaData getOriginalTableMetaData() {
+    return _tableMetaData;
+  }
+
+  @Override
+  public int getFilteredRowCount() {
+    return _tableMetaData.getFilteredRowCount();
+  }
+
+  @Override
+  public int getFilteredRowCount(final Connection connection) throws SQLException {
+    return _tableMetaData.getFilteredRowCount(connection);
+  }
+
+  @Override
+  public void setFilteredRowCount(final int filteredRowCount) {
+    _tableMetaData.setFilteredRowCount(filteredRowCount);
+  }
+
+  @Override
+  public int getTotalRowCount() {
+    return _tableMetaData.getTotalRowCount();
+  }
+
+  @Override
+  public void setTotalRowCount(final int rowCount) {
+    _tableMetaData.setTotalRowCount(rowCount);
+  }
+
+  @Override
+  public void setRowCounter(final RowCounter rowCounter) {
+    _tableMetaData.setRowCounter(rowCounter);
+  }
+
+  @Override
+  public RowCounter getRowCounter() {
+    return _tableMetaData.getRowCounter();
+  }
+
+  @Override
+  public List<ColumnMetaData> getColumnMetaData() {
+    return new ArrayList<>(_columns.values());
+  }
+
+  @Override
+  public ColumnMetaData getColumnMetaData(final String columnName) {
+    return _columns.get(columnName.toUpperCase());
+  }
+
+  @Override
+  public void addColumn(final ColumnMetaData columnMetaData) {
+    assert columnMetaData != null : "columnMetaData != null";
+    _columns.put(columnMetaData.getColumnName().toUpperCase(), columnMetaData);
+  }
+
+  @Override
+  public void removeColumn(final ColumnMetaData columnMetaData) {
+    assert columnMetaData != null : "columnMetaData != null";
+    _columns.remove(columnMetaData.getColumnName().toUpperCase());
+  }
+
+  @Override
+  public int getColumnCount() {
+    return _columns.size();
+  }
+
+  @Override
+  public IndexMetaData getIndexMetaData(final String indexName) {
+    return _tableMetaData.getIndexMetaData(indexName);
+  }
+
+  @Override
+  public List<IndexMetaData> getIndexes() {
+    return _tableMetaData.getIndexes();
+  }
+
+  @Override
+  public void addIndex(final IndexMetaData indexMetaData) {
+    throw new UnsupportedOperationException("Cannot add index to view on " + this);
+  }
+
+  @Override
+  public List<ForeignKeyMetaData> getExportedForeignKeys() {
+    return _tableMetaData.getExportedForeignKeys();
+  }
+
+  @Override
+  public void addExportedForeignKey(final ForeignKeyMetaData fkMetaData) {
+    throw new UnsupportedOperationException("Cannot add foreign key to view on " + this);
+  }
+
+  @Override
+  public void removeExportedForeignKey(final ForeignKeyMetaData fkMetaData) {
+    throw new UnsupportedOperationException("Cannot remove foreign key from view on " + this);
+  }
+
+  @Override
+  public List<ForeignKeyMetaData> getImportedForeignKeys() {
+    return _tableMetaData.getImportedForeignKeys();
+  }
+
+  @Override
+  public void addImportedForeignKey(final ForeignKeyMetaData fkMetaData) {
+    throw new UnsupportedOperationException("Cannot add foreign key to view on " + this);
+  }
+
+  @Override
+  public void removeImportedForeignKey(final ForeignKeyMetaData fkMetaData) {
+    throw new UnsupportedOperationException("Cannot remove foreign key from view on " + this);
+  }
+
+  @Override
+  public List<ColumnMetaData> getPrimaryKeyColumns() {
+    return getColumnMetaData().stream().filter(ColumnMetaData::isPrimaryKey).collect(Collectors.toList());
+  }
+
+  @Override
+  public List<IndexMetaData> getIndexesContainingColumn(final ColumnMetaData columnMetaData) {
+    return _tableMetaData.getIndexesContainingColumn(columnMetaData);
+  }
+
+  @Override
+  public String getTableName() {
+    return _tableMetaData.getTableName();
+  }
+
+  @Override
+  public String getTableType() {
+    return _tableMetaData.getTableType();
+  }
+
+  @Override
+  public DatabaseMetaData getDatabaseMetaData() {
+    return _databaseMetaData;
+  }
+
+  @Override
+  public int compareTo(final TableMetaData that) {
+    return this.getTableName().toUpperCase().compareTo(that.getTableName().toUpperCase());
+  }
+
+  @Override
+  public String toString() {
+    return getTableName();
+  }
+
+  @Override
+  public int hashCode() {
+    return getTableName().toUpperCase().hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    final TableMetaData that = (TableMetaData) obj;
+
+    return this.getTableName().equalsIgnoreCase(that.getTableName());
+  }
+}
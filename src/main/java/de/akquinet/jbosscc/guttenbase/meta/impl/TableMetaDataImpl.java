@@ -5,7 +5,10 @@ import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.ForeignKeyMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.IndexMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.InternalTableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.RowCounter;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -26,8 +29,9 @@ public class TableMetaDataImpl implements InternalTableMetaData
 
   private final String _tableName;
   private final String _tableType;
-  private int _totalRowCount;
-  private int _filteredRowCount;
+  private volatile int _totalRowCount;
+  private volatile int _filteredRowCount;
+  private transient RowCounter _rowCounter;
   private final Map<String, ColumnMetaData> _columns = new LinkedHashMap<>();
   private final Map<String, IndexMetaData> _indexes = new LinkedHashMap<>();
   private final Map<String, ForeignKeyMetaData> _importedForeignKeys = new LinkedHashMap<>();
@@ -50,6 +54,30 @@ public class TableMetaDataImpl implements InternalTableMetaData
    */
   @Override
   public int getFilteredRowCount() {
+    if (_filteredRowCount < 0 && _rowCounter != null) {
+      synchronized (this) {
+        if (_filteredRowCount < 0) {
+          _filteredRowCount = _rowCounter.countFilteredRows(this);
+        }
+      }
+    }
+
+    return _filteredRowCount;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getFilteredRowCount(final Connection connection) throws SQLException {
+    if (_filteredRowCount < 0 && _rowCounter != null) {
+      synchronized (this) {
+        if (_filteredRowCount < 0) {
+          _filteredRowCount = _rowCounter.countFilteredRows(this, connection);
+        }
+      }
+    }
+
     return _filteredRowCount;
   }
 
@@ -67,6 +95,14 @@ public class TableMetaDataImpl implements InternalTableMetaData
   @Override
   public int getTotalRowCount()
   {
+    if (_totalRowCount < 0 && _rowCounter != null) {
+      synchronized (this) {
+        if (_totalRowCount < 0) {
+          _totalRowCount = _rowCounter.countTotalRows(this);
+        }
+      }
+    }
+
     return _totalRowCount;
   }
 
@@ -79,6 +115,22 @@ public class TableMetaDataImpl implements InternalTableMetaData
     _totalRowCount = rowCount;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void setRowCounter(final RowCounter rowCounter) {
+    _rowCounter = rowCounter;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public RowCounter getRowCounter() {
+    return _rowCounter;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -157,6 +209,12 @@ public class TableMetaDataImpl implements InternalTableMetaData
     _exportedForeignKeys.put(fkMetaData.getForeignKeyName().toUpperCase(), fkMetaData);
   }
 
+  @Override
+  public void removeExportedForeignKey(final ForeignKeyMetaData fkMetaData)
+  {
+    _exportedForeignKeys.remove(fkMetaData.getForeignKeyName().toUpperCase());
+  }
+
   @Override
   public List<ForeignKeyMetaData> getImportedForeignKeys()
   {
@@ -169,6 +227,12 @@ public class TableMetaDataImpl implements InternalTableMetaData
     _importedForeignKeys.put(fkMetaData.getForeignKeyName().toUpperCase(), fkMetaData);
   }
 
+  @Override
+  public void removeImportedForeignKey(final ForeignKeyMetaData fkMetaData)
+  {
+    _importedForeignKeys.remove(fkMetaData.getForeignKeyName().toUpperCase());
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -0,0 +1,40 @@
+package de.akquinet.jbosscc.guttenbase.repository;
+
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.repository.impl.DatabaseMetaDataInspectorTool;
+
+/**
+ * SQL queries used by {@link DatabaseMetaDataInspectorTool} to read primary keys, indexes and foreign keys of all tables of a
+ * schema at once, instead of calling the JDBC meta data methods for each table.
+ * <br>
+ * Each query has the schema name as its only parameter. The result set must contain the columns of the corresponding JDBC method
+ * plus the name of the table, i.e.
+ * <ul>
+ * <li>TABLE_NAME, COLUMN_NAME and PK_NAME, like {@link java.sql.DatabaseMetaData#getPrimaryKeys(String, String, String)}</li>
+ * <li>TABLE_NAME, NON_UNIQUE, INDEX_NAME, COLUMN_NAME and ASC_OR_DESC, ordered by the position of the column within the index,
+ * like {@link java.sql.DatabaseMetaData#getIndexInfo(String, String, String, boolean, boolean)}</li>
+ * <li>PKTABLE_NAME, PKCOLUMN_NAME, FKTABLE_NAME, FKCOLUMN_NAME and FK_NAME, like
+ * {@link java.sql.DatabaseMetaData#getExportedKeys(String, String, String)}</li>
+ * </ul>
+ * If any of these queries is null, the information is read per table.
+ * <br>
+ * The query for estimated row counts must return TABLE_NAME and ROW_COUNT and is used with {@link RowCountStrategy#ESTIMATED}.
+ * The query for the time of the last DDL statement must return LAST_DDL_TIME and is used to detect changes of cached meta data,
+ * see {@link MetaDataCache}.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface CatalogQueries {
+  String getPrimaryKeysQuery(DatabaseType databaseType);
+
+  String getIndexInfoQuery(DatabaseType databaseType);
+
+  String getExportedKeysQuery(DatabaseType databaseType);
+
+  String getRowCountEstimatesQuery(DatabaseType databaseType);
+
+  String getLastDdlTimeQuery(DatabaseType databaseType);
+}
@@ -2,6 +2,7 @@ package de.akquinet.jbosscc.guttenbase.repository;
 
 import java.io.Serializable;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 
 import de.akquinet.jbosscc.guttenbase.configuration.SourceDatabaseConfiguration;
@@ -39,7 +40,8 @@ public interface ConnectorRepository extends Serializable {
 	ConnectorInfo getConnectionInfo(final String connectorId);
 
 	/**
-	 * Get all meta data from data base.
+	 * Get all meta data from data base, filtered by the {@link de.akquinet.jbosscc.guttenbase.hints.RepositoryTableFilterHint} and
+	 * {@link de.akquinet.jbosscc.guttenbase.hints.RepositoryColumnFilterHint}. The result is shared between callers and must not be modified.
 	 */
 	DatabaseMetaData getDatabaseMetaData(final String connectorId) throws SQLException;
 
@@ -48,6 +50,12 @@ public interface ConnectorRepository extends Serializable {
 	 */
 	void refreshDatabaseMetaData(final String connectorId);
 
+	/**
+	 * Reset data of the given tables only, e.g. after they have been created, altered or dropped. Other tables are kept, the
+	 * given tables will be reread from the data base when the meta data is accessed next time.
+	 */
+	void refreshDatabaseMetaData(final String connectorId, final Collection<String> tableNames);
+
 	/**
 	 * Create connector
 	 */
@@ -0,0 +1,27 @@
+package de.akquinet.jbosscc.guttenbase.repository;
+
+import de.akquinet.jbosscc.guttenbase.repository.impl.DatabaseMetaDataInspectorTool;
+
+import java.io.File;
+
+/**
+ * Where shall {@link DatabaseMetaDataInspectorTool} store the meta data of a connector, so it can be reused by later runs?
+ * <br>
+ * The cached meta data is used as long as a fingerprint of the schema is unchanged. The fingerprint is computed from the
+ * connection, the parameters of the {@link DatabaseTableFilter}, the tables and columns of the schema, and the time of the
+ * last DDL statement where the data base provides it, see {@link CatalogQueries}. Thus changes of filter implementations or of
+ * indexes and foreign keys may not be detected, delete the file in that case.
+ * <br>
+ * Row counts of cached meta data are always computed when needed, see {@link RowCountStrategy#LAZY}.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface MetaDataCache {
+  /**
+   * @return file containing the cached meta data of the given connector, or null if the meta data shall not be cached
+   */
+  File getCacheFile(String connectorId);
+}
@@ -0,0 +1,16 @@
+package de.akquinet.jbosscc.guttenbase.repository;
+
+import de.akquinet.jbosscc.guttenbase.repository.impl.DatabaseMetaDataInspectorTool;
+
+/**
+ * How many tables shall be inspected concurrently by {@link DatabaseMetaDataInspectorTool}? Each thread uses its own connection.
+ * The default value of 1 inspects all tables sequentially using a single connection.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface NumberOfMetaDataInspectionThreads {
+  int getNumberOfMetaDataInspectionThreads();
+}
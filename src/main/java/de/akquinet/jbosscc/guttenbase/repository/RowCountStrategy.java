@@ -0,0 +1,31 @@
+package de.akquinet.jbosscc.guttenbase.repository;
+
+import de.akquinet.jbosscc.guttenbase.repository.impl.DatabaseMetaDataInspectorTool;
+
+/**
+ * How shall {@link DatabaseMetaDataInspectorTool} determine the number of rows of a table? Counting the rows of all tables with
+ * SELECT COUNT(*) may take a long time for large schemas.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public enum RowCountStrategy {
+  /**
+   * Count the rows of all tables when reading the meta data
+   */
+  EXACT,
+
+  /**
+   * Read the total number of rows from the statistics of the data base catalog, see {@link CatalogQueries}. The filtered number
+   * of rows, which is used e.g. to verify copied data, is counted when needed. Tables without statistics are counted when
+   * needed, too.
+   */
+  ESTIMATED,
+
+  /**
+   * Count the rows of a table when they are first accessed, e.g. by a tool showing the progress of copying
+   */
+  LAZY
+}
@@ -0,0 +1,117 @@
+package de.akquinet.jbosscc.guttenbase.repository.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rows of the JDBC catalog concerning a single table, read either per table or for a whole schema at once.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+final class CatalogRows {
+  static final CatalogRows EMPTY = new CatalogRows();
+
+  final List<PrimaryKeyColumn> _primaryKeyColumns = new ArrayList<>();
+  final List<IndexColumn> _indexColumns = new ArrayList<>();
+  final List<ExportedKey> _exportedKeys = new ArrayList<>();
+
+  /**
+   * Add rows as returned by {@link java.sql.DatabaseMetaData#getPrimaryKeys(String, String, String)} to the given tables
+   */
+  static void readPrimaryKeys(final ResultSet resultSet, final Map<String, CatalogRows> rowsByTable) throws SQLException {
+    while (resultSet.next()) {
+      final String pkName = resultSet.getString("PK_NAME");
+
+      if (pkName != null) {
+        getRows(rowsByTable, resultSet.getString("TABLE_NAME"))._primaryKeyColumns.add(
+            new PrimaryKeyColumn(resultSet.getString("COLUMN_NAME")));
+      }
+    }
+
+    resultSet.close();
+  }
+
+  /**
+   * Add rows as returned by {@link java.sql.DatabaseMetaData#getIndexInfo(String, String, String, boolean, boolean)} to the given
+   * tables
+   */
+  static void readIndexInfo(final ResultSet resultSet, final Map<String, CatalogRows> rowsByTable) throws SQLException {
+    while (resultSet.next()) {
+      final boolean nonUnique = resultSet.getBoolean("NON_UNIQUE");
+      final String indexName = resultSet.getString("INDEX_NAME");
+      final String columnName = resultSet.getString("COLUMN_NAME");
+      final String ascOrDesc = resultSet.getString("ASC_OR_DESC");
+
+      if (columnName != null) {
+        getRows(rowsByTable, resultSet.getString("TABLE_NAME"))._indexColumns.add(
+            new IndexColumn(indexName, columnName, ascOrDesc == null || "A".equals(ascOrDesc), !nonUnique));
+      }
+    }
+
+    resultSet.close();
+  }
+
+  /**
+   * Add rows as returned by {@link java.sql.DatabaseMetaData#getExportedKeys(String, String, String)} to the given (referenced)
+   * tables
+   */
+  static void readExportedKeys(final ResultSet resultSet, final Map<String, CatalogRows> rowsByTable) throws SQLException {
+    while (resultSet.next()) {
+      final String pkTableName = resultSet.getString("PKTABLE_NAME");
+
+      getRows(rowsByTable, pkTableName)._exportedKeys.add(new ExportedKey(pkTableName, resultSet.getString("PKCOLUMN_NAME"),
+          resultSet.getString("FKTABLE_NAME"), resultSet.getString("FKCOLUMN_NAME"), resultSet.getString("FK_NAME")));
+    }
+
+    resultSet.close();
+  }
+
+  private static CatalogRows getRows(final Map<String, CatalogRows> rowsByTable, final String tableName) {
+    return rowsByTable.computeIfAbsent(tableName, key -> new CatalogRows());
+  }
+
+  static final class PrimaryKeyColumn {
+    final String _columnName;
+
+    private PrimaryKeyColumn(final String columnName) {
+      _columnName = columnName;
+    }
+  }
+
+  static final class IndexColumn {
+    final String _indexName;
+    final String _columnName;
+    final boolean _ascending;
+    final boolean _unique;
+
+    private IndexColumn(final String indexName, final String columnName, final boolean ascending, final boolean unique) {
+      _indexName = indexName;
+      _columnName = columnName;
+      _ascending = ascending;
+      _unique = unique;
+    }
+  }
+
+  static final class ExportedKey {
+    final String _pkTableName;
+    final String _pkColumnName;
+    final String _fkTableName;
+    final String _fkColumnName;
+    final String _fkName;
+
+    private ExportedKey(final String pkTableName, final String pkColumnName, final String fkTableName, final String fkColumnName,
+                        final String fkName) {
+      _pkTableName = pkTableName;
+      _pkColumnName = pkColumnName;
+      _fkTableName = fkTableName;
+      _fkColumnName = fkColumnName;
+      _fkName = fkName;
+    }
+  }
+}
@@ -13,22 +13,32 @@ import de.akquinet.jbosscc.guttenbase.hints.RepositoryTableFilterHint;
 import de.akquinet.jbosscc.guttenbase.hints.impl.*;
 import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
-import de.akquinet.jbosscc.guttenbase.meta.InternalDatabaseMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.InternalTableMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.impl.FilteredDatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.impl.FilteredTableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
 import de.akquinet.jbosscc.guttenbase.repository.RepositoryColumnFilter;
 import de.akquinet.jbosscc.guttenbase.repository.RepositoryTableFilter;
-import de.akquinet.jbosscc.guttenbase.utils.Util;
 import java.sql.SQLException;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * The main repository containing all configured connectors.
+ * <br>
+ * The repository may be shared by several threads. Hints and configurations are read without locking, hints of a connector are
+ * replaced by a new immutable map whenever a hint is added or removed. Meta data of a connector is loaded only once, even if
+ * requested by several threads at the same time.
  * <p>
  * &copy; 2012-2020 akquinet tech@spree
  * </p>
@@ -39,15 +49,19 @@ import java.util.TreeMap;
 public class ConnectorRepositoryImpl implements ConnectorRepository {
   private static final long serialVersionUID = 1L;
 
-  private final Map<String, ConnectorInfo> _connectionInfoMap = new TreeMap<>();
-  private final Map<DatabaseType, SourceDatabaseConfiguration> _sourceDatabaseConfigurationMap = new HashMap<>();
-  private final Map<DatabaseType, TargetDatabaseConfiguration> _targetDatabaseConfigurationMap = new HashMap<>();
+  private final Map<String, ConnectorInfo> _connectionInfoMap = new ConcurrentSkipListMap<>();
+  private final Map<DatabaseType, SourceDatabaseConfiguration> _sourceDatabaseConfigurationMap = new ConcurrentHashMap<>();
+  private final Map<DatabaseType, TargetDatabaseConfiguration> _targetDatabaseConfigurationMap = new ConcurrentHashMap<>();
 
   /**
    * Hash meta data since some data base are very slow on retrieving it.
    */
-  private final Map<String, DatabaseMetaData> _databaseMetaDataMap = new HashMap<>();
-  private final Map<String, Map<Class<?>, ConnectorHint<?>>> _connectionHintMap = new HashMap<>();
+  private final Map<String, ConnectorMetaData> _databaseMetaDataMap = new ConcurrentHashMap<>();
+
+  /**
+   * Immutable maps of hints per connector
+   */
+  private final Map<String, Map<Class<?>, ConnectorHint<?>>> _connectionHintMap = new ConcurrentHashMap<>();
 
   public ConnectorRepositoryImpl() {
     initDefaultConfiguration();
@@ -88,9 +102,14 @@ public class ConnectorRepositoryImpl implements ConnectorRepository {
     // Check connector if is configured
     getConnectionInfo(connectorId);
 
-    Map<Class<?>, ConnectorHint<?>> hintMap = _connectionHintMap.computeIfAbsent(connectorId, k -> new HashMap<>());
+    _connectionHintMap.compute(connectorId, (key, hintMap) -> {
+      final Map<Class<?>, ConnectorHint<?>> result = hintMap == null ? new HashMap<>() : new HashMap<>(hintMap);
+
+      result.put(hint.getConnectorHintType(), hint);
+      return Collections.unmodifiableMap(result);
+    });
 
-    hintMap.put(hint.getConnectorHintType(), hint);
+    filterHintChanged(connectorId, hint.getConnectorHintType());
   }
 
   /**
@@ -101,11 +120,14 @@ public class ConnectorRepositoryImpl implements ConnectorRepository {
     assert connectorId != null : "connectorId != null";
     assert connectionInfoHintType != null : "connectionInfoHintType != null";
 
-    final Map<Class<?>, ConnectorHint<?>> hintMap = _connectionHintMap.get(connectorId);
+    _connectionHintMap.computeIfPresent(connectorId, (key, hintMap) -> {
+      final Map<Class<?>, ConnectorHint<?>> result = new HashMap<>(hintMap);
 
-    if (hintMap != null) {
-      hintMap.remove(connectionInfoHintType);
-    }
+      result.remove(connectionInfoHintType);
+      return Collections.unmodifiableMap(result);
+    });
+
+    filterHintChanged(connectorId, connectionInfoHintType);
   }
 
   /**
@@ -149,15 +171,10 @@ public class ConnectorRepositoryImpl implements ConnectorRepository {
   public DatabaseMetaData getDatabaseMetaData(final String connectorId) throws SQLException {
     assert connectorId != null : "connectorId != null";
 
-    DatabaseMetaData databaseMetaData = _databaseMetaDataMap.get(connectorId);
-
-    if (databaseMetaData == null) {
-      final Connector connector = createConnector(connectorId);
-      databaseMetaData = connector.retrieveDatabaseMetaData();
-      _databaseMetaDataMap.put(connectorId, databaseMetaData);
-    }
+    // Check connector if is configured
+    getConnectionInfo(connectorId);
 
-    return createResultWithFilteredTables(connectorId, databaseMetaData);
+    return _databaseMetaDataMap.computeIfAbsent(connectorId, ConnectorMetaData::new).getDatabaseMetaData();
   }
 
   /**
@@ -167,7 +184,26 @@ public class ConnectorRepositoryImpl implements ConnectorRepository {
   public void refreshDatabaseMetaData(final String connectorId) {
     assert connectorId != null : "connectorId != null";
 
-    _databaseMetaDataMap.remove(connectorId);
+    final ConnectorMetaData connectorMetaData = _databaseMetaDataMap.get(connectorId);
+
+    if (connectorMetaData != null) {
+      connectorMetaData.refresh();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void refreshDatabaseMetaData(final String connectorId, final Collection<String> tableNames) {
+    assert connectorId != null : "connectorId != null";
+    assert tableNames != null : "tableNames != null";
+
+    final ConnectorMetaData connectorMetaData = _databaseMetaDataMap.get(connectorId);
+
+    if (connectorMetaData != null) {
+      connectorMetaData.refresh(tableNames);
+    }
   }
 
   /**
@@ -249,28 +285,104 @@ public class ConnectorRepositoryImpl implements ConnectorRepository {
     return new ArrayList<>(_connectionInfoMap.keySet());
   }
 
+  /**
+   * Build views on the original meta data containing only accepted tables and columns. Original table and column objects are
+   * shared, thus nothing is copied.
+   */
   private DatabaseMetaData createResultWithFilteredTables(final String connectorId, final DatabaseMetaData databaseMetaData)
     throws SQLException {
-    final InternalDatabaseMetaData resultDatabaseMetaData = Util.copyObject(InternalDatabaseMetaData.class,
-      (InternalDatabaseMetaData) databaseMetaData);
+    final FilteredDatabaseMetaData resultDatabaseMetaData = new FilteredDatabaseMetaData(databaseMetaData);
     final RepositoryTableFilter tableFilter = getConnectorHint(connectorId, RepositoryTableFilter.class).getValue();
     final RepositoryColumnFilter columnFilter = getConnectorHint(connectorId, RepositoryColumnFilter.class).getValue();
 
-    for (final TableMetaData tableMetaData : resultDatabaseMetaData.getTableMetaData()) {
+    for (final TableMetaData tableMetaData : databaseMetaData.getTableMetaData()) {
       if (tableFilter.accept(tableMetaData)) {
+        final FilteredTableMetaData resultTableMetaData = new FilteredTableMetaData((InternalTableMetaData) tableMetaData,
+          resultDatabaseMetaData);
+
         for (final ColumnMetaData columnMetaData : tableMetaData.getColumnMetaData()) {
-          if (!columnFilter.accept(columnMetaData)) {
-            ((InternalTableMetaData) tableMetaData).removeColumn(columnMetaData);
+          if (columnFilter.accept(columnMetaData)) {
+            resultTableMetaData.addColumn(columnMetaData);
           }
         }
-      } else {
-        resultDatabaseMetaData.removeTableMetaData(tableMetaData);
+
+        resultDatabaseMetaData.addTableMetaData(resultTableMetaData);
       }
     }
 
     return resultDatabaseMetaData;
   }
 
+  private void filterHintChanged(final String connectorId, final Class<?> connectorHintType) {
+    final ConnectorMetaData connectorMetaData = _databaseMetaDataMap.get(connectorId);
+
+    if (connectorMetaData != null
+      && (RepositoryTableFilter.class.equals(connectorHintType) || RepositoryColumnFilter.class.equals(connectorHintType))) {
+      connectorMetaData.filterChanged();
+    }
+  }
+
+  /**
+   * Meta data of a single connector, loaded by one thread while others wait for the result. Once loaded, the filtered meta data is
+   * returned without locking.
+   */
+  private final class ConnectorMetaData implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String _connectorId;
+    private final Set<String> _refreshedTableNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    private DatabaseMetaData _databaseMetaData;
+
+    /**
+     * Meta data filtered by the current repository filters, built once for every (re-)read meta data
+     */
+    private volatile DatabaseMetaData _filteredDatabaseMetaData;
+
+    private ConnectorMetaData(final String connectorId) {
+      _connectorId = connectorId;
+    }
+
+    private DatabaseMetaData getDatabaseMetaData() throws SQLException {
+      final DatabaseMetaData result = _filteredDatabaseMetaData;
+
+      return result != null ? result : loadDatabaseMetaData();
+    }
+
+    private synchronized DatabaseMetaData loadDatabaseMetaData() throws SQLException {
+      if (_filteredDatabaseMetaData == null) {
+        if (_databaseMetaData == null) {
+          _databaseMetaData = createConnector(_connectorId).retrieveDatabaseMetaData();
+        } else if (!_refreshedTableNames.isEmpty()) {
+          _databaseMetaData = createConnector(_connectorId).refreshDatabaseMetaData(_databaseMetaData,
+            new ArrayList<>(_refreshedTableNames));
+        }
+
+        _refreshedTableNames.clear();
+        _filteredDatabaseMetaData = createResultWithFilteredTables(_connectorId, _databaseMetaData);
+      }
+
+      return _filteredDatabaseMetaData;
+    }
+
+    private synchronized void refresh() {
+      _databaseMetaData = null;
+      _refreshedTableNames.clear();
+      _filteredDatabaseMetaData = null;
+    }
+
+    private synchronized void refresh(final Collection<String> tableNames) {
+      // Otherwise all tables will be read anyway
+      if (_databaseMetaData != null && !tableNames.isEmpty()) {
+        _refreshedTableNames.addAll(tableNames);
+        _filteredDatabaseMetaData = null;
+      }
+    }
+
+    private synchronized void filterChanged() {
+      _filteredDatabaseMetaData = null;
+    }
+  }
+
   private void initDefaultConfiguration() {
     addSourceDatabaseConfiguration(DatabaseType.GENERIC, new GenericSourceDatabaseConfiguration(this));
     addSourceDatabaseConfiguration(DatabaseType.MOCK, new GenericSourceDatabaseConfiguration(this));
@@ -328,5 +440,22 @@ public class ConnectorRepositoryImpl implements ConnectorRepository {
     addConnectorHint(connectorId, new DefaultRefreshTargetConnectionHint());
     addConnectorHint(connectorId, new DefaultColumnTypeMapperHint());
     addConnectorHint(connectorId, new DefaultSelectWhereClauseHint());
+    addConnectorHint(connectorId, new DefaultNumberOfTableCopyThreadsHint());
+    addConnectorHint(connectorId, new DefaultParallelRangeCopyHint());
+    addConnectorHint(connectorId, new DefaultCopyPipelineHint());
+    addConnectorHint(connectorId, new DefaultSplitRangePlannerHint());
+    addConnectorHint(connectorId, new DefaultCopyCheckpointJournalHint());
+    addConnectorHint(connectorId, new DefaultMemoryGovernorHint());
+    addConnectorHint(connectorId, new DefaultBatchExecutionListenerHint());
+    addConnectorHint(connectorId, new DefaultBulkLoaderHint());
+    addConnectorHint(connectorId, new DefaultChangeColumnHint());
+    addConnectorHint(connectorId, new DefaultHighWaterMarkStoreHint());
+    addConnectorHint(connectorId, new DefaultChecksumVerificationHint());
+    addConnectorHint(connectorId, new DefaultCopyChecksumsHint());
+    addConnectorHint(connectorId, new DefaultLobStreamingHint());
+    addConnectorHint(connectorId, new DefaultNumberOfMetaDataInspectionThreadsHint());
+    addConnectorHint(connectorId, new DefaultCatalogQueriesHint());
+    addConnectorHint(connectorId, new DefaultRowCountStrategyHint());
+    addConnectorHint(connectorId, new DefaultMetaDataCacheHint());
   }
 }
@@ -0,0 +1,306 @@
+package de.akquinet.jbosscc.guttenbase.repository.impl;
+
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.InternalTableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.RowCounter;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.impl.DatabaseMetaDataImpl;
+import de.akquinet.jbosscc.guttenbase.repository.CatalogQueries;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.repository.DatabaseTableFilter;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Load and store the meta data of a connector in a local file. The file starts with a fingerprint of the schema, the cached meta
+ * data is only used when the fingerprint is unchanged. The fingerprint covers tables, columns, primary keys, indexes and foreign
+ * keys. If the {@link CatalogQueries} support the data base, computing it takes only a few round trips, regardless of the number
+ * of tables. Otherwise keys and indexes are read per table.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+final class DatabaseMetaDataCache {
+  private static final Logger LOG = Logger.getLogger(DatabaseMetaDataCache.class);
+
+  /**
+   * Change when the serialized form of the meta data changes incompatibly
+   */
+  private static final String FORMAT_VERSION = "GuttenBase meta data cache 1";
+
+  private final ConnectorRepository _connectorRepository;
+  private final String _connectorId;
+  private final File _file;
+
+  DatabaseMetaDataCache(final ConnectorRepository connectorRepository, final String connectorId, final File file) {
+    assert connectorRepository != null : "connectorRepository != null";
+    assert connectorId != null : "connectorId != null";
+    assert file != null : "file != null";
+
+    _connectorRepository = connectorRepository;
+    _connectorId = connectorId;
+    _file = file;
+  }
+
+  /**
+   * @param databaseMetaData meta data without any tables yet, used to determine the parameters of the {@link DatabaseTableFilter}
+   */
+  String computeFingerprint(final Connection connection, final java.sql.DatabaseMetaData metaData,
+                            final DatabaseMetaData databaseMetaData) throws SQLException {
+    final DatabaseTableFilter tableFilter = _connectorRepository.getConnectorHint(_connectorId, DatabaseTableFilter.class).getValue();
+    final String catalog = tableFilter.getCatalog(databaseMetaData);
+    final String schemaPattern = tableFilter.getSchemaPattern(databaseMetaData);
+    final String tableNamePattern = tableFilter.getTableNamePattern(databaseMetaData);
+    final String[] tableTypes = tableFilter.getTableTypes(databaseMetaData);
+    final Set<String> tableSchemas = new LinkedHashSet<>();
+    final List<String[]> tableNames = new ArrayList<>();
+    final Fingerprint fingerprint = new Fingerprint();
+
+    fingerprint.add(FORMAT_VERSION, metaData.getDatabaseProductName(), metaData.getDatabaseProductVersion(),
+      metaData.getDriverVersion(), metaData.getURL(), metaData.getUserName(), databaseMetaData.getSchema(),
+      databaseMetaData.getDatabaseType().name(), catalog, schemaPattern, tableNamePattern, Arrays.toString(tableTypes));
+
+    try (ResultSet resultSet = metaData.getTables(catalog, schemaPattern, tableNamePattern, tableTypes)) {
+      while (resultSet.next()) {
+        tableSchemas.add(resultSet.getString("TABLE_SCHEM"));
+        tableNames.add(new String[]{resultSet.getString("TABLE_SCHEM"), resultSet.getString("TABLE_NAME")});
+        fingerprint.add(resultSet.getString("TABLE_SCHEM"), resultSet.getString("TABLE_NAME"), resultSet.getString("TABLE_TYPE"));
+      }
+    }
+
+    try (ResultSet resultSet = metaData.getColumns(catalog, schemaPattern, tableNamePattern, "%")) {
+      while (resultSet.next()) {
+        fingerprint.add(resultSet.getString("TABLE_SCHEM"), resultSet.getString("TABLE_NAME"), resultSet.getString("COLUMN_NAME"),
+          resultSet.getString("DATA_TYPE"), resultSet.getString("TYPE_NAME"), resultSet.getString("COLUMN_SIZE"),
+          resultSet.getString("DECIMAL_DIGITS"), resultSet.getString("NULLABLE"));
+      }
+    }
+
+    final CatalogQueries catalogQueries = _connectorRepository.getConnectorHint(_connectorId, CatalogQueries.class).getValue();
+
+    if (!addCatalogRows(connection, catalogQueries, databaseMetaData, tableSchemas, fingerprint)) {
+      addCatalogRows(metaData, catalog, tableNames, fingerprint);
+    }
+
+    // Not sufficient on its own, e.g. CREATE_TIME of MySQL is not changed by an instant ALTER TABLE
+    final String lastDdlTimeQuery = catalogQueries.getLastDdlTimeQuery(databaseMetaData.getDatabaseType());
+
+    if (lastDdlTimeQuery != null && !tableSchemas.contains(null)) {
+      try (PreparedStatement statement = connection.prepareStatement(lastDdlTimeQuery)) {
+        for (final String schema : tableSchemas) {
+          statement.setString(1, schema);
+
+          try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+              fingerprint.add(schema, resultSet.getString("LAST_DDL_TIME"));
+            }
+          }
+        }
+      }
+    }
+
+    return fingerprint.toString();
+  }
+
+  /**
+   * Add primary keys, indexes and foreign keys of all tables, read by a few queries per schema.
+   *
+   * @return false if the data base is not supported by the given queries
+   */
+  private boolean addCatalogRows(final Connection connection, final CatalogQueries catalogQueries,
+                                 final DatabaseMetaData databaseMetaData, final Set<String> tableSchemas,
+                                 final Fingerprint fingerprint) {
+    final List<String> queries = Arrays.asList(catalogQueries.getPrimaryKeysQuery(databaseMetaData.getDatabaseType()),
+      catalogQueries.getIndexInfoQuery(databaseMetaData.getDatabaseType()),
+      catalogQueries.getExportedKeysQuery(databaseMetaData.getDatabaseType()));
+
+    if (queries.contains(null) || tableSchemas.contains(null)) {
+      return false;
+    }
+
+    final Fingerprint catalogFingerprint = new Fingerprint();
+
+    try {
+      for (final String query : queries) {
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+          for (final String schema : tableSchemas) {
+            statement.setString(1, schema);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+              addRows(catalogFingerprint, resultSet);
+            }
+          }
+        }
+      }
+    } catch (final SQLException e) {
+      LOG.warn("Could not read catalog of " + tableSchemas + ", reading keys and indexes per table", e);
+      return false;
+    }
+
+    fingerprint.add(catalogFingerprint.toString());
+    return true;
+  }
+
+  /**
+   * Add primary keys, indexes and foreign keys using the JDBC meta data of each table. Only columns describing the structure are
+   * used, since e.g. the cardinality of an index changes with the data.
+   */
+  private void addCatalogRows(final java.sql.DatabaseMetaData metaData, final String catalog, final List<String[]> tableNames,
+                              final Fingerprint fingerprint) {
+    try {
+      for (final String[] tableName : tableNames) {
+        try (ResultSet resultSet = metaData.getPrimaryKeys(catalog, tableName[0], tableName[1])) {
+          addRows(fingerprint, resultSet, "TABLE_NAME", "COLUMN_NAME", "KEY_SEQ", "PK_NAME");
+        }
+
+        try (ResultSet resultSet = metaData.getIndexInfo(catalog, tableName[0], tableName[1], false, true)) {
+          addRows(fingerprint, resultSet, "TABLE_NAME", "NON_UNIQUE", "INDEX_NAME", "ORDINAL_POSITION", "COLUMN_NAME",
+            "ASC_OR_DESC");
+        }
+
+        try (ResultSet resultSet = metaData.getImportedKeys(catalog, tableName[0], tableName[1])) {
+          addRows(fingerprint, resultSet, "PKTABLE_SCHEM", "PKTABLE_NAME", "PKCOLUMN_NAME", "FKTABLE_NAME", "FKCOLUMN_NAME",
+            "KEY_SEQ", "FK_NAME");
+        }
+      }
+    } catch (final SQLException e) {
+      // Some drivers do not support this, the meta data then contains no keys either
+      LOG.warn("Could not read keys and indexes of " + _connectorId, e);
+      fingerprint.add("No keys and indexes");
+    }
+  }
+
+  /**
+   * @param columnNames columns to add, all columns if none are given
+   */
+  private static void addRows(final Fingerprint fingerprint, final ResultSet resultSet, final String... columnNames)
+    throws SQLException {
+    final int columnCount = resultSet.getMetaData().getColumnCount();
+
+    while (resultSet.next()) {
+      if (columnNames.length == 0) {
+        for (int i = 1; i <= columnCount; i++) {
+          fingerprint.add(resultSet.getString(i));
+        }
+      } else {
+        for (final String columnName : columnNames) {
+          fingerprint.add(resultSet.getString(columnName));
+        }
+      }
+    }
+  }
+
+  /**
+   * @return cached meta data, or null if there is none or the fingerprint has changed
+   */
+  DatabaseMetaDataImpl load(final String fingerprint, final RowCounter rowCounter) {
+    if (!_file.exists()) {
+      return null;
+    }
+
+    try (ObjectInputStream inputStream = new ObjectInputStream(new GZIPInputStream(new BufferedInputStream(
+      new FileInputStream(_file))))) {
+      if (!fingerprint.equals(inputStream.readUTF())) {
+        LOG.info("Schema of " + _connectorId + " has changed, ignoring cached meta data in " + _file);
+        return null;
+      }
+
+      final DatabaseMetaDataImpl result = (DatabaseMetaDataImpl) inputStream.readObject();
+
+      // Data may have changed since
+      for (final TableMetaData tableMetaData : result.getTableMetaData()) {
+        final InternalTableMetaData internalTableMetaData = (InternalTableMetaData) tableMetaData;
+        internalTableMetaData.setTotalRowCount(-1);
+        internalTableMetaData.setFilteredRowCount(-1);
+        internalTableMetaData.setRowCounter(rowCounter);
+      }
+
+      return result;
+    } catch (final IOException | ClassNotFoundException | ClassCastException e) {
+      LOG.warn("Could not read cached meta data from " + _file, e);
+      return null;
+    }
+  }
+
+  void store(final String fingerprint, final DatabaseMetaDataImpl databaseMetaData) {
+    final File directory = _file.getAbsoluteFile().getParentFile();
+
+    try {
+      Files.createDirectories(directory.toPath());
+
+      // Write a temporary file first, so that concurrent readers never see an incomplete file
+      final File tempFile = File.createTempFile(_file.getName(), ".tmp", directory);
+
+      try (ObjectOutputStream outputStream = new ObjectOutputStream(new GZIPOutputStream(new BufferedOutputStream(
+        new FileOutputStream(tempFile))))) {
+        outputStream.writeUTF(fingerprint);
+        outputStream.writeObject(databaseMetaData);
+      }
+
+      try {
+        Files.move(tempFile.toPath(), _file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (final AtomicMoveNotSupportedException e) {
+        Files.move(tempFile.toPath(), _file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (final IOException e) {
+      LOG.warn("Could not store meta data in " + _file, e);
+    }
+  }
+
+  private static final class Fingerprint {
+    private final MessageDigest _digest;
+
+    private Fingerprint() {
+      try {
+        _digest = MessageDigest.getInstance("SHA-256");
+      } catch (final NoSuchAlgorithmException e) {
+        throw new IllegalStateException("SHA-256", e);
+      }
+    }
+
+    private void add(final String... values) {
+      for (final String value : values) {
+        _digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        _digest.update((byte) 0);
+      }
+    }
+
+    @Override
+    public String toString() {
+      final StringBuilder builder = new StringBuilder();
+
+      for (final byte b : _digest.digest()) {
+        builder.append(String.format("%02x", b));
+      }
+
+      return builder.toString();
+    }
+  }
+}
@@ -1,8 +1,15 @@
 package de.akquinet.jbosscc.guttenbase.repository.impl;
 
+import de.akquinet.jbosscc.guttenbase.configuration.SourceDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.connector.Connector;
 import de.akquinet.jbosscc.guttenbase.connector.ConnectorInfo;
+import de.akquinet.jbosscc.guttenbase.hints.CatalogQueriesHint;
+import de.akquinet.jbosscc.guttenbase.hints.MetaDataCacheHint;
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfMetaDataInspectionThreadsHint;
+import de.akquinet.jbosscc.guttenbase.hints.RowCountStrategyHint;
 import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.ForeignKeyMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.InternalColumnMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.InternalDatabaseMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.InternalIndexMetaData;
@@ -13,39 +20,75 @@ import de.akquinet.jbosscc.guttenbase.meta.impl.DatabaseMetaDataImpl;
 import de.akquinet.jbosscc.guttenbase.meta.impl.ForeignKeyMetaDataImpl;
 import de.akquinet.jbosscc.guttenbase.meta.impl.IndexMetaDataImpl;
 import de.akquinet.jbosscc.guttenbase.meta.impl.TableMetaDataImpl;
+import de.akquinet.jbosscc.guttenbase.repository.CatalogQueries;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
 import de.akquinet.jbosscc.guttenbase.repository.DatabaseColumnFilter;
 import de.akquinet.jbosscc.guttenbase.repository.DatabaseTableFilter;
-import de.akquinet.jbosscc.guttenbase.tools.SelectWhereClause;
+import de.akquinet.jbosscc.guttenbase.repository.MetaDataCache;
+import de.akquinet.jbosscc.guttenbase.repository.NumberOfMetaDataInspectionThreads;
+import de.akquinet.jbosscc.guttenbase.repository.RowCountStrategy;
+import de.akquinet.jbosscc.guttenbase.repository.impl.CatalogRows.ExportedKey;
+import de.akquinet.jbosscc.guttenbase.repository.impl.CatalogRows.IndexColumn;
+import de.akquinet.jbosscc.guttenbase.repository.impl.CatalogRows.PrimaryKeyColumn;
 import de.akquinet.jbosscc.guttenbase.utils.Util;
 import org.apache.log4j.Logger;
+import java.io.File;
 import java.lang.reflect.Method;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.stream.Collectors;
 
 /**
  * Get table meta data from connection.
+ * <br>
+ * Tables may be inspected concurrently using several connections. Foreign keys are linked afterwards in the order of the
+ * tables, so the result does not depend on the number of threads.
+ * <br>
+ * Where supported, primary keys, indexes and foreign keys are read for the whole schema at once, instead of calling the JDBC meta
+ * data methods for each table.
+ * <br>
+ * The meta data may be cached in a local file and reused as long as the schema is unchanged.
+ * <br>
+ * Single tables may be inspected again after they have been changed, without inspecting the whole schema.
  * <p/>
  * (C) 2012 by akquinet tech@spree
  *
  * @author M. Dahm
+ * @gb.UsesHint {@link NumberOfMetaDataInspectionThreadsHint} to determine number of concurrently inspected tables
+ * @gb.UsesHint {@link CatalogQueriesHint} to read the catalog of a schema at once
+ * @gb.UsesHint {@link RowCountStrategyHint} to determine how rows of tables are counted
+ * @gb.UsesHint {@link MetaDataCacheHint} to load and store cached meta data
  */
 @SuppressWarnings("RedundantThrows")
 public class DatabaseMetaDataInspectorTool {
   private static final Logger LOG = Logger.getLogger(DatabaseMetaDataInspectorTool.class);
 
   private static final String TABLE_PLACEHOLDER = "<table>";
-  private static final String SELECT_COUNT_STATEMENT = "SELECT COUNT(*) FROM " + TABLE_PLACEHOLDER;
   private static final String SELECT_NOTHING_STATEMENT = "SELECT * FROM " + TABLE_PLACEHOLDER + " WHERE 1 > 2";
 
   private final ConnectorRepository _connectorRepository;
   private final String _connectorId;
+  private final AtomicBoolean _additionalInformationSupported = new AtomicBoolean(true);
 
   public DatabaseMetaDataInspectorTool(final ConnectorRepository connectorRepository, final String connectorId) {
     assert connectorId != null : "connectorId != null";
@@ -67,16 +110,110 @@ public class DatabaseMetaDataInspectorTool {
       .map(method -> getValue(method, metaData)).filter(entry -> entry != null)
       .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
     final DatabaseMetaDataImpl result = new DatabaseMetaDataImpl(schema, properties, connectionInfo.getDatabaseType());
+    final File cacheFile = _connectorRepository.getConnectorHint(_connectorId, MetaDataCache.class).getValue()
+      .getCacheFile(_connectorId);
+    final DatabaseMetaDataCache cache = cacheFile != null ? new DatabaseMetaDataCache(_connectorRepository, _connectorId, cacheFile)
+      : null;
+    final String fingerprint = cache != null ? cache.computeFingerprint(connection, metaData, result) : null;
+
+    if (cache != null) {
+      final DatabaseMetaDataImpl cachedResult = cache.load(fingerprint, new TableRowCounter(_connectorRepository, _connectorId,
+        schemaPrefix));
+
+      if (cachedResult != null) {
+        LOG.info("Retrieving meta data for " + _connectorId + " DONE, using cached meta data from " + cacheFile);
+        return cachedResult;
+      }
+    }
 
-    loadTables(result, metaData);
+    final Set<String> tableSchemas = loadTables(result, metaData, null);
 
-    updateTableMetaData(connection, metaData, result, schemaPrefix);
+    updateTableMetaData(connection, metaData, result, result.getTableMetaData(), schemaPrefix,
+      readCatalog(connection, result, tableSchemas), readRowCountEstimates(connection, result, tableSchemas));
+
+    if (cache != null) {
+      cache.store(fingerprint, result);
+    }
 
     LOG.info("Retrieving meta data for " + _connectorId + " DONE");
 
     return result;
   }
 
+  /**
+   * Inspect the given tables again and update a copy of the given meta data, which has been read by
+   * {@link #getDatabaseMetaData(Connection)} before. Tables that do not exist anymore are removed, new tables are added. All other
+   * tables are not inspected again, except for their foreign keys referring to the given tables.
+   * <br>
+   * The given meta data is not modified, since other threads may still be reading it. Tables are linked to each other by foreign
+   * keys, so the whole object graph is copied.
+   */
+  public DatabaseMetaData refreshDatabaseMetaData(final Connection connection, final DatabaseMetaData databaseMetaData,
+                                                  final Collection<String> tableNames) throws SQLException {
+    LOG.info("Refreshing meta data of " + tableNames + " for " + _connectorId);
+
+    final InternalDatabaseMetaData result = copyDatabaseMetaData(databaseMetaData);
+    final String schema = _connectorRepository.getConnectionInfo(_connectorId).getSchema();
+    final String schemaPrefix = "".equals(Util.trim(schema)) ? "" : schema + ".";
+    final java.sql.DatabaseMetaData metaData = connection.getMetaData();
+    final Set<String> refreshedTableNames = tableNames.stream().map(String::toUpperCase).collect(Collectors.toSet());
+    final Map<String, TableMetaData> previousTables = new HashMap<>();
+
+    for (final String tableName : refreshedTableNames) {
+      final TableMetaData tableMetaData = result.getTableMetaData(tableName);
+
+      if (tableMetaData != null) {
+        previousTables.put(tableName, tableMetaData);
+        removeForeignKeys(result, tableMetaData);
+      }
+    }
+
+    final Set<String> tableSchemas = loadTables(result, metaData, refreshedTableNames);
+
+    for (final TableMetaData tableMetaData : previousTables.values()) {
+      if (result.getTableMetaData(tableMetaData.getTableName()) == tableMetaData) {
+        LOG.debug("Table " + tableMetaData.getTableName() + " has been dropped");
+        result.removeTableMetaData(tableMetaData);
+      }
+    }
+
+    final List<TableMetaData> tables = result.getTableMetaData().stream()
+      .filter(tableMetaData -> refreshedTableNames.contains(tableMetaData.getTableName().toUpperCase()))
+      .collect(Collectors.toList());
+
+    updateTableMetaData(connection, metaData, result, tables, schemaPrefix, null,
+      readRowCountEstimates(connection, result, tableSchemas));
+
+    // Foreign keys referring to tables that have not been refreshed
+    if (_additionalInformationSupported.get()) {
+      for (final TableMetaData tableMetaData : tables) {
+        for (final ExportedKey importedKey : readImportedKeys(metaData, result, tableMetaData)) {
+          if (!refreshedTableNames.contains(importedKey._pkTableName.toUpperCase())) {
+            addForeignKey(result, importedKey);
+          }
+        }
+      }
+    }
+
+    LOG.info("Refreshing meta data of " + tableNames + " for " + _connectorId + " DONE");
+
+    return result;
+  }
+
+
+  /**
+   * Row counters are not serialized, but rows of tables not refreshed shall still be counted on demand.
+   */
+  private static InternalDatabaseMetaData copyDatabaseMetaData(final DatabaseMetaData databaseMetaData) {
+    final InternalDatabaseMetaData result = (InternalDatabaseMetaData) Util.copyObject(DatabaseMetaData.class, databaseMetaData);
+
+    for (final TableMetaData tableMetaData : databaseMetaData.getTableMetaData()) {
+      ((InternalTableMetaData) result.getTableMetaData(tableMetaData.getTableName()))
+        .setRowCounter(((InternalTableMetaData) tableMetaData).getRowCounter());
+    }
+
+    return result;
+  }
 
   private static Map.Entry<String, Object> getValue(final Method method, final java.sql.DatabaseMetaData data) {
     final String name = method.getName();
@@ -114,123 +251,317 @@ public class DatabaseMetaDataInspectorTool {
   }
 
 
+  /**
+   * @param catalog catalog rows of all tables, or null if tables need to be inspected one by one
+   */
   private void updateTableMetaData(final Connection connection, final java.sql.DatabaseMetaData metaData,
-                                   final DatabaseMetaData databaseMetaData, final String schemaPrefix) throws SQLException {
-
-    try (Statement statement = connection.createStatement()) {
-      for (final TableMetaData table : databaseMetaData.getTableMetaData()) {
-        final InternalTableMetaData tableMetaData = (InternalTableMetaData) table;
-        updateTableWithRowCount(statement, tableMetaData, schemaPrefix);
+                                   final DatabaseMetaData databaseMetaData, final List<TableMetaData> tables,
+                                   final String schemaPrefix, final Map<String, CatalogRows> catalog,
+                                   final Map<String, Integer> rowCountEstimates) throws SQLException {
+    final TableRowCounter rowCounter = new TableRowCounter(_connectorRepository, _connectorId, schemaPrefix);
+    final AtomicReferenceArray<List<ExportedKey>> exportedKeys = new AtomicReferenceArray<>(tables.size());
+    final int numberOfThreads = Math.min(tables.size(), _connectorRepository.getConnectorHint(_connectorId,
+      NumberOfMetaDataInspectionThreads.class).getValue().getNumberOfMetaDataInspectionThreads());
+
+    if (numberOfThreads > 1) {
+      inspectTablesConcurrently(tables, numberOfThreads, databaseMetaData, schemaPrefix, catalog, rowCounter, rowCountEstimates,
+        exportedKeys);
+    } else {
+      try (Statement statement = connection.createStatement()) {
+        for (int i = 0; i < tables.size(); i++) {
+          exportedKeys.set(i, inspectTable(statement, metaData, databaseMetaData, (TableMetaDataImpl) tables.get(i), schemaPrefix,
+            catalog, rowCounter, rowCountEstimates));
+        }
+      }
+    }
 
-        updateTableMetaDataWithColumnInformation(statement, tableMetaData, schemaPrefix);
+    // Foreign keys refer to other tables, which must have been inspected before
+    for (int i = 0; i < tables.size(); i++) {
+      for (final ExportedKey exportedKey : exportedKeys.get(i)) {
+        addForeignKey(databaseMetaData, exportedKey);
       }
     }
+  }
 
-    try {
-      for (final TableMetaData table : databaseMetaData.getTableMetaData()) {
-        final TableMetaDataImpl tableMetaData = (TableMetaDataImpl) table;
+  /**
+   * Each thread uses its own connection, tables are handed out in order.
+   */
+  private void inspectTablesConcurrently(final List<TableMetaData> tables, final int numberOfThreads,
+                                         final DatabaseMetaData databaseMetaData, final String schemaPrefix,
+                                         final Map<String, CatalogRows> catalog, final TableRowCounter rowCounter,
+                                         final Map<String, Integer> rowCountEstimates,
+                                         final AtomicReferenceArray<List<ExportedKey>> exportedKeys) throws SQLException {
+    final Queue<Integer> tableIndexes = new ConcurrentLinkedQueue<>();
+    final ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads);
+    final List<Future<Void>> futures = new ArrayList<>();
+
+    for (int i = 0; i < tables.size(); i++) {
+      tableIndexes.add(i);
+    }
+
+    LOG.info("Inspecting " + tables.size() + " tables using " + numberOfThreads + " threads");
+
+    for (int i = 0; i < numberOfThreads; i++) {
+      futures.add(executorService.submit(() -> {
+        final SourceDatabaseConfiguration sourceDatabaseConfiguration = _connectorRepository.getSourceDatabaseConfiguration(_connectorId);
+        final Connector connector = _connectorRepository.createConnector(_connectorId);
 
-        updateColumnsWithPrimaryKeyInformation(metaData, databaseMetaData, tableMetaData);
-        updateColumnsWithForeignKeyInformation(metaData, databaseMetaData, tableMetaData);
-        updateTableWithIndexInformation(metaData, databaseMetaData, tableMetaData);
+        try {
+          final Connection connection = connector.openConnection();
+          sourceDatabaseConfiguration.initializeSourceConnection(connection, _connectorId);
+
+          try (Statement statement = connection.createStatement()) {
+            final java.sql.DatabaseMetaData metaData = connection.getMetaData();
+
+            for (Integer index = tableIndexes.poll(); index != null; index = tableIndexes.poll()) {
+              exportedKeys.set(index, inspectTable(statement, metaData, databaseMetaData, (TableMetaDataImpl) tables.get(index),
+                schemaPrefix, catalog, rowCounter, rowCountEstimates));
+            }
+          }
+
+          sourceDatabaseConfiguration.finalizeSourceConnection(connection, _connectorId);
+        } finally {
+          connector.closeConnection();
+        }
+
+        return null;
+      }));
+    }
+
+    executorService.shutdown();
+
+    for (final Future<Void> future : futures) {
+      try {
+        future.get();
+      } catch (final ExecutionException e) {
+        tableIndexes.clear();
+
+        if (e.getCause() instanceof SQLException) {
+          throw (SQLException) e.getCause();
+        } else {
+          throw new SQLException("Inspecting tables failed", e.getCause());
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new SQLException("Inspecting tables interrupted", e);
       }
-    } catch (final Exception e) {
-      // Some drivers such as JdbcOdbcBridge do not support this
-      LOG.warn("Could not update additional schema information", e);
     }
   }
 
-  private void updateColumnsWithForeignKeyInformation(final java.sql.DatabaseMetaData metaData, final DatabaseMetaData databaseMetaData,
-                                                      final TableMetaData table) throws SQLException {
-    LOG.debug("Retrieving foreign key information for " + table.getTableName());
-    final DatabaseTableFilter tableFilter = _connectorRepository.getConnectorHint(_connectorId, DatabaseTableFilter.class).getValue();
-    final ResultSet resultSet = metaData.getExportedKeys(tableFilter.getCatalog(databaseMetaData), tableFilter.getSchemaPattern(databaseMetaData), table.getTableName());
-
-    while (resultSet.next()) {
-      final String pkTableName = resultSet.getString("PKTABLE_NAME");
-      final String pkColumnName = resultSet.getString("PKCOLUMN_NAME");
-      final String fkTableName = resultSet.getString("FKTABLE_NAME");
-      final String fkColumnName = resultSet.getString("FKCOLUMN_NAME");
-      final String fkName = resultSet.getString("FK_NAME");
-
-      final InternalTableMetaData pkTableMetaData = (InternalTableMetaData) databaseMetaData.getTableMetaData(pkTableName);
-      final InternalTableMetaData fkTableMetaData = (InternalTableMetaData) databaseMetaData.getTableMetaData(fkTableName);
-
-      if (fkTableMetaData == null || pkTableMetaData == null) {
-        // this table might have been excluded from the list of tables handled by this batch
-        LOG.warn("Unable to retrieve metadata information for table " + fkTableName + " referenced by " + pkTableName);
-      } else {
-        final ColumnMetaData pkColumn = pkTableMetaData.getColumnMetaData(pkColumnName);
-        final ColumnMetaData fkColumn = fkTableMetaData.getColumnMetaData(fkColumnName);
-
-        pkTableMetaData.addExportedForeignKey(new ForeignKeyMetaDataImpl(pkTableMetaData, fkName, fkColumn, pkColumn));
-        fkTableMetaData.addImportedForeignKey(new ForeignKeyMetaDataImpl(fkTableMetaData, fkName, fkColumn, pkColumn));
-      }
+  /**
+   * Read primary keys, indexes and foreign keys of all tables at once, if supported by {@link CatalogQueries}.
+   *
+   * @return catalog rows by table name or null if tables need to be inspected one by one
+   */
+  private Map<String, CatalogRows> readCatalog(final Connection connection, final DatabaseMetaData databaseMetaData,
+                                               final Set<String> tableSchemas) {
+    final CatalogQueries catalogQueries = _connectorRepository.getConnectorHint(_connectorId, CatalogQueries.class).getValue();
+    final String primaryKeysQuery = catalogQueries.getPrimaryKeysQuery(databaseMetaData.getDatabaseType());
+    final String indexInfoQuery = catalogQueries.getIndexInfoQuery(databaseMetaData.getDatabaseType());
+    final String exportedKeysQuery = catalogQueries.getExportedKeysQuery(databaseMetaData.getDatabaseType());
+
+    if (primaryKeysQuery == null || indexInfoQuery == null || exportedKeysQuery == null || tableSchemas.contains(null)) {
+      return null;
     }
 
-    resultSet.close();
-  }
+    final Map<String, CatalogRows> result = new HashMap<>();
 
-  private void updateTableWithIndexInformation(final java.sql.DatabaseMetaData metaData, final DatabaseMetaData databaseMetaData,
-                                               final InternalTableMetaData table) throws SQLException {
-    LOG.debug("Retrieving index information for " + table.getTableName());
+    try (PreparedStatement primaryKeysStatement = connection.prepareStatement(primaryKeysQuery);
+         PreparedStatement indexInfoStatement = connection.prepareStatement(indexInfoQuery);
+         PreparedStatement exportedKeysStatement = connection.prepareStatement(exportedKeysQuery)) {
+      for (final String schema : tableSchemas) {
+        LOG.debug("Retrieving catalog of schema " + schema);
 
-    final DatabaseTableFilter tableFilter = _connectorRepository.getConnectorHint(_connectorId, DatabaseTableFilter.class).getValue();
-    final ResultSet resultSet = metaData.getIndexInfo(tableFilter.getCatalog(databaseMetaData), tableFilter.getSchema(databaseMetaData), table.getTableName(), false,
-      true);
+        primaryKeysStatement.setString(1, schema);
+        CatalogRows.readPrimaryKeys(primaryKeysStatement.executeQuery(), result);
+        indexInfoStatement.setString(1, schema);
+        CatalogRows.readIndexInfo(indexInfoStatement.executeQuery(), result);
+        exportedKeysStatement.setString(1, schema);
+        CatalogRows.readExportedKeys(exportedKeysStatement.executeQuery(), result);
+      }
+
+      return result;
+    } catch (final SQLException e) {
+      LOG.warn("Could not read catalog of " + tableSchemas + ", inspecting tables one by one", e);
+      return null;
+    }
+  }
 
-    while (resultSet.next()) {
-      final boolean nonUnique = resultSet.getBoolean("NON_UNIQUE");
-      final String indexName = resultSet.getString("INDEX_NAME");
-      final String columnName = resultSet.getString("COLUMN_NAME");
-      final String ascOrDesc = resultSet.getString("ASC_OR_DESC");
+  /**
+   * Read estimated row counts from the catalog statistics, if requested by {@link RowCountStrategy}.
+   *
+   * @return estimated row counts by table name, or null if rows shall be counted immediately
+   */
+  private Map<String, Integer> readRowCountEstimates(final Connection connection, final DatabaseMetaData databaseMetaData,
+                                                     final Set<String> tableSchemas) {
+    final RowCountStrategy rowCountStrategy = _connectorRepository.getConnectorHint(_connectorId, RowCountStrategy.class).getValue();
+    final Map<String, Integer> result = new HashMap<>();
+
+    if (rowCountStrategy == RowCountStrategy.EXACT) {
+      return null;
+    } else if (rowCountStrategy == RowCountStrategy.LAZY) {
+      return result;
+    }
 
-      if (columnName != null) {
-        final ColumnMetaData column = table.getColumnMetaData(columnName);
+    final String rowCountEstimatesQuery = _connectorRepository.getConnectorHint(_connectorId, CatalogQueries.class).getValue()
+      .getRowCountEstimatesQuery(databaseMetaData.getDatabaseType());
 
-        // May be strange SYS...$ column as with Oracle
-        if (column != null) {
-          InternalIndexMetaData indexMetaData = (InternalIndexMetaData) table.getIndexMetaData(indexName);
+    if (rowCountEstimatesQuery != null && !tableSchemas.contains(null)) {
+      try (PreparedStatement statement = connection.prepareStatement(rowCountEstimatesQuery)) {
+        for (final String schema : tableSchemas) {
+          statement.setString(1, schema);
 
-          if (indexMetaData == null) {
-            final boolean ascending = ascOrDesc == null || "A".equals(ascOrDesc);
-            final boolean unique = !nonUnique;
+          try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+              final long rowCount = resultSet.getLong("ROW_COUNT");
 
-            indexMetaData = new IndexMetaDataImpl(table, indexName, ascending, unique, column.isPrimaryKey());
-            table.addIndex(indexMetaData);
+              if (!resultSet.wasNull() && rowCount >= 0) {
+                result.put(resultSet.getString("TABLE_NAME"), (int) Math.min(Integer.MAX_VALUE, rowCount));
+              }
+            }
           }
+        }
+      } catch (final SQLException e) {
+        LOG.warn("Could not read row count estimates of " + tableSchemas + ", counting rows when needed", e);
+      }
+    }
 
-          indexMetaData.addColumn(column);
+    return result;
+  }
+
+  /**
+   * Retrieve all information about the given table, foreign keys are returned to be added later
+   */
+  private List<ExportedKey> inspectTable(final Statement statement, final java.sql.DatabaseMetaData metaData,
+                                         final DatabaseMetaData databaseMetaData, final TableMetaDataImpl tableMetaData,
+                                         final String schemaPrefix, final Map<String, CatalogRows> catalog,
+                                         final TableRowCounter rowCounter, final Map<String, Integer> rowCountEstimates)
+    throws SQLException {
+    updateTableWithRowCount(statement, tableMetaData, rowCounter, rowCountEstimates);
+    updateTableMetaDataWithColumnInformation(statement, tableMetaData, schemaPrefix);
+
+    if (_additionalInformationSupported.get()) {
+      try {
+        final CatalogRows catalogRows = catalog != null ? catalog.getOrDefault(tableMetaData.getTableName(), CatalogRows.EMPTY)
+          : readCatalogRows(metaData, databaseMetaData, tableMetaData);
+
+        updateColumnsWithPrimaryKeyInformation(catalogRows, tableMetaData);
+        updateTableWithIndexInformation(catalogRows, tableMetaData);
+
+        return catalogRows._exportedKeys;
+      } catch (final Exception e) {
+        // Some drivers such as JdbcOdbcBridge do not support this
+        if (_additionalInformationSupported.getAndSet(false)) {
+          LOG.warn("Could not update additional schema information", e);
         }
       }
     }
 
-    resultSet.close();
+    return CatalogRows.EMPTY._exportedKeys;
   }
 
-  private void updateColumnsWithPrimaryKeyInformation(final java.sql.DatabaseMetaData metaData, final DatabaseMetaData databaseMetaData,
-                                                      final TableMetaData table) throws SQLException {
+  private CatalogRows readCatalogRows(final java.sql.DatabaseMetaData metaData, final DatabaseMetaData databaseMetaData,
+                                      final TableMetaData table) throws SQLException {
+    final DatabaseTableFilter tableFilter = _connectorRepository.getConnectorHint(_connectorId, DatabaseTableFilter.class).getValue();
+    final String catalog = tableFilter.getCatalog(databaseMetaData);
+    final Map<String, CatalogRows> result = new HashMap<>();
+
     LOG.debug("Retrieving primary key information for " + table.getTableName());
+    CatalogRows.readPrimaryKeys(metaData.getPrimaryKeys(catalog, tableFilter.getSchema(databaseMetaData), table.getTableName()),
+      result);
+
+    LOG.debug("Retrieving index information for " + table.getTableName());
+    CatalogRows.readIndexInfo(metaData.getIndexInfo(catalog, tableFilter.getSchema(databaseMetaData), table.getTableName(), false,
+      true), result);
+
+    LOG.debug("Retrieving foreign key information for " + table.getTableName());
+    CatalogRows.readExportedKeys(metaData.getExportedKeys(catalog, tableFilter.getSchemaPattern(databaseMetaData),
+      table.getTableName()), result);
+
+    return result.getOrDefault(table.getTableName(), CatalogRows.EMPTY);
+  }
 
+  private List<ExportedKey> readImportedKeys(final java.sql.DatabaseMetaData metaData, final DatabaseMetaData databaseMetaData,
+                                            final TableMetaData table) throws SQLException {
     final DatabaseTableFilter tableFilter = _connectorRepository.getConnectorHint(_connectorId, DatabaseTableFilter.class).getValue();
-    final ResultSet resultSet = metaData.getPrimaryKeys(tableFilter.getCatalog(databaseMetaData), tableFilter.getSchema(databaseMetaData), table.getTableName());
+    final Map<String, CatalogRows> result = new HashMap<>();
+
+    LOG.debug("Retrieving imported foreign key information for " + table.getTableName());
+    CatalogRows.readExportedKeys(metaData.getImportedKeys(tableFilter.getCatalog(databaseMetaData),
+      tableFilter.getSchemaPattern(databaseMetaData), table.getTableName()), result);
+
+    return result.values().stream().flatMap(catalogRows -> catalogRows._exportedKeys.stream()).collect(Collectors.toList());
+  }
+
+  /**
+   * Remove foreign keys of the given table from the tables it refers to or is referred by
+   */
+  private static void removeForeignKeys(final DatabaseMetaData databaseMetaData, final TableMetaData tableMetaData) {
+    for (final ForeignKeyMetaData foreignKeyMetaData : tableMetaData.getImportedForeignKeys()) {
+      final InternalTableMetaData pkTableMetaData = (InternalTableMetaData) databaseMetaData.getTableMetaData(
+        foreignKeyMetaData.getReferencedColumn().getTableMetaData().getTableName());
+
+      if (pkTableMetaData != null) {
+        pkTableMetaData.removeExportedForeignKey(foreignKeyMetaData);
+      }
+    }
+
+    for (final ForeignKeyMetaData foreignKeyMetaData : tableMetaData.getExportedForeignKeys()) {
+      final InternalTableMetaData fkTableMetaData = (InternalTableMetaData) databaseMetaData.getTableMetaData(
+        foreignKeyMetaData.getReferencingColumn().getTableMetaData().getTableName());
+
+      if (fkTableMetaData != null) {
+        fkTableMetaData.removeImportedForeignKey(foreignKeyMetaData);
+      }
+    }
+  }
 
-    while (resultSet.next()) {
-      final String pkName = resultSet.getString("PK_NAME");
-      final String columnName = resultSet.getString("COLUMN_NAME");
+  private static void addForeignKey(final DatabaseMetaData databaseMetaData, final ExportedKey exportedKey) {
+    final InternalTableMetaData pkTableMetaData = (InternalTableMetaData) databaseMetaData.getTableMetaData(exportedKey._pkTableName);
+    final InternalTableMetaData fkTableMetaData = (InternalTableMetaData) databaseMetaData.getTableMetaData(exportedKey._fkTableName);
 
-      if (pkName != null) {
-        final InternalColumnMetaData columnMetaData = (InternalColumnMetaData) table.getColumnMetaData(columnName);
+    if (fkTableMetaData == null || pkTableMetaData == null) {
+      // this table might have been excluded from the list of tables handled by this batch
+      LOG.warn("Unable to retrieve metadata information for table " + exportedKey._fkTableName + " referenced by "
+        + exportedKey._pkTableName);
+    } else {
+      final ColumnMetaData pkColumn = pkTableMetaData.getColumnMetaData(exportedKey._pkColumnName);
+      final ColumnMetaData fkColumn = fkTableMetaData.getColumnMetaData(exportedKey._fkColumnName);
 
-        if (columnMetaData == null) {
-          throw new IllegalStateException("No column meta data for " + columnName);
+      pkTableMetaData.addExportedForeignKey(new ForeignKeyMetaDataImpl(pkTableMetaData, exportedKey._fkName, fkColumn, pkColumn));
+      fkTableMetaData.addImportedForeignKey(new ForeignKeyMetaDataImpl(fkTableMetaData, exportedKey._fkName, fkColumn, pkColumn));
+    }
+  }
+
+  private static void updateTableWithIndexInformation(final CatalogRows catalogRows, final InternalTableMetaData table) {
+    for (final IndexColumn indexColumn : catalogRows._indexColumns) {
+      final ColumnMetaData column = table.getColumnMetaData(indexColumn._columnName);
+
+      // May be strange SYS...$ column as with Oracle
+      if (column != null) {
+        InternalIndexMetaData indexMetaData = (InternalIndexMetaData) table.getIndexMetaData(indexColumn._indexName);
+
+        if (indexMetaData == null) {
+          indexMetaData = new IndexMetaDataImpl(table, indexColumn._indexName, indexColumn._ascending, indexColumn._unique,
+            column.isPrimaryKey());
+          table.addIndex(indexMetaData);
         }
 
-        columnMetaData.setPrimaryKey(true);
+        indexMetaData.addColumn(column);
       }
     }
+  }
 
-    resultSet.close();
+  private static void updateColumnsWithPrimaryKeyInformation(final CatalogRows catalogRows, final TableMetaData table) {
+    for (final PrimaryKeyColumn primaryKeyColumn : catalogRows._primaryKeyColumns) {
+      final InternalColumnMetaData columnMetaData = (InternalColumnMetaData) table.getColumnMetaData(primaryKeyColumn._columnName);
+
+      if (columnMetaData == null) {
+        throw new IllegalStateException("No column meta data for " + primaryKeyColumn._columnName);
+      }
+
+      columnMetaData.setPrimaryKey(true);
+    }
   }
 
   private void updateTableMetaDataWithColumnInformation(final Statement statement, final InternalTableMetaData tableMetaData,
@@ -265,36 +596,29 @@ public class DatabaseMetaDataInspectorTool {
     resultSet.close();
   }
 
-  private String createWhereClause(final TableMetaData tableMetaData) throws SQLException {
-    final SelectWhereClause selectWhereClause = _connectorRepository.getConnectorHint(_connectorId, SelectWhereClause.class).getValue();
-    return selectWhereClause.getWhereClause(tableMetaData);
-  }
-
-  private void updateTableWithRowCount(final Statement statement, final InternalTableMetaData tableMetaData, final String schemaPrefix)
+  /**
+   * Count rows now, or set the estimated number of rows and let the rest be counted when needed
+   */
+  private static void updateTableWithRowCount(final Statement statement, final InternalTableMetaData tableMetaData,
+                                              final TableRowCounter rowCounter, final Map<String, Integer> rowCountEstimates)
     throws SQLException {
-    final String tableName = escapeTableName(tableMetaData, schemaPrefix);
-
-    LOG.debug("Retrieving row count for " + tableName);
-
-    final String countAllSQL = SELECT_COUNT_STATEMENT.replace(TABLE_PLACEHOLDER, tableName);
-    final String filterClause = createWhereClause(tableMetaData).trim();
-    final String countFilteredSQL = SELECT_COUNT_STATEMENT.replace(TABLE_PLACEHOLDER, tableName) + " " + filterClause;
-    final int totalCount = getCount(statement, countAllSQL);
-    final int filteredCount = "".equals(filterClause) ? totalCount : getCount(statement, countFilteredSQL);
-
-    tableMetaData.setTotalRowCount(totalCount);
-    tableMetaData.setFilteredRowCount(filteredCount);
-  }
-
-  private int getCount(final Statement statement, final String countAllSQL) throws SQLException {
-    final ResultSet countResultSet = statement.executeQuery(countAllSQL);
-    countResultSet.next();
-    final int totalCount = countResultSet.getInt(1);
-    countResultSet.close();
-    return totalCount;
+    if (rowCountEstimates == null) {
+      rowCounter.updateRowCounts(statement, tableMetaData);
+    } else {
+      tableMetaData.setTotalRowCount(rowCountEstimates.getOrDefault(tableMetaData.getTableName(), -1));
+      tableMetaData.setFilteredRowCount(-1);
+      tableMetaData.setRowCounter(rowCounter);
+    }
   }
 
-  private void loadTables(final InternalDatabaseMetaData databaseMetaData, final java.sql.DatabaseMetaData metaData) throws SQLException {
+  /**
+   * @param tableNames upper case names of the tables to be (re-)loaded, or null if all tables are loaded. Other existing tables are
+   *                   kept in the order they are listed by the data base.
+   * @return schemas of the tables loaded
+   */
+  private Set<String> loadTables(final InternalDatabaseMetaData databaseMetaData, final java.sql.DatabaseMetaData metaData,
+                                 final Set<String> tableNames) throws SQLException {
+    final Set<String> result = new LinkedHashSet<>();
     LOG.debug("Searching tables in schema " + databaseMetaData.getSchema());
 
     final DatabaseTableFilter tableFilter = _connectorRepository.getConnectorHint(_connectorId, DatabaseTableFilter.class).getValue();
@@ -311,14 +635,27 @@ public class DatabaseMetaDataInspectorTool {
       final InternalTableMetaData tableMetaData = new TableMetaDataImpl(tableName, databaseMetaData, tableType);
 
       if (tableFilter.accept(tableMetaData)) {
-        databaseMetaData.addTableMetaData(tableMetaData);
+        // (Re-)add tables in the order they are listed
+        if (tableNames == null || tableNames.contains(tableName.toUpperCase())) {
+          databaseMetaData.removeTableMetaData(tableMetaData);
+          databaseMetaData.addTableMetaData(tableMetaData);
+          result.add(tableSchema);
+        } else {
+          final TableMetaData existingTableMetaData = databaseMetaData.getTableMetaData(tableName);
+
+          if (existingTableMetaData != null) {
+            databaseMetaData.removeTableMetaData(existingTableMetaData);
+            databaseMetaData.addTableMetaData(existingTableMetaData);
+          }
+        }
       }
     }
 
     LOG.info("Filtered tables: " + databaseMetaData.getTableMetaData());
+    return result;
   }
 
-  private static String escapeTableName(final InternalTableMetaData tableMetaData, final String schemaPrefix) {
+  static String escapeTableName(final TableMetaData tableMetaData, final String schemaPrefix) {
     String tableName = schemaPrefix + tableMetaData.getTableName();
 
     if (tableName.contains(" ")) {
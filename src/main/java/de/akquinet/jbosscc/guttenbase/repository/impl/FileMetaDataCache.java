@@ -0,0 +1,30 @@
+package de.akquinet.jbosscc.guttenbase.repository.impl;
+
+import de.akquinet.jbosscc.guttenbase.repository.MetaDataCache;
+
+import java.io.File;
+
+/**
+ * Store the meta data of each connector in a file named after the connector in the given directory.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class FileMetaDataCache implements MetaDataCache {
+  public static final String FILE_EXTENSION = ".meta.gz";
+
+  private final File _directory;
+
+  public FileMetaDataCache(final File directory) {
+    assert directory != null : "directory != null";
+
+    _directory = directory;
+  }
+
+  @Override
+  public File getCacheFile(final String connectorId) {
+    return new File(_directory, connectorId + FILE_EXTENSION);
+  }
+}
@@ -0,0 +1,230 @@
+package de.akquinet.jbosscc.guttenbase.repository.impl;
+
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.repository.CatalogQueries;
+
+/**
+ * Read the catalog from the INFORMATION_SCHEMA views of HSQLDB, H2 and MySQL, or from the system catalog of PostgreSQL
+ * (pg_catalog), Oracle (ALL_CONSTRAINTS, ALL_IND_COLUMNS, ...), MS SQL Server (sys.*), DB2 (SYSCAT) and Derby (SYS). Other data
+ * bases are inspected per table.
+ * <br>
+ * Derby does not expose key columns in a plain form, they are extracted from the string representation of the index
+ * descriptor, e.g. "UNIQUE BTREE (2 DESC, 1)", which contains the column numbers of the table.
+ * <br>
+ * Estimated row counts are read from the statistics of MySQL, PostgreSQL, MS SQL Server and Oracle. They are as accurate as the
+ * last analysis of the tables. The time of the last DDL statement is read from MySQL, MS SQL Server and Oracle. It complements
+ * the catalog rows in the fingerprint of cached meta data, since e.g. MySQL does not update CREATE_TIME on an instant ALTER TABLE.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class InformationSchemaCatalogQueries implements CatalogQueries {
+  /**
+   * Columns of indexes of Derby user tables with their (character) position within the descriptor, which is 0 if the column is
+   * not part of the index.
+   */
+  private static final String DERBY_INDEX_COLUMNS = "(SELECT k.SCHEMAID, k.TABLEID, k.TABLENAME, k.CONGLOMERATEID,"
+      + " k.CONGLOMERATENAME, k.DESCRIPTOR, k.KEY_COLUMNS, c.COLUMNNAME, LOCATE(' ' || TRIM(CHAR(c.COLUMNNUMBER)) || ',', k.KEY_COLUMNS) AS ASC_POSITION,"
+      + " LOCATE(' ' || TRIM(CHAR(c.COLUMNNUMBER)) || ' DESC,', k.KEY_COLUMNS) AS DESC_POSITION"
+      + " FROM (SELECT d.SCHEMAID, d.TABLEID, d.TABLENAME, d.CONGLOMERATEID, d.CONGLOMERATENAME, d.DESCRIPTOR,"
+      + " ' ' || SUBSTR(d.DESCRIPTOR,"
+      + " LOCATE('(', d.DESCRIPTOR) + 1, LOCATE(')', d.DESCRIPTOR) - LOCATE('(', d.DESCRIPTOR) - 1) || ',' AS KEY_COLUMNS"
+      + " FROM (SELECT t.SCHEMAID, t.TABLEID, t.TABLENAME, g.CONGLOMERATEID, g.CONGLOMERATENAME,"
+      + " CAST(g.DESCRIPTOR AS VARCHAR(32672)) AS DESCRIPTOR"
+      + " FROM SYS.SYSCONGLOMERATES g JOIN SYS.SYSTABLES t ON t.TABLEID = g.TABLEID WHERE g.ISINDEX AND t.TABLETYPE = 'T') d) k"
+      + " JOIN SYS.SYSCOLUMNS c ON c.REFERENCEID = k.TABLEID)";
+
+  /**
+   * Columns of Derby constraint indexes, which are always ascending, with their ordinal position within the index. The
+   * position is counted in a sub query, since joining the index columns with themselves makes the optimizer take ages.
+   */
+  private static final String DERBY_KEY_COLUMNS = "(SELECT ic.SCHEMAID, ic.TABLENAME, ic.CONGLOMERATEID, ic.COLUMNNAME, (SELECT COUNT(*) FROM SYS.SYSCOLUMNS c"
+      + " WHERE c.REFERENCEID = ic.TABLEID AND LOCATE(' ' || TRIM(CHAR(c.COLUMNNUMBER)) || ',', ic.KEY_COLUMNS)"
+      + " BETWEEN 1 AND ic.ASC_POSITION) AS KEY_SEQ FROM " + DERBY_INDEX_COLUMNS + " ic WHERE ic.ASC_POSITION > 0)";
+
+  @Override
+  public String getPrimaryKeysQuery(final DatabaseType databaseType) {
+    switch (databaseType) {
+      case HSQLDB:
+        return "SELECT TABLE_NAME, COLUMN_NAME, PK_NAME FROM INFORMATION_SCHEMA.SYSTEM_PRIMARYKEYS WHERE TABLE_SCHEM = ?"
+            + " ORDER BY TABLE_NAME, KEY_SEQ";
+      case H2DB:
+        return "SELECT TABLE_NAME, COLUMN_NAME, INDEX_NAME AS PK_NAME FROM INFORMATION_SCHEMA.INDEXES"
+            + " WHERE TABLE_SCHEMA = ? AND PRIMARY_KEY = TRUE ORDER BY TABLE_NAME, ORDINAL_POSITION";
+      case MYSQL:
+        return "SELECT TABLE_NAME, COLUMN_NAME, CONSTRAINT_NAME AS PK_NAME FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE"
+            + " WHERE TABLE_SCHEMA = ? AND CONSTRAINT_NAME = 'PRIMARY' ORDER BY TABLE_NAME, ORDINAL_POSITION";
+      case POSTGRESQL:
+        return "SELECT c.relname AS TABLE_NAME, a.attname AS COLUMN_NAME, con.conname AS PK_NAME FROM pg_catalog.pg_constraint con"
+            + " JOIN pg_catalog.pg_class c ON c.oid = con.conrelid JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace"
+            + " CROSS JOIN LATERAL unnest(con.conkey) WITH ORDINALITY AS k(attnum, ordinal)"
+            + " JOIN pg_catalog.pg_attribute a ON a.attrelid = c.oid AND a.attnum = k.attnum"
+            + " WHERE n.nspname = ? AND con.contype = 'p' ORDER BY c.relname, k.ordinal";
+      case ORACLE:
+        return "SELECT cc.TABLE_NAME, cc.COLUMN_NAME, c.CONSTRAINT_NAME AS PK_NAME FROM ALL_CONSTRAINTS c"
+            + " JOIN ALL_CONS_COLUMNS cc ON cc.OWNER = c.OWNER AND cc.CONSTRAINT_NAME = c.CONSTRAINT_NAME"
+            + " WHERE c.OWNER = ? AND c.CONSTRAINT_TYPE = 'P' ORDER BY cc.TABLE_NAME, cc.POSITION";
+      case MSSQL:
+        return "SELECT t.name AS TABLE_NAME, c.name AS COLUMN_NAME, i.name AS PK_NAME FROM sys.indexes i"
+            + " JOIN sys.tables t ON t.object_id = i.object_id JOIN sys.schemas s ON s.schema_id = t.schema_id"
+            + " JOIN sys.index_columns ic ON ic.object_id = i.object_id AND ic.index_id = i.index_id"
+            + " JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id"
+            + " WHERE s.name = ? AND i.is_primary_key = 1 ORDER BY t.name, ic.key_ordinal";
+      case DB2:
+        return "SELECT k.TABNAME AS TABLE_NAME, k.COLNAME AS COLUMN_NAME, k.CONSTNAME AS PK_NAME FROM SYSCAT.KEYCOLUSE k"
+            + " JOIN SYSCAT.TABCONST c ON c.TABSCHEMA = k.TABSCHEMA AND c.TABNAME = k.TABNAME AND c.CONSTNAME = k.CONSTNAME"
+            + " WHERE k.TABSCHEMA = ? AND c.TYPE = 'P' ORDER BY k.TABNAME, k.COLSEQ";
+      case DERBY:
+        return "SELECT ic.TABLENAME AS TABLE_NAME, ic.COLUMNNAME AS COLUMN_NAME, con.CONSTRAINTNAME AS PK_NAME"
+            + " FROM SYS.SYSCONSTRAINTS con JOIN SYS.SYSKEYS sk ON sk.CONSTRAINTID = con.CONSTRAINTID"
+            + " JOIN " + DERBY_INDEX_COLUMNS + " ic ON ic.CONGLOMERATEID = sk.CONGLOMERATEID"
+            + " JOIN SYS.SYSSCHEMAS s ON s.SCHEMAID = ic.SCHEMAID"
+            + " WHERE s.SCHEMANAME = ? AND con.TYPE = 'P' AND ic.ASC_POSITION > 0 ORDER BY ic.TABLENAME, ic.ASC_POSITION";
+      default:
+        return null;
+    }
+  }
+
+  @Override
+  public String getIndexInfoQuery(final DatabaseType databaseType) {
+    switch (databaseType) {
+      case HSQLDB:
+        return "SELECT TABLE_NAME, NON_UNIQUE, INDEX_NAME, COLUMN_NAME, ASC_OR_DESC FROM INFORMATION_SCHEMA.SYSTEM_INDEXINFO"
+            + " WHERE TABLE_SCHEM = ? ORDER BY TABLE_NAME, NON_UNIQUE, INDEX_NAME, ORDINAL_POSITION";
+      case H2DB:
+        return "SELECT TABLE_NAME, NON_UNIQUE, INDEX_NAME, COLUMN_NAME, ASC_OR_DESC FROM INFORMATION_SCHEMA.INDEXES"
+            + " WHERE TABLE_SCHEMA = ? ORDER BY TABLE_NAME, NON_UNIQUE, INDEX_NAME, ORDINAL_POSITION";
+      case MYSQL:
+        return "SELECT TABLE_NAME, NON_UNIQUE, INDEX_NAME, COLUMN_NAME, COLLATION AS ASC_OR_DESC FROM INFORMATION_SCHEMA.STATISTICS"
+            + " WHERE TABLE_SCHEMA = ? ORDER BY TABLE_NAME, NON_UNIQUE, INDEX_NAME, SEQ_IN_INDEX";
+      case POSTGRESQL:
+        return "SELECT t.relname AS TABLE_NAME, NOT i.indisunique AS NON_UNIQUE, c.relname AS INDEX_NAME, a.attname AS COLUMN_NAME,"
+            + " CASE WHEN i.indoption[k.ordinal - 1] & 1 = 1 THEN 'D' ELSE 'A' END AS ASC_OR_DESC FROM pg_catalog.pg_index i"
+            + " JOIN pg_catalog.pg_class t ON t.oid = i.indrelid JOIN pg_catalog.pg_class c ON c.oid = i.indexrelid"
+            + " JOIN pg_catalog.pg_namespace n ON n.oid = t.relnamespace"
+            + " CROSS JOIN LATERAL unnest(i.indkey::int2[]) WITH ORDINALITY AS k(attnum, ordinal)"
+            + " JOIN pg_catalog.pg_attribute a ON a.attrelid = t.oid AND a.attnum = k.attnum"
+            + " WHERE n.nspname = ? ORDER BY t.relname, NON_UNIQUE, c.relname, k.ordinal";
+      case ORACLE:
+        return "SELECT ic.TABLE_NAME, CASE i.UNIQUENESS WHEN 'UNIQUE' THEN 0 ELSE 1 END AS NON_UNIQUE, ic.INDEX_NAME,"
+            + " ic.COLUMN_NAME, SUBSTR(ic.DESCEND, 1, 1) AS ASC_OR_DESC FROM ALL_INDEXES i"
+            + " JOIN ALL_IND_COLUMNS ic ON ic.INDEX_OWNER = i.OWNER AND ic.INDEX_NAME = i.INDEX_NAME"
+            + " WHERE i.TABLE_OWNER = ? ORDER BY ic.TABLE_NAME, NON_UNIQUE, ic.INDEX_NAME, ic.COLUMN_POSITION";
+      case MSSQL:
+        return "SELECT t.name AS TABLE_NAME, CASE WHEN i.is_unique = 1 THEN 0 ELSE 1 END AS NON_UNIQUE, i.name AS INDEX_NAME,"
+            + " c.name AS COLUMN_NAME, CASE WHEN ic.is_descending_key = 1 THEN 'D' ELSE 'A' END AS ASC_OR_DESC FROM sys.indexes i"
+            + " JOIN sys.tables t ON t.object_id = i.object_id JOIN sys.schemas s ON s.schema_id = t.schema_id"
+            + " JOIN sys.index_columns ic ON ic.object_id = i.object_id AND ic.index_id = i.index_id"
+            + " JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id"
+            + " WHERE s.name = ? AND i.type > 0 AND ic.key_ordinal > 0 ORDER BY t.name, NON_UNIQUE, i.name, ic.key_ordinal";
+      case DB2:
+        return "SELECT i.TABNAME AS TABLE_NAME, CASE WHEN i.UNIQUERULE = 'D' THEN 1 ELSE 0 END AS NON_UNIQUE,"
+            + " i.INDNAME AS INDEX_NAME, ic.COLNAME AS COLUMN_NAME, CASE WHEN ic.COLORDER = 'D' THEN 'D' ELSE 'A' END AS ASC_OR_DESC"
+            + " FROM SYSCAT.INDEXES i JOIN SYSCAT.INDEXCOLUSE ic ON ic.INDSCHEMA = i.INDSCHEMA AND ic.INDNAME = i.INDNAME"
+            + " WHERE i.TABSCHEMA = ? AND ic.COLORDER <> 'I' ORDER BY i.TABNAME, NON_UNIQUE, i.INDNAME, ic.COLSEQ";
+      case DERBY:
+        return "SELECT ic.TABLENAME AS TABLE_NAME, CASE WHEN LOCATE('UNIQUE BTREE', ic.DESCRIPTOR) = 1 THEN 0 ELSE 1 END AS NON_UNIQUE,"
+            + " ic.CONGLOMERATENAME AS INDEX_NAME, ic.COLUMNNAME AS COLUMN_NAME,"
+            + " CASE WHEN ic.DESC_POSITION > 0 THEN 'D' ELSE 'A' END AS ASC_OR_DESC FROM " + DERBY_INDEX_COLUMNS + " ic"
+            + " JOIN SYS.SYSSCHEMAS s ON s.SCHEMAID = ic.SCHEMAID WHERE s.SCHEMANAME = ? AND ic.ASC_POSITION + ic.DESC_POSITION > 0"
+            + " ORDER BY ic.TABLENAME, NON_UNIQUE, ic.CONGLOMERATENAME, ic.ASC_POSITION + ic.DESC_POSITION";
+      default:
+        return null;
+    }
+  }
+
+  @Override
+  public String getExportedKeysQuery(final DatabaseType databaseType) {
+    switch (databaseType) {
+      case HSQLDB:
+        return "SELECT PKTABLE_NAME, PKCOLUMN_NAME, FKTABLE_NAME, FKCOLUMN_NAME, FK_NAME FROM INFORMATION_SCHEMA.SYSTEM_CROSSREFERENCE"
+            + " WHERE PKTABLE_SCHEM = ? ORDER BY PKTABLE_NAME, FKTABLE_NAME, KEY_SEQ";
+      case H2DB:
+        return "SELECT PKTABLE_NAME, PKCOLUMN_NAME, FKTABLE_NAME, FKCOLUMN_NAME, FK_NAME FROM INFORMATION_SCHEMA.CROSS_REFERENCES"
+            + " WHERE PKTABLE_SCHEMA = ? ORDER BY PKTABLE_NAME, FKTABLE_NAME, ORDINAL_POSITION";
+      case MYSQL:
+        return "SELECT REFERENCED_TABLE_NAME AS PKTABLE_NAME, REFERENCED_COLUMN_NAME AS PKCOLUMN_NAME, TABLE_NAME AS FKTABLE_NAME,"
+            + " COLUMN_NAME AS FKCOLUMN_NAME, CONSTRAINT_NAME AS FK_NAME FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE"
+            + " WHERE REFERENCED_TABLE_SCHEMA = ? ORDER BY REFERENCED_TABLE_NAME, TABLE_NAME, ORDINAL_POSITION";
+      case POSTGRESQL:
+        return "SELECT pt.relname AS PKTABLE_NAME, pa.attname AS PKCOLUMN_NAME, ft.relname AS FKTABLE_NAME,"
+            + " fa.attname AS FKCOLUMN_NAME, con.conname AS FK_NAME FROM pg_catalog.pg_constraint con"
+            + " JOIN pg_catalog.pg_class pt ON pt.oid = con.confrelid JOIN pg_catalog.pg_namespace n ON n.oid = pt.relnamespace"
+            + " JOIN pg_catalog.pg_class ft ON ft.oid = con.conrelid"
+            + " CROSS JOIN LATERAL unnest(con.conkey, con.confkey) WITH ORDINALITY AS k(fkattnum, pkattnum, ordinal)"
+            + " JOIN pg_catalog.pg_attribute fa ON fa.attrelid = ft.oid AND fa.attnum = k.fkattnum"
+            + " JOIN pg_catalog.pg_attribute pa ON pa.attrelid = pt.oid AND pa.attnum = k.pkattnum"
+            + " WHERE n.nspname = ? AND con.contype = 'f' ORDER BY pt.relname, ft.relname, k.ordinal";
+      case ORACLE:
+        return "SELECT pc.TABLE_NAME AS PKTABLE_NAME, pcc.COLUMN_NAME AS PKCOLUMN_NAME, fc.TABLE_NAME AS FKTABLE_NAME,"
+            + " fcc.COLUMN_NAME AS FKCOLUMN_NAME, fc.CONSTRAINT_NAME AS FK_NAME FROM ALL_CONSTRAINTS fc"
+            + " JOIN ALL_CONSTRAINTS pc ON pc.OWNER = fc.R_OWNER AND pc.CONSTRAINT_NAME = fc.R_CONSTRAINT_NAME"
+            + " JOIN ALL_CONS_COLUMNS fcc ON fcc.OWNER = fc.OWNER AND fcc.CONSTRAINT_NAME = fc.CONSTRAINT_NAME"
+            + " JOIN ALL_CONS_COLUMNS pcc ON pcc.OWNER = pc.OWNER AND pcc.CONSTRAINT_NAME = pc.CONSTRAINT_NAME"
+            + " AND pcc.POSITION = fcc.POSITION"
+            + " WHERE pc.OWNER = ? AND fc.CONSTRAINT_TYPE = 'R' ORDER BY pc.TABLE_NAME, fc.TABLE_NAME, fcc.POSITION";
+      case MSSQL:
+        return "SELECT pt.name AS PKTABLE_NAME, pc.name AS PKCOLUMN_NAME, ft.name AS FKTABLE_NAME, fc.name AS FKCOLUMN_NAME,"
+            + " fk.name AS FK_NAME FROM sys.foreign_keys fk JOIN sys.foreign_key_columns fkc ON fkc.constraint_object_id = fk.object_id"
+            + " JOIN sys.tables pt ON pt.object_id = fkc.referenced_object_id JOIN sys.schemas s ON s.schema_id = pt.schema_id"
+            + " JOIN sys.tables ft ON ft.object_id = fkc.parent_object_id"
+            + " JOIN sys.columns pc ON pc.object_id = fkc.referenced_object_id AND pc.column_id = fkc.referenced_column_id"
+            + " JOIN sys.columns fc ON fc.object_id = fkc.parent_object_id AND fc.column_id = fkc.parent_column_id"
+            + " WHERE s.name = ? ORDER BY pt.name, ft.name, fkc.constraint_column_id";
+      case DB2:
+        return "SELECT r.REFTABNAME AS PKTABLE_NAME, pk.COLNAME AS PKCOLUMN_NAME, r.TABNAME AS FKTABLE_NAME,"
+            + " fk.COLNAME AS FKCOLUMN_NAME, r.CONSTNAME AS FK_NAME FROM SYSCAT.REFERENCES r"
+            + " JOIN SYSCAT.KEYCOLUSE fk ON fk.TABSCHEMA = r.TABSCHEMA AND fk.TABNAME = r.TABNAME AND fk.CONSTNAME = r.CONSTNAME"
+            + " JOIN SYSCAT.KEYCOLUSE pk ON pk.TABSCHEMA = r.REFTABSCHEMA AND pk.TABNAME = r.REFTABNAME"
+            + " AND pk.CONSTNAME = r.REFKEYNAME AND pk.COLSEQ = fk.COLSEQ"
+            + " WHERE r.REFTABSCHEMA = ? ORDER BY r.REFTABNAME, r.TABNAME, fk.COLSEQ";
+      case DERBY:
+        return "SELECT pc.TABLENAME AS PKTABLE_NAME, pc.COLUMNNAME AS PKCOLUMN_NAME, fc.TABLENAME AS FKTABLE_NAME,"
+            + " fc.COLUMNNAME AS FKCOLUMN_NAME, con.CONSTRAINTNAME AS FK_NAME FROM SYS.SYSFOREIGNKEYS f"
+            + " JOIN SYS.SYSCONSTRAINTS con ON con.CONSTRAINTID = f.CONSTRAINTID"
+            + " JOIN SYS.SYSKEYS pk ON pk.CONSTRAINTID = f.KEYCONSTRAINTID"
+            + " JOIN " + DERBY_KEY_COLUMNS + " fc ON fc.CONGLOMERATEID = f.CONGLOMERATEID"
+            + " JOIN " + DERBY_KEY_COLUMNS + " pc ON pc.CONGLOMERATEID = pk.CONGLOMERATEID AND pc.KEY_SEQ = fc.KEY_SEQ"
+            + " JOIN SYS.SYSSCHEMAS s ON s.SCHEMAID = pc.SCHEMAID"
+            + " WHERE s.SCHEMANAME = ? ORDER BY pc.TABLENAME, fc.TABLENAME, fc.KEY_SEQ";
+      default:
+        return null;
+    }
+  }
+
+  @Override
+  public String getRowCountEstimatesQuery(final DatabaseType databaseType) {
+    switch (databaseType) {
+      case MYSQL:
+        return "SELECT TABLE_NAME, TABLE_ROWS AS ROW_COUNT FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = ?";
+      case POSTGRESQL:
+        return "SELECT c.relname AS TABLE_NAME, CAST(c.reltuples AS BIGINT) AS ROW_COUNT FROM pg_catalog.pg_class c"
+            + " JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = ? AND c.relkind IN ('r', 'p')";
+      case MSSQL:
+        return "SELECT t.name AS TABLE_NAME, SUM(p.rows) AS ROW_COUNT FROM sys.tables t"
+            + " JOIN sys.schemas s ON s.schema_id = t.schema_id JOIN sys.partitions p ON p.object_id = t.object_id"
+            + " WHERE s.name = ? AND p.index_id IN (0, 1) GROUP BY t.name";
+      case ORACLE:
+        return "SELECT TABLE_NAME, NUM_ROWS AS ROW_COUNT FROM ALL_TABLES WHERE OWNER = ?";
+      default:
+        return null;
+    }
+  }
+
+  @Override
+  public String getLastDdlTimeQuery(final DatabaseType databaseType) {
+    switch (databaseType) {
+      case MYSQL:
+        return "SELECT MAX(CREATE_TIME) AS LAST_DDL_TIME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = ?";
+      case MSSQL:
+        return "SELECT MAX(o.modify_date) AS LAST_DDL_TIME FROM sys.objects o JOIN sys.schemas s ON s.schema_id = o.schema_id"
+            + " WHERE s.name = ?";
+      case ORACLE:
+        return "SELECT MAX(LAST_DDL_TIME) AS LAST_DDL_TIME FROM ALL_OBJECTS WHERE OWNER = ?";
+      default:
+        return null;
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package de.akquinet.jbosscc.guttenbase.repository.impl;
+
+import de.akquinet.jbosscc.guttenbase.configuration.SourceDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.connector.Connector;
+import de.akquinet.jbosscc.guttenbase.meta.InternalTableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.RowCounter;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.tools.SelectWhereClause;
+import org.apache.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Count rows of a table with SELECT COUNT(*). When used as a {@link RowCounter} without a connection, a new connection is opened
+ * for each count and initialized with the {@link SourceDatabaseConfiguration}, since the table is only read. Callers already
+ * holding a connection of the connector should count with {@link #countFilteredRows(TableMetaData, Connection)}, e.g. with a
+ * {@link de.akquinet.jbosscc.guttenbase.connector.impl.PooledConnectorInfo} limited to the number of threads, where leasing
+ * another connection blocks until the lease timeout expires. The configuration the caller initialized the connection with is
+ * used then, e.g. the {@link de.akquinet.jbosscc.guttenbase.configuration.TargetDatabaseConfiguration} for target tables.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class TableRowCounter implements RowCounter {
+  private static final Logger LOG = Logger.getLogger(TableRowCounter.class);
+
+  private static final String SELECT_COUNT_STATEMENT = "SELECT COUNT(*) FROM ";
+
+  private final ConnectorRepository _connectorRepository;
+  private final String _connectorId;
+  private final String _schemaPrefix;
+
+  public TableRowCounter(final ConnectorRepository connectorRepository, final String connectorId, final String schemaPrefix) {
+    assert connectorRepository != null : "connectorRepository != null";
+    assert connectorId != null : "connectorId != null";
+    assert schemaPrefix != null : "schemaPrefix != null";
+
+    _connectorRepository = connectorRepository;
+    _connectorId = connectorId;
+    _schemaPrefix = schemaPrefix;
+  }
+
+  @Override
+  public int countTotalRows(final TableMetaData tableMetaData) {
+    return count(tableMetaData, false);
+  }
+
+  @Override
+  public int countFilteredRows(final TableMetaData tableMetaData) {
+    return count(tableMetaData, true);
+  }
+
+  @Override
+  public int countFilteredRows(final TableMetaData tableMetaData, final Connection connection) throws SQLException {
+    return count(connection, tableMetaData, true);
+  }
+
+  /**
+   * Count total and filtered rows of the given table immediately
+   */
+  public void updateRowCounts(final Statement statement, final InternalTableMetaData tableMetaData) throws SQLException {
+    final String whereClause = getWhereClause(tableMetaData);
+    final int totalCount = count(statement, tableMetaData, "");
+    final int filteredCount = "".equals(whereClause) ? totalCount : count(statement, tableMetaData, " " + whereClause);
+
+    tableMetaData.setTotalRowCount(totalCount);
+    tableMetaData.setFilteredRowCount(filteredCount);
+  }
+
+  private String getWhereClause(final TableMetaData tableMetaData) throws SQLException {
+    return _connectorRepository.getConnectorHint(_connectorId, SelectWhereClause.class).getValue().getWhereClause(tableMetaData)
+      .trim();
+  }
+
+  private int count(final Statement statement, final TableMetaData tableMetaData, final String whereClause) throws SQLException {
+    final String tableName = DatabaseMetaDataInspectorTool.escapeTableName(tableMetaData, _schemaPrefix);
+
+    LOG.debug("Retrieving row count for " + tableName);
+
+    try (ResultSet resultSet = statement.executeQuery(SELECT_COUNT_STATEMENT + tableName + whereClause)) {
+      resultSet.next();
+      return resultSet.getInt(1);
+    }
+  }
+
+  private int count(final Connection connection, final TableMetaData tableMetaData, final boolean filtered) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      final String whereClause = filtered ? getWhereClause(tableMetaData) : "";
+      return count(statement, tableMetaData, "".equals(whereClause) ? "" : " " + whereClause);
+    }
+  }
+
+  private int count(final TableMetaData tableMetaData, final boolean filtered) {
+    final SourceDatabaseConfiguration sourceDatabaseConfiguration = _connectorRepository.getSourceDatabaseConfiguration(_connectorId);
+    final Connector connector = _connectorRepository.createConnector(_connectorId);
+
+    try {
+      try {
+        final Connection connection = connector.openConnection();
+
+        sourceDatabaseConfiguration.initializeSourceConnection(connection, _connectorId);
+        final int result = count(connection, tableMetaData, filtered);
+        sourceDatabaseConfiguration.finalizeSourceConnection(connection, _connectorId);
+        return result;
+      } finally {
+        connector.closeConnection();
+      }
+    } catch (final SQLException e) {
+      throw new IllegalStateException("Could not count rows of " + tableMetaData.getTableName(), e);
+    }
+  }
+}
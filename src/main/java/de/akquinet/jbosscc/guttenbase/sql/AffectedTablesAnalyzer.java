@@ -0,0 +1,290 @@
+package de.akquinet.jbosscc.guttenbase.sql;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Primitive analysis of SQL statements as returned by {@link SQLLexer#parse()} in order to determine the tables whose structure or
+ * data may have been changed by a script.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class AffectedTablesAnalyzer
+{
+  private static final Pattern TOKEN_PATTERN = Pattern.compile("(?:\"[^\"]*\"|`[^`]*`|\\[[^\\]]*]|[^\\s(),\"`\\[])+|,");
+  private static final Pattern NAME_PATTERN = Pattern.compile("(?:\"([^\"]*)\"|`([^`]*)`|\\[([^\\]]*)]|([^.]+))$");
+
+  /**
+   * Statements that do not affect any table
+   */
+  private static final Set<String> IGNORED_STATEMENTS = new HashSet<>(Arrays.asList("SELECT", "COMMIT", "ROLLBACK"));
+
+  /**
+   * Keywords that may occur between CREATE and TABLE/INDEX
+   */
+  private static final Set<String> CREATE_MODIFIERS = new HashSet<>(Arrays.asList("GLOBAL", "LOCAL", "TEMPORARY", "TEMP",
+      "CACHED", "MEMORY", "TEXT", "UNLOGGED", "UNIQUE", "CLUSTERED", "NONCLUSTERED", "BITMAP"));
+
+  private final List<String> _statements;
+
+  public AffectedTablesAnalyzer(final List<String> statements)
+  {
+    assert statements != null : "statements != null";
+
+    _statements = statements;
+  }
+
+  /**
+   * @return names of affected tables without schema prefix, or null if the affected tables cannot be determined for some
+   * statement
+   */
+  public Set<String> getAffectedTables()
+  {
+    final Set<String> result = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    for (final String statement : _statements)
+    {
+      final List<String> tokens = tokenize(statement);
+
+      if (!tokens.isEmpty() && !addAffectedTables(tokens, result))
+      {
+        return null;
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * @return false if the statement is not understood
+   */
+  private static boolean addAffectedTables(final List<String> tokens, final Set<String> result)
+  {
+    final String statementType = tokens.get(0).toUpperCase();
+
+    switch (statementType)
+    {
+    case "INSERT":
+    case "MERGE":
+      return addTableAfter(tokens, "INTO", result);
+
+    case "DELETE":
+      return addTableAfter(tokens, "FROM", result);
+
+    case "UPDATE":
+      return addTable(tokens, 1, result);
+
+    case "TRUNCATE":
+      return addTable(tokens, isKeyword(tokens, 1, "TABLE") ? 2 : 1, result);
+
+    case "CREATE":
+      return addCreatedTable(tokens, result);
+
+    case "ALTER":
+      return addAlteredTable(tokens, result);
+
+    case "DROP":
+      return addDroppedTables(tokens, result);
+
+    case "RENAME":
+      return isKeyword(tokens, 1, "TABLE") && addTableList(tokens, 2, result);
+
+    default:
+      return IGNORED_STATEMENTS.contains(statementType);
+    }
+  }
+
+  private static boolean addCreatedTable(final List<String> tokens, final Set<String> result)
+  {
+    for (int i = 1; i < tokens.size(); i++)
+    {
+      final String token = tokens.get(i).toUpperCase();
+
+      if (token.equals("TABLE"))
+      {
+        return addTable(tokens, skipIfExists(tokens, i + 1), result);
+      }
+      else if (token.equals("INDEX"))
+      {
+        return addTableAfter(tokens, "ON", result);
+      }
+      else if (token.equals("SEQUENCE"))
+      {
+        return true;
+      }
+      else if (!CREATE_MODIFIERS.contains(token))
+      {
+        return false;
+      }
+    }
+
+    return false;
+  }
+
+  private static boolean addAlteredTable(final List<String> tokens, final Set<String> result)
+  {
+    if (isKeyword(tokens, 1, "SEQUENCE"))
+    {
+      return true;
+    }
+    else if (!isKeyword(tokens, 1, "TABLE"))
+    {
+      return false;
+    }
+
+    int index = skipIfExists(tokens, 2);
+
+    if (isKeyword(tokens, index, "ONLY"))
+    {
+      index++;
+    }
+
+    if (!addTable(tokens, index, result))
+    {
+      return false;
+    }
+
+    // ALTER TABLE x RENAME [TO|AS] y
+    for (int i = index + 1; i < tokens.size() - 1; i++)
+    {
+      if (isKeyword(tokens, i, "RENAME"))
+      {
+        if (isKeyword(tokens, i + 1, "TO") || isKeyword(tokens, i + 1, "AS"))
+        {
+          return addTable(tokens, i + 2, result);
+        }
+        else if (!isKeyword(tokens, i + 1, "COLUMN") && !isKeyword(tokens, i + 1, "CONSTRAINT")
+            && !isKeyword(tokens, i + 1, "INDEX") && !isKeyword(tokens, i + 1, "KEY"))
+        {
+          return addTable(tokens, i + 1, result);
+        }
+      }
+    }
+
+    return true;
+  }
+
+  private static boolean addDroppedTables(final List<String> tokens, final Set<String> result)
+  {
+    if (isKeyword(tokens, 1, "SEQUENCE"))
+    {
+      return true;
+    }
+    else if (isKeyword(tokens, 1, "TABLE"))
+    {
+      return addTableList(tokens, skipIfExists(tokens, 2), result);
+    }
+    else if (isKeyword(tokens, 1, "INDEX"))
+    {
+      // Only if the table is given, as with MySQL or MSSQL
+      return addTableAfter(tokens, "ON", result);
+    }
+    else
+    {
+      return false;
+    }
+  }
+
+  /**
+   * Add comma separated list of tables, other tokens such as CASCADE or TO (with RENAME) are regarded as separators, too
+   */
+  private static boolean addTableList(final List<String> tokens, final int index, final Set<String> result)
+  {
+    if (!addTable(tokens, index, result))
+    {
+      return false;
+    }
+
+    for (int i = index + 1; i < tokens.size() - 1; i++)
+    {
+      if (isKeyword(tokens, i, ",") || isKeyword(tokens, i, "TO"))
+      {
+        addTable(tokens, i + 1, result);
+      }
+    }
+
+    return true;
+  }
+
+  private static boolean addTableAfter(final List<String> tokens, final String keyword, final Set<String> result)
+  {
+    for (int i = 1; i < tokens.size(); i++)
+    {
+      if (isKeyword(tokens, i, keyword))
+      {
+        return addTable(tokens, i + 1, result);
+      }
+    }
+
+    return false;
+  }
+
+  private static boolean addTable(final List<String> tokens, final int index, final Set<String> result)
+  {
+    if (index >= tokens.size())
+    {
+      return false;
+    }
+
+    final Matcher matcher = NAME_PATTERN.matcher(tokens.get(index));
+
+    if (!matcher.find())
+    {
+      return false;
+    }
+
+    for (int group = 1; group <= matcher.groupCount(); group++)
+    {
+      if (matcher.group(group) != null)
+      {
+        result.add(matcher.group(group));
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private static int skipIfExists(final List<String> tokens, final int index)
+  {
+    if (isKeyword(tokens, index, "IF") && isKeyword(tokens, index + 1, "EXISTS"))
+    {
+      return index + 2;
+    }
+    else if (isKeyword(tokens, index, "IF") && isKeyword(tokens, index + 1, "NOT") && isKeyword(tokens, index + 2, "EXISTS"))
+    {
+      return index + 3;
+    }
+    else
+    {
+      return index;
+    }
+  }
+
+  private static boolean isKeyword(final List<String> tokens, final int index, final String keyword)
+  {
+    return index < tokens.size() && tokens.get(index).equalsIgnoreCase(keyword);
+  }
+
+  private static List<String> tokenize(final String statement)
+  {
+    final List<String> result = new ArrayList<>();
+    final Matcher matcher = TOKEN_PATTERN.matcher(statement);
+
+    while (matcher.find())
+    {
+      result.add(matcher.group());
+    }
+
+    return result;
+  }
+}
@@ -1,10 +1,12 @@
 package de.akquinet.jbosscc.guttenbase.statements;
 
 import de.akquinet.jbosscc.guttenbase.hints.ColumnOrderHint;
+import de.akquinet.jbosscc.guttenbase.hints.MemoryGovernorHint;
 import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
 import de.akquinet.jbosscc.guttenbase.tools.CheckEqualTableDataTool;
+import de.akquinet.jbosscc.guttenbase.tools.MemoryGovernor;
 import de.akquinet.jbosscc.guttenbase.tools.ResultSetParameters;
 import de.akquinet.jbosscc.guttenbase.tools.SelectWhereClause;
 import java.sql.Connection;
@@ -20,9 +22,11 @@ import java.util.List;
  * </p>
  *
  * @author M. Dahm
+ * @gb.UsesHint {@link MemoryGovernorHint} to determine fetch size
  */
 public abstract class AbstractSelectStatementCreator extends AbstractStatementCreator {
   public static final String FROM = " FROM ";
+  public static final String WHERE = "WHERE";
 
   public AbstractSelectStatementCreator(final ConnectorRepository connectorRepository, final String connectorId) {
     super(connectorRepository, connectorId);
@@ -33,6 +37,7 @@ public abstract class AbstractSelectStatementCreator extends AbstractStatementCr
    */
   public PreparedStatement createSelectStatement(final Connection connection, final String tableName, final TableMetaData tableMetaData) throws SQLException {
     final ResultSetParameters resultSetParameters = _connectorRepository.getConnectorHint(_connectorId, ResultSetParameters.class).getValue();
+    final MemoryGovernor memoryGovernor = _connectorRepository.getConnectorHint(_connectorId, MemoryGovernor.class).getValue();
     final List<ColumnMetaData> columns = ColumnOrderHint.getSortedColumns(_connectorRepository, _connectorId, tableMetaData);
     final String sql = createSQL(tableName, tableMetaData, columns);
 
@@ -40,7 +45,11 @@ public abstract class AbstractSelectStatementCreator extends AbstractStatementCr
 
     final PreparedStatement preparedStatement = connection.prepareStatement(sql, resultSetParameters.getResultSetType(tableMetaData), resultSetParameters.getResultSetConcurrency(tableMetaData));
 
-    preparedStatement.setFetchSize(Math.min(resultSetParameters.getFetchSize(tableMetaData), preparedStatement.getMaxRows()));
+    final int fetchSize = memoryGovernor.getFetchSize(tableMetaData, resultSetParameters.getFetchSize(tableMetaData));
+    final int maxRows = preparedStatement.getMaxRows();
+
+    // Max rows of 0 means unlimited
+    preparedStatement.setFetchSize(maxRows > 0 ? Math.min(fetchSize, maxRows) : fetchSize);
 
     return preparedStatement;
   }
@@ -50,6 +59,21 @@ public abstract class AbstractSelectStatementCreator extends AbstractStatementCr
     return selectWhereClause.getWhereClause(tableMetaData);
   }
 
+  /**
+   * Combine the configured {@link SelectWhereClause} with the given condition.
+   */
+  public static String appendCondition(final String whereClause, final String condition) {
+    final String trimmedWhereClause = whereClause.trim();
+
+    if (trimmedWhereClause.isEmpty()) {
+      return WHERE + " " + condition;
+    } else if (trimmedWhereClause.toUpperCase().startsWith(WHERE)) {
+      return WHERE + " (" + trimmedWhereClause.substring(WHERE.length()) + ") AND " + condition;
+    } else {
+      return WHERE + " (" + trimmedWhereClause + ") AND " + condition;
+    }
+  }
+
   /**
    * Create SELECT statement in the target table to retrieve data from the mapped columns. I.e., since the target table
    * configuration may be different, the SELECT statement may be different. This is needed to check data compatibility with the
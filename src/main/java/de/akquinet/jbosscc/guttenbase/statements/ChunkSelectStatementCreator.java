@@ -0,0 +1,50 @@
+package de.akquinet.jbosscc.guttenbase.statements;
+
+import de.akquinet.jbosscc.guttenbase.hints.SelectWhereClauseHint;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.tools.SynchronizeTableDataTool;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Read all rows of a chunk of the table, i.e. the rows where the split column is within the given range:
+ * <pre>
+ * SELECT ... FROM T WHERE S &gt;= ? AND S &lt;= ?
+ * </pre>
+ * In contrast to the {@link SplitByColumnSelectStatementCreator} the split column is given explicitly, since the statement is
+ * used for source and target tables.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @gb.UsesHint {@link SelectWhereClauseHint} to restrict the data to be read
+ * @see SynchronizeTableDataTool
+ * @see de.akquinet.jbosscc.guttenbase.tools.CheckEqualTableDataTool
+ */
+public class ChunkSelectStatementCreator extends AbstractSelectStatementCreator {
+  private final ColumnMetaData _splitColumn;
+
+  public ChunkSelectStatementCreator(final ConnectorRepository connectorRepository, final String connectorId,
+                                     final ColumnMetaData splitColumn) {
+    super(connectorRepository, connectorId);
+
+    assert splitColumn != null : "splitColumn != null";
+    _splitColumn = splitColumn;
+  }
+
+  public void setRange(final PreparedStatement preparedStatement, final long minValue, final long maxValue) throws SQLException {
+    preparedStatement.setLong(1, minValue);
+    preparedStatement.setLong(2, maxValue);
+  }
+
+  @Override
+  protected String createWhereClause(final TableMetaData tableMetaData) throws SQLException {
+    final String columnName = _columnMapper.mapColumnName(_splitColumn, tableMetaData);
+
+    return appendCondition(super.createWhereClause(tableMetaData), columnName + " >= ? AND " + columnName + " <= ?");
+  }
+}
@@ -0,0 +1,85 @@
+package de.akquinet.jbosscc.guttenbase.statements;
+
+import de.akquinet.jbosscc.guttenbase.hints.SelectWhereClauseHint;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.tools.IncrementalTableCopyTool;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Read rows changed since the last copy, ordered by the change column:
+ * <pre>
+ * SELECT ... FROM T WHERE C &gt;= ? ORDER BY C
+ * </pre>
+ * Rows with the same change value as the mark are read again, since the previous run may have stopped in the middle of them.
+ * Rows without change value never match the mark and may be read separately.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @gb.UsesHint {@link SelectWhereClauseHint} to restrict the data to be read
+ * @see IncrementalTableCopyTool
+ */
+public class IncrementalSelectStatementCreator extends AbstractSelectStatementCreator {
+  /**
+   * Rows to be selected
+   */
+  public enum Selection {
+    /**
+     * All rows ordered by change column
+     */
+    ALL,
+    /**
+     * Rows at or after the mark given by {@link #setHighWaterMark(PreparedStatement, Object)}, ordered by change column
+     */
+    CHANGED,
+    /**
+     * Rows whose change column is NULL
+     */
+    WITHOUT_CHANGE_VALUE
+  }
+
+  private final ColumnMetaData _changeColumn;
+  private final Selection _selection;
+
+  public IncrementalSelectStatementCreator(final ConnectorRepository connectorRepository, final String connectorId,
+                                           final ColumnMetaData changeColumn, final Selection selection) {
+    super(connectorRepository, connectorId);
+
+    assert changeColumn != null : "changeColumn != null";
+    assert selection != null : "selection != null";
+
+    _changeColumn = changeColumn;
+    _selection = selection;
+  }
+
+  public void setHighWaterMark(final PreparedStatement preparedStatement, final Object highWaterMark) throws SQLException {
+    assert _selection == Selection.CHANGED : "_selection == Selection.CHANGED";
+
+    preparedStatement.setObject(1, highWaterMark);
+  }
+
+  @Override
+  protected String createWhereClause(final TableMetaData tableMetaData) throws SQLException {
+    final String whereClause = super.createWhereClause(tableMetaData).trim();
+    final String columnName = _columnMapper.mapColumnName(_changeColumn, tableMetaData);
+
+    switch (_selection) {
+      case CHANGED:
+        return appendCondition(whereClause, columnName + " >= ?");
+      case WITHOUT_CHANGE_VALUE:
+        return appendCondition(whereClause, columnName + " IS NULL");
+      default:
+        return whereClause;
+    }
+  }
+
+  @Override
+  protected String createOrderBy(final TableMetaData tableMetaData) throws SQLException {
+    return _selection == Selection.WITHOUT_CHANGE_VALUE ? "" : "ORDER BY " + _columnMapper.mapColumnName(_changeColumn, tableMetaData);
+  }
+}
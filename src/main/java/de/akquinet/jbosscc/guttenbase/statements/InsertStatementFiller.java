@@ -1,17 +1,18 @@
 package de.akquinet.jbosscc.guttenbase.statements;
 
 import de.akquinet.jbosscc.guttenbase.configuration.TargetDatabaseConfiguration;
-import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
-import de.akquinet.jbosscc.guttenbase.exceptions.IncompatibleColumnsException;
 import de.akquinet.jbosscc.guttenbase.exceptions.MissingDataException;
 import de.akquinet.jbosscc.guttenbase.hints.ColumnOrderHint;
-import de.akquinet.jbosscc.guttenbase.mapping.ColumnMapper;
-import de.akquinet.jbosscc.guttenbase.mapping.ColumnMapper.ColumnMapperResult;
-import de.akquinet.jbosscc.guttenbase.mapping.ColumnTypeMapping;
-import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.hints.CopyChecksumsHint;
+import de.akquinet.jbosscc.guttenbase.hints.LobStreamingHint;
+import de.akquinet.jbosscc.guttenbase.hints.MemoryGovernorHint;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
-import de.akquinet.jbosscc.guttenbase.tools.CommonColumnTypeResolverTool;
+import de.akquinet.jbosscc.guttenbase.tools.ByteBudgetMemoryGovernor;
+import de.akquinet.jbosscc.guttenbase.tools.CopyChecksums;
+import de.akquinet.jbosscc.guttenbase.tools.LobStreaming;
+import de.akquinet.jbosscc.guttenbase.tools.MemoryGovernor;
+import de.akquinet.jbosscc.guttenbase.tools.RangeChecksum;
 import org.apache.log4j.Logger;
 import java.io.Closeable;
 import java.io.IOException;
@@ -24,12 +25,17 @@ import java.util.List;
 
 /**
  * Fill previously created INSERT statement with data from source connector.
+ * <br>
+ * The column mappings are resolved only once per table, see {@link TableCopyPlan}.
  * <p>
  * &copy; 2012-2020 akquinet tech@spree
  * </p>
  *
  * @author M. Dahm
  * @gb.UsesHint {@link ColumnOrderHint} to determine column order
+ * @gb.UsesHint {@link MemoryGovernorHint} to report sizes of values copied
+ * @gb.UsesHint {@link CopyChecksumsHint} to report checksums of values copied
+ * @gb.UsesHint {@link LobStreamingHint} to set LOB values as streams
  */
 public class InsertStatementFiller
 {
@@ -37,6 +43,11 @@ public class InsertStatementFiller
 
   private final ConnectorRepository _connectorRepository;
   private final List<Closeable> _closeableObjects = new ArrayList<>();
+  private TableCopyPlan _tableCopyPlan;
+  private MemoryGovernor _memoryGovernor;
+  private CopyChecksums _copyChecksums;
+  private RangeChecksum _batchChecksum;
+  private LobStreamer _lobStreamer;
 
   public InsertStatementFiller(final ConnectorRepository connectorRepository)
   {
@@ -50,62 +61,228 @@ public class InsertStatementFiller
                                                final PreparedStatement insertStatement, final int numberOfRowsPerBatch, final boolean useMultipleValuesClauses)
           throws SQLException
   {
-    final CommonColumnTypeResolverTool commonColumnTypeResolver = new CommonColumnTypeResolverTool(_connectorRepository);
-    final List<ColumnMetaData> sourceColumns = ColumnOrderHint.getSortedColumns(_connectorRepository, sourceConnectorId,
-            sourceTableMetaData);
-    final ColumnMapper columnMapper = _connectorRepository.getConnectorHint(targetConnectorId, ColumnMapper.class).getValue();
-    final DatabaseType targetDatabaseType = targetTableMetaData.getDatabaseMetaData().getDatabaseType();
+    final int rowsRead = fillInsertStatement(sourceConnectorId, sourceTableMetaData, targetConnectorId, targetTableMetaData,
+            targetDatabaseConfiguration, targetConnection, rs, insertStatement, numberOfRowsPerBatch, useMultipleValuesClauses);
+
+    if (rowsRead < numberOfRowsPerBatch)
+    {
+      throw new MissingDataException("No more data in row " + rowsRead + "/" + numberOfRowsPerBatch);
+    }
+  }
+
+  /**
+   * Fill INSERT statement with at most the given number of rows. Reading stops when the result set is exhausted, i.e. the caller
+   * does not need to know the number of rows in advance. Since the number of rows is not known before, this may only be used
+   * with statements that do not use multiple VALUES clauses.
+   *
+   * @return number of rows actually added to the batch
+   */
+  public int fillInsertStatementFromAvailableRows(final String sourceConnectorId, final TableMetaData sourceTableMetaData,
+                                                  final String targetConnectorId, final TableMetaData targetTableMetaData,
+                                                  final TargetDatabaseConfiguration targetDatabaseConfiguration, final Connection targetConnection, final ResultSet rs,
+                                                  final PreparedStatement insertStatement, final int maxNumberOfRows) throws SQLException
+  {
+    return fillInsertStatement(sourceConnectorId, sourceTableMetaData, targetConnectorId, targetTableMetaData,
+            targetDatabaseConfiguration, targetConnection, rs, insertStatement, maxNumberOfRows, false);
+  }
+
+  private int fillInsertStatement(final String sourceConnectorId, final TableMetaData sourceTableMetaData,
+                                  final String targetConnectorId, final TableMetaData targetTableMetaData,
+                                  final TargetDatabaseConfiguration targetDatabaseConfiguration, final Connection targetConnection, final ResultSet rs,
+                                  final PreparedStatement insertStatement, final int maxNumberOfRows, final boolean useMultipleValuesClauses)
+          throws SQLException
+  {
+    final TableCopyPlan plan = getTableCopyPlan(sourceConnectorId, sourceTableMetaData, targetConnectorId, targetTableMetaData);
+    final int numberOfSteps = plan.getNumberOfSteps();
     int targetColumnIndex = 1;
     int dataItemsCount = 0;
+    int currentRow = 0;
+    final boolean observingValues = _memoryGovernor.isObservingValues();
+    final boolean computingChecksums = _copyChecksums.isComputingChecksums();
+    final Object[] row = computingChecksums ? new Object[plan.getNumberOfDataItems()] : null;
+    long numberOfBytes = 0;
 
-    for (int currentRow = 0; currentRow < numberOfRowsPerBatch; currentRow++)
+    for (; currentRow < maxNumberOfRows && rs.next(); currentRow++)
     {
-      final boolean ok = rs.next();
-
-      if (!ok)
-      {
-        throw new MissingDataException("No more data in row " + currentRow + "/" + numberOfRowsPerBatch);
-      }
+      int dataItemIndex = 0;
 
       targetDatabaseConfiguration.beforeNewRow(targetConnection, targetConnectorId, targetTableMetaData);
 
-      for (int columnIndex = 1; columnIndex <= sourceColumns.size(); columnIndex++)
+      for (int step = 0; step < numberOfSteps; step++)
       {
-        final ColumnMetaData sourceColumnMetaData = sourceColumns.get(columnIndex - 1);
-        final ColumnMapperResult mapping = columnMapper.map(sourceColumnMetaData, targetTableMetaData);
+        final int columnIndex = plan.getSourceColumnIndex(step);
 
-        if (mapping.getColumns().isEmpty())
+        if (plan.isSkipped(step))
         {
-          if (mapping.isEmptyColumnListOk())
-          {
-            // Unused result, but we may have to skip the next data item from an underlying stream implementation
-            rs.getObject(columnIndex);
-          }
-          else
+          // Unused result, but we may have to skip the next data item from an underlying stream implementation
+          rs.getObject(columnIndex);
+          continue;
+        }
+
+        // Checksums need the actual value
+        if (plan.isDirectCopy(step) && !computingChecksums)
+        {
+          plan.getSourceColumnType(step).copyValue(rs, columnIndex, insertStatement, targetColumnIndex++, plan.getTargetSqlType(step));
+          dataItemsCount++;
+
+          if (observingValues)
           {
-            throw new IncompatibleColumnsException("Cannot map column " + targetTableMetaData
-                    + ":"
-                    + sourceColumnMetaData
-                    + ": Target column list empty");
+            numberOfBytes += ByteBudgetMemoryGovernor.estimateSize(plan.getSourceColumn(step), ByteBudgetMemoryGovernor.DEFAULT_LOB_SIZE);
           }
+          continue;
         }
 
-        for (final ColumnMetaData targetColumnMetaData : mapping.getColumns())
+        Object value = plan.getSourceColumnType(step).getValue(rs, columnIndex);
+        value = plan.getColumnDataMapper(step).map(plan.getSourceColumn(step), plan.getTargetColumn(step), value);
+
+        if (observingValues)
         {
-          final ColumnTypeMapping columnTypeMapping = findMapping(targetConnectorId, commonColumnTypeResolver,
-                  sourceColumnMetaData, targetColumnMetaData);
+          numberOfBytes += ByteBudgetMemoryGovernor.estimateSize(value);
+        }
 
-          Object value = columnTypeMapping.getSourceColumnType().getValue(rs, columnIndex);
-          value = columnTypeMapping.getColumnDataMapper().map(sourceColumnMetaData, targetColumnMetaData, value);
-          Closeable optionalCloseableObject = columnTypeMapping.getTargetColumnType().setValue(insertStatement, targetColumnIndex++, value, targetDatabaseType,
-                  targetColumnMetaData.getColumnType());
+        if (computingChecksums)
+        {
+          row[dataItemIndex++] = value;
+        }
 
-          if (optionalCloseableObject != null)
-          {
-            _closeableObjects.add(optionalCloseableObject);
-          }
+        setValue(plan, step, insertStatement, targetColumnIndex++, value);
+        dataItemsCount++;
+      }
 
-          dataItemsCount++;
+      if (computingChecksums)
+      {
+        _batchChecksum.addRow(row);
+      }
+
+      // Add another INSERT with one VALUES clause to BATCH
+      if (!useMultipleValuesClauses)
+      {
+        insertStatement.addBatch();
+        targetColumnIndex = 1;
+      }
+
+      targetDatabaseConfiguration.afterNewRow(targetConnection, targetConnectorId, targetTableMetaData);
+    }
+
+    // Add single INSERT with many VALUES clauses to BATCH
+    if (useMultipleValuesClauses && currentRow > 0)
+    {
+      insertStatement.addBatch();
+    }
+
+    if (observingValues && currentRow > 0)
+    {
+      _memoryGovernor.valuesObserved(targetTableMetaData, numberOfBytes, currentRow);
+    }
+
+    reportBatchChecksum(targetTableMetaData, computingChecksums && currentRow > 0);
+
+    LOG.debug("Number of data items: " + dataItemsCount);
+    return currentRow;
+  }
+
+  /**
+   * Read and map at most the given number of rows from the result set into the given buffer, so they can be written later or by
+   * another thread. Each row contains the values in the order of the target columns. Rows of the buffer are (re-)allocated if
+   * necessary. Reading stops when the result set is exhausted.
+   *
+   * @param keyColumnIndexes indexes of source columns, starting with 1, whose values shall be recorded in {@code lastKey}
+   * @param lastKey          receives the key values of the last row read
+   * @return number of rows actually read
+   */
+  public int readAvailableRows(final String sourceConnectorId, final TableMetaData sourceTableMetaData,
+                               final String targetConnectorId, final TableMetaData targetTableMetaData, final ResultSet rs,
+                               final Object[][] rows, final int maxNumberOfRows, final int[] keyColumnIndexes,
+                               final Object[] lastKey) throws SQLException
+  {
+    final TableCopyPlan plan = getTableCopyPlan(sourceConnectorId, sourceTableMetaData, targetConnectorId, targetTableMetaData);
+    final int numberOfSteps = plan.getNumberOfSteps();
+    final int numberOfDataItems = plan.getNumberOfDataItems();
+    final boolean observingValues = _memoryGovernor.isObservingValues();
+    long numberOfBytes = 0;
+    int currentRow = 0;
+
+    while (currentRow < maxNumberOfRows && rs.next())
+    {
+      if (rows[currentRow] == null || rows[currentRow].length != numberOfDataItems)
+      {
+        rows[currentRow] = new Object[numberOfDataItems];
+      }
+
+      final Object[] row = rows[currentRow++];
+      int dataItemIndex = 0;
+
+      for (int step = 0; step < numberOfSteps; step++)
+      {
+        final int columnIndex = plan.getSourceColumnIndex(step);
+
+        if (plan.isSkipped(step))
+        {
+          // Unused result, but we may have to skip the next data item from an underlying stream implementation
+          rs.getObject(columnIndex);
+          continue;
+        }
+
+        final Object value = plan.getSourceColumnType(step).getValue(rs, columnIndex);
+        final Object mappedValue = plan.getColumnDataMapper(step).map(plan.getSourceColumn(step), plan.getTargetColumn(step), value);
+
+        if (observingValues)
+        {
+          numberOfBytes += ByteBudgetMemoryGovernor.estimateSize(mappedValue);
+        }
+
+        row[dataItemIndex++] = mappedValue;
+      }
+
+      for (int i = 0; i < keyColumnIndexes.length; i++)
+      {
+        lastKey[i] = rs.getObject(keyColumnIndexes[i]);
+      }
+    }
+
+    if (observingValues && currentRow > 0)
+    {
+      _memoryGovernor.valuesObserved(targetTableMetaData, numberOfBytes, currentRow);
+    }
+
+    return currentRow;
+  }
+
+  /**
+   * Fill INSERT statement with rows previously read by
+   * {@link #readAvailableRows(String, TableMetaData, String, TableMetaData, ResultSet, Object[][], int, int[], Object[])}.
+   */
+  public void fillInsertStatementFromRows(final String sourceConnectorId, final TableMetaData sourceTableMetaData,
+                                          final String targetConnectorId, final TableMetaData targetTableMetaData,
+                                          final TargetDatabaseConfiguration targetDatabaseConfiguration, final Connection targetConnection,
+                                          final Object[][] rows, final PreparedStatement insertStatement, final int numberOfRows,
+                                          final boolean useMultipleValuesClauses) throws SQLException
+  {
+    final TableCopyPlan plan = getTableCopyPlan(sourceConnectorId, sourceTableMetaData, targetConnectorId, targetTableMetaData);
+    final int numberOfSteps = plan.getNumberOfSteps();
+    final boolean computingChecksums = _copyChecksums.isComputingChecksums();
+    int targetColumnIndex = 1;
+
+    for (int currentRow = 0; currentRow < numberOfRows; currentRow++)
+    {
+      final Object[] row = rows[currentRow];
+      int dataItemIndex = 0;
+
+      if (computingChecksums)
+      {
+        _batchChecksum.addRow(row);
+      }
+
+      targetDatabaseConfiguration.beforeNewRow(targetConnection, targetConnectorId, targetTableMetaData);
+
+      for (int step = 0; step < numberOfSteps; step++)
+      {
+        if (!plan.isSkipped(step))
+        {
+          setValue(plan, step, insertStatement, targetColumnIndex++, row[dataItemIndex]);
+
+          // Release reference, the buffer will be reused
+          row[dataItemIndex++] = null;
         }
       }
 
@@ -125,28 +302,84 @@ public class InsertStatementFiller
       insertStatement.addBatch();
     }
 
-    LOG.debug("Number of data items: " + dataItemsCount);
+    reportBatchChecksum(targetTableMetaData, computingChecksums && numberOfRows > 0);
   }
 
-  private ColumnTypeMapping findMapping(final String targetConnectorId,
-                                        final CommonColumnTypeResolverTool commonColumnTypeResolver, final ColumnMetaData columnMetaData1,
-                                        final ColumnMetaData columnMetaData2) throws SQLException
+  /**
+   * Set the values of a single row previously read by
+   * {@link #readAvailableRows(String, TableMetaData, String, TableMetaData, ResultSet, Object[][], int, int[], Object[])} as
+   * parameters of the given statement, e.g. an UPDATE statement. In contrast to INSERT statements the order of the parameters may
+   * differ from the order of the target columns.
+   *
+   * @param dataItemIndexes indexes of the values within the row, starting with 0, in the order of the statement parameters
+   */
+  public void fillStatementFromRow(final String sourceConnectorId, final TableMetaData sourceTableMetaData,
+                                   final String targetConnectorId, final TableMetaData targetTableMetaData, final Object[] row,
+                                   final PreparedStatement statement, final int[] dataItemIndexes) throws SQLException
   {
-    final ColumnTypeMapping columnTypeMapping = commonColumnTypeResolver.getCommonColumnTypeMapping(
-      columnMetaData1, targetConnectorId, columnMetaData2);
+    final TableCopyPlan plan = getTableCopyPlan(sourceConnectorId, sourceTableMetaData, targetConnectorId, targetTableMetaData);
+    final int[] steps = new int[plan.getNumberOfDataItems()];
+    int dataItemIndex = 0;
+
+    for (int step = 0; step < plan.getNumberOfSteps(); step++)
+    {
+      if (!plan.isSkipped(step))
+      {
+        steps[dataItemIndex++] = step;
+      }
+    }
 
-    if (columnTypeMapping == null)
+    for (int i = 0; i < dataItemIndexes.length; i++)
     {
-      throw new IncompatibleColumnsException("Columns have incompatible types: " + columnMetaData1.getColumnName()
-              + "/"
-              + columnMetaData1.getColumnTypeName()
-              + " vs. "
-              + columnMetaData2.getColumnName()
-              + "/"
-              + columnMetaData2.getColumnTypeName());
+      final int step = steps[dataItemIndexes[i]];
+      setValue(plan, step, statement, i + 1, row[dataItemIndexes[i]]);
     }
 
-    return columnTypeMapping;
+    statement.addBatch();
+  }
+
+  /**
+   * The plan is compiled on first use and reused as long as the same tables are copied.
+   */
+  public TableCopyPlan getTableCopyPlan(final String sourceConnectorId, final TableMetaData sourceTableMetaData,
+                                        final String targetConnectorId, final TableMetaData targetTableMetaData) throws SQLException
+  {
+    if (_tableCopyPlan == null || !_tableCopyPlan.isPlanFor(sourceTableMetaData, targetConnectorId, targetTableMetaData))
+    {
+      _tableCopyPlan = new TableCopyPlan(_connectorRepository, sourceConnectorId, sourceTableMetaData, targetConnectorId,
+              targetTableMetaData);
+      _memoryGovernor = _connectorRepository.getConnectorHint(targetConnectorId, MemoryGovernor.class).getValue();
+      _copyChecksums = _connectorRepository.getConnectorHint(targetConnectorId, CopyChecksums.class).getValue();
+      _batchChecksum = new RangeChecksum();
+
+      final LobStreaming lobStreaming = _connectorRepository.getConnectorHint(targetConnectorId, LobStreaming.class).getValue();
+      _lobStreamer = lobStreaming.isStreamingLobs(targetTableMetaData) ? new LobStreamer(lobStreaming.getBufferPool()) : null;
+    }
+
+    return _tableCopyPlan;
+  }
+
+  private void setValue(final TableCopyPlan plan, final int step, final PreparedStatement statement, final int parameterIndex,
+                        final Object value) throws SQLException
+  {
+    final Closeable optionalCloseableObject = _lobStreamer != null && LobStreamer.isLob(value)
+            ? _lobStreamer.setValue(statement, parameterIndex, value)
+            : plan.getTargetColumnType(step).setValue(statement, parameterIndex, value, plan.getTargetDatabaseType(),
+            plan.getTargetSqlType(step));
+
+    if (optionalCloseableObject != null)
+    {
+      _closeableObjects.add(optionalCloseableObject);
+    }
+  }
+
+  private void reportBatchChecksum(final TableMetaData targetTableMetaData, final boolean rowsAdded)
+  {
+    if (rowsAdded)
+    {
+      _copyChecksums.batchCopied(targetTableMetaData, _batchChecksum);
+      _batchChecksum.reset();
+    }
   }
 
   /**
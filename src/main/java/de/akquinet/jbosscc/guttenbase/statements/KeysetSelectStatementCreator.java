@@ -0,0 +1,147 @@
+package de.akquinet.jbosscc.guttenbase.statements;
+
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.hints.SelectWhereClauseHint;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.tools.KeysetTableCopyTool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Read data in chunks ordered by the given key columns, usually the primary key. Each chunk continues after the last key of the
+ * previous chunk (keyset pagination or "seek method"), i.e. the data base can use the index and the cost is independent of
+ * gaps in the key range:
+ * <pre>
+ * SELECT ... FROM T WHERE (K1 &gt; ?) OR (K1 = ? AND K2 &gt; ?) ORDER BY K1, K2 LIMIT n
+ * </pre>
+ * The number of rows is restricted with the data base specific syntax, or {@link PreparedStatement#setMaxRows(int)} if unknown.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @gb.UsesHint {@link SelectWhereClauseHint} to restrict the data to be read
+ * @see KeysetTableCopyTool
+ */
+public class KeysetSelectStatementCreator extends AbstractSelectStatementCreator {
+  private final List<ColumnMetaData> _keyColumns;
+  private final int _numberOfRows;
+  private final boolean _continuation;
+
+  /**
+   * @param keyColumns   columns uniquely identifying a row
+   * @param numberOfRows maximum number of rows per chunk
+   * @param continuation true: read rows after the key given by {@link #setKeyParameters(PreparedStatement, Object[])}, false: read
+   *                     first chunk
+   */
+  public KeysetSelectStatementCreator(final ConnectorRepository connectorRepository, final String connectorId,
+                                      final List<ColumnMetaData> keyColumns, final int numberOfRows, final boolean continuation) {
+    super(connectorRepository, connectorId);
+
+    assert keyColumns != null && !keyColumns.isEmpty() : "keyColumns != null && !keyColumns.isEmpty()";
+    assert numberOfRows > 0 : "numberOfRows > 0";
+
+    _keyColumns = keyColumns;
+    _numberOfRows = numberOfRows;
+    _continuation = continuation;
+  }
+
+  @Override
+  public PreparedStatement createSelectStatement(final Connection connection, final String tableName, final TableMetaData tableMetaData)
+    throws SQLException {
+    final PreparedStatement preparedStatement = super.createSelectStatement(connection, tableName, tableMetaData);
+
+    if (createLimitClause(tableMetaData).isEmpty()) {
+      preparedStatement.setMaxRows(_numberOfRows);
+    }
+
+    return preparedStatement;
+  }
+
+  /**
+   * Set parameters of continuation statement
+   *
+   * @param lastKey key values of last row read
+   */
+  public void setKeyParameters(final PreparedStatement preparedStatement, final Object[] lastKey) throws SQLException {
+    int parameterIndex = 1;
+
+    for (int i = 0; i < _keyColumns.size(); i++) {
+      for (int j = 0; j <= i; j++) {
+        preparedStatement.setObject(parameterIndex++, lastKey[j]);
+      }
+    }
+  }
+
+  @Override
+  protected String createWhereClause(final TableMetaData tableMetaData) throws SQLException {
+    final String whereClause = super.createWhereClause(tableMetaData).trim();
+
+    if (!_continuation) {
+      return whereClause;
+    }
+
+    return appendCondition(whereClause, "(" + createKeyCondition(tableMetaData) + ")");
+  }
+
+  @Override
+  protected String createOrderBy(final TableMetaData tableMetaData) throws SQLException {
+    final StringBuilder buf = new StringBuilder("ORDER BY ");
+
+    for (final ColumnMetaData keyColumn : _keyColumns) {
+      buf.append(_columnMapper.mapColumnName(keyColumn, tableMetaData)).append(", ");
+    }
+
+    buf.setLength(buf.length() - 2);
+
+    return buf + createLimitClause(tableMetaData);
+  }
+
+  /**
+   * (K1 &gt; ?) OR (K1 = ? AND K2 &gt; ?) OR ...
+   */
+  private String createKeyCondition(final TableMetaData tableMetaData) throws SQLException {
+    final StringBuilder buf = new StringBuilder();
+
+    for (int i = 0; i < _keyColumns.size(); i++) {
+      if (i > 0) {
+        buf.append(" OR ");
+      }
+
+      buf.append("(");
+
+      for (int j = 0; j < i; j++) {
+        buf.append(_columnMapper.mapColumnName(_keyColumns.get(j), tableMetaData)).append(" = ? AND ");
+      }
+
+      buf.append(_columnMapper.mapColumnName(_keyColumns.get(i), tableMetaData)).append(" > ?)");
+    }
+
+    return buf.toString();
+  }
+
+  private String createLimitClause(final TableMetaData tableMetaData) {
+    final DatabaseType databaseType = tableMetaData.getDatabaseMetaData().getDatabaseType();
+
+    switch (databaseType) {
+      case MYSQL:
+      case POSTGRESQL:
+      case HSQLDB:
+      case H2DB:
+        return " LIMIT " + _numberOfRows;
+      case DERBY:
+      case DB2:
+      case ORACLE:
+        return " FETCH FIRST " + _numberOfRows + " ROWS ONLY";
+      case MSSQL:
+        return " OFFSET 0 ROWS FETCH NEXT " + _numberOfRows + " ROWS ONLY";
+      default:
+        return "";
+    }
+  }
+}
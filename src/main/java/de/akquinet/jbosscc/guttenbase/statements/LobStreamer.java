@@ -0,0 +1,149 @@
+package de.akquinet.jbosscc.guttenbase.statements;
+
+import de.akquinet.jbosscc.guttenbase.tools.LobBufferPool;
+import de.akquinet.jbosscc.guttenbase.tools.LobStreaming;
+
+import java.io.ByteArrayInputStream;
+import java.io.CharArrayReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * Set LOB values as streams with known length, see {@link LobStreaming}.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+final class LobStreamer {
+  private final LobBufferPool _bufferPool;
+
+  LobStreamer(final LobBufferPool bufferPool) {
+    assert bufferPool != null : "bufferPool != null";
+    _bufferPool = bufferPool;
+  }
+
+  static boolean isLob(final Object value) {
+    return value instanceof Blob || value instanceof Clob;
+  }
+
+  /**
+   * @return object to be closed after the batch has been executed
+   */
+  Closeable setValue(final PreparedStatement statement, final int parameterIndex, final Object value) throws SQLException {
+    if (value instanceof Blob) {
+      return setBlob(statement, parameterIndex, (Blob) value);
+    } else {
+      return setClob(statement, parameterIndex, (Clob) value);
+    }
+  }
+
+  private Closeable setBlob(final PreparedStatement statement, final int parameterIndex, final Blob blob) throws SQLException {
+    final long length = blob.length();
+
+    if (length <= _bufferPool.getBufferSize()) {
+      final byte[] buffer = _bufferPool.acquireByteBuffer();
+
+      try (final InputStream inputStream = blob.getBinaryStream()) {
+        final int numberOfBytes = readFully(inputStream, buffer, (int) length);
+        statement.setBinaryStream(parameterIndex, new ByteArrayInputStream(buffer, 0, numberOfBytes), numberOfBytes);
+      } catch (final IOException e) {
+        _bufferPool.releaseByteBuffer(buffer);
+        throw new SQLException("Cannot read BLOB", e);
+      }
+
+      return () -> {
+        _bufferPool.releaseByteBuffer(buffer);
+        free(blob);
+      };
+    } else {
+      final InputStream inputStream = blob.getBinaryStream();
+      statement.setBinaryStream(parameterIndex, inputStream, length);
+
+      return () -> {
+        inputStream.close();
+        free(blob);
+      };
+    }
+  }
+
+  private Closeable setClob(final PreparedStatement statement, final int parameterIndex, final Clob clob) throws SQLException {
+    final long length = clob.length();
+
+    if (length <= _bufferPool.getBufferSize()) {
+      final char[] buffer = _bufferPool.acquireCharBuffer();
+
+      try (final Reader reader = clob.getCharacterStream()) {
+        final int numberOfChars = readFully(reader, buffer, (int) length);
+        statement.setCharacterStream(parameterIndex, new CharArrayReader(buffer, 0, numberOfChars), numberOfChars);
+      } catch (final IOException e) {
+        _bufferPool.releaseCharBuffer(buffer);
+        throw new SQLException("Cannot read CLOB", e);
+      }
+
+      return () -> {
+        _bufferPool.releaseCharBuffer(buffer);
+        free(clob);
+      };
+    } else {
+      final Reader reader = clob.getCharacterStream();
+      statement.setCharacterStream(parameterIndex, reader, length);
+
+      return () -> {
+        reader.close();
+        free(clob);
+      };
+    }
+  }
+
+  private static int readFully(final InputStream inputStream, final byte[] buffer, final int length) throws IOException {
+    int offset = 0;
+    int numberOfBytes;
+
+    while (offset < length && (numberOfBytes = inputStream.read(buffer, offset, length - offset)) > 0) {
+      offset += numberOfBytes;
+    }
+
+    return offset;
+  }
+
+  private static int readFully(final Reader reader, final char[] buffer, final int length) throws IOException {
+    int offset = 0;
+    int numberOfChars;
+
+    while (offset < length && (numberOfChars = reader.read(buffer, offset, length - offset)) > 0) {
+      offset += numberOfChars;
+    }
+
+    return offset;
+  }
+
+  /**
+   * Release the source LOB, if the driver supports it
+   */
+  private static void free(final Blob blob) throws IOException {
+    try {
+      blob.free();
+    } catch (final SQLFeatureNotSupportedException ignored) {
+    } catch (final SQLException e) {
+      throw new IOException("Cannot free BLOB", e);
+    }
+  }
+
+  private static void free(final Clob clob) throws IOException {
+    try {
+      clob.free();
+    } catch (final SQLFeatureNotSupportedException ignored) {
+    } catch (final SQLException e) {
+      throw new IOException("Cannot free CLOB", e);
+    }
+  }
+}
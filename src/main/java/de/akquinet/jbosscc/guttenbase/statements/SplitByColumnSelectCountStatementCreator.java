@@ -37,6 +37,6 @@ public class SplitByColumnSelectCountStatementCreator extends AbstractSelectStat
 		final ColumnMetaData splitColumn = _connectorRepository.getConnectorHint(_connectorId, SplitColumn.class).getValue()
 				.getSplitColumn(tableMetaData);
 
-		return "WHERE " + splitColumn.getColumnName() + " BETWEEN ? AND ?";
+		return appendCondition(super.createWhereClause(tableMetaData), splitColumn.getColumnName() + " BETWEEN ? AND ?");
 	}
 }
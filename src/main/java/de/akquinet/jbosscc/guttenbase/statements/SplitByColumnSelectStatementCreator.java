@@ -28,7 +28,7 @@ public class SplitByColumnSelectStatementCreator extends AbstractSelectStatement
   protected String createWhereClause(final TableMetaData tableMetaData) throws SQLException {
     final ColumnMetaData splitColumn = _connectorRepository.getConnectorHint(_connectorId, SplitColumn.class).getValue()
         .getSplitColumn(tableMetaData);
-    return "WHERE " + splitColumn.getColumnName() + " BETWEEN ? AND ?";
+    return appendCondition(super.createWhereClause(tableMetaData), splitColumn.getColumnName() + " BETWEEN ? AND ?");
   }
 
   @Override
@@ -0,0 +1,52 @@
+package de.akquinet.jbosscc.guttenbase.statements;
+
+import de.akquinet.jbosscc.guttenbase.hints.SplitColumnHint;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.tools.SplitColumn;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Sometimes the amount of data exceeds any buffer. In these cases we need to split the data by some given range, usually the primary key.
+ * I.e., the data is read in chunks where these chunks are split using the ID column range of values.
+ *
+ * Read all values of that column in ascending order, in order to compute the distribution of values.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @gb.UsesHint {@link SplitColumnHint}
+ * @author M. Dahm
+ */
+public class SplitByColumnSelectValuesStatementCreator extends AbstractSelectStatementCreator {
+  public SplitByColumnSelectValuesStatementCreator(final ConnectorRepository connectorRepository, final String connectorId) {
+    super(connectorRepository, connectorId);
+  }
+
+  @Override
+  protected String createColumnClause(final List<ColumnMetaData> columns) throws SQLException {
+    assert !columns.isEmpty();
+    return getSplitColumn(columns.get(0).getTableMetaData()).getColumnName();
+  }
+
+  /**
+   * Must match the rows read by {@link SplitByColumnSelectStatementCreator}
+   */
+  @Override
+  protected String createWhereClause(final TableMetaData tableMetaData) throws SQLException {
+    return appendCondition(super.createWhereClause(tableMetaData), getSplitColumn(tableMetaData).getColumnName() + " IS NOT NULL");
+  }
+
+  @Override
+  protected String createOrderBy(final TableMetaData tableMetaData) throws SQLException {
+    return "ORDER BY " + getSplitColumn(tableMetaData).getColumnName();
+  }
+
+  private ColumnMetaData getSplitColumn(final TableMetaData tableMetaData) throws SQLException {
+    return _connectorRepository.getConnectorHint(_connectorId, SplitColumn.class).getValue().getSplitColumn(tableMetaData);
+  }
+}
@@ -0,0 +1,251 @@
+package de.akquinet.jbosscc.guttenbase.statements;
+
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.defaults.impl.DefaultColumnDataMapper;
+import de.akquinet.jbosscc.guttenbase.exceptions.IncompatibleColumnsException;
+import de.akquinet.jbosscc.guttenbase.hints.ColumnOrderHint;
+import de.akquinet.jbosscc.guttenbase.mapping.ColumnDataMapper;
+import de.akquinet.jbosscc.guttenbase.mapping.ColumnMapper;
+import de.akquinet.jbosscc.guttenbase.mapping.ColumnMapper.ColumnMapperResult;
+import de.akquinet.jbosscc.guttenbase.mapping.ColumnTypeMapping;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnType;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.tools.CommonColumnTypeResolverTool;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Column mappings of a table resolved once before copying, so that no hints need to be consulted per row. The plan consists of
+ * steps in the order the source columns are read from the result set. A step either transfers the value of a source column to a
+ * target column, or skips a source column that is not mapped to any target column. Steps transferring data are numbered
+ * consecutively, i.e. the n-th data item of a row is bound to the n-th placeholder of the VALUES clause.
+ * <br>
+ * Steps where the value is neither mapped nor converted are marked as direct copies, which may be transferred without boxing, see
+ * {@link ColumnType#copyValue(java.sql.ResultSet, int, java.sql.PreparedStatement, int, int)}.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @gb.UsesHint {@link ColumnOrderHint} to determine column order
+ */
+public class TableCopyPlan
+{
+  private final TableMetaData _sourceTableMetaData;
+  private final String _targetConnectorId;
+  private final TableMetaData _targetTableMetaData;
+  private final DatabaseType _targetDatabaseType;
+
+  private final int[] _sourceColumnIndexes;
+  private final boolean[] _skipped;
+  private final ColumnMetaData[] _sourceColumns;
+  private final ColumnMetaData[] _targetColumns;
+  private final ColumnType[] _sourceColumnTypes;
+  private final ColumnType[] _targetColumnTypes;
+  private final ColumnDataMapper[] _columnDataMappers;
+  private final int[] _targetSqlTypes;
+  private final boolean[] _directCopy;
+  private final int _numberOfDataItems;
+
+  public TableCopyPlan(final ConnectorRepository connectorRepository, final String sourceConnectorId,
+                       final TableMetaData sourceTableMetaData, final String targetConnectorId,
+                       final TableMetaData targetTableMetaData) throws SQLException
+  {
+    assert connectorRepository != null : "connectorRepository != null";
+    assert sourceTableMetaData != null : "sourceTableMetaData != null";
+    assert targetTableMetaData != null : "targetTableMetaData != null";
+
+    _sourceTableMetaData = sourceTableMetaData;
+    _targetConnectorId = targetConnectorId;
+    _targetTableMetaData = targetTableMetaData;
+    _targetDatabaseType = targetTableMetaData.getDatabaseMetaData().getDatabaseType();
+
+    final CommonColumnTypeResolverTool commonColumnTypeResolver = new CommonColumnTypeResolverTool(connectorRepository);
+    final List<ColumnMetaData> sourceColumns = ColumnOrderHint.getSortedColumns(connectorRepository, sourceConnectorId,
+            sourceTableMetaData);
+    final ColumnMapper columnMapper = connectorRepository.getConnectorHint(targetConnectorId, ColumnMapper.class).getValue();
+    final List<Integer> sourceColumnIndexes = new ArrayList<>();
+    final List<ColumnMetaData> sourceColumnList = new ArrayList<>();
+    final List<ColumnMetaData> targetColumnList = new ArrayList<>();
+    final List<ColumnTypeMapping> columnTypeMappings = new ArrayList<>();
+
+    for (int columnIndex = 1; columnIndex <= sourceColumns.size(); columnIndex++)
+    {
+      final ColumnMetaData sourceColumnMetaData = sourceColumns.get(columnIndex - 1);
+      final ColumnMapperResult mapping = columnMapper.map(sourceColumnMetaData, targetTableMetaData);
+
+      if (mapping.getColumns().isEmpty())
+      {
+        if (mapping.isEmptyColumnListOk())
+        {
+          sourceColumnIndexes.add(columnIndex);
+          sourceColumnList.add(sourceColumnMetaData);
+          targetColumnList.add(null);
+          columnTypeMappings.add(null);
+        }
+        else
+        {
+          throw new IncompatibleColumnsException("Cannot map column " + targetTableMetaData
+                  + ":"
+                  + sourceColumnMetaData
+                  + ": Target column list empty");
+        }
+      }
+
+      for (final ColumnMetaData targetColumnMetaData : mapping.getColumns())
+      {
+        sourceColumnIndexes.add(columnIndex);
+        sourceColumnList.add(sourceColumnMetaData);
+        targetColumnList.add(targetColumnMetaData);
+        columnTypeMappings.add(findMapping(targetConnectorId, commonColumnTypeResolver, sourceColumnMetaData,
+                targetColumnMetaData));
+      }
+    }
+
+    final int numberOfSteps = sourceColumnIndexes.size();
+    int numberOfDataItems = 0;
+
+    _sourceColumnIndexes = new int[numberOfSteps];
+    _skipped = new boolean[numberOfSteps];
+    _sourceColumns = sourceColumnList.toArray(new ColumnMetaData[0]);
+    _targetColumns = targetColumnList.toArray(new ColumnMetaData[0]);
+    _sourceColumnTypes = new ColumnType[numberOfSteps];
+    _targetColumnTypes = new ColumnType[numberOfSteps];
+    _columnDataMappers = new ColumnDataMapper[numberOfSteps];
+    _targetSqlTypes = new int[numberOfSteps];
+    _directCopy = new boolean[numberOfSteps];
+
+    for (int step = 0; step < numberOfSteps; step++)
+    {
+      final ColumnTypeMapping columnTypeMapping = columnTypeMappings.get(step);
+
+      _sourceColumnIndexes[step] = sourceColumnIndexes.get(step);
+      _skipped[step] = columnTypeMapping == null;
+
+      if (columnTypeMapping != null)
+      {
+        _sourceColumnTypes[step] = columnTypeMapping.getSourceColumnType();
+        _targetColumnTypes[step] = columnTypeMapping.getTargetColumnType();
+        _columnDataMappers[step] = columnTypeMapping.getColumnDataMapper();
+        _targetSqlTypes[step] = _targetColumns[step].getColumnType();
+        _directCopy[step] = _sourceColumnTypes[step] == _targetColumnTypes[step]
+                && _sourceColumnTypes[step].isDirectCopySupported()
+                && _columnDataMappers[step].getClass() == DefaultColumnDataMapper.class;
+        numberOfDataItems++;
+      }
+    }
+
+    _numberOfDataItems = numberOfDataItems;
+  }
+
+  /**
+   * @return true if the plan has been compiled for the given tables
+   */
+  public boolean isPlanFor(final TableMetaData sourceTableMetaData, final String targetConnectorId,
+                           final TableMetaData targetTableMetaData)
+  {
+    return _sourceTableMetaData == sourceTableMetaData && _targetTableMetaData == targetTableMetaData
+            && _targetConnectorId.equals(targetConnectorId);
+  }
+
+  public int getNumberOfSteps()
+  {
+    return _sourceColumnIndexes.length;
+  }
+
+  /**
+   * @return number of values per row to be inserted into the target table
+   */
+  public int getNumberOfDataItems()
+  {
+    return _numberOfDataItems;
+  }
+
+  /**
+   * @return true if the source column is not copied, but still has to be read
+   */
+  public boolean isSkipped(final int step)
+  {
+    return _skipped[step];
+  }
+
+  /**
+   * @return index of source column in result set, starting with 1
+   */
+  public int getSourceColumnIndex(final int step)
+  {
+    return _sourceColumnIndexes[step];
+  }
+
+  /**
+   * @return true if the value may be copied directly from the result set to the INSERT statement
+   */
+  public boolean isDirectCopy(final int step)
+  {
+    return _directCopy[step];
+  }
+
+  public ColumnMetaData getSourceColumn(final int step)
+  {
+    return _sourceColumns[step];
+  }
+
+  public ColumnMetaData getTargetColumn(final int step)
+  {
+    return _targetColumns[step];
+  }
+
+  public ColumnType getSourceColumnType(final int step)
+  {
+    return _sourceColumnTypes[step];
+  }
+
+  public ColumnType getTargetColumnType(final int step)
+  {
+    return _targetColumnTypes[step];
+  }
+
+  public ColumnDataMapper getColumnDataMapper(final int step)
+  {
+    return _columnDataMappers[step];
+  }
+
+  /**
+   * @return SQL type of target column as defined in {@link java.sql.Types}
+   */
+  public int getTargetSqlType(final int step)
+  {
+    return _targetSqlTypes[step];
+  }
+
+  public DatabaseType getTargetDatabaseType()
+  {
+    return _targetDatabaseType;
+  }
+
+  private static ColumnTypeMapping findMapping(final String targetConnectorId,
+                                               final CommonColumnTypeResolverTool commonColumnTypeResolver,
+                                               final ColumnMetaData columnMetaData1, final ColumnMetaData columnMetaData2)
+          throws SQLException
+  {
+    final ColumnTypeMapping columnTypeMapping = commonColumnTypeResolver.getCommonColumnTypeMapping(
+      columnMetaData1, targetConnectorId, columnMetaData2);
+
+    if (columnTypeMapping == null)
+    {
+      throw new IncompatibleColumnsException("Columns have incompatible types: " + columnMetaData1.getColumnName()
+              + "/"
+              + columnMetaData1.getColumnTypeName()
+              + " vs. "
+              + columnMetaData2.getColumnName()
+              + "/"
+              + columnMetaData2.getColumnTypeName());
+    }
+
+    return columnTypeMapping;
+  }
+}
@@ -0,0 +1,213 @@
+package de.akquinet.jbosscc.guttenbase.statements;
+
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.exceptions.TableConfigurationException;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Create statement inserting a row or updating it, if a row with the same primary key already exists. The parameters are the
+ * mapped target columns in the same order as in the INSERT statement, so the statement may be filled with the
+ * {@link InsertStatementFiller} in batch mode.
+ * <br>
+ * H2, MySQL and PostgreSQL support this natively. For other data bases a plain INSERT statement is created and existing rows have
+ * to be deleted before with the statement created by {@link #createDeleteStatement(String, TableMetaData, Connection)}.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class UpsertStatementCreator extends AbstractStatementCreator {
+  public UpsertStatementCreator(final ConnectorRepository connectorRepository, final String connectorId) {
+    super(connectorRepository, connectorId);
+  }
+
+  public static boolean isUpsertSupported(final DatabaseType databaseType) {
+    switch (databaseType) {
+      case H2DB:
+      case MYSQL:
+      case POSTGRESQL:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  public PreparedStatement createUpsertStatement(final String sourceConnectorId, final TableMetaData sourceTableMetaData,
+                                                 final String targetTableName, final TableMetaData targetTableMetaData,
+                                                 final Connection targetConnection) throws SQLException {
+    final List<ColumnMetaData> columns = getMappedTargetColumns(sourceTableMetaData, targetTableMetaData, sourceConnectorId);
+    final List<ColumnMetaData> keyColumns = getKeyColumns(targetTableMetaData);
+    final String sql = createSQL(targetTableName, targetTableMetaData, columns, keyColumns);
+
+    LOG.debug("Create UPSERT statement " + sql);
+    return targetConnection.prepareStatement(sql);
+  }
+
+  /**
+   * Parameters are the primary key columns of the target table.
+   */
+  public PreparedStatement createDeleteStatement(final String targetTableName, final TableMetaData targetTableMetaData,
+                                                 final Connection targetConnection) throws SQLException {
+    final StringBuilder buf = new StringBuilder("DELETE FROM " + targetTableName + " WHERE ");
+
+    for (final ColumnMetaData keyColumn : getKeyColumns(targetTableMetaData)) {
+      buf.append(_columnMapper.mapColumnName(keyColumn, targetTableMetaData)).append(" = ? AND ");
+    }
+
+    buf.setLength(buf.length() - 5);
+
+    LOG.debug("Create DELETE statement " + buf);
+    return targetConnection.prepareStatement(buf.toString());
+  }
+
+  /**
+   * Parameters are the non-key columns followed by the primary key columns of the target table, see
+   * {@link #getUpdateColumnIndexes(String, TableMetaData, TableMetaData)}.
+   */
+  public PreparedStatement createUpdateStatement(final String sourceConnectorId, final TableMetaData sourceTableMetaData,
+                                                 final String targetTableName, final TableMetaData targetTableMetaData,
+                                                 final Connection targetConnection) throws SQLException {
+    final List<ColumnMetaData> columns = getMappedTargetColumns(sourceTableMetaData, targetTableMetaData, sourceConnectorId);
+    final List<ColumnMetaData> keyColumns = getKeyColumns(targetTableMetaData);
+    final StringBuilder buf = new StringBuilder("UPDATE " + targetTableName + " SET ");
+
+    for (final ColumnMetaData column : columns) {
+      if (!keyColumns.contains(column)) {
+        buf.append(_columnMapper.mapColumnName(column, targetTableMetaData)).append(" = ?, ");
+      }
+    }
+
+    buf.setLength(buf.length() - 2);
+    buf.append(" WHERE ");
+
+    for (final ColumnMetaData keyColumn : keyColumns) {
+      buf.append(_columnMapper.mapColumnName(keyColumn, targetTableMetaData)).append(" = ? AND ");
+    }
+
+    buf.setLength(buf.length() - 5);
+
+    LOG.debug("Create UPDATE statement " + buf);
+    return targetConnection.prepareStatement(buf.toString());
+  }
+
+  /**
+   * @return indexes of the non-key columns followed by the primary key columns within the mapped target columns, starting with 0
+   */
+  public int[] getUpdateColumnIndexes(final String sourceConnectorId, final TableMetaData sourceTableMetaData,
+                                      final TableMetaData targetTableMetaData) throws SQLException {
+    final List<ColumnMetaData> columns = getMappedTargetColumns(sourceTableMetaData, targetTableMetaData, sourceConnectorId);
+    final int[] keyColumnIndexes = getKeyColumnIndexes(sourceConnectorId, sourceTableMetaData, targetTableMetaData);
+    final int[] result = new int[columns.size()];
+    int index = 0;
+
+    for (int i = 0; i < columns.size(); i++) {
+      if (!getKeyColumns(targetTableMetaData).contains(columns.get(i))) {
+        result[index++] = i;
+      }
+    }
+
+    for (final int keyColumnIndex : keyColumnIndexes) {
+      result[index++] = keyColumnIndex;
+    }
+
+    return result;
+  }
+
+  /**
+   * @return indexes of the primary key columns within the mapped target columns, starting with 0
+   */
+  public int[] getKeyColumnIndexes(final String sourceConnectorId, final TableMetaData sourceTableMetaData,
+                                   final TableMetaData targetTableMetaData) throws SQLException {
+    final List<ColumnMetaData> columns = getMappedTargetColumns(sourceTableMetaData, targetTableMetaData, sourceConnectorId);
+    final List<ColumnMetaData> keyColumns = getKeyColumns(targetTableMetaData);
+    final int[] result = new int[keyColumns.size()];
+
+    for (int i = 0; i < keyColumns.size(); i++) {
+      result[i] = columns.indexOf(keyColumns.get(i));
+
+      if (result[i] < 0) {
+        throw new TableConfigurationException("Primary key column " + keyColumns.get(i) + " is not copied");
+      }
+    }
+
+    return result;
+  }
+
+  private String createSQL(final String targetTableName, final TableMetaData targetTableMetaData, final List<ColumnMetaData> columns,
+                           final List<ColumnMetaData> keyColumns) throws SQLException {
+    final String columnClause = createColumnClause(columns);
+    final String values = createValues(columns.size());
+
+    switch (targetTableMetaData.getDatabaseMetaData().getDatabaseType()) {
+      case H2DB:
+        return "MERGE INTO " + targetTableName + " (" + columnClause + ") KEY (" + createColumnClause(keyColumns) + ") VALUES "
+            + values;
+      case MYSQL:
+        return AbstractInsertStatementCreator.INSERT_INTO + targetTableName + " (" + columnClause + ") VALUES " + values
+            + " ON DUPLICATE KEY UPDATE " + createUpdateClause(targetTableMetaData, columns, keyColumns, "VALUES(", ")");
+      case POSTGRESQL:
+        return AbstractInsertStatementCreator.INSERT_INTO + targetTableName + " (" + columnClause + ") VALUES " + values
+            + " ON CONFLICT (" + createColumnClause(keyColumns) + ") "
+            + (columns.size() > keyColumns.size()
+            ? "DO UPDATE SET " + createUpdateClause(targetTableMetaData, columns, keyColumns, "EXCLUDED.", "")
+            : "DO NOTHING");
+      default:
+        return AbstractInsertStatementCreator.INSERT_INTO + targetTableName + " (" + columnClause + ") VALUES " + values;
+    }
+  }
+
+  /**
+   * C1 = prefix C1 suffix, ... for all non-key columns. Key columns are updated with their own values, if there are no other
+   * columns.
+   */
+  private String createUpdateClause(final TableMetaData targetTableMetaData, final List<ColumnMetaData> columns,
+                                    final List<ColumnMetaData> keyColumns, final String prefix, final String suffix)
+      throws SQLException {
+    final List<ColumnMetaData> updatedColumns = new ArrayList<>(columns);
+    updatedColumns.removeAll(keyColumns);
+
+    if (updatedColumns.isEmpty()) {
+      updatedColumns.addAll(keyColumns);
+    }
+
+    final StringBuilder buf = new StringBuilder();
+
+    for (final ColumnMetaData column : updatedColumns) {
+      final String columnName = _columnMapper.mapColumnName(column, targetTableMetaData);
+      buf.append(columnName).append(" = ").append(prefix).append(columnName).append(suffix).append(", ");
+    }
+
+    buf.setLength(buf.length() - 2);
+    return buf.toString();
+  }
+
+  private static String createValues(final int columnCount) {
+    final StringBuilder buf = new StringBuilder("(");
+
+    for (int i = 0; i < columnCount; i++) {
+      buf.append(i > 0 ? ",?" : "?");
+    }
+
+    return buf.append(')').toString();
+  }
+
+  private static List<ColumnMetaData> getKeyColumns(final TableMetaData targetTableMetaData) throws TableConfigurationException {
+    final List<ColumnMetaData> keyColumns = targetTableMetaData.getPrimaryKeyColumns();
+
+    if (keyColumns.isEmpty()) {
+      throw new TableConfigurationException("Target table " + targetTableMetaData.getTableName()
+          + " has no primary key, which is needed to update existing rows");
+    }
+
+    return keyColumns;
+  }
+}
@@ -4,17 +4,37 @@ import de.akquinet.jbosscc.guttenbase.configuration.SourceDatabaseConfiguration;
 import de.akquinet.jbosscc.guttenbase.configuration.TargetDatabaseConfiguration;
 import de.akquinet.jbosscc.guttenbase.connector.Connector;
 import de.akquinet.jbosscc.guttenbase.exceptions.TableConfigurationException;
+import de.akquinet.jbosscc.guttenbase.hints.BulkLoaderHint;
+import de.akquinet.jbosscc.guttenbase.hints.CopyCheckpointJournalHint;
+import de.akquinet.jbosscc.guttenbase.hints.CopyChecksumsHint;
+import de.akquinet.jbosscc.guttenbase.hints.LobStreamingHint;
 import de.akquinet.jbosscc.guttenbase.hints.MaxNumberOfDataItemsHint;
+import de.akquinet.jbosscc.guttenbase.hints.MemoryGovernorHint;
 import de.akquinet.jbosscc.guttenbase.hints.NumberOfRowsPerBatchHint;
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfTableCopyThreadsHint;
+import de.akquinet.jbosscc.guttenbase.hints.RefreshTargetConnectionHint;
 import de.akquinet.jbosscc.guttenbase.hints.TableOrderHint;
 import de.akquinet.jbosscc.guttenbase.mapping.TableMapper;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.statements.InsertStatementCreator;
+import de.akquinet.jbosscc.guttenbase.statements.SelectStatementCreator;
+import de.akquinet.jbosscc.guttenbase.utils.SynchronizedTableCopyProgressIndicator;
 import de.akquinet.jbosscc.guttenbase.utils.TableCopyProgressIndicator;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Copy all tables from one connection to the other.
@@ -26,11 +46,20 @@ import java.util.List;
  * @gb.UsesHint {@link TableNameMapperHint} to filter tables not to be regarded
  * @gb.UsesHint {@link NumberOfRowsPerBatchHint} to determine number of VALUES clauses in INSERT statement
  * @gb.UsesHint {@link MaxNumberOfDataItemsHint} to determine maximum number of data items in INSERT statement
+ * @gb.UsesHint {@link MemoryGovernorHint} to fit number of rows per batch into memory budget
  * @gb.UsesHint {@link TableOrderHint} to determine order of tables
+ * @gb.UsesHint {@link NumberOfTableCopyThreadsHint} to determine number of concurrently copied tables
+ * @gb.UsesHint {@link RefreshTargetConnectionHint} to determine when to re-establish the target connection
+ * @gb.UsesHint {@link CopyCheckpointJournalHint} to record progress and resume failed copy processes
+ * @gb.UsesHint {@link BulkLoaderHint} to load tables using native bulk import of the target data base
+ * @gb.UsesHint {@link CopyChecksumsHint} to compute checksums of tables copied completely
+ * @gb.UsesHint {@link LobStreamingHint} to limit the number of open LOBs per batch
  */
 public abstract class AbstractTableCopyTool {
     protected final ConnectorRepository _connectorRepository;
     protected TableCopyProgressIndicator _progressIndicator;
+    protected CopyCheckpointJournal _checkpointJournal;
+    private boolean _clearCheckpointJournal;
 
     public AbstractTableCopyTool(final ConnectorRepository connectorRepository) {
         assert connectorRepository != null : "connectorRepository != null";
@@ -41,105 +70,449 @@ public abstract class AbstractTableCopyTool {
      * Copy tables from source to target.
      */
     public final void copyTables(final String sourceConnectorId, final String targetConnectorId) throws SQLException {
+        copyTables(sourceConnectorId, targetConnectorId, false);
+    }
+
+    /**
+     * Resume a failed copy process. Tables that have been copied completely are skipped, tables copied partially are continued
+     * from the last committed position as recorded by the {@link CopyCheckpointJournal}.
+     */
+    public final void resume(final String sourceConnectorId, final String targetConnectorId) throws SQLException {
+        copyTables(sourceConnectorId, targetConnectorId, true);
+    }
+
+    private void copyTables(final String sourceConnectorId, final String targetConnectorId, final boolean resume) throws SQLException {
+        _checkpointJournal = _connectorRepository.getConnectorHint(targetConnectorId, CopyCheckpointJournal.class).getValue();
         _progressIndicator = _connectorRepository.getConnectorHint(targetConnectorId, TableCopyProgressIndicator.class).getValue();
         _progressIndicator.initializeIndicator();
+        _clearCheckpointJournal = !resume;
 
         final List<TableMetaData> tableSourceMetaDatas = TableOrderHint.getSortedTables(_connectorRepository, sourceConnectorId);
-        final NumberOfRowsPerBatch numberOfRowsPerInsertionHint = _connectorRepository.getConnectorHint(targetConnectorId, NumberOfRowsPerBatch.class).getValue();
-        final MaxNumberOfDataItems maxNumberOfDataItemsHint = _connectorRepository.getConnectorHint(targetConnectorId, MaxNumberOfDataItems.class).getValue();
-
-        final SourceDatabaseConfiguration sourceDatabaseConfiguration = _connectorRepository
-          .getSourceDatabaseConfiguration(sourceConnectorId);
-        final TargetDatabaseConfiguration targetDatabaseConfiguration = _connectorRepository
-          .getTargetDatabaseConfiguration(targetConnectorId);
-        final TableMapper sourceTableMapper = _connectorRepository.getConnectorHint(sourceConnectorId, TableMapper.class).getValue();
-        final TableMapper targetTableMapper = _connectorRepository.getConnectorHint(targetConnectorId, TableMapper.class).getValue();
-        final RefreshTargetConnection refreshTargetConnection = _connectorRepository.getConnectorHint(targetConnectorId, RefreshTargetConnection.class).getValue();
+        final int numberOfThreads = Math.min(tableSourceMetaDatas.size(),
+          _connectorRepository.getConnectorHint(targetConnectorId, NumberOfTableCopyThreads.class).getValue().getNumberOfTableCopyThreads());
+
         final DatabaseMetaData sourceDatabaseMetaData = _connectorRepository.getDatabaseMetaData(sourceConnectorId);
         final DatabaseMetaData targetDatabaseMetaData = _connectorRepository.getDatabaseMetaData(targetConnectorId);
+        final AtomicInteger noCopiedTables = new AtomicInteger();
 
-        final Connector sourceConnector = _connectorRepository.createConnector(sourceConnectorId);
-        final Connector targetConnector = _connectorRepository.createConnector(targetConnectorId);
-        final Connection sourceConnection = sourceConnector.openConnection();
-        Connection targetConnection = targetConnector.openConnection();
+        if (numberOfThreads > 1) {
+            _progressIndicator = new SynchronizedTableCopyProgressIndicator(_progressIndicator);
+            _progressIndicator.startProcess(tableSourceMetaDatas.size());
 
-        sourceDatabaseConfiguration.initializeSourceConnection(sourceConnection, sourceConnectorId);
-        targetDatabaseConfiguration.initializeTargetConnection(targetConnection, targetConnectorId);
+            copyTablesConcurrently(tableSourceMetaDatas, numberOfThreads, sourceConnectorId, sourceDatabaseMetaData, targetConnectorId,
+              targetDatabaseMetaData, noCopiedTables);
+        } else {
+            final TableCopyWorker worker = new TableCopyWorker(sourceConnectorId, sourceDatabaseMetaData, targetConnectorId,
+              targetDatabaseMetaData, noCopiedTables);
 
-        _progressIndicator.startProcess(tableSourceMetaDatas.size());
+            try {
+                worker.openConnections();
+                _progressIndicator.startProcess(tableSourceMetaDatas.size());
 
-        int noCopiedTables = 0;
+                for (final TableMetaData sourceTableMetaData : tableSourceMetaDatas) {
+                    worker.copyTable(sourceTableMetaData);
+                }
+
+                worker.closeConnections();
+            } catch (final SQLException | RuntimeException e) {
+                worker.closeConnectionsAfterFailure(e);
+                throw e;
+            }
+        }
+
+        _progressIndicator.finalizeIndicator();
+        refreshTargetDatabaseMetaData(tableSourceMetaDatas, targetConnectorId, targetDatabaseMetaData);
+    }
+
+    /**
+     * The journal may be stored in the target data base, thus it is cleared using the target connection of the first worker. Other
+     * workers wait until it has been cleared.
+     */
+    private synchronized void clearCheckpointJournal(final Connection targetConnection, final boolean mayCommit) throws SQLException {
+        if (_clearCheckpointJournal) {
+            _checkpointJournal.clear(targetConnection);
+
+            if (mayCommit) {
+                targetConnection.commit();
+            }
+
+            _clearCheckpointJournal = false;
+        }
+    }
+
+    /**
+     * Row counts of the copied tables have changed
+     */
+    private void refreshTargetDatabaseMetaData(final List<TableMetaData> tableSourceMetaDatas, final String targetConnectorId,
+                                               final DatabaseMetaData targetDatabaseMetaData) throws SQLException {
+        final TableMapper tableMapper = _connectorRepository.getConnectorHint(targetConnectorId, TableMapper.class).getValue();
+        final List<String> targetTableNames = new ArrayList<>();
 
         for (final TableMetaData sourceTableMetaData : tableSourceMetaDatas) {
-            final TableMetaData targetTableMetaData = targetTableMapper.map(sourceTableMetaData, targetDatabaseMetaData);
-            final int defaultNumberOfRowsPerBatch = numberOfRowsPerInsertionHint.getNumberOfRowsPerBatch(targetTableMetaData);
-            final boolean useMultipleValuesClauses = numberOfRowsPerInsertionHint.useMultipleValuesClauses(targetTableMetaData);
-            final int maxNumberOfDataItems = maxNumberOfDataItemsHint.getMaxNumberOfDataItems(targetTableMetaData);
+            final TableMetaData targetTableMetaData = tableMapper.map(sourceTableMetaData, targetDatabaseMetaData);
+
+            if (targetTableMetaData != null) {
+                targetTableNames.add(targetTableMetaData.getTableName());
+            }
+        }
+
+        _connectorRepository.refreshDatabaseMetaData(targetConnectorId, targetTableNames);
+    }
+
+    /**
+     * Each thread uses its own pair of connections. Tables are handed out by a {@link TableCopyScheduler} according to their
+     * foreign key dependencies.
+     */
+    private void copyTablesConcurrently(final List<TableMetaData> tableSourceMetaDatas, final int numberOfThreads,
+                                        final String sourceConnectorId, final DatabaseMetaData sourceDatabaseMetaData,
+                                        final String targetConnectorId, final DatabaseMetaData targetDatabaseMetaData,
+                                        final AtomicInteger noCopiedTables) throws SQLException {
+        final TableCopyScheduler scheduler = new TableCopyScheduler(tableSourceMetaDatas);
+        final ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads);
+        final List<Future<Void>> futures = new ArrayList<>();
+
+        for (int i = 0; i < numberOfThreads; i++) {
+            final TableCopyWorker worker = new TableCopyWorker(sourceConnectorId, sourceDatabaseMetaData, targetConnectorId,
+              targetDatabaseMetaData, noCopiedTables);
+
+            futures.add(executorService.submit(() -> {
+                try {
+                    worker.openConnections();
+
+                    for (TableMetaData table = scheduler.nextTable(); table != null; table = scheduler.nextTable()) {
+                        worker.copyTable(table);
+                        scheduler.tableCopied(table);
+                    }
+
+                    worker.closeConnections();
+                    return null;
+                } catch (final Exception e) {
+                    scheduler.abort();
+                    worker.closeConnectionsAfterFailure(e);
+                    throw e;
+                }
+            }));
+        }
+
+        executorService.shutdown();
+        waitForCompletion(futures);
+    }
+
+    /**
+     * Wait for all threads to finish, then rethrow the first error that occurred, if any.
+     */
+    static void waitForCompletion(final List<Future<Void>> futures) throws SQLException {
+        Throwable error = null;
+
+        for (final Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (final ExecutionException e) {
+                if (error == null) {
+                    error = e.getCause();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+
+        if (error instanceof SQLException) {
+            throw (SQLException) error;
+        } else if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error instanceof Error) {
+            throw (Error) error;
+        } else if (error != null) {
+            throw new SQLException("Copying data failed", error);
+        }
+    }
+
+    /**
+     * Number of rows per batch as configured, trimmed to the maximum number of data items, open LOBs and the memory budget. Tools may call
+     * this method before each batch, since the configured value may change while copying, see {@link AdaptiveNumberOfRowsPerBatch}.
+     */
+    protected int getNumberOfRowsPerBatch(final String targetConnectorId, final TableMetaData targetTableMetaData) {
+        final int numberOfRowsPerBatch = _connectorRepository.getConnectorHint(targetConnectorId, NumberOfRowsPerBatch.class).getValue()
+          .getNumberOfRowsPerBatch(targetTableMetaData);
+        final int maxNumberOfDataItems = _connectorRepository.getConnectorHint(targetConnectorId, MaxNumberOfDataItems.class).getValue()
+          .getMaxNumberOfDataItems(targetTableMetaData);
+        final int columnCount = targetTableMetaData.getColumnCount();
+        final int result = columnCount * numberOfRowsPerBatch > maxNumberOfDataItems ? maxNumberOfDataItems / columnCount : numberOfRowsPerBatch;
+
+        return _connectorRepository.getConnectorHint(targetConnectorId, MemoryGovernor.class).getValue()
+          .getNumberOfRowsPerBatch(targetTableMetaData, trimToMaxNumberOfOpenLobs(targetConnectorId, targetTableMetaData, result));
+    }
+
+    private int trimToMaxNumberOfOpenLobs(final String targetConnectorId, final TableMetaData targetTableMetaData,
+                                          final int numberOfRowsPerBatch) {
+        final LobStreaming lobStreaming = _connectorRepository.getConnectorHint(targetConnectorId, LobStreaming.class).getValue();
+        int numberOfLobColumns = 0;
+
+        if (!lobStreaming.isStreamingLobs(targetTableMetaData)) {
+            return numberOfRowsPerBatch;
+        }
+
+        for (final ColumnMetaData columnMetaData : targetTableMetaData.getColumnMetaData()) {
+            switch (columnMetaData.getColumnType()) {
+                case Types.BLOB:
+                case Types.CLOB:
+                case Types.NCLOB:
+                    numberOfLobColumns++;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        return numberOfLobColumns == 0 ? numberOfRowsPerBatch
+          : Math.max(1, Math.min(numberOfRowsPerBatch, lobStreaming.getMaxNumberOfOpenLobs(targetTableMetaData) / numberOfLobColumns));
+    }
+
+    protected boolean useMultipleValuesClauses(final String targetConnectorId, final TableMetaData targetTableMetaData) {
+        return _connectorRepository.getConnectorHint(targetConnectorId, NumberOfRowsPerBatch.class).getValue()
+          .useMultipleValuesClauses(targetTableMetaData);
+    }
+
+    /**
+     * Tools that only insert rows expect empty target tables and may load them in bulk, see {@link BulkLoaderHint}.
+     */
+    protected boolean isInsertOnly() {
+        return true;
+    }
+
+    /**
+     * The batch statement may be reused for the final partial batch, unless it uses multiple VALUES clauses.
+     */
+    protected static PreparedStatement getInsertStatement(final InsertStatementCreator insertStatementCreator,
+                                                          final PreparedStatement batchInsertStatement, final String sourceConnectorId,
+                                                          final TableMetaData sourceTableMetaData, final String targetTableName,
+                                                          final TableMetaData targetTableMetaData, final Connection targetConnection,
+                                                          final int numberOfRowsPerBatch, final int numberOfRows,
+                                                          final boolean useMultipleValuesClauses) throws SQLException {
+        if (numberOfRows == numberOfRowsPerBatch || numberOfRows == 0 || !useMultipleValuesClauses) {
+            return batchInsertStatement;
+        }
+
+        return insertStatementCreator.createInsertStatement(sourceConnectorId, sourceTableMetaData, targetTableName,
+          targetTableMetaData, targetConnection, numberOfRows, true);
+    }
+
+    protected abstract void copyTable(final String sourceConnectorId, final Connection sourceConnection,
+                                      final SourceDatabaseConfiguration sourceDatabaseConfiguration, final TableMetaData sourceTableMetaData,
+                                      final String sourceTableName, final String targetConnectorId, final Connection targetConnection,
+                                      final TargetDatabaseConfiguration targetDatabaseConfiguration, final TableMetaData targetTableMetaData,
+                                      final String targetTableName, final int numberOfRowsPerBatch, boolean useMultipleValuesClauses) throws SQLException;
+
+    /**
+     * Copies tables using its own pair of source and target connections.
+     */
+    private final class TableCopyWorker {
+        private final String _sourceConnectorId;
+        private final String _targetConnectorId;
+        private final DatabaseMetaData _sourceDatabaseMetaData;
+        private final DatabaseMetaData _targetDatabaseMetaData;
+        private final AtomicInteger _noCopiedTables;
+
+        private final NumberOfRowsPerBatch _numberOfRowsPerInsertionHint;
+        private final SourceDatabaseConfiguration _sourceDatabaseConfiguration;
+        private final TargetDatabaseConfiguration _targetDatabaseConfiguration;
+        private final TableMapper _sourceTableMapper;
+        private final TableMapper _targetTableMapper;
+        private final RefreshTargetConnection _refreshTargetConnection;
+        private final BulkLoader _bulkLoader;
+        private final CopyChecksums _copyChecksums;
+
+        private final Connector _sourceConnector;
+        private final Connector _targetConnector;
+        private Connection _sourceConnection;
+        private Connection _targetConnection;
+
+        private TableCopyWorker(final String sourceConnectorId, final DatabaseMetaData sourceDatabaseMetaData,
+                                final String targetConnectorId, final DatabaseMetaData targetDatabaseMetaData,
+                                final AtomicInteger noCopiedTables) {
+            _sourceConnectorId = sourceConnectorId;
+            _targetConnectorId = targetConnectorId;
+            _sourceDatabaseMetaData = sourceDatabaseMetaData;
+            _targetDatabaseMetaData = targetDatabaseMetaData;
+            _noCopiedTables = noCopiedTables;
+
+            _numberOfRowsPerInsertionHint = _connectorRepository.getConnectorHint(targetConnectorId, NumberOfRowsPerBatch.class).getValue();
+            _sourceDatabaseConfiguration = _connectorRepository.getSourceDatabaseConfiguration(sourceConnectorId);
+            _targetDatabaseConfiguration = _connectorRepository.getTargetDatabaseConfiguration(targetConnectorId);
+            _sourceTableMapper = _connectorRepository.getConnectorHint(sourceConnectorId, TableMapper.class).getValue();
+            _targetTableMapper = _connectorRepository.getConnectorHint(targetConnectorId, TableMapper.class).getValue();
+            _refreshTargetConnection = _connectorRepository.getConnectorHint(targetConnectorId, RefreshTargetConnection.class).getValue();
+            _bulkLoader = _connectorRepository.getConnectorHint(targetConnectorId, BulkLoader.class).getValue();
+            _copyChecksums = _connectorRepository.getConnectorHint(targetConnectorId, CopyChecksums.class).getValue();
+
+            _sourceConnector = _connectorRepository.createConnector(sourceConnectorId);
+            _targetConnector = _connectorRepository.createConnector(targetConnectorId);
+        }
+
+        private void openConnections() throws SQLException {
+            _sourceConnection = _sourceConnector.openConnection();
+            _targetConnection = _targetConnector.openConnection();
+
+            _sourceDatabaseConfiguration.initializeSourceConnection(_sourceConnection, _sourceConnectorId);
+            _targetDatabaseConfiguration.initializeTargetConnection(_targetConnection, _targetConnectorId);
+
+            clearCheckpointJournal(_targetConnection, _targetDatabaseConfiguration.isMayCommit());
+        }
+
+        private void closeConnections() throws SQLException {
+            try {
+                _sourceDatabaseConfiguration.finalizeSourceConnection(_sourceConnection, _sourceConnectorId);
+                _targetDatabaseConfiguration.finalizeTargetConnection(_targetConnection, _targetConnectorId);
+            } finally {
+                releaseConnections();
+            }
+        }
+
+        /**
+         * Uncommitted data is rolled back, since it has not been recorded in the {@link CopyCheckpointJournal}. Errors are added
+         * to the given failure rather than hiding it.
+         */
+        private void closeConnectionsAfterFailure(final Exception failure) {
+            try {
+                if (_targetConnection != null && !_targetConnection.isClosed() && !_targetConnection.getAutoCommit()) {
+                    _targetConnection.rollback();
+                }
+            } catch (final SQLException | RuntimeException e) {
+                failure.addSuppressed(e);
+            }
+
+            try {
+                releaseConnections();
+            } catch (final SQLException | RuntimeException e) {
+                failure.addSuppressed(e);
+            }
+        }
+
+        private void releaseConnections() throws SQLException {
+            _sourceConnection = null;
+            _targetConnection = null;
+
+            try {
+                _sourceConnector.closeConnection();
+            } finally {
+                _targetConnector.closeConnection();
+            }
+        }
+
+        private void copyTable(final TableMetaData sourceTableMetaData) throws SQLException {
+            if (_checkpointJournal.isTableCompleted(_targetConnection, sourceTableMetaData)) {
+                _progressIndicator.info("Table " + sourceTableMetaData.getTableName() + " has already been copied.");
+                return;
+            }
+
+            final TableMetaData targetTableMetaData = _targetTableMapper.map(sourceTableMetaData, _targetDatabaseMetaData);
 
             if (targetTableMetaData == null) {
                 throw new TableConfigurationException("No matching table for " + sourceTableMetaData + " in target data base!!!");
             }
 
-            final String sourceTableName = sourceTableMapper.fullyQualifiedTableName(sourceTableMetaData, sourceDatabaseMetaData);
-            final String targetTableName = targetTableMapper.fullyQualifiedTableName(targetTableMetaData, targetDatabaseMetaData);
-            final int targetRowCount = targetTableMetaData.getFilteredRowCount();
+            final int defaultNumberOfRowsPerBatch = _numberOfRowsPerInsertionHint.getNumberOfRowsPerBatch(targetTableMetaData);
+            final boolean useMultipleValuesClauses = _numberOfRowsPerInsertionHint.useMultipleValuesClauses(targetTableMetaData);
+
+            final String sourceTableName = _sourceTableMapper.fullyQualifiedTableName(sourceTableMetaData, _sourceDatabaseMetaData);
+            final String targetTableName = _targetTableMapper.fullyQualifiedTableName(targetTableMetaData, _targetDatabaseMetaData);
+            final int targetRowCount = DataComparisonUtil.getFilteredRowCount(targetTableMetaData, _targetConnection);
+            final String position = _checkpointJournal.getPosition(_targetConnection, sourceTableMetaData);
 
-            if (targetRowCount > 0) {
+            if (isInsertOnly() && targetRowCount > 0 && position == null) {
                 _progressIndicator.warn("Target table " + targetTableMetaData.getTableName() + " is not empty!");
             }
 
-            int numberOfRowsPerBatch = defaultNumberOfRowsPerBatch;
-            final int columnCount = targetTableMetaData.getColumnCount();
+            final int numberOfRowsPerBatch = getNumberOfRowsPerBatch(_targetConnectorId, targetTableMetaData);
 
-            if (columnCount * numberOfRowsPerBatch > maxNumberOfDataItems) {
-                numberOfRowsPerBatch = maxNumberOfDataItems / columnCount;
-                _progressIndicator.debug("Max number of data items " + maxNumberOfDataItems
-                  + " exceeds numberOfValuesClauses * columns="
+            if (numberOfRowsPerBatch < defaultNumberOfRowsPerBatch) {
+                _progressIndicator.debug("Max number of data items, open LOBs or memory budget exceeded by "
                   + defaultNumberOfRowsPerBatch
-                  + " * "
-                  + columnCount
-                  + ". Trim number of VALUES clauses to "
+                  + " VALUES clauses. Trim number of VALUES clauses to "
                   + numberOfRowsPerBatch);
             }
 
-            sourceDatabaseConfiguration.beforeTableCopy(sourceConnection, sourceConnectorId, sourceTableMetaData);
-            targetDatabaseConfiguration.beforeTableCopy(targetConnection, targetConnectorId, targetTableMetaData);
+            _sourceDatabaseConfiguration.beforeTableCopy(_sourceConnection, _sourceConnectorId, sourceTableMetaData);
+            _targetDatabaseConfiguration.beforeTableCopy(_targetConnection, _targetConnectorId, targetTableMetaData);
+
+            _progressIndicator.startCopyTable(sourceTableName,
+              DataComparisonUtil.getFilteredRowCount(sourceTableMetaData, _sourceConnection), targetTableName);
+
+            // Checksums of resumed tables would not cover the rows copied before
+            if (isInsertOnly() && position == null) {
+                _copyChecksums.tableCopyStarted(targetTableMetaData);
+            }
+
+            boolean tableCompleted = false;
 
-            _progressIndicator.startCopyTable(sourceTableName, sourceTableMetaData.getFilteredRowCount(), targetTableName);
+            // Partially copied tables are continued by the tool, since bulk loads cannot be resumed
+            if (isInsertOnly() && position == null && _bulkLoader != null && _bulkLoader.isApplicable(targetTableMetaData)) {
+                tableCompleted = bulkLoad(sourceTableMetaData, sourceTableName, targetTableMetaData, targetTableName);
+            } else {
+                AbstractTableCopyTool.this.copyTable(_sourceConnectorId, _sourceConnection, _sourceDatabaseConfiguration, sourceTableMetaData,
+                  sourceTableName, _targetConnectorId, _targetConnection, _targetDatabaseConfiguration, targetTableMetaData, targetTableName,
+                  numberOfRowsPerBatch, useMultipleValuesClauses);
+            }
+
+            _sourceDatabaseConfiguration.afterTableCopy(_sourceConnection, _sourceConnectorId, sourceTableMetaData);
+            _targetDatabaseConfiguration.afterTableCopy(_targetConnection, _targetConnectorId, targetTableMetaData);
 
-            copyTable(sourceConnectorId, sourceConnection, sourceDatabaseConfiguration, sourceTableMetaData, sourceTableName,
-              targetConnectorId, targetConnection, targetDatabaseConfiguration, targetTableMetaData, targetTableName,
-              numberOfRowsPerBatch, useMultipleValuesClauses);
+            if (!tableCompleted) {
+                _checkpointJournal.tableCompleted(_targetConnection, sourceTableMetaData);
+            }
 
-            sourceDatabaseConfiguration.afterTableCopy(sourceConnection, sourceConnectorId, sourceTableMetaData);
-            targetDatabaseConfiguration.afterTableCopy(targetConnection, targetConnectorId, targetTableMetaData);
+            if (_targetDatabaseConfiguration.isMayCommit()) {
+                _targetConnection.commit();
+            }
 
             _progressIndicator.endProcess();
 
-            if (refreshTargetConnection.refreshConnection(noCopiedTables++, sourceTableMetaData)) {
+            if (_refreshTargetConnection.refreshConnection(_noCopiedTables.getAndIncrement(), sourceTableMetaData)) {
                 _progressIndicator.info("Refreshing target connection.");
-                targetDatabaseConfiguration.finalizeTargetConnection(targetConnection, targetConnectorId);
+                _targetDatabaseConfiguration.finalizeTargetConnection(_targetConnection, _targetConnectorId);
 
-                targetConnector.closeConnection();
-                targetConnection = targetConnector.openConnection();
-                targetDatabaseConfiguration.initializeTargetConnection(targetConnection, targetConnectorId);
+                _targetConnector.closeConnection();
+                _targetConnection = _targetConnector.openConnection();
+                _targetDatabaseConfiguration.initializeTargetConnection(_targetConnection, _targetConnectorId);
             }
         }
 
-        sourceDatabaseConfiguration.finalizeSourceConnection(sourceConnection, sourceConnectorId);
-        targetDatabaseConfiguration.finalizeTargetConnection(targetConnection, targetConnectorId);
+        /**
+         * Load the whole table at once. The data is committed together with the completion of the table by the caller, or by the
+         * loader itself, if it commits on its own.
+         *
+         * @return true if the completion of the table has been recorded already
+         */
+        private boolean bulkLoad(final TableMetaData sourceTableMetaData, final String sourceTableName,
+                              final TableMetaData targetTableMetaData, final String targetTableName) throws SQLException {
+            try (final PreparedStatement selectStatement = new SelectStatementCreator(_connectorRepository, _sourceConnectorId)
+              .createSelectStatement(_sourceConnection, sourceTableName, sourceTableMetaData)) {
+                _sourceDatabaseConfiguration.beforeSelect(_sourceConnection, _sourceConnectorId, sourceTableMetaData);
+                final ResultSet resultSet = selectStatement.executeQuery();
+                _sourceDatabaseConfiguration.afterSelect(_sourceConnection, _sourceConnectorId, sourceTableMetaData);
 
-        sourceConnector.closeConnection();
-        targetConnector.closeConnection();
+                _targetDatabaseConfiguration.beforeInsert(_targetConnection, _targetConnectorId, targetTableMetaData);
+                _progressIndicator.startExecution();
 
-        _progressIndicator.finalizeIndicator();
-        _connectorRepository.refreshDatabaseMetaData(targetConnectorId);
+                final boolean committing = _bulkLoader.isCommitting(targetTableMetaData);
 
-    }
+                if (committing) {
+                    _checkpointJournal.tableCompleted(_targetConnection, sourceTableMetaData);
+                }
 
-    protected abstract void copyTable(final String sourceConnectorId, final Connection sourceConnection,
-                                      final SourceDatabaseConfiguration sourceDatabaseConfiguration, final TableMetaData sourceTableMetaData,
-                                      final String sourceTableName, final String targetConnectorId, final Connection targetConnection,
-                                      final TargetDatabaseConfiguration targetDatabaseConfiguration, final TableMetaData targetTableMetaData,
-                                      final String targetTableName, final int numberOfRowsPerBatch, boolean useMultipleValuesClauses) throws SQLException;
+                final int numberOfRows = _bulkLoader.load(_connectorRepository, _sourceConnectorId, sourceTableMetaData, resultSet,
+                  _targetConnectorId, _targetConnection, targetTableMetaData, targetTableName);
+
+                _progressIndicator.endExecution(numberOfRows);
+                _targetDatabaseConfiguration.afterInsert(_targetConnection, _targetConnectorId, targetTableMetaData);
+                resultSet.close();
+
+                return committing;
+            }
+        }
+    }
 }
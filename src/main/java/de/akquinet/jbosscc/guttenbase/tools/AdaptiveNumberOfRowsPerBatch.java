@@ -0,0 +1,150 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tune the number of rows per batch for each table while copying, using the execution times reported via
+ * {@link BatchExecutionListener}. The number of rows is increased additively as long as the throughput (rows per second) does
+ * not decrease, and halved otherwise (AIMD). From time to time a batch is executed in the other mode, i.e. with or without
+ * multiple VALUES clauses, and the mode with the better throughput is kept.
+ * <br>
+ * The number of rows is kept within the given limits. The tools still trim the value to the maximum number of data items, see
+ * {@link MaxNumberOfDataItems}, the number of open LOBs or the memory budget, see {@link MemoryGovernor}. Batches trimmed that
+ * way are recognized by having the same size repeatedly, the number of rows is then adapted starting from the executed size.
+ * <br>
+ * Register the same instance with the {@link de.akquinet.jbosscc.guttenbase.hints.NumberOfRowsPerBatchHint} and the
+ * {@link de.akquinet.jbosscc.guttenbase.hints.BatchExecutionListenerHint} of the target connector.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class AdaptiveNumberOfRowsPerBatch implements NumberOfRowsPerBatch, BatchExecutionListener {
+  /**
+   * Every n-th batch is executed in the other mode to compare throughput
+   */
+  public static final int PROBE_INTERVAL = 50;
+
+  /**
+   * Throughput may fluctuate slightly without being regarded as a decrease
+   */
+  private static final double TOLERANCE = 0.95;
+
+  private final int _minNumberOfRows;
+  private final int _maxNumberOfRows;
+  private final int _increment;
+  private final boolean _multipleValuesClausesSupported;
+  private final Map<String, TableStatistics> _statistics = new ConcurrentHashMap<>();
+
+  public AdaptiveNumberOfRowsPerBatch(final int minNumberOfRows, final int maxNumberOfRows) {
+    this(minNumberOfRows, maxNumberOfRows, Math.max(1, (maxNumberOfRows - minNumberOfRows) / 16), true);
+  }
+
+  /**
+   * @param increment                      number of rows added per batch as long as the throughput increases
+   * @param multipleValuesClausesSupported target data base supports multiple VALUES clauses, otherwise only
+   *                                       {@link java.sql.PreparedStatement#addBatch()} is used
+   */
+  public AdaptiveNumberOfRowsPerBatch(final int minNumberOfRows, final int maxNumberOfRows, final int increment,
+                                      final boolean multipleValuesClausesSupported) {
+    assert minNumberOfRows > 0 : "minNumberOfRows > 0";
+    assert maxNumberOfRows >= minNumberOfRows : "maxNumberOfRows >= minNumberOfRows";
+    assert increment > 0 : "increment > 0";
+
+    _minNumberOfRows = minNumberOfRows;
+    _maxNumberOfRows = maxNumberOfRows;
+    _increment = increment;
+    _multipleValuesClausesSupported = multipleValuesClausesSupported;
+  }
+
+  @Override
+  public int getNumberOfRowsPerBatch(final TableMetaData targetTableMetaData) {
+    return getStatistics(targetTableMetaData).getNumberOfRows();
+  }
+
+  @Override
+  public boolean useMultipleValuesClauses(final TableMetaData targetTableMetaData) {
+    return getStatistics(targetTableMetaData).isUseMultipleValuesClauses();
+  }
+
+  @Override
+  public void batchExecuted(final TableMetaData targetTableMetaData, final int numberOfRows, final boolean useMultipleValuesClauses,
+                            final long durationNanos) {
+    getStatistics(targetTableMetaData).batchExecuted(numberOfRows, useMultipleValuesClauses, durationNanos);
+  }
+
+  /**
+   * @return recent throughput of the given table in rows per second, 0 if unknown
+   */
+  public double getThroughput(final TableMetaData targetTableMetaData) {
+    return getStatistics(targetTableMetaData).getThroughput();
+  }
+
+  private TableStatistics getStatistics(final TableMetaData targetTableMetaData) {
+    return _statistics.computeIfAbsent(targetTableMetaData.getTableName().toUpperCase(), key -> new TableStatistics());
+  }
+
+  private final class TableStatistics {
+    private int _numberOfRows = _minNumberOfRows;
+    private boolean _preferMultipleValuesClauses = _multipleValuesClausesSupported;
+    private boolean _probing;
+    private int _numberOfBatches;
+    private int _lastNumberOfRows;
+
+    /**
+     * Last throughput measured without and with multiple VALUES clauses
+     */
+    private final double[] _throughput = new double[2];
+
+    private synchronized int getNumberOfRows() {
+      return _numberOfRows;
+    }
+
+    private synchronized boolean isUseMultipleValuesClauses() {
+      return _probing != _preferMultipleValuesClauses;
+    }
+
+    private synchronized double getThroughput() {
+      return _throughput[_preferMultipleValuesClauses ? 1 : 0];
+    }
+
+    private synchronized void batchExecuted(final int numberOfRows, final boolean useMultipleValuesClauses, final long durationNanos) {
+      // A final batch is smaller than requested once, whereas batches trimmed to a limit of the tools have the same size
+      final boolean trimmed = numberOfRows < _numberOfRows && numberOfRows == _lastNumberOfRows;
+      _lastNumberOfRows = numberOfRows;
+
+      if ((numberOfRows < _numberOfRows && !trimmed) || durationNanos <= 0) {
+        return;
+      }
+
+      final int executedNumberOfRows = Math.min(_numberOfRows, numberOfRows);
+
+      final int mode = useMultipleValuesClauses ? 1 : 0;
+      final double throughput = numberOfRows * 1E9 / durationNanos;
+      final double previousThroughput = _throughput[mode];
+
+      _throughput[mode] = throughput;
+      _numberOfBatches++;
+
+      if (_probing) {
+        _probing = false;
+
+        if (throughput > _throughput[1 - mode]) {
+          _preferMultipleValuesClauses = useMultipleValuesClauses;
+        }
+      } else {
+        if (throughput >= previousThroughput * TOLERANCE) {
+          _numberOfRows = Math.max(_minNumberOfRows, Math.min(_maxNumberOfRows, executedNumberOfRows + _increment));
+        } else {
+          _numberOfRows = Math.max(_minNumberOfRows, executedNumberOfRows / 2);
+        }
+
+        _probing = _multipleValuesClausesSupported && (_numberOfBatches == 1 || _numberOfBatches % PROBE_INTERVAL == 0);
+      }
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+/**
+ * Informed whenever a batch of rows has been inserted into the target data base and committed. This allows to measure the
+ * throughput of each table, see {@link AdaptiveNumberOfRowsPerBatch}. Implementations must be thread-safe.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface BatchExecutionListener {
+  /**
+   * @param numberOfRows   number of rows in batch
+   * @param durationNanos  time needed to execute the batch and commit the transaction
+   */
+  void batchExecuted(TableMetaData targetTableMetaData, int numberOfRows, boolean useMultipleValuesClauses, long durationNanos);
+}
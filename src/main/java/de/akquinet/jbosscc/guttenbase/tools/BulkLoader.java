@@ -0,0 +1,45 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Load data into the target data base using its native bulk import facility instead of INSERT statements. This is usually much
+ * faster for initial loads, since the values need not be bound row by row.
+ * <br>
+ * Tables that cannot be handled by the loader, e.g. because of unsupported column types, are copied as usual.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface BulkLoader {
+  /**
+   * @return true if the given table can be loaded by this loader
+   */
+  boolean isApplicable(TableMetaData targetTableMetaData);
+
+  /**
+   * Some import facilities commit the target connection on their own, e.g. Derby's import procedures. The completion of the
+   * table is then recorded in the {@link CopyCheckpointJournal} before loading, so it is committed together with the data.
+   * This is atomic only if the journal is stored in the target data base, see {@link TableCopyCheckpointJournal}.
+   *
+   * @return true if loading the given table commits the target connection
+   */
+  boolean isCommitting(TableMetaData targetTableMetaData);
+
+  /**
+   * Read all rows from the given result set and load them into the target table. The data will be committed by the caller,
+   * unless the loader commits on its own, see {@link #isCommitting(TableMetaData)}.
+   *
+   * @return number of rows loaded
+   */
+  int load(ConnectorRepository connectorRepository, String sourceConnectorId, TableMetaData sourceTableMetaData, ResultSet resultSet,
+           String targetConnectorId, Connection targetConnection, TableMetaData targetTableMetaData, String targetTableName)
+      throws SQLException;
+}
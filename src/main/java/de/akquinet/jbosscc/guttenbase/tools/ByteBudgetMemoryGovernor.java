@@ -0,0 +1,188 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Choose the number of rows per batch and the fetch size such that a batch of rows fits into the given number of bytes.
+ * <br>
+ * The size of a row is initially estimated from the column types and precisions declared in the meta data. Declared precisions
+ * are often much larger than the actual values, thus the estimate is replaced by the average size of the rows observed so far,
+ * once a table has been (partially) copied.
+ * <br>
+ * Sizes are observed while inserting and are recorded under the upper case name of the <em>target</em> table, while the fetch
+ * size is determined via the source connector for the <em>source</em> table. Thus observations refine the fetch size only if the
+ * same instance is registered for source and target connector, and if source and target tables have the same name (ignoring
+ * case). Otherwise the fetch size is always based on the declared column sizes.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class ByteBudgetMemoryGovernor implements MemoryGovernor {
+  /**
+   * Assumed size of LOBs and columns without (reasonable) declared precision
+   */
+  public static final int DEFAULT_LOB_SIZE = 1024 * 1024;
+
+  private static final int OBJECT_OVERHEAD = 16;
+
+  private final long _byteBudget;
+  private final int _lobSize;
+  private final Map<String, ObservedSize> _observedSizes = new ConcurrentHashMap<>();
+
+  public ByteBudgetMemoryGovernor(final long byteBudget) {
+    this(byteBudget, DEFAULT_LOB_SIZE);
+  }
+
+  public ByteBudgetMemoryGovernor(final long byteBudget, final int lobSize) {
+    assert byteBudget > 0 : "byteBudget > 0";
+    assert lobSize > 0 : "lobSize > 0";
+
+    _byteBudget = byteBudget;
+    _lobSize = lobSize;
+  }
+
+  @Override
+  public int getNumberOfRowsPerBatch(final TableMetaData targetTableMetaData, final int numberOfRowsPerBatch) {
+    return getNumberOfRows(targetTableMetaData, numberOfRowsPerBatch);
+  }
+
+  @Override
+  public int getFetchSize(final TableMetaData sourceTableMetaData, final int fetchSize) {
+    return getNumberOfRows(sourceTableMetaData, fetchSize);
+  }
+
+  @Override
+  public boolean isObservingValues() {
+    return true;
+  }
+
+  @Override
+  public void valuesObserved(final TableMetaData targetTableMetaData, final long numberOfBytes, final int numberOfRows) {
+    _observedSizes.computeIfAbsent(getKey(targetTableMetaData), key -> new ObservedSize()).add(numberOfBytes, numberOfRows);
+  }
+
+  /**
+   * @return estimated size of a row in bytes
+   */
+  public long getRowSize(final TableMetaData tableMetaData) {
+    final ObservedSize observedSize = _observedSizes.get(getKey(tableMetaData));
+    final long observedRowSize = observedSize == null ? -1 : observedSize.getAverage();
+
+    if (observedRowSize >= 0) {
+      return OBJECT_OVERHEAD + observedRowSize;
+    }
+
+    long result = OBJECT_OVERHEAD;
+
+    for (final ColumnMetaData columnMetaData : tableMetaData.getColumnMetaData()) {
+      result += estimateSize(columnMetaData, _lobSize);
+    }
+
+    return result;
+  }
+
+  /**
+   * @return estimated size of values of the given column in bytes
+   */
+  public static long estimateSize(final ColumnMetaData columnMetaData, final int lobSize) {
+    final int precision = columnMetaData.getPrecision() > 0 ? Math.min(columnMetaData.getPrecision(), lobSize) : lobSize;
+
+    switch (columnMetaData.getColumnType()) {
+      case Types.BIT:
+      case Types.BOOLEAN:
+      case Types.TINYINT:
+      case Types.SMALLINT:
+      case Types.INTEGER:
+        return OBJECT_OVERHEAD;
+      case Types.BIGINT:
+      case Types.REAL:
+      case Types.FLOAT:
+      case Types.DOUBLE:
+        return 2 * OBJECT_OVERHEAD;
+      case Types.DECIMAL:
+      case Types.NUMERIC:
+      case Types.DATE:
+      case Types.TIME:
+      case Types.TIMESTAMP:
+        return 3 * OBJECT_OVERHEAD;
+      case Types.CHAR:
+      case Types.VARCHAR:
+      case Types.NCHAR:
+      case Types.NVARCHAR:
+      case Types.LONGVARCHAR:
+      case Types.LONGNVARCHAR:
+        return 2 * OBJECT_OVERHEAD + 2L * precision;
+      case Types.BINARY:
+      case Types.VARBINARY:
+      case Types.LONGVARBINARY:
+        return OBJECT_OVERHEAD + precision;
+      case Types.BLOB:
+      case Types.CLOB:
+      case Types.NCLOB:
+        return lobSize;
+      default:
+        return 4 * OBJECT_OVERHEAD;
+    }
+  }
+
+  /**
+   * @return estimated size of the given value in bytes
+   */
+  public static long estimateSize(final Object value) {
+    if (value == null) {
+      return 0;
+    } else if (value instanceof String) {
+      return 2 * OBJECT_OVERHEAD + 2L * ((String) value).length();
+    } else if (value instanceof byte[]) {
+      return OBJECT_OVERHEAD + ((byte[]) value).length;
+    } else if (value instanceof Blob) {
+      try {
+        return OBJECT_OVERHEAD + ((Blob) value).length();
+      } catch (final SQLException e) {
+        return DEFAULT_LOB_SIZE;
+      }
+    } else if (value instanceof Clob) {
+      try {
+        return OBJECT_OVERHEAD + 2 * ((Clob) value).length();
+      } catch (final SQLException e) {
+        return DEFAULT_LOB_SIZE;
+      }
+    } else {
+      return 2 * OBJECT_OVERHEAD;
+    }
+  }
+
+  private int getNumberOfRows(final TableMetaData tableMetaData, final int maxNumberOfRows) {
+    final long numberOfRows = _byteBudget / getRowSize(tableMetaData);
+
+    return (int) Math.max(1, Math.min(maxNumberOfRows, numberOfRows));
+  }
+
+  private static String getKey(final TableMetaData tableMetaData) {
+    return tableMetaData.getTableName().toUpperCase();
+  }
+
+  private static final class ObservedSize {
+    private long _numberOfBytes;
+    private long _numberOfRows;
+
+    private synchronized void add(final long numberOfBytes, final int numberOfRows) {
+      _numberOfBytes += numberOfBytes;
+      _numberOfRows += numberOfRows;
+    }
+
+    private synchronized long getAverage() {
+      return _numberOfRows == 0 ? -1 : _numberOfBytes / _numberOfRows;
+    }
+  }
+}
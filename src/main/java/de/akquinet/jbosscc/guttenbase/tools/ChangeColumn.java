@@ -0,0 +1,21 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+/**
+ * Select the column of a table whose values increase whenever a row is inserted or modified, e.g. a last-modified timestamp or
+ * a version number. Used by the {@link IncrementalTableCopyTool} to copy only rows changed since the last run.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+@FunctionalInterface
+public interface ChangeColumn {
+  /**
+   * @return change column of the given source table or null, if all rows shall be copied
+   */
+  ColumnMetaData getChangeColumn(TableMetaData sourceTableMetaData);
+}
@@ -8,8 +8,11 @@ import de.akquinet.jbosscc.guttenbase.exceptions.IncompatibleColumnsException;
 import de.akquinet.jbosscc.guttenbase.exceptions.TableConfigurationException;
 import de.akquinet.jbosscc.guttenbase.exceptions.UnequalDataException;
 import de.akquinet.jbosscc.guttenbase.exceptions.UnequalNumberOfRowsException;
+import de.akquinet.jbosscc.guttenbase.hints.ChecksumVerificationHint;
 import de.akquinet.jbosscc.guttenbase.hints.ColumnOrderHint;
+import de.akquinet.jbosscc.guttenbase.hints.CopyChecksumsHint;
 import de.akquinet.jbosscc.guttenbase.hints.NumberOfCheckedTableDataHint;
+import de.akquinet.jbosscc.guttenbase.hints.SplitColumnHint;
 import de.akquinet.jbosscc.guttenbase.hints.TableOrderHint;
 import de.akquinet.jbosscc.guttenbase.mapping.ColumnMapper;
 import de.akquinet.jbosscc.guttenbase.mapping.ColumnMapper.ColumnMapperResult;
@@ -20,17 +23,34 @@ import de.akquinet.jbosscc.guttenbase.meta.ColumnType;
 import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.statements.AbstractSelectStatementCreator;
+import de.akquinet.jbosscc.guttenbase.statements.ChunkSelectStatementCreator;
 import de.akquinet.jbosscc.guttenbase.statements.SelectStatementCreator;
+import de.akquinet.jbosscc.guttenbase.statements.TableCopyPlan;
 import org.apache.log4j.Logger;
+import java.math.BigInteger;
 import java.sql.Blob;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Check two schemas for equal data where the tool takes a configurable number of sample data from each table.
+ * <br>
+ * Alternatively, {@link #checkTableChecksums(String, String)} verifies all rows by comparing order-independent checksums of ranges
+ * of the split column, which are computed concurrently. {@link #checkCopyChecksums(String, String)} compares the checksums
+ * recorded while copying with the target data, i.e. without reading the source data again.
  * <p>
  * &copy; 2012-2020 akquinet tech@spree
  * </p>
@@ -42,6 +62,9 @@ import java.util.List;
  * @gb.UsesHint {@link ColumnNameMapperHint} to map column names
  * @gb.UsesHint {@link ColumnOrderHint} to determine column order
  * @gb.UsesHint {@link TableOrderHint} to determine order of tables
+ * @gb.UsesHint {@link ChecksumVerificationHint} to determine number of threads and size of ranges
+ * @gb.UsesHint {@link SplitColumnHint} to split tables into ranges
+ * @gb.UsesHint {@link CopyChecksumsHint} to obtain checksums recorded while copying
  */
 public class CheckEqualTableDataTool {
   private static final Logger LOG = Logger.getLogger(CheckEqualTableDataTool.class);
@@ -67,28 +90,371 @@ public class CheckEqualTableDataTool {
       .getSourceDatabaseConfiguration(targetConnectorId);
     final Connector connector1 = _connectorRepository.createConnector(sourceConnectorId);
     final Connector connector2 = _connectorRepository.createConnector(targetConnectorId);
-    final Connection connection1 = connector1.openConnection();
-    final Connection connection2 = connector2.openConnection();
 
-    sourceDatabaseConfiguration1.initializeSourceConnection(connection1, sourceConnectorId);
-    sourceDatabaseConfiguration2.initializeSourceConnection(connection2, targetConnectorId);
+    try {
+      final Connection connection1 = connector1.openConnection();
+      final Connection connection2 = connector2.openConnection();
+
+      sourceDatabaseConfiguration1.initializeSourceConnection(connection1, sourceConnectorId);
+      sourceDatabaseConfiguration2.initializeSourceConnection(connection2, targetConnectorId);
 
-    for (final TableMetaData tableSourceMetaData : tableSourceMetaDatas) {
-      final TableMetaData tableDestMetaData = tableMapper.map(tableSourceMetaData, targetDatabaseMetaData);
+      for (final TableMetaData tableSourceMetaData : tableSourceMetaDatas) {
+        final TableMetaData tableDestMetaData = tableMapper.map(tableSourceMetaData, targetDatabaseMetaData);
 
-      if (tableDestMetaData == null) {
-        throw new TableConfigurationException("No matching table for " + tableSourceMetaData + " in target data base!!!");
+        if (tableDestMetaData == null) {
+          throw new TableConfigurationException("No matching table for " + tableSourceMetaData + " in target data base!!!");
+        }
+
+        checkTableData(sourceConnectorId, connection1, sourceDatabaseConfiguration1, tableSourceMetaData, targetConnectorId,
+          connection2, sourceDatabaseConfiguration2, tableDestMetaData, numberOfCheckData);
       }
 
-      checkTableData(sourceConnectorId, connection1, sourceDatabaseConfiguration1, tableSourceMetaData, targetConnectorId,
-        connection2, sourceDatabaseConfiguration2, tableDestMetaData, numberOfCheckData);
+      sourceDatabaseConfiguration1.finalizeSourceConnection(connection1, sourceConnectorId);
+      sourceDatabaseConfiguration2.finalizeSourceConnection(connection2, targetConnectorId);
+    } finally {
+      closeConnections(connector1, connector2);
+    }
+  }
+
+  /**
+   * Verify all rows of all tables by comparing checksums. Tables whose split column is an integral primary key column are split
+   * into ranges, other tables are checked as a whole. Ranges of all tables are checked concurrently.
+   *
+   * @return ranges with different data, empty if all data is equal
+   */
+  public List<UnequalRange> checkTableChecksums(final String sourceConnectorId, final String targetConnectorId)
+    throws SQLException {
+    final ChecksumVerification checksumVerification = _connectorRepository.getConnectorHint(sourceConnectorId,
+      ChecksumVerification.class).getValue();
+    final RangeChecks rangeChecks = planRangeChecks(sourceConnectorId, targetConnectorId, checksumVerification);
+
+    return checkRangesConcurrently(sourceConnectorId, targetConnectorId, rangeChecks, checksumVerification.getNumberOfThreads(),
+      true);
+  }
+
+  /**
+   * Verify the tables copied by comparing the checksums recorded while copying, see {@link CopyChecksums}, with checksums of the
+   * target tables. Only the target data is read. Tables without recorded checksum are skipped.
+   *
+   * @return tables with different data, empty if all data is equal
+   */
+  public List<UnequalRange> checkCopyChecksums(final String sourceConnectorId, final String targetConnectorId)
+    throws SQLException {
+    final CopyChecksums copyChecksums = _connectorRepository.getConnectorHint(targetConnectorId, CopyChecksums.class).getValue();
+    final ChecksumVerification checksumVerification = _connectorRepository.getConnectorHint(sourceConnectorId,
+      ChecksumVerification.class).getValue();
+    final List<TableMetaData> tableSourceMetaDatas = TableOrderHint.getSortedTables(_connectorRepository, sourceConnectorId);
+    final TableMapper sourceTableMapper = _connectorRepository.getConnectorHint(sourceConnectorId, TableMapper.class).getValue();
+    final TableMapper targetTableMapper = _connectorRepository.getConnectorHint(targetConnectorId, TableMapper.class).getValue();
+    final DatabaseMetaData targetDatabaseMetaData = _connectorRepository.getDatabaseMetaData(targetConnectorId);
+    final RangeChecks rangeChecks = new RangeChecks();
+
+    for (final TableMetaData sourceTableMetaData : tableSourceMetaDatas) {
+      final TableMetaData targetTableMetaData = targetTableMapper.map(sourceTableMetaData, targetDatabaseMetaData);
+
+      if (targetTableMetaData == null) {
+        throw new TableConfigurationException("No matching table for " + sourceTableMetaData + " in target data base!!!");
+      }
+
+      final RangeChecksum checksum = copyChecksums.getChecksum(targetTableMetaData);
+
+      if (checksum == null) {
+        LOG.warn("No checksum recorded for " + targetTableMetaData.getTableName() + ", skipping");
+      } else {
+        final RangeCheck rangeCheck = new RangeCheck(sourceTableMetaData,
+          sourceTableMapper.fullyQualifiedTableName(sourceTableMetaData, sourceTableMetaData.getDatabaseMetaData()), null,
+          targetTableMetaData, targetTableMapper.fullyQualifiedTableName(targetTableMetaData, targetDatabaseMetaData), null, null,
+          null);
+        rangeCheck._sourceChecksum = checksum;
+        rangeChecks.add(rangeCheck);
+      }
+    }
+
+    return checkRangesConcurrently(sourceConnectorId, targetConnectorId, rangeChecks, checksumVerification.getNumberOfThreads(),
+      false);
+  }
+
+  /**
+   * @param readSource false if the checksums of the source data are already known
+   */
+  private List<UnequalRange> checkRangesConcurrently(final String sourceConnectorId, final String targetConnectorId,
+                                                     final RangeChecks rangeChecks, final int maxNumberOfThreads,
+                                                     final boolean readSource) throws SQLException {
+    final int numberOfThreads = (int) Math.max(1, Math.min(rangeChecks.getNumberOfRanges(), maxNumberOfThreads));
+    final List<UnequalRange> result = Collections.synchronizedList(new ArrayList<>());
+    final ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads);
+    final List<Future<Void>> futures = new ArrayList<>();
+
+    LOG.info("Checking checksums of " + rangeChecks.getNumberOfRanges() + " ranges using " + numberOfThreads + " threads");
+
+    for (int i = 0; i < numberOfThreads; i++) {
+      futures.add(executorService.submit(() -> {
+        if (readSource) {
+          checkRanges(sourceConnectorId, targetConnectorId, rangeChecks, result);
+        } else {
+          checkTargetRanges(sourceConnectorId, targetConnectorId, rangeChecks, result);
+        }
+        return null;
+      }));
+    }
+
+    executorService.shutdown();
+    AbstractTableCopyTool.waitForCompletion(futures);
+
+    result.sort(Comparator.comparing(UnequalRange::getSourceTableName)
+      .thenComparing(range -> range.getMinValue() == null ? Long.MIN_VALUE : range.getMinValue()));
+
+    for (final UnequalRange unequalRange : result) {
+      LOG.warn("Data not equal: " + unequalRange);
+    }
+
+    return result;
+  }
+
+  /**
+   * Ranges of the split column are not created until a thread asks for them, see {@link RangeChecks}.
+   */
+  private RangeChecks planRangeChecks(final String sourceConnectorId, final String targetConnectorId,
+                                      final ChecksumVerification checksumVerification) throws SQLException {
+    final List<TableMetaData> tableSourceMetaDatas = TableOrderHint.getSortedTables(_connectorRepository, sourceConnectorId);
+    final TableMapper sourceTableMapper = _connectorRepository.getConnectorHint(sourceConnectorId, TableMapper.class).getValue();
+    final TableMapper targetTableMapper = _connectorRepository.getConnectorHint(targetConnectorId, TableMapper.class).getValue();
+    final ColumnMapper sourceColumnMapper = _connectorRepository.getConnectorHint(sourceConnectorId, ColumnMapper.class).getValue();
+    final ColumnMapper targetColumnMapper = _connectorRepository.getConnectorHint(targetConnectorId, ColumnMapper.class).getValue();
+    final SplitColumn splitColumn = _connectorRepository.getConnectorHint(sourceConnectorId, SplitColumn.class).getValue();
+    final DatabaseMetaData targetDatabaseMetaData = _connectorRepository.getDatabaseMetaData(targetConnectorId);
+    final RangeChecks result = new RangeChecks();
+    final Connector connector1 = _connectorRepository.createConnector(sourceConnectorId);
+    final Connector connector2 = _connectorRepository.createConnector(targetConnectorId);
+
+    try {
+      final Connection connection1 = connector1.openConnection();
+      final Connection connection2 = connector2.openConnection();
+
+      for (final TableMetaData sourceTableMetaData : tableSourceMetaDatas) {
+        final TableMetaData targetTableMetaData = targetTableMapper.map(sourceTableMetaData, targetDatabaseMetaData);
+
+        if (targetTableMetaData == null) {
+          throw new TableConfigurationException("No matching table for " + sourceTableMetaData + " in target data base!!!");
+        }
+
+        final String tableName1 = sourceTableMapper.fullyQualifiedTableName(sourceTableMetaData,
+          sourceTableMetaData.getDatabaseMetaData());
+        final String tableName2 = targetTableMapper.fullyQualifiedTableName(targetTableMetaData,
+          targetTableMetaData.getDatabaseMetaData());
+        final ColumnMetaData sourceSplitColumn = splitColumn.getSplitColumn(sourceTableMetaData);
+        final List<ColumnMetaData> targetSplitColumns = sourceSplitColumn == null ? Collections.emptyList()
+          : targetColumnMapper.map(sourceSplitColumn, targetTableMetaData).getColumns();
+
+        if (sourceSplitColumn == null || !sourceSplitColumn.isPrimaryKey() || !isIntegral(sourceSplitColumn)
+          || targetSplitColumns.isEmpty()) {
+          result.add(new RangeCheck(sourceTableMetaData, tableName1, null, targetTableMetaData, tableName2, null, null, null));
+          continue;
+        }
+
+        final ColumnMetaData targetSplitColumn = targetSplitColumns.get(0);
+        final long[] range1 = DataComparisonUtil.getRange(connection1, tableName1,
+          sourceColumnMapper.mapColumnName(sourceSplitColumn, sourceTableMetaData),
+          DataComparisonUtil.getWhereClause(_connectorRepository, sourceConnectorId, sourceTableMetaData));
+        final long[] range2 = DataComparisonUtil.getRange(connection2, tableName2,
+          targetColumnMapper.mapColumnName(targetSplitColumn, targetTableMetaData),
+          DataComparisonUtil.getWhereClause(_connectorRepository, targetConnectorId, targetTableMetaData));
+
+        if (range1 == null && range2 == null) {
+          result.add(new RangeCheck(sourceTableMetaData, tableName1, null, targetTableMetaData, tableName2, null, null, null));
+          continue;
+        }
+
+        final long minValue = range1 == null ? range2[0] : range2 == null ? range1[0] : Math.min(range1[0], range2[0]);
+        final long maxValue = range1 == null ? range2[1] : range2 == null ? range1[1] : Math.max(range1[1], range2[1]);
+        final long numberOfRows = Math.max(DataComparisonUtil.getFilteredRowCount(sourceTableMetaData, connection1),
+          DataComparisonUtil.getFilteredRowCount(targetTableMetaData, connection2));
+        final long rangeSize = getRangeSize(minValue, maxValue, checksumVerification.getRangeSize(sourceTableMetaData),
+          numberOfRows);
+
+        result.addRanges(new RangeCheck(sourceTableMetaData, tableName1, sourceSplitColumn, targetTableMetaData, tableName2,
+          targetSplitColumn, minValue, maxValue), rangeSize);
+      }
+    } finally {
+      closeConnections(connector1, connector2);
     }
 
-    sourceDatabaseConfiguration1.finalizeSourceConnection(connection1, sourceConnectorId);
-    sourceDatabaseConfiguration2.finalizeSourceConnection(connection2, targetConnectorId);
+    return result;
+  }
 
-    connector1.closeConnection();
-    connector2.closeConnection();
+  /**
+   * Sparse values of the split column would yield many empty ranges, thus ranges are widened such that their number does not
+   * exceed the number needed for the rows actually present. The row count may be estimated, which only affects the size of
+   * the ranges, since they always cover all values between minimum and maximum.
+   */
+  private static long getRangeSize(final long minValue, final long maxValue, final long rangeSize, final long numberOfRows) {
+    final BigInteger maxNumberOfRanges = BigInteger.valueOf(numberOfRows / rangeSize + 1);
+    final BigInteger numberOfValues = BigInteger.valueOf(maxValue).subtract(BigInteger.valueOf(minValue)).add(BigInteger.ONE);
+    final BigInteger minRangeSize = numberOfValues.add(maxNumberOfRanges).subtract(BigInteger.ONE).divide(maxNumberOfRanges);
+
+    return minRangeSize.bitLength() < Long.SIZE ? Math.max(rangeSize, minRangeSize.longValue()) : Long.MAX_VALUE;
+  }
+
+  /**
+   * Check ranges until there are no more, using an own pair of connections
+   */
+  private void checkRanges(final String sourceConnectorId, final String targetConnectorId, final RangeChecks rangeChecks,
+                           final List<UnequalRange> result) throws SQLException {
+    final SourceDatabaseConfiguration sourceDatabaseConfiguration1 = _connectorRepository
+      .getSourceDatabaseConfiguration(sourceConnectorId);
+    final SourceDatabaseConfiguration sourceDatabaseConfiguration2 = _connectorRepository
+      .getSourceDatabaseConfiguration(targetConnectorId);
+    final Connector connector1 = _connectorRepository.createConnector(sourceConnectorId);
+    final Connector connector2 = _connectorRepository.createConnector(targetConnectorId);
+
+    try {
+      final Connection connection1 = connector1.openConnection();
+      final Connection connection2 = connector2.openConnection();
+
+      sourceDatabaseConfiguration1.initializeSourceConnection(connection1, sourceConnectorId);
+      sourceDatabaseConfiguration2.initializeSourceConnection(connection2, targetConnectorId);
+
+      for (RangeCheck rangeCheck = rangeChecks.poll(); rangeCheck != null; rangeCheck = rangeChecks.poll()) {
+        final RangeChecksum checksum1 = computeSourceChecksum(sourceConnectorId, connection1, targetConnectorId, rangeCheck);
+        final RangeChecksum checksum2 = computeTargetChecksum(sourceConnectorId, targetConnectorId, connection2, rangeCheck);
+
+        if (!checksum1.isEqual(checksum2)) {
+          result.add(new UnequalRange(rangeCheck._sourceTableName, rangeCheck._targetTableName, rangeCheck._minValue,
+            rangeCheck._maxValue, checksum1.getNumberOfRows(), checksum2.getNumberOfRows()));
+        }
+      }
+
+      sourceDatabaseConfiguration1.finalizeSourceConnection(connection1, sourceConnectorId);
+      sourceDatabaseConfiguration2.finalizeSourceConnection(connection2, targetConnectorId);
+    } finally {
+      closeConnections(connector1, connector2);
+    }
+  }
+
+  /**
+   * Compare checksums of the target ranges with the known source checksums until there are no more
+   */
+  private void checkTargetRanges(final String sourceConnectorId, final String targetConnectorId,
+                                 final RangeChecks rangeChecks, final List<UnequalRange> result) throws SQLException {
+    final SourceDatabaseConfiguration sourceDatabaseConfiguration = _connectorRepository
+      .getSourceDatabaseConfiguration(targetConnectorId);
+    final Connector connector = _connectorRepository.createConnector(targetConnectorId);
+
+    try {
+      final Connection connection = connector.openConnection();
+
+      sourceDatabaseConfiguration.initializeSourceConnection(connection, targetConnectorId);
+
+      for (RangeCheck rangeCheck = rangeChecks.poll(); rangeCheck != null; rangeCheck = rangeChecks.poll()) {
+        final RangeChecksum checksum = computeTargetChecksum(sourceConnectorId, targetConnectorId, connection, rangeCheck);
+
+        if (!rangeCheck._sourceChecksum.isEqual(checksum)) {
+          result.add(new UnequalRange(rangeCheck._sourceTableName, rangeCheck._targetTableName, rangeCheck._minValue,
+            rangeCheck._maxValue, rangeCheck._sourceChecksum.getNumberOfRows(), checksum.getNumberOfRows()));
+        }
+      }
+
+      sourceDatabaseConfiguration.finalizeSourceConnection(connection, targetConnectorId);
+    } finally {
+      connector.closeConnection();
+    }
+  }
+
+  /**
+   * Close both connections even if closing the first one fails, so pooled connections are always returned
+   */
+  private static void closeConnections(final Connector connector1, final Connector connector2) throws SQLException {
+    try {
+      connector1.closeConnection();
+    } finally {
+      connector2.closeConnection();
+    }
+  }
+
+  /**
+   * Source values are mapped as when copying, see {@link TableCopyPlan}
+   */
+  private RangeChecksum computeSourceChecksum(final String sourceConnectorId, final Connection connection,
+                                              final String targetConnectorId, final RangeCheck rangeCheck) throws SQLException {
+    final TableCopyPlan plan = new TableCopyPlan(_connectorRepository, sourceConnectorId, rangeCheck._sourceTableMetaData,
+      targetConnectorId, rangeCheck._targetTableMetaData);
+    final AbstractSelectStatementCreator selectStatementCreator = rangeCheck._sourceSplitColumn == null
+      ? new SelectStatementCreator(_connectorRepository, sourceConnectorId)
+      : new ChunkSelectStatementCreator(_connectorRepository, sourceConnectorId, rangeCheck._sourceSplitColumn);
+    final RangeChecksum result = new RangeChecksum();
+    final Object[] values = new Object[plan.getNumberOfDataItems()];
+
+    try (final PreparedStatement selectStatement = selectStatementCreator.createSelectStatement(connection,
+      rangeCheck._sourceTableName, rangeCheck._sourceTableMetaData)) {
+      setRange(selectStatementCreator, selectStatement, rangeCheck);
+
+      try (final ResultSet resultSet = selectStatement.executeQuery()) {
+        while (resultSet.next()) {
+          int dataItemIndex = 0;
+
+          for (int step = 0; step < plan.getNumberOfSteps(); step++) {
+            if (!plan.isSkipped(step)) {
+              final Object value = plan.getSourceColumnType(step).getValue(resultSet, plan.getSourceColumnIndex(step));
+              values[dataItemIndex++] = plan.getColumnDataMapper(step).map(plan.getSourceColumn(step), plan.getTargetColumn(step),
+                value);
+            }
+          }
+
+          result.addRow(values);
+        }
+      }
+    }
+
+    return result;
+  }
+
+  private RangeChecksum computeTargetChecksum(final String sourceConnectorId, final String targetConnectorId,
+                                              final Connection connection, final RangeCheck rangeCheck) throws SQLException {
+    final AbstractSelectStatementCreator selectStatementCreator = rangeCheck._targetSplitColumn == null
+      ? new SelectStatementCreator(_connectorRepository, targetConnectorId)
+      : new ChunkSelectStatementCreator(_connectorRepository, targetConnectorId, rangeCheck._targetSplitColumn);
+    final RangeChecksum result = new RangeChecksum();
+
+    try (final PreparedStatement selectStatement = selectStatementCreator.createMappedSelectStatement(connection,
+      rangeCheck._sourceTableMetaData, rangeCheck._targetTableName, rangeCheck._targetTableMetaData, sourceConnectorId)) {
+      setRange(selectStatementCreator, selectStatement, rangeCheck);
+
+      try (final ResultSet resultSet = selectStatement.executeQuery()) {
+        final Object[] values = new Object[resultSet.getMetaData().getColumnCount()];
+
+        while (resultSet.next()) {
+          for (int i = 0; i < values.length; i++) {
+            values[i] = resultSet.getObject(i + 1);
+          }
+
+          result.addRow(values);
+        }
+      }
+    }
+
+    return result;
+  }
+
+  private static void setRange(final AbstractSelectStatementCreator selectStatementCreator, final PreparedStatement selectStatement,
+                               final RangeCheck rangeCheck) throws SQLException {
+    if (rangeCheck._minValue != null) {
+      ((ChunkSelectStatementCreator) selectStatementCreator).setRange(selectStatement, rangeCheck._minValue, rangeCheck._maxValue);
+    }
+  }
+
+  private static boolean isIntegral(final ColumnMetaData columnMetaData) {
+    switch (columnMetaData.getColumnType()) {
+      case Types.TINYINT:
+      case Types.SMALLINT:
+      case Types.INTEGER:
+      case Types.BIGINT:
+        return true;
+      case Types.DECIMAL:
+      case Types.NUMERIC:
+        return columnMetaData.getScale() == 0;
+      default:
+        return false;
+    }
   }
 
   private void checkTableData(final String sourceConnectorId, final Connection sourceConnection,
@@ -103,7 +469,7 @@ public class CheckEqualTableDataTool {
     final ColumnMapper sourceColumnNameMapper = _connectorRepository.getConnectorHint(sourceConnectorId, ColumnMapper.class).getValue();
     final ColumnMapper targetColumnNameMapper = _connectorRepository.getConnectorHint(targetConnectorId, ColumnMapper.class).getValue();
 
-    checkRowCount(sourceTableMetaData, targetTableMetaData, tableName1, tableName2);
+    checkRowCount(sourceTableMetaData, sourceConnection, targetTableMetaData, targetConnection, tableName1, tableName2);
 
     final PreparedStatement selectStatement1 = new SelectStatementCreator(_connectorRepository, sourceConnectorId)
       .createSelectStatement(sourceConnection, tableName1, sourceTableMetaData);
@@ -199,15 +565,20 @@ public class CheckEqualTableDataTool {
     }
   }
 
-  private void checkRowCount(final TableMetaData sourceTableMetaData, final TableMetaData targetTableMetaData, final String tableName1, final String tableName2) throws UnequalNumberOfRowsException {
-    if (sourceTableMetaData.getFilteredRowCount() != targetTableMetaData.getFilteredRowCount()) {
+  private void checkRowCount(final TableMetaData sourceTableMetaData, final Connection sourceConnection,
+                             final TableMetaData targetTableMetaData, final Connection targetConnection, final String tableName1,
+                             final String tableName2) throws SQLException {
+    final int sourceRowCount = DataComparisonUtil.getFilteredRowCount(sourceTableMetaData, sourceConnection);
+    final int targetRowCount = DataComparisonUtil.getFilteredRowCount(targetTableMetaData, targetConnection);
+
+    if (sourceRowCount != targetRowCount) {
       throw new UnequalNumberOfRowsException("Number of rows is not equal: " + tableName1
         + "="
-        + sourceTableMetaData.getFilteredRowCount()
+        + sourceRowCount
         + " vs. "
         + tableName2
         + "="
-        + targetTableMetaData.getFilteredRowCount());
+        + targetRowCount);
     }
 
     LOG.info("Checking data of " + tableName1 + " <--> " + tableName2 + " started");
@@ -259,4 +630,139 @@ public class CheckEqualTableDataTool {
       + "'\n, column class = "
       + columnType.getColumnClasses());
   }
+
+  /**
+   * Range of table to be checked, the whole table if the values are null
+   */
+  private static final class RangeCheck {
+    private final TableMetaData _sourceTableMetaData;
+    private final String _sourceTableName;
+    private final ColumnMetaData _sourceSplitColumn;
+    private final TableMetaData _targetTableMetaData;
+    private final String _targetTableName;
+    private final ColumnMetaData _targetSplitColumn;
+    private final Long _minValue;
+    private final Long _maxValue;
+
+    /**
+     * Checksum recorded while copying, if any
+     */
+    private RangeChecksum _sourceChecksum;
+
+    private RangeCheck(final TableMetaData sourceTableMetaData, final String sourceTableName,
+                       final ColumnMetaData sourceSplitColumn, final TableMetaData targetTableMetaData, final String targetTableName,
+                       final ColumnMetaData targetSplitColumn, final Long minValue, final Long maxValue) {
+      _sourceTableMetaData = sourceTableMetaData;
+      _sourceTableName = sourceTableName;
+      _sourceSplitColumn = sourceSplitColumn;
+      _targetTableMetaData = targetTableMetaData;
+      _targetTableName = targetTableName;
+      _targetSplitColumn = targetSplitColumn;
+      _minValue = minValue;
+      _maxValue = maxValue;
+    }
+
+    private RangeCheck withRange(final long minValue, final long maxValue) {
+      return new RangeCheck(_sourceTableMetaData, _sourceTableName, _sourceSplitColumn, _targetTableMetaData, _targetTableName,
+        _targetSplitColumn, minValue, maxValue);
+    }
+  }
+
+  /**
+   * Range checks shared by the checking threads. Ranges of the split column are split off on demand, so that a huge range of
+   * values does not require a huge number of queued range checks.
+   */
+  private static final class RangeChecks {
+    private final Queue<RangeCheck> _rangeChecks = new ArrayDeque<>();
+    private final Queue<PendingRanges> _pendingRanges = new ArrayDeque<>();
+    private long _numberOfRanges;
+
+    /**
+     * Check table as a whole
+     */
+    private synchronized void add(final RangeCheck rangeCheck) {
+      _rangeChecks.add(rangeCheck);
+      _numberOfRanges++;
+    }
+
+    /**
+     * Check values between minimum and maximum of the given range check in steps of the given size
+     */
+    private synchronized void addRanges(final RangeCheck rangeCheck, final long rangeSize) {
+      final PendingRanges pendingRanges = new PendingRanges(rangeCheck, rangeSize);
+
+      _pendingRanges.add(pendingRanges);
+      _numberOfRanges += pendingRanges.getNumberOfRanges();
+    }
+
+    private synchronized long getNumberOfRanges() {
+      return _numberOfRanges;
+    }
+
+    /**
+     * @return next range check or null if there are no more
+     */
+    private synchronized RangeCheck poll() {
+      final RangeCheck rangeCheck = _rangeChecks.poll();
+
+      if (rangeCheck != null) {
+        return rangeCheck;
+      }
+
+      final PendingRanges pendingRanges = _pendingRanges.peek();
+
+      if (pendingRanges == null) {
+        return null;
+      }
+
+      final RangeCheck result = pendingRanges.next();
+
+      if (pendingRanges.isExhausted()) {
+        _pendingRanges.remove();
+      }
+
+      return result;
+    }
+  }
+
+  /**
+   * Ranges of a table not yet split off
+   */
+  private static final class PendingRanges {
+    private final RangeCheck _rangeCheck;
+    private final long _rangeSize;
+    private long _nextValue;
+    private boolean _exhausted;
+
+    private PendingRanges(final RangeCheck rangeCheck, final long rangeSize) {
+      _rangeCheck = rangeCheck;
+      _rangeSize = rangeSize;
+      _nextValue = rangeCheck._minValue;
+    }
+
+    private long getNumberOfRanges() {
+      final BigInteger numberOfValues = BigInteger.valueOf(_rangeCheck._maxValue).subtract(BigInteger.valueOf(_nextValue))
+        .add(BigInteger.ONE);
+      final BigInteger rangeSize = BigInteger.valueOf(_rangeSize);
+
+      return numberOfValues.add(rangeSize).subtract(BigInteger.ONE).divide(rangeSize).longValue();
+    }
+
+    private boolean isExhausted() {
+      return _exhausted;
+    }
+
+    private RangeCheck next() {
+      final long minValue = _nextValue;
+
+      // The difference of both values may exceed Long.MAX_VALUE, but not the unsigned range
+      if (Long.compareUnsigned(_rangeCheck._maxValue - minValue, _rangeSize - 1) <= 0) {
+        _exhausted = true;
+        return _rangeCheck.withRange(minValue, _rangeCheck._maxValue);
+      } else {
+        _nextValue = minValue + _rangeSize;
+        return _rangeCheck.withRange(minValue, _nextValue - 1);
+      }
+    }
+  }
 }
@@ -0,0 +1,23 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+/**
+ * Configure verification of copied data by checksums, see {@link CheckEqualTableDataTool#checkTableChecksums(String, String)}.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface ChecksumVerification {
+  /**
+   * @return number of ranges checked concurrently, each thread using its own pair of connections
+   */
+  int getNumberOfThreads();
+
+  /**
+   * @return range of split column values whose checksum is computed at once
+   */
+  long getRangeSize(TableMetaData sourceTableMetaData);
+}
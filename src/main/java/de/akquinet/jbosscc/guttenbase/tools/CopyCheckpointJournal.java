@@ -0,0 +1,71 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+
+/**
+ * Record the progress of a copy process, so it can be resumed after a failure with
+ * {@link AbstractTableCopyTool#resume(String, String)}. The journal stores which tables have been copied completely and, for
+ * tables being copied, the position up to which data has been committed. The meaning of the position depends on the copy
+ * tool, e.g. the number of rows or the last key value copied.
+ * <br>
+ * Progress is reported twice: Before the target connection is committed, using that connection, and after the commit. Thus
+ * implementations storing the progress in the target data base advance it atomically with the copied data, see
+ * {@link TableCopyCheckpointJournal}, while implementations storing it elsewhere record only committed data, see
+ * {@link FileCopyCheckpointJournal}.
+ * <br>
+ * Implementations must be thread-safe, since tables may be copied concurrently.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface CopyCheckpointJournal {
+  /**
+   * Forget all recorded progress. Called when a new copy process is started.
+   */
+  void clear(Connection targetConnection) throws SQLException;
+
+  boolean isTableCompleted(Connection targetConnection, TableMetaData sourceTableMetaData) throws SQLException;
+
+  /**
+   * @return last committed position within given table or null if none has been recorded
+   */
+  String getPosition(Connection targetConnection, TableMetaData sourceTableMetaData) throws SQLException;
+
+  /**
+   * Data up to the given position will be committed with the target connection.
+   */
+  void positionCommitting(Connection targetConnection, TableMetaData sourceTableMetaData, String position) throws SQLException;
+
+  /**
+   * Data up to the given position has been committed to the target data base.
+   */
+  void positionCommitted(TableMetaData sourceTableMetaData, String position) throws SQLException;
+
+  /**
+   * @return ranges recorded with {@link #rangeCommitted(TableMetaData, String)}, in no particular order
+   */
+  Collection<String> getCommittedRanges(Connection targetConnection, TableMetaData sourceTableMetaData) throws SQLException;
+
+  /**
+   * The data of the given range will be committed with the target connection.
+   */
+  void rangeCommitting(Connection targetConnection, TableMetaData sourceTableMetaData, String range) throws SQLException;
+
+  /**
+   * The data of the given range has been committed to the target data base. In contrast to the position, ranges may be committed
+   * in any order, e.g. by concurrent threads, and are recorded individually. The meaning of a range depends on the copy tool.
+   */
+  void rangeCommitted(TableMetaData sourceTableMetaData, String range) throws SQLException;
+
+  /**
+   * Table has been copied completely and all its data has been committed. Recorded positions and ranges may be discarded. The
+   * target connection is committed afterwards.
+   */
+  void tableCompleted(Connection targetConnection, TableMetaData sourceTableMetaData) throws SQLException;
+}
@@ -0,0 +1,40 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+/**
+ * Collect checksums of the values written while copying, so the copied data can be verified by reading only the target data
+ * base, see {@link CheckEqualTableDataTool#checkCopyChecksums(String, String)}.
+ * <br>
+ * Checksums are only recorded for tables copied completely by an insert-only tool, i.e. not for tables that have been resumed
+ * or synchronized. Implementations must be thread-safe.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface CopyChecksums {
+  /**
+   * @return true if checksums shall be computed while copying. Values are then always read and mapped explicitly, instead of
+   * being copied directly between result set and statement.
+   */
+  boolean isComputingChecksums();
+
+  /**
+   * Called before a table is copied completely, previously recorded checksums of the table are discarded.
+   */
+  void tableCopyStarted(TableMetaData targetTableMetaData);
+
+  /**
+   * Called after a batch of rows has been added to the INSERT statement, if {@link #isComputingChecksums()} is true.
+   *
+   * @param checksum checksum of the mapped values of the batch, will be reset by the caller afterwards
+   */
+  void batchCopied(TableMetaData targetTableMetaData, RangeChecksum checksum);
+
+  /**
+   * @return checksum of all rows copied into the given table or null if none has been recorded
+   */
+  RangeChecksum getChecksum(TableMetaData targetTableMetaData);
+}
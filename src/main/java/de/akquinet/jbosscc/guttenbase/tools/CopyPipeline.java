@@ -0,0 +1,20 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+/**
+ * Read source data and write target data concurrently with {@link DefaultTableCopyTool}. A reader thread reads batches of rows
+ * into buffers, while the writer inserts and commits the previous batches. The number of buffered batches is limited by the
+ * queue capacity, i.e. the reader will wait when the writer cannot keep up.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface CopyPipeline {
+  /**
+   * @return maximum number of batches read in advance, 0 disables the pipelined mode
+   */
+  int getQueueCapacity(TableMetaData targetTableMetaData);
+}
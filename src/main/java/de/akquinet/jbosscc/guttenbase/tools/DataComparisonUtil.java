@@ -0,0 +1,107 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.InternalTableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+
+import java.math.BigDecimal;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Base64;
+
+/**
+ * Common functions of the tools comparing data of source and target tables, i.e. {@link CheckEqualTableDataTool},
+ * {@link SynchronizeTableDataTool} and {@link RangeChecksum}, partly also used by the copy tools.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+final class DataComparisonUtil {
+  private DataComparisonUtil() {
+  }
+
+  /**
+   * @return the configured {@link SelectWhereClause} of the given table
+   */
+  static String getWhereClause(final ConnectorRepository connectorRepository, final String connectorId,
+                               final TableMetaData tableMetaData) {
+    return connectorRepository.getConnectorHint(connectorId, SelectWhereClause.class).getValue().getWhereClause(tableMetaData);
+  }
+
+  /**
+   * Rows not yet counted are counted using the given connection of the table's connector, which has been initialized with the
+   * configuration matching its role by the caller. Otherwise the row counter would lease another connection while the caller
+   * holds its own.
+   */
+  static int getFilteredRowCount(final TableMetaData tableMetaData, final Connection connection) throws SQLException {
+    return tableMetaData instanceof InternalTableMetaData
+      ? ((InternalTableMetaData) tableMetaData).getFilteredRowCount(connection) : tableMetaData.getFilteredRowCount();
+  }
+
+  /**
+   * @param whereClause restricts the rows considered, may be empty
+   * @return minimum and maximum value of column or null if there are no rows
+   */
+  static long[] getRange(final Connection connection, final String tableName, final String columnName,
+                         final String whereClause) throws SQLException {
+    try (final PreparedStatement statement = connection.prepareStatement("SELECT MIN(" + columnName + "), MAX(" + columnName
+      + ") FROM " + tableName + " " + whereClause);
+         final ResultSet resultSet = statement.executeQuery()) {
+      resultSet.next();
+
+      final Object minValue = resultSet.getObject(1);
+      final Object maxValue = resultSet.getObject(2);
+
+      return minValue == null ? null : new long[]{((Number) minValue).longValue(), ((Number) maxValue).longValue()};
+    }
+  }
+
+  /**
+   * Convert values into a representation that can be compared between different data bases. LOBs are read completely.
+   */
+  static String normalize(final Object value) throws SQLException {
+    if (value == null) {
+      return null;
+    } else if (value instanceof Number) {
+      return normalizeNumber((Number) value);
+    } else if (value instanceof String) {
+      return trimTrailingBlanks((String) value);
+    } else if (value instanceof byte[]) {
+      return Base64.getEncoder().encodeToString((byte[]) value);
+    } else if (value instanceof Blob) {
+      final Blob blob = (Blob) value;
+      return Base64.getEncoder().encodeToString(blob.getBytes(1, (int) blob.length()));
+    } else if (value instanceof Clob) {
+      final Clob clob = (Clob) value;
+      return trimTrailingBlanks(clob.getSubString(1, (int) clob.length()));
+    } else {
+      return value.toString();
+    }
+  }
+
+  /**
+   * Numbers are compared by value, regardless of their type and scale
+   */
+  static String normalizeNumber(final Number value) {
+    return new BigDecimal(value.toString()).stripTrailingZeros().toPlainString();
+  }
+
+  /**
+   * Trailing blanks are ignored, since CHAR columns are padded differently
+   */
+  static String trimTrailingBlanks(final String value) {
+    int length = value.length();
+
+    while (length > 0 && value.charAt(length - 1) == ' ') {
+      length--;
+    }
+
+    return value.substring(0, length);
+  }
+}
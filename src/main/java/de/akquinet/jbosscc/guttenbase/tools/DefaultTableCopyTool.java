@@ -2,6 +2,8 @@ package de.akquinet.jbosscc.guttenbase.tools;
 
 import de.akquinet.jbosscc.guttenbase.configuration.SourceDatabaseConfiguration;
 import de.akquinet.jbosscc.guttenbase.configuration.TargetDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.hints.BatchExecutionListenerHint;
+import de.akquinet.jbosscc.guttenbase.hints.CopyPipelineHint;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
 import de.akquinet.jbosscc.guttenbase.statements.InsertStatementCreator;
@@ -11,17 +13,36 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Copy all tables from one connection to the other with multiple VALUES-tuples per batch statement.
+ * <br>
+ * The data is read until the result set is exhausted, i.e. the tool does not rely on the number of rows determined in advance
+ * and copes with rows being added or removed in the meantime.
+ * <br>
+ * The position recorded in the {@link CopyCheckpointJournal} is the number of rows committed. When resuming, these rows are read,
+ * but skipped.
  * <p>
  * &copy; 2012-2020 akquinet tech@spree
  * </p>
  *
  * @author M. Dahm
+ * @gb.UsesHint {@link CopyPipelineHint} to determine whether reading and writing shall overlap
+ * @gb.UsesHint {@link BatchExecutionListenerHint} to report execution time of batches
  */
 public class DefaultTableCopyTool extends AbstractTableCopyTool
 {
+  private static final long QUEUE_POLL_INTERVAL_MILLIS = 100;
+  private static final long READER_TERMINATION_TIMEOUT_SECONDS = 10;
+
   public DefaultTableCopyTool(final ConnectorRepository connectorRepository)
   {
     super(connectorRepository);
@@ -41,80 +62,361 @@ public class DefaultTableCopyTool extends AbstractTableCopyTool
       final TargetDatabaseConfiguration targetDatabaseConfiguration, final TableMetaData targetTableMetaData,
       final String targetTableName, final int numberOfRowsPerBatch, final boolean useMultipleValuesClauses) throws SQLException
   {
-    final int sourceRowCount = sourceTableMetaData.getFilteredRowCount();
+    final String position = _checkpointJournal.getPosition(targetConnection, sourceTableMetaData);
+    final int rowOffset = position == null ? 0 : Integer.parseInt(position);
+    final int queueCapacity = _connectorRepository.getConnectorHint(targetConnectorId, CopyPipeline.class).getValue()
+        .getQueueCapacity(targetTableMetaData);
     final PreparedStatement selectStatement = new SelectStatementCreator(_connectorRepository, sourceConnectorId)
         .createSelectStatement(sourceConnection, sourceTableName, sourceTableMetaData);
+    final ResultSet resultSet = executeSelect(sourceConnectorId, sourceConnection, sourceDatabaseConfiguration,
+        sourceTableMetaData, selectStatement, rowOffset);
+
+    targetDatabaseConfiguration.beforeInsert(targetConnection, targetConnectorId, targetTableMetaData);
+
+    if (queueCapacity > 0)
+    {
+      copyPipelined(sourceConnectorId, sourceTableMetaData, targetConnectorId, targetConnection, targetDatabaseConfiguration,
+          targetTableMetaData, targetTableName, numberOfRowsPerBatch, useMultipleValuesClauses, resultSet, rowOffset,
+          queueCapacity);
+    }
+    else
+    {
+      copySequentially(sourceConnectorId, sourceTableMetaData, targetConnectorId, targetConnection, targetDatabaseConfiguration,
+          targetTableMetaData, targetTableName, numberOfRowsPerBatch, useMultipleValuesClauses, resultSet, rowOffset);
+    }
 
+    targetDatabaseConfiguration.afterInsert(targetConnection, targetConnectorId, targetTableMetaData);
+
+    resultSet.close();
+    selectStatement.close();
+  }
+
+  /**
+   * Execute SELECT statement and skip rows already committed before.
+   */
+  private static ResultSet executeSelect(final String sourceConnectorId, final Connection sourceConnection,
+      final SourceDatabaseConfiguration sourceDatabaseConfiguration, final TableMetaData sourceTableMetaData,
+      final PreparedStatement selectStatement, final int rowOffset) throws SQLException
+  {
     sourceDatabaseConfiguration.beforeSelect(sourceConnection, sourceConnectorId, sourceTableMetaData);
     final ResultSet resultSet = selectStatement.executeQuery();
     sourceDatabaseConfiguration.afterSelect(sourceConnection, sourceConnectorId, sourceTableMetaData);
 
-    final int numberOfBatches = sourceRowCount / numberOfRowsPerBatch;
-    final int remainder = sourceRowCount - (numberOfBatches * numberOfRowsPerBatch);
+    int skippedRows = 0;
+
+    while (skippedRows < rowOffset && resultSet.next())
+    {
+      skippedRows++;
+    }
+
+    return resultSet;
+  }
 
+  /**
+   * Batches are filled until the result set is exhausted. With multiple VALUES clauses the number of rows must be known before
+   * filling the statement, thus the rows are buffered in that case. The row count of the source table is not used, since it may
+   * be estimated or outdated.
+   * <br>
+   * The number of rows per batch and the use of multiple VALUES clauses are determined again before each batch, since they
+   * may be adapted while copying, see {@link AdaptiveNumberOfRowsPerBatch}.
+   */
+  private void copySequentially(final String sourceConnectorId, final TableMetaData sourceTableMetaData,
+      final String targetConnectorId, final Connection targetConnection,
+      final TargetDatabaseConfiguration targetDatabaseConfiguration, final TableMetaData targetTableMetaData,
+      final String targetTableName, final int numberOfRowsPerBatch, final boolean useMultipleValuesClauses,
+      final ResultSet resultSet, final int rowOffset) throws SQLException
+  {
     final InsertStatementCreator insertStatementCreator = new InsertStatementCreator(_connectorRepository, targetConnectorId);
     final InsertStatementFiller insertStatementFiller = new InsertStatementFiller(_connectorRepository);
+    final BatchExecutionListener batchExecutionListener = _connectorRepository.getConnectorHint(targetConnectorId,
+        BatchExecutionListener.class).getValue();
+    Object[][] rows = new Object[0][];
+    PreparedStatement batchInsertStatement = null;
+    int batchInsertStatementRows = 0;
+    boolean batchInsertStatementMultipleValuesClauses = false;
+    int batchSize = numberOfRowsPerBatch;
+    boolean multipleValuesClauses = useMultipleValuesClauses;
+    int totalWritten = rowOffset;
+    boolean moreRows = true;
+
+    while (moreRows)
+    {
+      final int numberOfRows;
+
+      // The statement depends on the number of rows only with multiple VALUES clauses
+      if (batchInsertStatement == null || batchInsertStatementMultipleValuesClauses != multipleValuesClauses
+          || (multipleValuesClauses && batchInsertStatementRows != batchSize))
+      {
+        if (batchInsertStatement != null)
+        {
+          batchInsertStatement.close();
+        }
+
+        batchInsertStatement = insertStatementCreator.createInsertStatement(sourceConnectorId, sourceTableMetaData,
+            targetTableName, targetTableMetaData, targetConnection, batchSize, multipleValuesClauses);
+        batchInsertStatementRows = batchSize;
+        batchInsertStatementMultipleValuesClauses = multipleValuesClauses;
+      }
+
+      final PreparedStatement insertStatement;
+
+      if (multipleValuesClauses)
+      {
+        if (rows.length < batchSize)
+        {
+          rows = new Object[batchSize][];
+        }
+
+        numberOfRows = insertStatementFiller.readAvailableRows(sourceConnectorId, sourceTableMetaData, targetConnectorId,
+            targetTableMetaData, resultSet, rows, batchSize, new int[0], new Object[0]);
+        insertStatement = getInsertStatement(insertStatementCreator, batchInsertStatement, sourceConnectorId, sourceTableMetaData,
+            targetTableName, targetTableMetaData, targetConnection, batchSize, numberOfRows, true);
+
+        if (numberOfRows > 0)
+        {
+          insertStatementFiller.fillInsertStatementFromRows(sourceConnectorId, sourceTableMetaData, targetConnectorId,
+              targetTableMetaData, targetDatabaseConfiguration, targetConnection, rows, insertStatement, numberOfRows, true);
+        }
+      }
+      else
+      {
+        insertStatement = batchInsertStatement;
+        numberOfRows = insertStatementFiller.fillInsertStatementFromAvailableRows(sourceConnectorId, sourceTableMetaData,
+            targetConnectorId, targetTableMetaData, targetDatabaseConfiguration, targetConnection, resultSet, insertStatement,
+            batchSize);
+      }
+
+      if (numberOfRows > 0)
+      {
+        _progressIndicator.startExecution();
+
+        final long start = System.nanoTime();
+        insertStatement.executeBatch();
+        totalWritten += numberOfRows;
+        _checkpointJournal.positionCommitting(targetConnection, sourceTableMetaData, String.valueOf(totalWritten));
+
+        if (targetDatabaseConfiguration.isMayCommit())
+        {
+          targetConnection.commit();
+        }
+
+        batchExecutionListener.batchExecuted(targetTableMetaData, numberOfRows, multipleValuesClauses, System.nanoTime() - start);
+        insertStatementFiller.clear();
+
+        _checkpointJournal.positionCommitted(sourceTableMetaData, String.valueOf(totalWritten));
+        _progressIndicator.endExecution(totalWritten);
+      }
+
+      if (insertStatement != batchInsertStatement)
+      {
+        insertStatement.close();
+      }
+
+      moreRows = numberOfRows == batchSize;
+
+      if (moreRows)
+      {
+        batchSize = getNumberOfRowsPerBatch(targetConnectorId, targetTableMetaData);
+        multipleValuesClauses = useMultipleValuesClauses(targetConnectorId, targetTableMetaData);
+      }
+    }
+
+    batchInsertStatement.close();
+  }
+
+  /**
+   * A reader thread fills row buffers from the source result set, while the current thread writes them to the target data base.
+   * The number of buffers is limited, i.e. the reader waits when the writer cannot keep up. If writing fails, the reader is
+   * cancelled and given some time to stop, before the caller closes the result set. The reader is a daemon thread, so it does not
+   * keep the VM alive when it is blocked in the JDBC driver.
+   */
+  private void copyPipelined(final String sourceConnectorId, final TableMetaData sourceTableMetaData,
+      final String targetConnectorId, final Connection targetConnection,
+      final TargetDatabaseConfiguration targetDatabaseConfiguration, final TableMetaData targetTableMetaData,
+      final String targetTableName, final int numberOfRowsPerBatch, final boolean useMultipleValuesClauses,
+      final ResultSet resultSet, final int rowOffset, final int queueCapacity) throws SQLException
+  {
+    final InsertStatementCreator insertStatementCreator = new InsertStatementCreator(_connectorRepository, targetConnectorId);
+    final InsertStatementFiller insertStatementReader = new InsertStatementFiller(_connectorRepository);
+    final InsertStatementFiller insertStatementFiller = new InsertStatementFiller(_connectorRepository);
+    final BatchExecutionListener batchExecutionListener = _connectorRepository.getConnectorHint(targetConnectorId,
+        BatchExecutionListener.class).getValue();
+
+    // One buffer being read, one being written and the queued ones
+    final BlockingQueue<Object[][]> freeBuffers = new ArrayBlockingQueue<>(queueCapacity + 2);
+    final BlockingQueue<RowBatch> filledBatches = new ArrayBlockingQueue<>(queueCapacity + 1);
+
+    for (int i = 0; i < queueCapacity + 2; i++)
+    {
+      freeBuffers.add(new Object[numberOfRowsPerBatch][]);
+    }
+
+    final AtomicBoolean cancelled = new AtomicBoolean();
+    final ExecutorService executorService = Executors.newSingleThreadExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "Reader of " + sourceTableMetaData.getTableName());
+      thread.setDaemon(true);
+      return thread;
+    });
+    final Future<Void> reader = executorService.submit(() -> {
+      try
+      {
+        int numberOfRows;
+
+        do
+        {
+          final Object[][] rows = poll(freeBuffers, cancelled);
+
+          if (rows == null)
+          {
+            return null;
+          }
+
+          numberOfRows = insertStatementReader.readAvailableRows(sourceConnectorId, sourceTableMetaData, targetConnectorId,
+              targetTableMetaData, resultSet, rows, numberOfRowsPerBatch, new int[0], new Object[0]);
+
+          if (numberOfRows > 0 && !offer(filledBatches, new RowBatch(rows, numberOfRows), cancelled))
+          {
+            return null;
+          }
+        }
+        while (numberOfRows == numberOfRowsPerBatch);
+      }
+      finally
+      {
+        offer(filledBatches, RowBatch.END, cancelled);
+      }
+
+      return null;
+    });
+    executorService.shutdown();
 
-    targetDatabaseConfiguration.beforeInsert(targetConnection, targetConnectorId, targetTableMetaData);
     final PreparedStatement batchInsertStatement = insertStatementCreator.createInsertStatement(sourceConnectorId,
         sourceTableMetaData, targetTableName, targetTableMetaData, targetConnection, numberOfRowsPerBatch,
         useMultipleValuesClauses);
+    int totalWritten = rowOffset;
 
-    for (int i = 0; i < numberOfBatches; i++)
+    try
     {
-      _progressIndicator.startExecution();
+      for (RowBatch batch = filledBatches.take(); batch != RowBatch.END; batch = filledBatches.take())
+      {
+        _progressIndicator.startExecution();
 
-      insertStatementFiller.fillInsertStatementFromResultSet(sourceConnectorId, sourceTableMetaData, targetConnectorId,
-          targetTableMetaData, targetDatabaseConfiguration, targetConnection, resultSet, batchInsertStatement,
-          numberOfRowsPerBatch, useMultipleValuesClauses);
+        final PreparedStatement insertStatement = getInsertStatement(insertStatementCreator, batchInsertStatement,
+            sourceConnectorId, sourceTableMetaData, targetTableName, targetTableMetaData, targetConnection, numberOfRowsPerBatch,
+            batch._numberOfRows, useMultipleValuesClauses);
 
-      batchInsertStatement.executeBatch();
+        insertStatementFiller.fillInsertStatementFromRows(sourceConnectorId, sourceTableMetaData, targetConnectorId,
+            targetTableMetaData, targetDatabaseConfiguration, targetConnection, batch._rows, insertStatement,
+            batch._numberOfRows, useMultipleValuesClauses);
+        freeBuffers.put(batch._rows);
 
-      if (targetDatabaseConfiguration.isMayCommit())
-      {
-        targetConnection.commit();
-      }
+        final long start = System.nanoTime();
+        insertStatement.executeBatch();
+        totalWritten += batch._numberOfRows;
+        _checkpointJournal.positionCommitting(targetConnection, sourceTableMetaData, String.valueOf(totalWritten));
 
-      insertStatementFiller.clear();
+        if (targetDatabaseConfiguration.isMayCommit())
+        {
+          targetConnection.commit();
+        }
 
-      _progressIndicator.endExecution((i + 1) * numberOfRowsPerBatch);
-    }
+        batchExecutionListener.batchExecuted(targetTableMetaData, batch._numberOfRows, useMultipleValuesClauses,
+            System.nanoTime() - start);
+        insertStatementFiller.clear();
+
+        _checkpointJournal.positionCommitted(sourceTableMetaData, String.valueOf(totalWritten));
+        _progressIndicator.endExecution(totalWritten);
 
-    if (numberOfBatches > 0)
+        if (insertStatement != batchInsertStatement)
+        {
+          insertStatement.close();
+        }
+      }
+    }
+    catch (final InterruptedException e)
+    {
+      cancelReader(executorService, reader, cancelled);
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while copying " + targetTableName, e);
+    }
+    catch (final SQLException | RuntimeException e)
+    {
+      cancelReader(executorService, reader, cancelled);
+      throw e;
+    }
+    finally
     {
       batchInsertStatement.close();
     }
 
-    if (remainder > 0)
-    {
-      final PreparedStatement finalInsert = insertStatementCreator.createInsertStatement(sourceConnectorId, sourceTableMetaData,
-          targetTableName, targetTableMetaData, targetConnection, remainder, useMultipleValuesClauses);
-      insertStatementFiller.fillInsertStatementFromResultSet(sourceConnectorId, sourceTableMetaData, targetConnectorId,
-          targetTableMetaData, targetDatabaseConfiguration, targetConnection, resultSet, finalInsert, remainder,
-          useMultipleValuesClauses);
+    waitForCompletion(Collections.singletonList(reader));
+  }
 
-      finalInsert.executeBatch();
+  private void cancelReader(final ExecutorService executorService, final Future<Void> reader,
+      final AtomicBoolean cancelled)
+  {
+    cancelled.set(true);
+    reader.cancel(true);
 
-      if (targetDatabaseConfiguration.isMayCommit())
+    try
+    {
+      if (!executorService.awaitTermination(READER_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS))
       {
-        targetConnection.commit();
+        _progressIndicator.warn("Reader thread did not terminate within " + READER_TERMINATION_TIMEOUT_SECONDS + " seconds");
       }
+    }
+    catch (final InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * @return false if the copy process has been cancelled before the element could be added
+   */
+  private static <T> boolean offer(final BlockingQueue<T> queue, final T element, final AtomicBoolean cancelled)
+      throws InterruptedException
+  {
+    while (!cancelled.get())
+    {
+      if (queue.offer(element, QUEUE_POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS))
+      {
+        return true;
+      }
+    }
 
-      insertStatementFiller.clear();
+    return false;
+  }
 
-      _progressIndicator.endExecution(sourceRowCount);
+  /**
+   * @return null if the copy process has been cancelled before an element was available
+   */
+  private static <T> T poll(final BlockingQueue<T> queue, final AtomicBoolean cancelled) throws InterruptedException
+  {
+    while (!cancelled.get())
+    {
+      final T result = queue.poll(QUEUE_POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
 
-      finalInsert.close();
+      if (result != null)
+      {
+        return result;
+      }
     }
 
-    targetDatabaseConfiguration.afterInsert(targetConnection, targetConnectorId, targetTableMetaData);
+    return null;
+  }
+
+  private static final class RowBatch
+  {
+    private static final RowBatch END = new RowBatch(null, 0);
+
+    private final Object[][] _rows;
+    private final int _numberOfRows;
 
-    if (resultSet.next())
+    private RowBatch(final Object[][] rows, final int numberOfRows)
     {
-      _progressIndicator.warn("Uncopied data!!!");
+      _rows = rows;
+      _numberOfRows = numberOfRows;
     }
-
-    resultSet.close();
-    selectStatement.close();
   }
 }
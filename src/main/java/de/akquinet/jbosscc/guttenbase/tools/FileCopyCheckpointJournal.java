@@ -0,0 +1,174 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Store the copy progress in a local properties file. Progress is appended once the data has been committed, later entries
+ * override earlier ones. An entry torn by killing the process while writing is ignored. The file is rewritten only when it is
+ * opened, cleared or a table has been completed, via a temporary file and an atomic rename.
+ * <br>
+ * Data committed shortly before a failure may be missing in the journal, i.e. it will be copied again when resuming. Use
+ * {@link TableCopyCheckpointJournal} to record the progress atomically with the data.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class FileCopyCheckpointJournal implements CopyCheckpointJournal {
+  private static final String COMPLETED = "<COMPLETED>";
+  private static final String RANGE = "<RANGE>";
+  private static final char RANGE_SEPARATOR = '#';
+
+  private final File _file;
+  private final Properties _entries = new Properties();
+
+  public FileCopyCheckpointJournal(final File file) throws SQLException {
+    assert file != null : "file != null";
+    _file = file;
+
+    if (file.exists()) {
+      try {
+        final String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.ISO_8859_1);
+
+        // Skip incomplete last line
+        _entries.load(new StringReader(content.substring(0, content.lastIndexOf('\n') + 1)));
+      } catch (final IOException e) {
+        throw new SQLException("Cannot read checkpoint journal " + file, e);
+      }
+
+      // Remove overridden entries, and a torn entry, which must not be continued by the next entry appended
+      write();
+    }
+  }
+
+  @Override
+  public synchronized void clear(final Connection targetConnection) throws SQLException {
+    _entries.clear();
+    write();
+  }
+
+  @Override
+  public synchronized boolean isTableCompleted(final Connection targetConnection, final TableMetaData sourceTableMetaData) {
+    return COMPLETED.equals(_entries.getProperty(getKey(sourceTableMetaData)));
+  }
+
+  @Override
+  public synchronized String getPosition(final Connection targetConnection, final TableMetaData sourceTableMetaData) {
+    final String result = _entries.getProperty(getKey(sourceTableMetaData));
+
+    return COMPLETED.equals(result) ? null : result;
+  }
+
+  @Override
+  public void positionCommitting(final Connection targetConnection, final TableMetaData sourceTableMetaData,
+                                 final String position) {
+  }
+
+  @Override
+  public synchronized void positionCommitted(final TableMetaData sourceTableMetaData, final String position) throws SQLException {
+    append(getKey(sourceTableMetaData), position);
+  }
+
+  @Override
+  public synchronized Collection<String> getCommittedRanges(final Connection targetConnection,
+                                                            final TableMetaData sourceTableMetaData) {
+    final String prefix = getKey(sourceTableMetaData) + RANGE_SEPARATOR;
+    final List<String> result = new ArrayList<>();
+
+    for (final String key : _entries.stringPropertyNames()) {
+      if (key.startsWith(prefix)) {
+        result.add(key.substring(prefix.length()));
+      }
+    }
+
+    return result;
+  }
+
+  @Override
+  public void rangeCommitting(final Connection targetConnection, final TableMetaData sourceTableMetaData, final String range) {
+  }
+
+  @Override
+  public synchronized void rangeCommitted(final TableMetaData sourceTableMetaData, final String range) throws SQLException {
+    append(getKey(sourceTableMetaData) + RANGE_SEPARATOR + range, RANGE);
+  }
+
+  @Override
+  public synchronized void tableCompleted(final Connection targetConnection, final TableMetaData sourceTableMetaData)
+    throws SQLException {
+    final String prefix = getKey(sourceTableMetaData) + RANGE_SEPARATOR;
+
+    _entries.stringPropertyNames().stream().filter(key -> key.startsWith(prefix)).forEach(_entries::remove);
+    _entries.setProperty(getKey(sourceTableMetaData), COMPLETED);
+    write();
+  }
+
+  /**
+   * Append a single line to the file instead of rewriting it
+   */
+  private void append(final String key, final String value) throws SQLException {
+    final Properties entry = new Properties();
+    entry.setProperty(key, value);
+    _entries.setProperty(key, value);
+
+    try {
+      Files.write(_file.toPath(), format(entry), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (final IOException e) {
+      throw new SQLException("Cannot write checkpoint journal " + _file, e);
+    }
+  }
+
+  private void write() throws SQLException {
+    final File tempFile = new File(_file.getPath() + ".tmp");
+
+    try {
+      Files.write(tempFile.toPath(), format(_entries));
+    } catch (final IOException e) {
+      throw new SQLException("Cannot write checkpoint journal " + tempFile, e);
+    }
+
+    try {
+      Files.move(tempFile.toPath(), _file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (final IOException e) {
+      throw new SQLException("Cannot write checkpoint journal " + _file, e);
+    }
+  }
+
+  /**
+   * @return entries in properties file format, i.e. ISO 8859-1 encoded, without comments
+   */
+  private static byte[] format(final Properties entries) throws SQLException {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    try {
+      entries.store(outputStream, null);
+    } catch (final IOException e) {
+      throw new SQLException("Cannot format checkpoint journal", e);
+    }
+
+    final String result = new String(outputStream.toByteArray(), StandardCharsets.ISO_8859_1);
+
+    // Skip time stamp comment
+    return result.substring(result.indexOf('\n') + 1).getBytes(StandardCharsets.ISO_8859_1);
+  }
+
+  private static String getKey(final TableMetaData sourceTableMetaData) {
+    return sourceTableMetaData.getTableName().toUpperCase();
+  }
+}
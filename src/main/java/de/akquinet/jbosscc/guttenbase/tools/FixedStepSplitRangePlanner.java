@@ -0,0 +1,45 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Divide the values between MIN and MAX of the split column into ranges of equal width. Cheap to compute, but if the values
+ * are distributed unevenly, ranges may be empty or contain many more rows than expected.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class FixedStepSplitRangePlanner implements SplitRangePlanner {
+  @Override
+  public SplitRangePlan createPlan(final ConnectorRepository connectorRepository, final String connectorId,
+                                   final Connection connection, final TableMetaData tableMetaData, final int numberOfRowsPerBatch)
+    throws SQLException {
+    final MinMaxIdSelectorTool minMaxIdSelector = new MinMaxIdSelectorTool(connectorRepository);
+    minMaxIdSelector.computeMinMax(connectorId, tableMetaData, connection);
+
+    final long minValue = minMaxIdSelector.getMinValue();
+    final long maxValue = minMaxIdSelector.getMaxValue();
+    final long step = numberOfRowsPerBatch + 1;
+    final long numberOfRanges = maxValue < minValue ? 0 : (maxValue - minValue) / step + 1;
+
+    return new SplitRangePlan() {
+      @Override
+      public long getNumberOfRanges() {
+        return numberOfRanges;
+      }
+
+      @Override
+      public SplitRange getRange(final long index) {
+        final long start = minValue + index * step;
+
+        return new SplitRange(start, start + numberOfRowsPerBatch, SplitRange.UNKNOWN_ROW_COUNT);
+      }
+    };
+  }
+}
@@ -0,0 +1,32 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Store the highest value of the change column copied so far for each table, see {@link ChangeColumn}.
+ * <br>
+ * The mark is updated before the target connection is committed. Thus implementations storing the mark in the target data base
+ * using the given connection advance it atomically with the copied data.
+ * <br>
+ * Implementations must be thread-safe, since tables may be copied concurrently.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface HighWaterMarkStore {
+  /**
+   * @return highest value of the change column copied so far or null, if the table has never been copied
+   */
+  Object getHighWaterMark(Connection targetConnection, TableMetaData sourceTableMetaData) throws SQLException;
+
+  /**
+   * Rows up to the given value of the change column will be committed with the target connection.
+   */
+  void updateHighWaterMark(Connection targetConnection, TableMetaData sourceTableMetaData, Object highWaterMark)
+      throws SQLException;
+}
@@ -0,0 +1,216 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.mapping.TableMapper;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.statements.AbstractSelectStatementCreator;
+import de.akquinet.jbosscc.guttenbase.statements.SplitByColumnSelectValuesStatementCreator;
+import org.apache.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Divide the values of the split column into ranges containing (roughly) the same number of rows, according to the actual
+ * distribution of values. The ranges are contiguous, i.e. rows inserted between the observed values after planning are copied,
+ * too. The number of rows per range is just an estimate, since the source may change while copying.
+ * <br>
+ * Data bases supporting window functions number the values with ROW_NUMBER() and group them into tiles of the requested number
+ * of rows. Otherwise, all values of the split column are read in ascending order, which usually is an index-only scan. Since
+ * this transfers every value to the client, tables with more values than the given maximum fall back to the
+ * {@link FixedStepSplitRangePlanner}. Equal values are never split across ranges, so ranges may contain more rows than
+ * requested, if values are not unique.
+ * <br>
+ * The row counts of the table meta data are not used, since they may be estimates depending on the
+ * {@link de.akquinet.jbosscc.guttenbase.repository.RowCountStrategy}.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class HistogramSplitRangePlanner implements SplitRangePlanner {
+  private static final Logger LOG = Logger.getLogger(HistogramSplitRangePlanner.class);
+
+  public static final long DEFAULT_MAX_NUMBER_OF_VALUES_READ = 1000000;
+
+  private final long _maxNumberOfValuesRead;
+
+  public HistogramSplitRangePlanner() {
+    this(DEFAULT_MAX_NUMBER_OF_VALUES_READ);
+  }
+
+  /**
+   * @param maxNumberOfValuesRead maximum number of rows of a table for reading all values of the split column, if the data base
+   *                              does not support window functions
+   */
+  public HistogramSplitRangePlanner(final long maxNumberOfValuesRead) {
+    _maxNumberOfValuesRead = maxNumberOfValuesRead;
+  }
+
+  @Override
+  public SplitRangePlan createPlan(final ConnectorRepository connectorRepository, final String connectorId,
+                                   final Connection connection, final TableMetaData tableMetaData, final int numberOfRowsPerBatch)
+    throws SQLException {
+    final DatabaseType databaseType = tableMetaData.getDatabaseMetaData().getDatabaseType();
+    final List<SplitRange> ranges;
+
+    switch (databaseType) {
+      case POSTGRESQL:
+      case ORACLE:
+      case MSSQL:
+      case DB2:
+        ranges = createRangesFromTiles(connectorRepository, connectorId, connection, tableMetaData, numberOfRowsPerBatch);
+        break;
+      default:
+        ranges = createRangesFromValues(connectorRepository, connectorId, connection, tableMetaData, numberOfRowsPerBatch);
+
+        if (ranges == null) {
+          LOG.info("Table " + tableMetaData.getTableName() + " is too large to read all values, using fixed steps instead");
+
+          return new FixedStepSplitRangePlanner().createPlan(connectorRepository, connectorId, connection, tableMetaData,
+            numberOfRowsPerBatch);
+        }
+        break;
+    }
+
+    return new SplitRangePlan() {
+      @Override
+      public long getNumberOfRanges() {
+        return ranges.size();
+      }
+
+      @Override
+      public SplitRange getRange(final long index) {
+        return ranges.get((int) index);
+      }
+    };
+  }
+
+  /**
+   * @return ranges or null, if the split column contains more than the maximum number of values to be read
+   */
+  private List<SplitRange> createRangesFromValues(final ConnectorRepository connectorRepository, final String connectorId,
+                                                  final Connection connection, final TableMetaData tableMetaData,
+                                                  final int numberOfRowsPerBatch) throws SQLException {
+    final List<SplitRange> result = new ArrayList<>();
+    final String tableName = getTableName(connectorRepository, connectorId, tableMetaData);
+    final PreparedStatement statement = new SplitByColumnSelectValuesStatementCreator(connectorRepository, connectorId)
+      .createSelectStatement(connection, tableName, tableMetaData);
+    final ResultSet resultSet = statement.executeQuery();
+    long rangeStart = 0;
+    long previousValue = 0;
+    long rowCount = 0;
+    long numberOfValues = 0;
+
+    while (resultSet.next()) {
+      final long value = resultSet.getLong(1);
+
+      if (++numberOfValues > _maxNumberOfValuesRead) {
+        resultSet.close();
+        statement.close();
+        return null;
+      }
+
+      if (rowCount >= numberOfRowsPerBatch && value != previousValue) {
+        result.add(new SplitRange(rangeStart, previousValue, rowCount));
+        rowCount = 0;
+      }
+
+      if (rowCount == 0) {
+        rangeStart = value;
+      }
+
+      rowCount++;
+      previousValue = value;
+    }
+
+    if (rowCount > 0) {
+      result.add(new SplitRange(rangeStart, previousValue, rowCount));
+    }
+
+    resultSet.close();
+    statement.close();
+
+    return makeContiguous(result);
+  }
+
+  private List<SplitRange> createRangesFromTiles(final ConnectorRepository connectorRepository, final String connectorId,
+                                                 final Connection connection, final TableMetaData tableMetaData,
+                                                 final int numberOfRowsPerBatch) throws SQLException {
+    final List<SplitRange> result = new ArrayList<>();
+    final String tableName = getTableName(connectorRepository, connectorId, tableMetaData);
+    final String splitColumn = connectorRepository.getConnectorHint(connectorId, SplitColumn.class).getValue()
+      .getSplitColumn(tableMetaData).getColumnName();
+    final String whereClause = connectorRepository.getConnectorHint(connectorId, SelectWhereClause.class).getValue()
+      .getWhereClause(tableMetaData);
+    // Tiles of the requested size, i.e. independent of the (maybe estimated) row count of the table
+    final String sql = "SELECT MIN(" + splitColumn + "), MAX(" + splitColumn + "), COUNT(*) FROM "
+      + "(SELECT " + splitColumn + ", FLOOR((ROW_NUMBER() OVER (ORDER BY " + splitColumn + ") - 1) / " + numberOfRowsPerBatch
+      + ") GB_TILE"
+      + " FROM " + tableName + " " + AbstractSelectStatementCreator.appendCondition(whereClause, splitColumn + " IS NOT NULL")
+      + ") GB_TILES GROUP BY GB_TILE ORDER BY 1";
+
+    LOG.debug("Create histogram statement " + sql);
+
+    final PreparedStatement statement = connection.prepareStatement(sql);
+    final ResultSet resultSet = statement.executeQuery();
+    SplitRange currentRange = null;
+
+    while (resultSet.next()) {
+      final long start = resultSet.getLong(1);
+      final long end = resultSet.getLong(2);
+      final long rowCount = resultSet.getLong(3);
+
+      if (currentRange == null) {
+        currentRange = new SplitRange(start, end, rowCount);
+      } else if (start <= currentRange.getEnd()) {
+        // Equal values may be numbered across different tiles
+        currentRange = new SplitRange(currentRange.getStart(), Math.max(end, currentRange.getEnd()),
+          currentRange.getRowCount() + rowCount);
+      } else {
+        result.add(currentRange);
+        currentRange = new SplitRange(start, end, rowCount);
+      }
+    }
+
+    if (currentRange != null) {
+      result.add(currentRange);
+    }
+
+    resultSet.close();
+    statement.close();
+
+    return makeContiguous(result);
+  }
+
+  /**
+   * Extend each range up to the start of the next one, so that values between the observed ones are covered, too.
+   */
+  private static List<SplitRange> makeContiguous(final List<SplitRange> ranges) {
+    final List<SplitRange> result = new ArrayList<>(ranges.size());
+
+    for (int i = 0; i < ranges.size(); i++) {
+      final SplitRange range = ranges.get(i);
+
+      if (i < ranges.size() - 1) {
+        result.add(new SplitRange(range.getStart(), ranges.get(i + 1).getStart() - 1, range.getRowCount()));
+      } else {
+        result.add(range);
+      }
+    }
+
+    return result;
+  }
+
+  private static String getTableName(final ConnectorRepository connectorRepository, final String connectorId,
+                                     final TableMetaData tableMetaData) throws SQLException {
+    final TableMapper tableMapper = connectorRepository.getConnectorHint(connectorId, TableMapper.class).getValue();
+    return tableMapper.fullyQualifiedTableName(tableMetaData, tableMetaData.getDatabaseMetaData());
+  }
+}
@@ -0,0 +1,315 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.configuration.SourceDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.configuration.TargetDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.exceptions.TableConfigurationException;
+import de.akquinet.jbosscc.guttenbase.hints.BatchExecutionListenerHint;
+import de.akquinet.jbosscc.guttenbase.hints.ChangeColumnHint;
+import de.akquinet.jbosscc.guttenbase.hints.ColumnOrderHint;
+import de.akquinet.jbosscc.guttenbase.hints.HighWaterMarkStoreHint;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.statements.IncrementalSelectStatementCreator;
+import de.akquinet.jbosscc.guttenbase.statements.IncrementalSelectStatementCreator.Selection;
+import de.akquinet.jbosscc.guttenbase.statements.InsertStatementFiller;
+import de.akquinet.jbosscc.guttenbase.statements.SelectStatementCreator;
+import de.akquinet.jbosscc.guttenbase.statements.UpsertStatementCreator;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Copy only rows inserted or modified since the last run into existing target tables. Rows are selected by the change column of
+ * the table, e.g. a last-modified timestamp, whose highest value copied so far is recorded by the {@link HighWaterMarkStore}.
+ * Tables without change column are copied completely.
+ * <br>
+ * Rows are inserted or updated using the primary key of the target table, see {@link UpsertStatementCreator}. Target tables
+ * without primary key are skipped with a warning, since their rows cannot be updated. The high-water mark is updated in the same
+ * transaction as the data of each batch. Rows with the same change value as the mark are copied again on the next run, so a
+ * run that failed in the middle of rows sharing a change value does not lose the remaining ones.
+ * <br>
+ * Rows without change value cannot be tracked and are copied on every run. Rows committed in the source data base with a change
+ * value below the current high-water mark, e.g. by long-running transactions, are not detected. Deleted rows are not detected
+ * either.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @gb.UsesHint {@link ChangeColumnHint} to determine rows changed since the last run
+ * @gb.UsesHint {@link HighWaterMarkStoreHint} to record the highest change value copied
+ * @gb.UsesHint {@link ColumnOrderHint} to determine column order
+ * @gb.UsesHint {@link BatchExecutionListenerHint} to report execution time of batches
+ */
+public class IncrementalTableCopyTool extends AbstractTableCopyTool
+{
+  public IncrementalTableCopyTool(final ConnectorRepository connectorRepository)
+  {
+    super(connectorRepository);
+  }
+
+  @Override
+  protected boolean isInsertOnly()
+  {
+    return false;
+  }
+
+  @Override
+  protected void copyTable(final String sourceConnectorId, final Connection sourceConnection,
+      final SourceDatabaseConfiguration sourceDatabaseConfiguration, final TableMetaData sourceTableMetaData,
+      final String sourceTableName, final String targetConnectorId, final Connection targetConnection,
+      final TargetDatabaseConfiguration targetDatabaseConfiguration, final TableMetaData targetTableMetaData,
+      final String targetTableName, final int numberOfRowsPerBatch, final boolean useMultipleValuesClauses) throws SQLException
+  {
+    if (targetTableMetaData.getPrimaryKeyColumns().isEmpty())
+    {
+      _progressIndicator.warn("Target table " + targetTableName + " has no primary key, changed rows cannot be updated. Skipping "
+          + sourceTableName);
+      return;
+    }
+
+    final ColumnMetaData changeColumn = _connectorRepository.getConnectorHint(sourceConnectorId, ChangeColumn.class).getValue()
+        .getChangeColumn(sourceTableMetaData);
+    final HighWaterMarkStore highWaterMarkStore = _connectorRepository.getConnectorHint(targetConnectorId,
+        HighWaterMarkStore.class).getValue();
+    final Object highWaterMark = changeColumn == null ? null
+        : highWaterMarkStore.getHighWaterMark(targetConnection, sourceTableMetaData);
+    final RowCopier rowCopier = new RowCopier(sourceConnectorId, sourceTableMetaData, targetConnectorId, targetConnection,
+        targetDatabaseConfiguration, targetTableMetaData, targetTableName, numberOfRowsPerBatch, changeColumn,
+        highWaterMarkStore);
+
+    targetDatabaseConfiguration.beforeInsert(targetConnection, targetConnectorId, targetTableMetaData);
+
+    try
+    {
+      if (changeColumn == null)
+      {
+        rowCopier.copyRows(sourceConnectorId, sourceConnection, sourceDatabaseConfiguration,
+            new SelectStatementCreator(_connectorRepository, sourceConnectorId).createSelectStatement(sourceConnection,
+                sourceTableName, sourceTableMetaData));
+      }
+      else if (highWaterMark == null)
+      {
+        rowCopier.copyRows(sourceConnectorId, sourceConnection, sourceDatabaseConfiguration, createSelectStatement(
+            sourceConnectorId, sourceConnection, sourceTableMetaData, sourceTableName, changeColumn, Selection.ALL, null));
+      }
+      else
+      {
+        if (changeColumn.isNullable())
+        {
+          rowCopier.copyRows(sourceConnectorId, sourceConnection, sourceDatabaseConfiguration, createSelectStatement(
+              sourceConnectorId, sourceConnection, sourceTableMetaData, sourceTableName, changeColumn,
+              Selection.WITHOUT_CHANGE_VALUE, null));
+        }
+
+        rowCopier.copyRows(sourceConnectorId, sourceConnection, sourceDatabaseConfiguration, createSelectStatement(
+            sourceConnectorId, sourceConnection, sourceTableMetaData, sourceTableName, changeColumn, Selection.CHANGED,
+            highWaterMark));
+      }
+    }
+    finally
+    {
+      rowCopier.close();
+    }
+
+    _progressIndicator.info(rowCopier._totalWritten + " rows of " + sourceTableName + " changed since "
+        + (highWaterMark == null ? "initial copy" : highWaterMark));
+
+    targetDatabaseConfiguration.afterInsert(targetConnection, targetConnectorId, targetTableMetaData);
+  }
+
+  private PreparedStatement createSelectStatement(final String sourceConnectorId, final Connection sourceConnection,
+      final TableMetaData sourceTableMetaData, final String sourceTableName, final ColumnMetaData changeColumn,
+      final Selection selection, final Object highWaterMark) throws SQLException
+  {
+    final IncrementalSelectStatementCreator selectStatementCreator = new IncrementalSelectStatementCreator(_connectorRepository,
+        sourceConnectorId, changeColumn, selection);
+    final PreparedStatement selectStatement = selectStatementCreator.createSelectStatement(sourceConnection, sourceTableName,
+        sourceTableMetaData);
+
+    if (highWaterMark != null)
+    {
+      selectStatementCreator.setHighWaterMark(selectStatement, highWaterMark);
+    }
+
+    return selectStatement;
+  }
+
+  /**
+   * Upserts the rows read by one or more SELECT statements in batches.
+   */
+  private final class RowCopier
+  {
+    private final String _sourceConnectorId;
+    private final TableMetaData _sourceTableMetaData;
+    private final String _targetConnectorId;
+    private final Connection _targetConnection;
+    private final TargetDatabaseConfiguration _targetDatabaseConfiguration;
+    private final TableMetaData _targetTableMetaData;
+    private final int _numberOfRowsPerBatch;
+    private final ColumnMetaData _changeColumn;
+    private final HighWaterMarkStore _highWaterMarkStore;
+    private final BatchExecutionListener _batchExecutionListener;
+    private final InsertStatementFiller _insertStatementFiller;
+    private final int[] _keyColumnIndexes;
+    private final int[] _changeColumnIndexes;
+    private final Object[] _lastChangeValue;
+    private final Object[][] _rows;
+    private final PreparedStatement _upsertStatement;
+    private final PreparedStatement _deleteStatement;
+    private int _totalWritten;
+
+    private RowCopier(final String sourceConnectorId, final TableMetaData sourceTableMetaData, final String targetConnectorId,
+        final Connection targetConnection, final TargetDatabaseConfiguration targetDatabaseConfiguration,
+        final TableMetaData targetTableMetaData, final String targetTableName, final int numberOfRowsPerBatch,
+        final ColumnMetaData changeColumn, final HighWaterMarkStore highWaterMarkStore) throws SQLException
+    {
+      final UpsertStatementCreator upsertStatementCreator = new UpsertStatementCreator(_connectorRepository, targetConnectorId);
+      final boolean upsertSupported = UpsertStatementCreator.isUpsertSupported(
+          targetTableMetaData.getDatabaseMetaData().getDatabaseType());
+
+      _sourceConnectorId = sourceConnectorId;
+      _sourceTableMetaData = sourceTableMetaData;
+      _targetConnectorId = targetConnectorId;
+      _targetConnection = targetConnection;
+      _targetDatabaseConfiguration = targetDatabaseConfiguration;
+      _targetTableMetaData = targetTableMetaData;
+      _numberOfRowsPerBatch = numberOfRowsPerBatch;
+      _changeColumn = changeColumn;
+      _highWaterMarkStore = highWaterMarkStore;
+      _batchExecutionListener = _connectorRepository.getConnectorHint(targetConnectorId, BatchExecutionListener.class).getValue();
+      _insertStatementFiller = new InsertStatementFiller(_connectorRepository);
+      _keyColumnIndexes = upsertStatementCreator.getKeyColumnIndexes(sourceConnectorId, sourceTableMetaData, targetTableMetaData);
+      _changeColumnIndexes = changeColumn == null ? new int[0]
+          : new int[]{getChangeColumnIndex(sourceConnectorId, sourceTableMetaData, changeColumn)};
+      _lastChangeValue = new Object[_changeColumnIndexes.length];
+      _rows = new Object[numberOfRowsPerBatch][];
+      _upsertStatement = upsertStatementCreator.createUpsertStatement(sourceConnectorId, sourceTableMetaData, targetTableName,
+          targetTableMetaData, targetConnection);
+      _deleteStatement = upsertSupported ? null
+          : upsertStatementCreator.createDeleteStatement(targetTableName, targetTableMetaData, targetConnection);
+    }
+
+    private void copyRows(final String sourceConnectorId, final Connection sourceConnection,
+        final SourceDatabaseConfiguration sourceDatabaseConfiguration, final PreparedStatement selectStatement)
+        throws SQLException
+    {
+      try
+      {
+        sourceDatabaseConfiguration.beforeSelect(sourceConnection, sourceConnectorId, _sourceTableMetaData);
+        final ResultSet resultSet = selectStatement.executeQuery();
+        sourceDatabaseConfiguration.afterSelect(sourceConnection, sourceConnectorId, _sourceTableMetaData);
+
+        int numberOfRows;
+
+        do
+        {
+          numberOfRows = _insertStatementFiller.readAvailableRows(_sourceConnectorId, _sourceTableMetaData, _targetConnectorId,
+              _targetTableMetaData, resultSet, _rows, _numberOfRowsPerBatch, _changeColumnIndexes, _lastChangeValue);
+
+          if (numberOfRows > 0)
+          {
+            copyBatch(numberOfRows);
+          }
+        }
+        while (numberOfRows == _numberOfRowsPerBatch);
+
+        resultSet.close();
+      }
+      finally
+      {
+        selectStatement.close();
+      }
+    }
+
+    private void copyBatch(final int numberOfRows) throws SQLException
+    {
+      _progressIndicator.startExecution();
+
+      final long start = System.nanoTime();
+
+      if (_deleteStatement != null)
+      {
+        deleteRows(_deleteStatement, _rows, numberOfRows, _keyColumnIndexes);
+      }
+
+      _insertStatementFiller.fillInsertStatementFromRows(_sourceConnectorId, _sourceTableMetaData, _targetConnectorId,
+          _targetTableMetaData, _targetDatabaseConfiguration, _targetConnection, _rows, _upsertStatement, numberOfRows, false);
+      _upsertStatement.executeBatch();
+
+      // Rows are ordered by change value, but rows without change value must not reset the mark
+      if (_changeColumn != null && _lastChangeValue[0] != null)
+      {
+        _highWaterMarkStore.updateHighWaterMark(_targetConnection, _sourceTableMetaData, _lastChangeValue[0]);
+      }
+
+      if (_targetDatabaseConfiguration.isMayCommit())
+      {
+        _targetConnection.commit();
+      }
+
+      _batchExecutionListener.batchExecuted(_targetTableMetaData, numberOfRows, false, System.nanoTime() - start);
+      _insertStatementFiller.clear();
+
+      _totalWritten += numberOfRows;
+      _progressIndicator.endExecution(_totalWritten);
+    }
+
+    private void close() throws SQLException
+    {
+      try
+      {
+        if (_deleteStatement != null)
+        {
+          _deleteStatement.close();
+        }
+      }
+      finally
+      {
+        _upsertStatement.close();
+      }
+    }
+  }
+
+  /**
+   * Delete existing rows before inserting them again, if the target data base does not support upserts
+   */
+  private static void deleteRows(final PreparedStatement deleteStatement, final Object[][] rows, final int numberOfRows,
+      final int[] keyColumnIndexes) throws SQLException
+  {
+    for (int i = 0; i < numberOfRows; i++)
+    {
+      for (int j = 0; j < keyColumnIndexes.length; j++)
+      {
+        deleteStatement.setObject(j + 1, rows[i][keyColumnIndexes[j]]);
+      }
+
+      deleteStatement.addBatch();
+    }
+
+    deleteStatement.executeBatch();
+  }
+
+  /**
+   * @return index of change column in SELECT statement, starting with 1
+   */
+  private int getChangeColumnIndex(final String sourceConnectorId, final TableMetaData sourceTableMetaData,
+      final ColumnMetaData changeColumn) throws SQLException
+  {
+    final List<ColumnMetaData> sourceColumns = ColumnOrderHint.getSortedColumns(_connectorRepository, sourceConnectorId,
+        sourceTableMetaData);
+    final int index = sourceColumns.indexOf(changeColumn);
+
+    if (index < 0)
+    {
+      throw new TableConfigurationException("Change column " + changeColumn + " is not contained in SELECT statement of "
+          + sourceTableMetaData.getTableName());
+    }
+
+    return index + 1;
+  }
+}
@@ -0,0 +1,215 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.configuration.SourceDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.configuration.TargetDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.hints.BatchExecutionListenerHint;
+import de.akquinet.jbosscc.guttenbase.hints.ColumnOrderHint;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.statements.InsertStatementCreator;
+import de.akquinet.jbosscc.guttenbase.statements.InsertStatementFiller;
+import de.akquinet.jbosscc.guttenbase.statements.KeysetSelectStatementCreator;
+import de.akquinet.jbosscc.guttenbase.utils.Util;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Copy all tables from one connection to the other reading the data in chunks ordered by the primary key. Each chunk starts
+ * after the last key of the previous chunk, i.e. in contrast to {@link SplitByRangeTableCopyTool} the cost depends only on the
+ * number of rows, not on the range of key values. Composite primary keys are supported.
+ * <br>
+ * Tables without primary key are copied by the {@link DefaultTableCopyTool} this tool is derived from.
+ * <br>
+ * The position recorded in the {@link CopyCheckpointJournal} is the last key committed, serialized and Base64-encoded.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @gb.UsesHint {@link ColumnOrderHint} to determine column order
+ * @gb.UsesHint {@link BatchExecutionListenerHint} to report execution time of batches
+ */
+public class KeysetTableCopyTool extends DefaultTableCopyTool
+{
+  public KeysetTableCopyTool(final ConnectorRepository connectorRepository)
+  {
+    super(connectorRepository);
+  }
+
+  @Override
+  protected void copyTable(final String sourceConnectorId, final Connection sourceConnection,
+      final SourceDatabaseConfiguration sourceDatabaseConfiguration, final TableMetaData sourceTableMetaData,
+      final String sourceTableName, final String targetConnectorId, final Connection targetConnection,
+      final TargetDatabaseConfiguration targetDatabaseConfiguration, final TableMetaData targetTableMetaData,
+      final String targetTableName, final int numberOfRowsPerBatch, final boolean useMultipleValuesClauses) throws SQLException
+  {
+    final List<ColumnMetaData> keyColumns = sourceTableMetaData.getPrimaryKeyColumns();
+    final int[] keyColumnIndexes = getKeyColumnIndexes(sourceConnectorId, sourceTableMetaData, keyColumns);
+
+    if (keyColumnIndexes == null)
+    {
+      _progressIndicator.info("No primary key in SELECT statement of " + sourceTableName + ", copying without keyset pagination");
+
+      super.copyTable(sourceConnectorId, sourceConnection, sourceDatabaseConfiguration, sourceTableMetaData,
+          sourceTableName, targetConnectorId, targetConnection, targetDatabaseConfiguration, targetTableMetaData, targetTableName,
+          numberOfRowsPerBatch, useMultipleValuesClauses);
+      return;
+    }
+
+    final KeysetSelectStatementCreator nextSelectStatementCreator = new KeysetSelectStatementCreator(_connectorRepository,
+        sourceConnectorId, keyColumns, numberOfRowsPerBatch, true);
+    final PreparedStatement firstSelectStatement = new KeysetSelectStatementCreator(_connectorRepository, sourceConnectorId,
+        keyColumns, numberOfRowsPerBatch, false).createSelectStatement(sourceConnection, sourceTableName, sourceTableMetaData);
+    final PreparedStatement nextSelectStatement = nextSelectStatementCreator.createSelectStatement(sourceConnection,
+        sourceTableName, sourceTableMetaData);
+
+    final InsertStatementCreator insertStatementCreator = new InsertStatementCreator(_connectorRepository, targetConnectorId);
+    final InsertStatementFiller insertStatementFiller = new InsertStatementFiller(_connectorRepository);
+    final BatchExecutionListener batchExecutionListener = _connectorRepository.getConnectorHint(targetConnectorId,
+        BatchExecutionListener.class).getValue();
+    final Object[][] rows = new Object[numberOfRowsPerBatch][];
+    final String position = _checkpointJournal.getPosition(targetConnection, sourceTableMetaData);
+    final Object[] lastKey = position == null ? new Object[keyColumns.size()] : decodeKey(position);
+
+    targetDatabaseConfiguration.beforeInsert(targetConnection, targetConnectorId, targetTableMetaData);
+    final PreparedStatement batchInsertStatement = insertStatementCreator.createInsertStatement(sourceConnectorId,
+        sourceTableMetaData, targetTableName, targetTableMetaData, targetConnection, numberOfRowsPerBatch,
+        useMultipleValuesClauses);
+
+    PreparedStatement selectStatement = firstSelectStatement;
+
+    if (position != null)
+    {
+      selectStatement = nextSelectStatement;
+      nextSelectStatementCreator.setKeyParameters(nextSelectStatement, lastKey);
+    }
+
+    int totalWritten = 0;
+    int numberOfRows;
+
+    do
+    {
+      _progressIndicator.startExecution();
+
+      sourceDatabaseConfiguration.beforeSelect(sourceConnection, sourceConnectorId, sourceTableMetaData);
+      final ResultSet resultSet = selectStatement.executeQuery();
+      sourceDatabaseConfiguration.afterSelect(sourceConnection, sourceConnectorId, sourceTableMetaData);
+
+      numberOfRows = insertStatementFiller.readAvailableRows(sourceConnectorId, sourceTableMetaData, targetConnectorId,
+          targetTableMetaData, resultSet, rows, numberOfRowsPerBatch, keyColumnIndexes, lastKey);
+      resultSet.close();
+
+      if (numberOfRows > 0)
+      {
+        final PreparedStatement insertStatement = getInsertStatement(insertStatementCreator, batchInsertStatement,
+            sourceConnectorId, sourceTableMetaData, targetTableName, targetTableMetaData, targetConnection, numberOfRowsPerBatch,
+            numberOfRows, useMultipleValuesClauses);
+
+        insertStatementFiller.fillInsertStatementFromRows(sourceConnectorId, sourceTableMetaData, targetConnectorId,
+            targetTableMetaData, targetDatabaseConfiguration, targetConnection, rows, insertStatement, numberOfRows,
+            useMultipleValuesClauses);
+        final long start = System.nanoTime();
+        insertStatement.executeBatch();
+
+        final String committedPosition = encodeKey(lastKey);
+        _checkpointJournal.positionCommitting(targetConnection, sourceTableMetaData, committedPosition);
+
+        if (targetDatabaseConfiguration.isMayCommit())
+        {
+          targetConnection.commit();
+        }
+
+        batchExecutionListener.batchExecuted(targetTableMetaData, numberOfRows, useMultipleValuesClauses,
+            System.nanoTime() - start);
+
+        insertStatementFiller.clear();
+
+        _checkpointJournal.positionCommitted(sourceTableMetaData, committedPosition);
+        totalWritten += numberOfRows;
+        _progressIndicator.endExecution(totalWritten);
+
+        if (insertStatement != batchInsertStatement)
+        {
+          insertStatement.close();
+        }
+
+        selectStatement = nextSelectStatement;
+        nextSelectStatementCreator.setKeyParameters(nextSelectStatement, lastKey);
+      }
+    }
+    while (numberOfRows == numberOfRowsPerBatch);
+
+    targetDatabaseConfiguration.afterInsert(targetConnection, targetConnectorId, targetTableMetaData);
+
+    batchInsertStatement.close();
+    firstSelectStatement.close();
+    nextSelectStatement.close();
+  }
+
+  private static String encodeKey(final Object[] key) throws SQLException
+  {
+    try
+    {
+      return Base64.getEncoder().encodeToString(Util.toByteArray(key));
+    }
+    catch (final IOException e)
+    {
+      throw new SQLException("Cannot serialize key", e);
+    }
+  }
+
+  private static Object[] decodeKey(final String position) throws SQLException
+  {
+    try
+    {
+      return Util.fromByteArray(Object[].class, Base64.getDecoder().decode(position));
+    }
+    catch (final Exception e)
+    {
+      throw new SQLException("Cannot deserialize key " + position, e);
+    }
+  }
+
+  /**
+   * @return indexes of key columns in SELECT statement, starting with 1, or null if the key is not (completely) contained
+   */
+  private int[] getKeyColumnIndexes(final String sourceConnectorId, final TableMetaData sourceTableMetaData,
+      final List<ColumnMetaData> keyColumns) throws SQLException
+  {
+    if (keyColumns.isEmpty())
+    {
+      return null;
+    }
+
+    final List<ColumnMetaData> sourceColumns = ColumnOrderHint.getSortedColumns(_connectorRepository, sourceConnectorId,
+        sourceTableMetaData);
+    final int[] result = new int[keyColumns.size()];
+
+    for (int i = 0; i < keyColumns.size(); i++)
+    {
+      final String keyColumnName = keyColumns.get(i).getColumnName();
+
+      for (int j = 0; j < sourceColumns.size() && result[i] == 0; j++)
+      {
+        if (sourceColumns.get(j).getColumnName().equalsIgnoreCase(keyColumnName))
+        {
+          result[i] = j + 1;
+        }
+      }
+
+      if (result[i] == 0)
+      {
+        return null;
+      }
+    }
+
+    return result;
+  }
+}
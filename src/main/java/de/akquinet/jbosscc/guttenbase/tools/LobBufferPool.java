@@ -0,0 +1,94 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of fixed-size byte and character buffers used to transfer LOBs, see {@link LobStreaming}. Buffers are allocated on
+ * demand, at most the given number of released buffers of each kind is kept for reuse. Thread-safe.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class LobBufferPool {
+  public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+  public static final int DEFAULT_MAX_NUMBER_OF_POOLED_BUFFERS = 256;
+
+  private final int _bufferSize;
+  private final int _maxNumberOfPooledBuffers;
+  private final Queue<byte[]> _byteBuffers = new ConcurrentLinkedQueue<>();
+  private final Queue<char[]> _charBuffers = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger _numberOfPooledByteBuffers = new AtomicInteger();
+  private final AtomicInteger _numberOfPooledCharBuffers = new AtomicInteger();
+
+  public LobBufferPool() {
+    this(DEFAULT_BUFFER_SIZE, DEFAULT_MAX_NUMBER_OF_POOLED_BUFFERS);
+  }
+
+  /**
+   * @param bufferSize size of byte buffers in bytes and of character buffers in characters
+   */
+  public LobBufferPool(final int bufferSize, final int maxNumberOfPooledBuffers) {
+    assert bufferSize > 0 : "bufferSize > 0";
+    assert maxNumberOfPooledBuffers >= 0 : "maxNumberOfPooledBuffers >= 0";
+
+    _bufferSize = bufferSize;
+    _maxNumberOfPooledBuffers = maxNumberOfPooledBuffers;
+  }
+
+  public int getBufferSize() {
+    return _bufferSize;
+  }
+
+  public byte[] acquireByteBuffer() {
+    final byte[] buffer = _byteBuffers.poll();
+
+    if (buffer == null) {
+      return new byte[_bufferSize];
+    } else {
+      _numberOfPooledByteBuffers.decrementAndGet();
+      return buffer;
+    }
+  }
+
+  public void releaseByteBuffer(final byte[] buffer) {
+    assert buffer.length == _bufferSize : "buffer.length == _bufferSize";
+
+    if (_numberOfPooledByteBuffers.incrementAndGet() <= _maxNumberOfPooledBuffers) {
+      _byteBuffers.add(buffer);
+    } else {
+      _numberOfPooledByteBuffers.decrementAndGet();
+    }
+  }
+
+  public char[] acquireCharBuffer() {
+    final char[] buffer = _charBuffers.poll();
+
+    if (buffer == null) {
+      return new char[_bufferSize];
+    } else {
+      _numberOfPooledCharBuffers.decrementAndGet();
+      return buffer;
+    }
+  }
+
+  public void releaseCharBuffer(final char[] buffer) {
+    assert buffer.length == _bufferSize : "buffer.length == _bufferSize";
+
+    if (_numberOfPooledCharBuffers.incrementAndGet() <= _maxNumberOfPooledBuffers) {
+      _charBuffers.add(buffer);
+    } else {
+      _numberOfPooledCharBuffers.decrementAndGet();
+    }
+  }
+
+  /**
+   * @return number of byte and character buffers currently available for reuse
+   */
+  public int getNumberOfPooledBuffers() {
+    return _numberOfPooledByteBuffers.get() + _numberOfPooledCharBuffers.get();
+  }
+}
@@ -0,0 +1,30 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+/**
+ * Stream BLOBs and CLOBs from the source into the target statement with known length, instead of handing the driver
+ * {@link java.sql.Blob}/{@link java.sql.Clob} objects, which many drivers materialize in memory.
+ * <br>
+ * LOBs that fit into a buffer of the {@link LobBufferPool} are copied into a pooled buffer, larger LOBs are streamed directly
+ * from the source. Source LOBs are freed and buffers are returned to the pool after the batch has been executed. The number
+ * of rows per batch is trimmed, so that no more than {@link #getMaxNumberOfOpenLobs(TableMetaData)} LOBs are open at once.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface LobStreaming {
+  boolean isStreamingLobs(TableMetaData targetTableMetaData);
+
+  /**
+   * @return maximum number of LOBs held open within a single batch
+   */
+  int getMaxNumberOfOpenLobs(TableMetaData targetTableMetaData);
+
+  /**
+   * @return pool of buffers shared by all threads copying data
+   */
+  LobBufferPool getBufferPool();
+}
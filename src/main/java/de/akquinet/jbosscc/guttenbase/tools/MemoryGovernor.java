@@ -0,0 +1,42 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+/**
+ * Limit the number of rows held in memory at once, i.e. the number of rows fetched from the source data base and the number of
+ * rows inserted in a single batch. The values configured by {@link NumberOfRowsPerBatch} and {@link ResultSetParameters} are
+ * upper limits, the governor may choose smaller values for tables with large rows.
+ * <br>
+ * The governor may be informed about the values actually copied in order to refine its estimates. Implementations must be
+ * thread-safe.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface MemoryGovernor {
+  /**
+   * @param numberOfRowsPerBatch number of rows as configured by {@link NumberOfRowsPerBatch}
+   * @return number of rows per batch, at most the configured number
+   */
+  int getNumberOfRowsPerBatch(TableMetaData targetTableMetaData, int numberOfRowsPerBatch);
+
+  /**
+   * @param fetchSize fetch size as configured by {@link ResultSetParameters}
+   * @return fetch size, at most the configured value
+   */
+  int getFetchSize(TableMetaData sourceTableMetaData, int fetchSize);
+
+  /**
+   * @return true if the governor wants to be informed about the values copied
+   */
+  boolean isObservingValues();
+
+  /**
+   * Called after a batch of rows has been read, if {@link #isObservingValues()} is true.
+   *
+   * @param numberOfBytes estimated size of the values read, see {@link ByteBudgetMemoryGovernor#estimateSize(Object)}
+   */
+  void valuesObserved(TableMetaData targetTableMetaData, long numberOfBytes, int numberOfRows);
+}
@@ -35,11 +35,12 @@ public class MinMaxIdSelectorTool {
    */
   public void computeMinMax(final String connectorId, final TableMetaData tableMetaData) throws SQLException {
     final Connector connector = _connectorRepository.createConnector(connectorId);
-    final Connection connection = connector.openConnection();
 
-    computeMinMax(connectorId, tableMetaData, connection);
-
-    connector.closeConnection();
+    try {
+      computeMinMax(connectorId, tableMetaData, connector.openConnection());
+    } finally {
+      connector.closeConnection();
+    }
   }
 
   /**
@@ -0,0 +1,18 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+/**
+ * How many tables shall be copied concurrently? Each copy thread uses its own source and target connection.
+ *
+ * Tables are scheduled according to their foreign key dependencies, i.e. a table will not be copied before all the tables it
+ * references have been copied. The default value of 1 copies all tables sequentially using a single pair of connections.
+ *
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @see TableCopyScheduler
+ * @author M. Dahm
+ */
+public interface NumberOfTableCopyThreads {
+  int getNumberOfTableCopyThreads();
+}
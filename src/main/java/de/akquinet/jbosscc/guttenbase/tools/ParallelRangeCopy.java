@@ -0,0 +1,25 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+/**
+ * Copy the ranges of a single table concurrently with {@link SplitByRangeTableCopyTool}. Each thread uses its own pair of
+ * source and target connections.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public interface ParallelRangeCopy {
+  /**
+   * @return number of threads copying ranges of the given table, 1 means sequential copying
+   */
+  int getNumberOfThreads(TableMetaData targetTableMetaData);
+
+  /**
+   * @return true if ranges shall be committed in ascending order of the split column, i.e. the committed data in the target
+   * table has no gaps at any time. Otherwise each thread commits as soon as its range has been written.
+   */
+  boolean isOrderedCommits(TableMetaData targetTableMetaData);
+}
@@ -0,0 +1,45 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+/**
+ * Stream LOBs of all tables using a shared {@link LobBufferPool}.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class PooledLobStreaming implements LobStreaming {
+  public static final int DEFAULT_MAX_NUMBER_OF_OPEN_LOBS = 100;
+
+  private final int _maxNumberOfOpenLobs;
+  private final LobBufferPool _bufferPool;
+
+  public PooledLobStreaming() {
+    this(DEFAULT_MAX_NUMBER_OF_OPEN_LOBS, new LobBufferPool());
+  }
+
+  public PooledLobStreaming(final int maxNumberOfOpenLobs, final LobBufferPool bufferPool) {
+    assert maxNumberOfOpenLobs > 0 : "maxNumberOfOpenLobs > 0";
+    assert bufferPool != null : "bufferPool != null";
+
+    _maxNumberOfOpenLobs = maxNumberOfOpenLobs;
+    _bufferPool = bufferPool;
+  }
+
+  @Override
+  public boolean isStreamingLobs(final TableMetaData targetTableMetaData) {
+    return true;
+  }
+
+  @Override
+  public int getMaxNumberOfOpenLobs(final TableMetaData targetTableMetaData) {
+    return _maxNumberOfOpenLobs;
+  }
+
+  @Override
+  public LobBufferPool getBufferPool() {
+    return _bufferPool;
+  }
+}
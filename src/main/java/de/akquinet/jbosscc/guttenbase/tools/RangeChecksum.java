@@ -0,0 +1,136 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLException;
+
+/**
+ * Order-independent checksum of rows: The sum of the MD5 hashes of all rows (truncated to 64 bits) and the number of rows.
+ * <br>
+ * Values are normalized, so that values of different types representing the same data yield the same hash, e.g. numbers are
+ * compared by value, trailing blanks of strings are ignored. LOBs are hashed while streaming, i.e. they are never loaded into
+ * memory completely.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public final class RangeChecksum {
+  private static final byte NULL_VALUE = 0;
+  private static final byte SEPARATOR = 0x1F;
+  private static final int BUFFER_SIZE = 8192;
+
+  private final MessageDigest _messageDigest;
+  private final byte[] _buffer = new byte[BUFFER_SIZE];
+  private final char[] _charBuffer = new char[BUFFER_SIZE];
+  private long _numberOfRows;
+  private long _checksum;
+
+  public RangeChecksum() {
+    try {
+      _messageDigest = MessageDigest.getInstance("MD5");
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException("MD5 not supported", e);
+    }
+  }
+
+  public void addRow(final Object[] values) throws SQLException {
+    for (final Object value : values) {
+      addValue(value);
+      _messageDigest.update(SEPARATOR);
+    }
+
+    final byte[] hash = _messageDigest.digest();
+    long rowHash = 0;
+
+    for (int i = 0; i < 8; i++) {
+      rowHash = (rowHash << 8) | (hash[i] & 0xFF);
+    }
+
+    _checksum += rowHash;
+    _numberOfRows++;
+  }
+
+  /**
+   * Add the rows of the given checksum, e.g. of a single batch, to this checksum
+   */
+  public void add(final RangeChecksum other) {
+    _checksum += other._checksum;
+    _numberOfRows += other._numberOfRows;
+  }
+
+  public void reset() {
+    _checksum = 0;
+    _numberOfRows = 0;
+  }
+
+  public long getNumberOfRows() {
+    return _numberOfRows;
+  }
+
+  public boolean isEqual(final RangeChecksum other) {
+    return _numberOfRows == other._numberOfRows && _checksum == other._checksum;
+  }
+
+  private void addValue(final Object value) throws SQLException {
+    if (value == null) {
+      _messageDigest.update(NULL_VALUE);
+    } else if (value instanceof Number) {
+      addString(DataComparisonUtil.normalizeNumber((Number) value));
+    } else if (value instanceof String) {
+      addString(DataComparisonUtil.trimTrailingBlanks((String) value));
+    } else if (value instanceof byte[]) {
+      _messageDigest.update((byte[]) value);
+    } else if (value instanceof Blob) {
+      addBlob((Blob) value);
+    } else if (value instanceof Clob) {
+      addClob((Clob) value);
+    } else {
+      addString(value.toString());
+    }
+  }
+
+  private void addString(final String value) {
+    addChars(value.toCharArray(), value.length());
+  }
+
+  /**
+   * Hash UTF-16 code units, so the result does not depend on how the characters of a CLOB are split into chunks
+   */
+  private void addChars(final char[] chars, final int length) {
+    for (int i = 0; i < length; i++) {
+      _messageDigest.update((byte) (chars[i] >> 8));
+      _messageDigest.update((byte) chars[i]);
+    }
+  }
+
+  private void addBlob(final Blob blob) throws SQLException {
+    try (final InputStream inputStream = blob.getBinaryStream()) {
+      int length;
+
+      while ((length = inputStream.read(_buffer)) > 0) {
+        _messageDigest.update(_buffer, 0, length);
+      }
+    } catch (final IOException e) {
+      throw new SQLException("Cannot read BLOB", e);
+    }
+  }
+
+  private void addClob(final Clob clob) throws SQLException {
+    try (final Reader reader = clob.getCharacterStream()) {
+      int length;
+
+      while ((length = reader.read(_charBuffer)) > 0) {
+        addChars(_charBuffer, length);
+      }
+    } catch (final IOException e) {
+      throw new SQLException("Cannot read CLOB", e);
+    }
+  }
+}
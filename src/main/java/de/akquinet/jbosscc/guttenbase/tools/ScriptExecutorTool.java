@@ -6,6 +6,7 @@ import de.akquinet.jbosscc.guttenbase.hints.TableOrderHint;
 import de.akquinet.jbosscc.guttenbase.meta.IndexMetaData;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.sql.AffectedTablesAnalyzer;
 import de.akquinet.jbosscc.guttenbase.sql.SQLLexer;
 import de.akquinet.jbosscc.guttenbase.utils.ScriptExecutorProgressIndicator;
 import de.akquinet.jbosscc.guttenbase.utils.Util;
@@ -20,6 +21,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Execute given SQL script or single statements separated by given delimiter. Delimiter is ';' by default.
@@ -96,7 +98,8 @@ public class ScriptExecutorTool {
      * Execute given lines of SQL. Each statement (not line!) must end with a ';'
      *
      * @param connectorId
-     * @param scriptUpdatesSchema     The script alters the schema, scheme information needs to be reloaded
+     * @param scriptUpdatesSchema     The script alters the schema, scheme information needs to be reloaded (for the
+     *                                affected tables only, if they can be determined from the statements)
      * @param prepareTargetConnection the target connection is initialized using the appropriate {@link TargetDatabaseConfiguration}
      * @param lines                   SQL statements ending with ';'
      * @throws SQLException
@@ -143,7 +146,7 @@ public class ScriptExecutorTool {
             }
 
             if (scriptUpdatesSchema) {
-                _connectorRepository.refreshDatabaseMetaData(connectorId);
+                refreshDatabaseMetaData(connectorId, sqlStatements);
             }
 
             if (prepareTargetConnection) {
@@ -152,7 +155,7 @@ public class ScriptExecutorTool {
 
 
             if (scriptUpdatesSchema) {
-                _connectorRepository.refreshDatabaseMetaData(connectorId);
+                refreshDatabaseMetaData(connectorId, sqlStatements);
             }
         } finally {
             connector.closeConnection();
@@ -161,6 +164,19 @@ public class ScriptExecutorTool {
         _progressIndicator.finalizeIndicator();
     }
 
+    /**
+     * Only tables affected by the script are read again, if they can be determined from the statements.
+     */
+    private void refreshDatabaseMetaData(final String connectorId, final List<String> sqlStatements) {
+        final Set<String> affectedTables = new AffectedTablesAnalyzer(sqlStatements).getAffectedTables();
+
+        if (affectedTables == null) {
+            _connectorRepository.refreshDatabaseMetaData(connectorId);
+        } else {
+            _connectorRepository.refreshDatabaseMetaData(connectorId, affectedTables);
+        }
+    }
+
     /**
      * Execute query (i.e. SELECT...) and return the result set as a list of Maps where the key is the column name and the value the
      * respective data.
@@ -2,27 +2,50 @@ package de.akquinet.jbosscc.guttenbase.tools;
 
 import de.akquinet.jbosscc.guttenbase.configuration.SourceDatabaseConfiguration;
 import de.akquinet.jbosscc.guttenbase.configuration.TargetDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.connector.Connector;
+import de.akquinet.jbosscc.guttenbase.hints.BatchExecutionListenerHint;
+import de.akquinet.jbosscc.guttenbase.hints.ParallelRangeCopyHint;
+import de.akquinet.jbosscc.guttenbase.hints.SplitRangePlannerHint;
 import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
 import de.akquinet.jbosscc.guttenbase.statements.InsertStatementCreator;
 import de.akquinet.jbosscc.guttenbase.statements.InsertStatementFiller;
-import de.akquinet.jbosscc.guttenbase.statements.SplitByColumnSelectCountStatementCreator;
 import de.akquinet.jbosscc.guttenbase.statements.SplitByColumnSelectStatementCreator;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Sometimes the amount of data exceeds any buffer. In these cases we need to split the data by some given range, usually the
  * primary key. I.e., the data is read in chunks where these chunks are split using the ID column range of values. Copy all tables
  * from one connection to the other splitting the input with the given column. If the number range is populated sparsely the
  * copying may take much longer than the {@link DefaultTableCopyTool}.
+ * <br>
+ * The ranges of a table may be copied concurrently. The current thread copies ranges using the connections it has been given,
+ * each additional thread opens its own pair of connections. Progress is reported by the current thread only, including the rows
+ * written by the other threads.
+ * <br>
+ * Committed ranges are recorded in the {@link CopyCheckpointJournal}. With ordered commits the position is the list of
+ * committed intervals of split column values, which is usually a single interval. Otherwise, each range is recorded
+ * individually. When resuming, only the parts of the ranges not committed before are copied.
  * <p>
  * &copy; 2012-2020 akquinet tech@spree
  * </p>
  *
+ * @gb.UsesHint {@link ParallelRangeCopyHint} to determine number of threads per table
+ * @gb.UsesHint {@link SplitRangePlannerHint} to compute ranges
+ * @gb.UsesHint {@link BatchExecutionListenerHint} to report execution time of batches
  */
 public class SplitByRangeTableCopyTool extends AbstractTableCopyTool
 {
@@ -45,83 +68,702 @@ public class SplitByRangeTableCopyTool extends AbstractTableCopyTool
       final TargetDatabaseConfiguration targetDatabaseConfiguration, final TableMetaData targetTableMetaData,
       final String targetTableName, final int numberOfRowsPerBatch, final boolean useMultipleValuesClauses) throws SQLException
   {
-    final InsertStatementCreator insertStatementCreator = new InsertStatementCreator(_connectorRepository, targetConnectorId);
-    final InsertStatementFiller insertStatementFiller = new InsertStatementFiller(_connectorRepository);
+    final ParallelRangeCopy parallelRangeCopy = _connectorRepository.getConnectorHint(targetConnectorId, ParallelRangeCopy.class)
+        .getValue();
+    final SplitRangePlan splitRangePlan = _connectorRepository.getConnectorHint(sourceConnectorId, SplitRangePlanner.class)
+        .getValue().createPlan(_connectorRepository, sourceConnectorId, sourceConnection, sourceTableMetaData, numberOfRowsPerBatch);
+    final CommittedRanges committedRanges = getCommittedRanges(targetConnection, sourceTableMetaData);
+    final long numberOfRanges = splitRangePlan.getNumberOfRanges();
+    final long firstRange = getFirstUncommittedRange(splitRangePlan, committedRanges);
+    final int numberOfThreads = (int) Math.max(1, Math.min(numberOfRanges - firstRange,
+        parallelRangeCopy.getNumberOfThreads(targetTableMetaData)));
+    final RangeDispatcher rangeDispatcher = new RangeDispatcher(firstRange, numberOfRanges,
+        numberOfThreads == 1 || parallelRangeCopy.isOrderedCommits(targetTableMetaData));
+    final AtomicInteger totalWritten = new AtomicInteger();
+    final RangeCopier rangeCopier = new RangeCopier(sourceConnectorId, sourceConnection, sourceDatabaseConfiguration,
+        sourceTableMetaData, sourceTableName, targetConnectorId, targetConnection, targetDatabaseConfiguration,
+        targetTableMetaData, targetTableName, numberOfRowsPerBatch, useMultipleValuesClauses, true, totalWritten, rangeDispatcher,
+        committedRanges);
 
-    final MinMaxIdSelectorTool minMaxIdSelector = new MinMaxIdSelectorTool(_connectorRepository);
-    minMaxIdSelector.computeMinMax(sourceConnectorId, sourceTableMetaData, sourceConnection);
-    final long minValue = minMaxIdSelector.getMinValue();
-    final long maxValue = minMaxIdSelector.getMaxValue();
+    if (numberOfThreads > 1)
+    {
+      copyRangesConcurrently(sourceConnectorId, sourceDatabaseConfiguration, sourceTableMetaData, sourceTableName,
+          targetConnectorId, targetDatabaseConfiguration, targetTableMetaData, targetTableName, numberOfRowsPerBatch,
+          useMultipleValuesClauses, splitRangePlan, numberOfThreads, rangeDispatcher, committedRanges, rangeCopier, totalWritten);
+    }
+    else
+    {
+      rangeCopier.copyRanges(splitRangePlan);
+    }
+  }
+
+  /**
+   * The current thread copies ranges, too, so the number of connections used is the number of threads.
+   */
+  private void copyRangesConcurrently(final String sourceConnectorId,
+      final SourceDatabaseConfiguration sourceDatabaseConfiguration, final TableMetaData sourceTableMetaData,
+      final String sourceTableName, final String targetConnectorId,
+      final TargetDatabaseConfiguration targetDatabaseConfiguration, final TableMetaData targetTableMetaData,
+      final String targetTableName, final int numberOfRowsPerBatch, final boolean useMultipleValuesClauses,
+      final SplitRangePlan splitRangePlan, final int numberOfThreads, final RangeDispatcher rangeDispatcher,
+      final CommittedRanges committedRanges, final RangeCopier rangeCopier, final AtomicInteger totalWritten) throws SQLException
+  {
+    final ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads - 1);
+    final List<Future<Void>> futures = new ArrayList<>();
+
+    for (int i = 1; i < numberOfThreads; i++)
+    {
+      futures.add(executorService.submit(() -> {
+        copyRangesWithNewConnections(sourceConnectorId, sourceDatabaseConfiguration, sourceTableMetaData, sourceTableName,
+            targetConnectorId, targetDatabaseConfiguration, targetTableMetaData, targetTableName, numberOfRowsPerBatch,
+            useMultipleValuesClauses, splitRangePlan, rangeDispatcher, committedRanges, totalWritten);
+        return null;
+      }));
+    }
+
+    executorService.shutdown();
+
+    try
+    {
+      rangeCopier.copyRanges(splitRangePlan);
+    }
+    catch (final SQLException | RuntimeException e)
+    {
+      rangeDispatcher.abort();
+
+      try
+      {
+        waitForCompletion(futures);
+      }
+      catch (final SQLException | RuntimeException other)
+      {
+        e.addSuppressed(other);
+      }
 
-    final PreparedStatement countStatement = new SplitByColumnSelectCountStatementCreator(_connectorRepository, sourceConnectorId)
-        .createSelectStatement(sourceConnection, sourceTableName, sourceTableMetaData);
+      throw e;
+    }
+
+    waitForCompletion(futures);
+
+    // Report rows written by the other threads after the last range of the current thread
+    _progressIndicator.startExecution();
+    _progressIndicator.endExecution(totalWritten.get());
+  }
 
-    final PreparedStatement selectStatement = new SplitByColumnSelectStatementCreator(_connectorRepository, sourceConnectorId)
-        .createSelectStatement(sourceConnection, sourceTableName, sourceTableMetaData);
-    selectStatement.setFetchSize(Math.min(numberOfRowsPerBatch, selectStatement.getMaxRows()));
+  private void copyRangesWithNewConnections(final String sourceConnectorId,
+      final SourceDatabaseConfiguration sourceDatabaseConfiguration, final TableMetaData sourceTableMetaData,
+      final String sourceTableName, final String targetConnectorId,
+      final TargetDatabaseConfiguration targetDatabaseConfiguration, final TableMetaData targetTableMetaData,
+      final String targetTableName, final int numberOfRowsPerBatch, final boolean useMultipleValuesClauses,
+      final SplitRangePlan splitRangePlan, final RangeDispatcher rangeDispatcher, final CommittedRanges committedRanges,
+      final AtomicInteger totalWritten) throws SQLException
+  {
+    final Connector sourceConnector = _connectorRepository.createConnector(sourceConnectorId);
+    final Connector targetConnector = _connectorRepository.createConnector(targetConnectorId);
+    Connection targetConnection = null;
 
-    int totalWritten = 0;
-    for (long splitColumnValue = minValue; splitColumnValue <= maxValue; splitColumnValue += numberOfRowsPerBatch + 1)
+    try
     {
-      final long start = splitColumnValue;
-      final long end = splitColumnValue + numberOfRowsPerBatch;
+      final Connection sourceConnection = sourceConnector.openConnection();
+      targetConnection = targetConnector.openConnection();
+
+      sourceDatabaseConfiguration.initializeSourceConnection(sourceConnection, sourceConnectorId);
+      targetDatabaseConfiguration.initializeTargetConnection(targetConnection, targetConnectorId);
+      sourceDatabaseConfiguration.beforeTableCopy(sourceConnection, sourceConnectorId, sourceTableMetaData);
+      targetDatabaseConfiguration.beforeTableCopy(targetConnection, targetConnectorId, targetTableMetaData);
 
-      sourceDatabaseConfiguration.beforeSelect(sourceConnection, sourceConnectorId, sourceTableMetaData);
-      final long countData = getCurrentCount(countStatement, start, end);
-      sourceDatabaseConfiguration.afterSelect(sourceConnection, sourceConnectorId, sourceTableMetaData);
+      new RangeCopier(sourceConnectorId, sourceConnection, sourceDatabaseConfiguration, sourceTableMetaData, sourceTableName,
+          targetConnectorId, targetConnection, targetDatabaseConfiguration, targetTableMetaData, targetTableName,
+          numberOfRowsPerBatch, useMultipleValuesClauses, false, totalWritten, rangeDispatcher, committedRanges)
+          .copyRanges(splitRangePlan);
 
-      if (countData > 0)
+      sourceDatabaseConfiguration.afterTableCopy(sourceConnection, sourceConnectorId, sourceTableMetaData);
+      targetDatabaseConfiguration.afterTableCopy(targetConnection, targetConnectorId, targetTableMetaData);
+      sourceDatabaseConfiguration.finalizeSourceConnection(sourceConnection, sourceConnectorId);
+      targetDatabaseConfiguration.finalizeTargetConnection(targetConnection, targetConnectorId);
+    }
+    catch (final SQLException | RuntimeException e)
+    {
+      rangeDispatcher.abort();
+      rollback(targetConnection, e);
+      throw e;
+    }
+    finally
+    {
+      try
       {
-        _progressIndicator.startExecution();
-        selectStatement.setLong(1, start);
-        selectStatement.setLong(2, end);
+        sourceConnector.closeConnection();
+      }
+      finally
+      {
+        targetConnector.closeConnection();
+      }
+    }
+  }
+
+  /**
+   * Uncommitted data has not been recorded in the journal, and must not be committed when the connection is closed.
+   */
+  private static void rollback(final Connection targetConnection, final Exception failure)
+  {
+    try
+    {
+      if (targetConnection != null && !targetConnection.isClosed() && !targetConnection.getAutoCommit())
+      {
+        targetConnection.rollback();
+      }
+    }
+    catch (final SQLException e)
+    {
+      failure.addSuppressed(e);
+    }
+  }
+
+  private CommittedRanges getCommittedRanges(final Connection targetConnection, final TableMetaData sourceTableMetaData)
+      throws SQLException
+  {
+    final CommittedRanges result = new CommittedRanges();
+    final String position = _checkpointJournal.getPosition(targetConnection, sourceTableMetaData);
+
+    if (position != null)
+    {
+      result.parse(position);
+    }
+
+    for (final String range : _checkpointJournal.getCommittedRanges(targetConnection, sourceTableMetaData))
+    {
+      result.parse(range);
+    }
+
+    return result;
+  }
+
+  /**
+   * Ranges are sorted in ascending order, thus we may search the first range beyond the interval committed at the beginning.
+   * Ranges committed later on are skipped when they are copied.
+   */
+  private static long getFirstUncommittedRange(final SplitRangePlan splitRangePlan, final CommittedRanges committedRanges)
+  {
+    if (splitRangePlan.getNumberOfRanges() == 0)
+    {
+      return 0;
+    }
+
+    final long start = splitRangePlan.getRange(0).getStart();
+    final Long committedEnd = committedRanges.getCommittedEnd(start);
+
+    if (committedEnd == null)
+    {
+      return 0;
+    }
+
+    long low = 0;
+    long high = splitRangePlan.getNumberOfRanges();
+
+    while (low < high)
+    {
+      final long middle = (low + high) >>> 1;
+
+      if (splitRangePlan.getRange(middle).getEnd() <= committedEnd)
+      {
+        low = middle + 1;
+      }
+      else
+      {
+        high = middle;
+      }
+    }
+
+    return low;
+  }
+
+  /**
+   * Copies ranges of a table using the given pair of connections.
+   */
+  private final class RangeCopier
+  {
+    private final String _sourceConnectorId;
+    private final Connection _sourceConnection;
+    private final SourceDatabaseConfiguration _sourceDatabaseConfiguration;
+    private final TableMetaData _sourceTableMetaData;
+    private final String _targetConnectorId;
+    private final Connection _targetConnection;
+    private final TargetDatabaseConfiguration _targetDatabaseConfiguration;
+    private final TableMetaData _targetTableMetaData;
+    private final String _targetTableName;
+    private int _numberOfRowsPerBatch;
+    private boolean _useMultipleValuesClauses;
+    private final boolean _reportingProgress;
+    private final AtomicInteger _totalWritten;
+    private final RangeDispatcher _rangeDispatcher;
+    private final CommittedRanges _committedRanges;
 
-        sourceDatabaseConfiguration.beforeSelect(sourceConnection, sourceConnectorId, sourceTableMetaData);
-        final ResultSet resultSet = selectStatement.executeQuery();
-        sourceDatabaseConfiguration.afterSelect(sourceConnection, sourceConnectorId, sourceTableMetaData);
+    private final InsertStatementCreator _insertStatementCreator;
+    private final InsertStatementFiller _insertStatementFiller;
+    private final BatchExecutionListener _batchExecutionListener;
+    private final PreparedStatement _selectStatement;
+    private Object[][] _rows = new Object[0][];
 
-        targetDatabaseConfiguration.beforeInsert(targetConnection, targetConnectorId, targetTableMetaData);
-        final PreparedStatement bulkInsert = insertStatementCreator.createInsertStatement(sourceConnectorId, sourceTableMetaData,
-            targetTableName, targetTableMetaData, targetConnection, (int) countData, useMultipleValuesClauses);
+    private RangeCopier(final String sourceConnectorId, final Connection sourceConnection,
+        final SourceDatabaseConfiguration sourceDatabaseConfiguration, final TableMetaData sourceTableMetaData,
+        final String sourceTableName, final String targetConnectorId, final Connection targetConnection,
+        final TargetDatabaseConfiguration targetDatabaseConfiguration, final TableMetaData targetTableMetaData,
+        final String targetTableName, final int numberOfRowsPerBatch, final boolean useMultipleValuesClauses,
+        final boolean reportingProgress, final AtomicInteger totalWritten, final RangeDispatcher rangeDispatcher,
+        final CommittedRanges committedRanges) throws SQLException
+    {
+      _sourceConnectorId = sourceConnectorId;
+      _sourceConnection = sourceConnection;
+      _sourceDatabaseConfiguration = sourceDatabaseConfiguration;
+      _sourceTableMetaData = sourceTableMetaData;
+      _targetConnectorId = targetConnectorId;
+      _targetConnection = targetConnection;
+      _targetDatabaseConfiguration = targetDatabaseConfiguration;
+      _targetTableMetaData = targetTableMetaData;
+      _targetTableName = targetTableName;
+      _numberOfRowsPerBatch = numberOfRowsPerBatch;
+      _useMultipleValuesClauses = useMultipleValuesClauses;
+      _reportingProgress = reportingProgress;
+      _totalWritten = totalWritten;
+      _rangeDispatcher = rangeDispatcher;
+      _committedRanges = committedRanges;
+
+      _insertStatementCreator = new InsertStatementCreator(_connectorRepository, targetConnectorId);
+      _insertStatementFiller = new InsertStatementFiller(_connectorRepository);
+      _batchExecutionListener = _connectorRepository.getConnectorHint(targetConnectorId, BatchExecutionListener.class).getValue();
 
-        insertStatementFiller.fillInsertStatementFromResultSet(sourceConnectorId, sourceTableMetaData, targetConnectorId,
-            targetTableMetaData, targetDatabaseConfiguration, targetConnection, resultSet, bulkInsert, (int) countData,
-            useMultipleValuesClauses);
-        bulkInsert.executeBatch();
+      _selectStatement = new SplitByColumnSelectStatementCreator(_connectorRepository, sourceConnectorId)
+          .createSelectStatement(sourceConnection, sourceTableName, sourceTableMetaData);
+      final int maxRows = _selectStatement.getMaxRows();
+      _selectStatement.setFetchSize(maxRows > 0 ? Math.min(numberOfRowsPerBatch, maxRows) : numberOfRowsPerBatch);
+    }
 
-        if (targetDatabaseConfiguration.isMayCommit())
+    private void copyRanges(final SplitRangePlan splitRangePlan) throws SQLException
+    {
+      try
+      {
+        for (long rangeIndex = _rangeDispatcher.nextRange(); rangeIndex >= 0; rangeIndex = _rangeDispatcher.nextRange())
         {
-          targetConnection.commit();
+          copyRange(rangeIndex, splitRangePlan.getRange(rangeIndex));
         }
+      }
+      finally
+      {
+        _selectStatement.close();
+      }
+    }
+
+    /**
+     * Copy the parts of the range not committed before within a single transaction.
+     */
+    private void copyRange(final long rangeIndex, final SplitRange splitRange) throws SQLException
+    {
+      long numberOfRows = 0;
+
+      if (_reportingProgress)
+      {
+        _progressIndicator.startExecution();
+      }
+
+      for (final SplitRange uncommittedRange : _committedRanges.getUncommittedRanges(splitRange))
+      {
+        numberOfRows += copyRows(uncommittedRange);
+      }
+
+      // With ordered commits only the thread copying the next range gets past this point
+      _rangeDispatcher.awaitCommit(rangeIndex);
+      final String position = rangeCommitting(splitRange, numberOfRows > 0);
+
+      if (numberOfRows > 0 && _targetDatabaseConfiguration.isMayCommit())
+      {
+        _targetConnection.commit();
+      }
 
-        insertStatementFiller.clear();
+      rangeCommitted(splitRange, position, numberOfRows > 0);
+      _rangeDispatcher.rangeCommitted(rangeIndex);
+      _insertStatementFiller.clear();
 
-        totalWritten += countData;
+      final int totalWritten = _totalWritten.addAndGet((int) numberOfRows);
+
+      if (_reportingProgress)
+      {
         _progressIndicator.endExecution(totalWritten);
+      }
+    }
+
+    /**
+     * Copy all rows currently found in the given range in batches. The estimated row count of the range is not relevant, since
+     * the source data may have changed since planning. The number of rows per batch and the use of multiple VALUES clauses are
+     * determined again after each complete batch, i.e. they may be adapted while copying.
+     *
+     * @return number of rows copied
+     */
+    private long copyRows(final SplitRange splitRange) throws SQLException
+    {
+      _selectStatement.setLong(1, splitRange.getStart());
+      _selectStatement.setLong(2, splitRange.getEnd());
+
+      _sourceDatabaseConfiguration.beforeSelect(_sourceConnection, _sourceConnectorId, _sourceTableMetaData);
+      final ResultSet resultSet = _selectStatement.executeQuery();
+      _sourceDatabaseConfiguration.afterSelect(_sourceConnection, _sourceConnectorId, _sourceTableMetaData);
+
+      PreparedStatement batchInsertStatement = null;
+      int batchInsertStatementRows = 0;
+      boolean batchInsertStatementMultipleValuesClauses = false;
+      long result = 0;
+
+      try
+      {
+        boolean moreRows = true;
 
-        if (resultSet.next())
+        while (moreRows)
         {
-          _progressIndicator.warn("Uncopied data!!!");
-        }
+          final int batchSize = _numberOfRowsPerBatch;
+          final boolean multipleValuesClauses = _useMultipleValuesClauses;
+          final int numberOfRows;
+
+          // The statement depends on the number of rows only with multiple VALUES clauses
+          if (batchInsertStatement == null || batchInsertStatementMultipleValuesClauses != multipleValuesClauses
+              || (multipleValuesClauses && batchInsertStatementRows != batchSize))
+          {
+            if (batchInsertStatement != null)
+            {
+              batchInsertStatement.close();
+            }
+
+            batchInsertStatement = _insertStatementCreator.createInsertStatement(_sourceConnectorId, _sourceTableMetaData,
+                _targetTableName, _targetTableMetaData, _targetConnection, batchSize, multipleValuesClauses);
+            batchInsertStatementRows = batchSize;
+            batchInsertStatementMultipleValuesClauses = multipleValuesClauses;
+          }
+
+          final PreparedStatement insertStatement;
+
+          if (multipleValuesClauses)
+          {
+            if (_rows.length < batchSize)
+            {
+              _rows = new Object[batchSize][];
+            }
+
+            numberOfRows = _insertStatementFiller.readAvailableRows(_sourceConnectorId, _sourceTableMetaData, _targetConnectorId,
+                _targetTableMetaData, resultSet, _rows, batchSize, new int[0], new Object[0]);
+            insertStatement = getInsertStatement(_insertStatementCreator, batchInsertStatement, _sourceConnectorId,
+                _sourceTableMetaData, _targetTableName, _targetTableMetaData, _targetConnection, batchSize, numberOfRows, true);
+
+            if (numberOfRows > 0)
+            {
+              _insertStatementFiller.fillInsertStatementFromRows(_sourceConnectorId, _sourceTableMetaData, _targetConnectorId,
+                  _targetTableMetaData, _targetDatabaseConfiguration, _targetConnection, _rows, insertStatement, numberOfRows, true);
+            }
+          }
+          else
+          {
+            insertStatement = batchInsertStatement;
+            numberOfRows = _insertStatementFiller.fillInsertStatementFromAvailableRows(_sourceConnectorId, _sourceTableMetaData,
+                _targetConnectorId, _targetTableMetaData, _targetDatabaseConfiguration, _targetConnection, resultSet,
+                insertStatement, batchSize);
+          }
+
+          if (numberOfRows > 0)
+          {
+            _targetDatabaseConfiguration.beforeInsert(_targetConnection, _targetConnectorId, _targetTableMetaData);
+            final long start = System.nanoTime();
+            insertStatement.executeBatch();
+            _batchExecutionListener.batchExecuted(_targetTableMetaData, numberOfRows, multipleValuesClauses,
+                System.nanoTime() - start);
+            _targetDatabaseConfiguration.afterInsert(_targetConnection, _targetConnectorId, _targetTableMetaData);
+            result += numberOfRows;
+          }
 
+          if (insertStatement != batchInsertStatement)
+          {
+            insertStatement.close();
+          }
+
+          moreRows = numberOfRows == batchSize;
+
+          if (moreRows)
+          {
+            _numberOfRowsPerBatch = getNumberOfRowsPerBatch(_targetConnectorId, _targetTableMetaData);
+            _useMultipleValuesClauses = useMultipleValuesClauses(_targetConnectorId, _targetTableMetaData);
+          }
+        }
+      }
+      finally
+      {
         resultSet.close();
-        bulkInsert.close();
 
-        targetDatabaseConfiguration.afterInsert(targetConnection, targetConnectorId, targetTableMetaData);
+        if (batchInsertStatement != null)
+        {
+          batchInsertStatement.close();
+        }
+      }
+
+      return result;
+    }
+
+    /**
+     * Empty ranges are recorded only together with the next position, i.e. they will be checked again when resuming with
+     * unordered commits.
+     *
+     * @return position recorded with ordered commits, null otherwise
+     */
+    private String rangeCommitting(final SplitRange splitRange, final boolean rowsCommitted) throws SQLException
+    {
+      if (_rangeDispatcher.isOrderedCommits())
+      {
+        final String position = _committedRanges.add(splitRange);
+
+        if (rowsCommitted)
+        {
+          _checkpointJournal.positionCommitting(_targetConnection, _sourceTableMetaData, position);
+        }
+
+        return position;
+      }
+      else if (rowsCommitted)
+      {
+        _checkpointJournal.rangeCommitting(_targetConnection, _sourceTableMetaData, CommittedRanges.format(splitRange));
+      }
+
+      return null;
+    }
+
+    private void rangeCommitted(final SplitRange splitRange, final String position, final boolean rowsCommitted)
+        throws SQLException
+    {
+      if (position != null && rowsCommitted)
+      {
+        _checkpointJournal.positionCommitted(_sourceTableMetaData, position);
+      }
+      else if (position == null && rowsCommitted)
+      {
+        _checkpointJournal.rangeCommitted(_sourceTableMetaData, CommittedRanges.format(splitRange));
+      }
+    }
+  }
+
+  /**
+   * Hands out ranges in ascending order and lets them commit in that order, if requested.
+   */
+  private static final class RangeDispatcher
+  {
+    private final long _numberOfRanges;
+    private final boolean _orderedCommits;
+    private long _nextRange;
+    private long _nextRangeToCommit;
+    private boolean _aborted;
+
+    private RangeDispatcher(final long firstRange, final long numberOfRanges, final boolean orderedCommits)
+    {
+      _nextRange = firstRange;
+      _nextRangeToCommit = firstRange;
+      _numberOfRanges = numberOfRanges;
+      _orderedCommits = orderedCommits;
+    }
+
+    private boolean isOrderedCommits()
+    {
+      return _orderedCommits;
+    }
+
+    /**
+     * @return index of next range to copy or -1 if there are no more ranges or the process has been aborted
+     */
+    private synchronized long nextRange()
+    {
+      return _aborted || _nextRange >= _numberOfRanges ? -1 : _nextRange++;
+    }
+
+    /**
+     * With ordered commits wait until all previous ranges have been committed. Since then no other thread may commit until
+     * {@link #rangeCommitted(long)} is called, the caller commits without holding the lock.
+     */
+    private synchronized void awaitCommit(final long rangeIndex) throws SQLException
+    {
+      while (_orderedCommits && !_aborted && _nextRangeToCommit != rangeIndex)
+      {
+        try
+        {
+          wait();
+        }
+        catch (final InterruptedException e)
+        {
+          Thread.currentThread().interrupt();
+          throw new SQLException("Interrupted while waiting for commit of range " + _nextRangeToCommit, e);
+        }
+      }
+
+      if (_aborted)
+      {
+        throw new SQLException("Copying ranges has been aborted");
+      }
+    }
+
+    private synchronized void rangeCommitted(final long rangeIndex)
+    {
+      if (_orderedCommits)
+      {
+        assert _nextRangeToCommit == rangeIndex : "_nextRangeToCommit == rangeIndex";
+
+        _nextRangeToCommit++;
+        notifyAll();
       }
     }
 
-    countStatement.close();
-    selectStatement.close();
+    private synchronized void abort()
+    {
+      _aborted = true;
+      notifyAll();
+    }
   }
 
-  private long getCurrentCount(final PreparedStatement countStatement, final long start, final long end) throws SQLException
+  /**
+   * Intervals of split column values committed so far, inclusive and merged with adjacent or overlapping intervals. Formatted as
+   * comma-separated list of "start:end".
+   */
+  private static final class CommittedRanges
   {
-    countStatement.setLong(1, start);
-    countStatement.setLong(2, end);
+    private final TreeMap<Long, Long> _intervals = new TreeMap<>();
+
+    private static String format(final SplitRange splitRange)
+    {
+      return splitRange.getStart() + ":" + splitRange.getEnd();
+    }
+
+    private synchronized void parse(final String ranges)
+    {
+      for (final String range : ranges.split(","))
+      {
+        final int index = range.indexOf(':', 1);
+
+        if (index < 0)
+        {
+          // Former journals recorded the upper bound of the last range committed in ascending order
+          add(Long.MIN_VALUE, Long.parseLong(range.trim()));
+        }
+        else
+        {
+          add(Long.parseLong(range.substring(0, index).trim()), Long.parseLong(range.substring(index + 1).trim()));
+        }
+      }
+    }
+
+    /**
+     * @return all committed intervals
+     */
+    private synchronized String add(final SplitRange splitRange)
+    {
+      add(splitRange.getStart(), splitRange.getEnd());
+      return toString();
+    }
+
+    private void add(final long start, final long end)
+    {
+      long newStart = start;
+      long newEnd = end;
+      final Map.Entry<Long, Long> previous = _intervals.floorEntry(start);
+
+      if (previous != null && (previous.getValue() >= start || isAdjacent(previous.getValue(), start)))
+      {
+        newStart = previous.getKey();
+        newEnd = Math.max(end, previous.getValue());
+        _intervals.remove(previous.getKey());
+      }
+
+      for (Map.Entry<Long, Long> next = _intervals.ceilingEntry(newStart);
+          next != null && (next.getKey() <= newEnd || isAdjacent(newEnd, next.getKey())); next = _intervals.ceilingEntry(newStart))
+      {
+        newEnd = Math.max(newEnd, next.getValue());
+        _intervals.remove(next.getKey());
+      }
+
+      _intervals.put(newStart, newEnd);
+    }
+
+    /**
+     * Intervals may end with Long.MAX_VALUE, e.g. the last range of a plan, thus the end must not simply be incremented.
+     */
+    private static boolean isAdjacent(final long end, final long start)
+    {
+      return end != Long.MAX_VALUE && end + 1 == start;
+    }
+
+    /**
+     * @return end of the committed interval containing the given value or null
+     */
+    private synchronized Long getCommittedEnd(final long value)
+    {
+      final Map.Entry<Long, Long> interval = _intervals.floorEntry(value);
+
+      return interval != null && interval.getValue() >= value ? interval.getValue() : null;
+    }
 
-    final ResultSet countQuery = countStatement.executeQuery();
-    countQuery.next();
-    return countQuery.getLong(1);
+    /**
+     * @return parts of the given range not committed yet, in ascending order
+     */
+    private synchronized List<SplitRange> getUncommittedRanges(final SplitRange splitRange)
+    {
+      final long end = splitRange.getEnd();
+      final Map.Entry<Long, Long> previous = _intervals.floorEntry(splitRange.getStart());
+
+      if ((previous == null || previous.getValue() < splitRange.getStart())
+          && _intervals.subMap(splitRange.getStart(), true, end, true).isEmpty())
+      {
+        return Collections.singletonList(splitRange);
+      }
+
+      final List<SplitRange> result = new ArrayList<>();
+      long start = splitRange.getStart();
+
+      if (previous != null && previous.getValue() >= start)
+      {
+        if (previous.getValue() >= end)
+        {
+          return result;
+        }
+
+        // No overflow, since the interval ends before the end of the range
+        start = previous.getValue() + 1;
+      }
+
+      for (final Map.Entry<Long, Long> interval : _intervals.subMap(start, true, end, true).entrySet())
+      {
+        if (interval.getKey() > start)
+        {
+          result.add(new SplitRange(start, interval.getKey() - 1, SplitRange.UNKNOWN_ROW_COUNT));
+        }
+
+        if (interval.getValue() >= end)
+        {
+          return result;
+        }
+
+        // No overflow, as above
+        start = interval.getValue() + 1;
+      }
+
+      result.add(new SplitRange(start, end, SplitRange.UNKNOWN_ROW_COUNT));
+      return result;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+      final StringBuilder builder = new StringBuilder();
+
+      for (final Map.Entry<Long, Long> interval : _intervals.entrySet())
+      {
+        if (builder.length() > 0)
+        {
+          builder.append(',');
+        }
+
+        builder.append(interval.getKey()).append(':').append(interval.getValue());
+      }
+
+      return builder.toString();
+    }
   }
 }
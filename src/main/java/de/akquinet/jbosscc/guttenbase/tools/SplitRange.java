@@ -0,0 +1,59 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+/**
+ * Range of split column values [start, end] to be copied in one chunk by {@link SplitByRangeTableCopyTool}.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class SplitRange {
+  /**
+   * Number of rows in range has not been estimated
+   */
+  public static final long UNKNOWN_ROW_COUNT = -1;
+
+  private final long _start;
+  private final long _end;
+  private final long _rowCount;
+
+  public SplitRange(final long start, final long end, final long rowCount) {
+    assert start <= end : "start <= end";
+
+    _start = start;
+    _end = end;
+    _rowCount = rowCount;
+  }
+
+  /**
+   * @return first value of range (inclusive)
+   */
+  public long getStart() {
+    return _start;
+  }
+
+  /**
+   * @return last value of range (inclusive)
+   */
+  public long getEnd() {
+    return _end;
+  }
+
+  /**
+   * @return estimated number of rows in range or {@link #UNKNOWN_ROW_COUNT}. Since the source data may change, this is just a
+   * hint and must not be relied upon when copying.
+   */
+  public long getRowCount() {
+    return _rowCount;
+  }
+
+  public boolean isRowCountKnown() {
+    return _rowCount != UNKNOWN_ROW_COUNT;
+  }
+
+  @Override
+  public String toString() {
+    return "[" + _start + ", " + _end + "]:" + _rowCount;
+  }
+}
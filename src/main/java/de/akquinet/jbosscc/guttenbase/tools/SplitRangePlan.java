@@ -0,0 +1,19 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+/**
+ * Ascending, non-overlapping ranges of split column values covering all rows of a table.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @see SplitRangePlanner
+ */
+public interface SplitRangePlan {
+  long getNumberOfRanges();
+
+  /**
+   * @param index 0 &lt;= index &lt; {@link #getNumberOfRanges()}
+   */
+  SplitRange getRange(long index);
+}
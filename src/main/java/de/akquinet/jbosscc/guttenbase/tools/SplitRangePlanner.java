@@ -0,0 +1,26 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Determine how the values of the split column of a table are divided into ranges to be copied by
+ * {@link SplitByRangeTableCopyTool}.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @see SplitColumn
+ */
+public interface SplitRangePlanner {
+  /**
+   * @param connection           source connection
+   * @param numberOfRowsPerBatch desired number of rows per range
+   */
+  SplitRangePlan createPlan(ConnectorRepository connectorRepository, String connectorId, Connection connection,
+                            TableMetaData tableMetaData, int numberOfRowsPerBatch) throws SQLException;
+}
@@ -0,0 +1,546 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.configuration.SourceDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.configuration.TargetDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.connector.Connector;
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.exceptions.TableConfigurationException;
+import de.akquinet.jbosscc.guttenbase.hints.ColumnOrderHint;
+import de.akquinet.jbosscc.guttenbase.hints.SelectWhereClauseHint;
+import de.akquinet.jbosscc.guttenbase.hints.SplitColumnHint;
+import de.akquinet.jbosscc.guttenbase.hints.TableOrderHint;
+import de.akquinet.jbosscc.guttenbase.mapping.ColumnMapper;
+import de.akquinet.jbosscc.guttenbase.mapping.TableMapper;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.statements.AbstractSelectStatementCreator;
+import de.akquinet.jbosscc.guttenbase.statements.ChunkSelectStatementCreator;
+import de.akquinet.jbosscc.guttenbase.statements.InsertStatementCreator;
+import de.akquinet.jbosscc.guttenbase.statements.InsertStatementFiller;
+import de.akquinet.jbosscc.guttenbase.statements.UpsertStatementCreator;
+import org.apache.log4j.Logger;
+
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Re-align the data of target tables with the source tables, inserting, updating or deleting only the rows that differ, instead
+ * of clearing and copying the tables again.
+ * <br>
+ * Each table is split into chunks using the range of values of the split column, usually the primary key. If source and target
+ * are the same kind of data base supporting it (MySQL, PostgreSQL), a checksum of each chunk is computed by the data base on both
+ * sides, and only chunks with different checksums are split further. The rows of the remaining chunks are compared by the primary
+ * key of the target table and repaired. Rows of a chunk are held in memory while comparing.
+ * <br>
+ * Tables without primary key are skipped. Trailing blanks of strings are ignored, since CHAR columns are padded differently.
+ * Foreign key constraints may have to be disabled by the {@link TargetDatabaseConfiguration}, since rows are deleted in table
+ * order.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ * @gb.UsesHint {@link SplitColumnHint} to split tables into chunks
+ * @gb.UsesHint {@link ColumnOrderHint} to determine column order
+ * @gb.UsesHint {@link TableOrderHint} to determine order of tables
+ * @gb.UsesHint {@link SelectWhereClauseHint} to restrict the rows being synchronized
+ */
+public class SynchronizeTableDataTool {
+  private static final Logger LOG = Logger.getLogger(SynchronizeTableDataTool.class);
+
+  public static final int DEFAULT_CHUNK_SIZE = 100000;
+  public static final int DEFAULT_LEAF_CHUNK_SIZE = 1000;
+
+  /**
+   * Number of sub-chunks a chunk with different checksums is split into
+   */
+  private static final int FAN_OUT = 16;
+  private static final int NUMBER_OF_BUFFERED_ROWS = 1000;
+
+  private final ConnectorRepository _connectorRepository;
+  private final int _chunkSize;
+  private final int _leafChunkSize;
+
+  public SynchronizeTableDataTool(final ConnectorRepository connectorRepository) {
+    this(connectorRepository, DEFAULT_CHUNK_SIZE, DEFAULT_LEAF_CHUNK_SIZE);
+  }
+
+  /**
+   * @param chunkSize     range of split column values checked at once
+   * @param leafChunkSize range of split column values whose rows are compared, if the checksums differ
+   */
+  public SynchronizeTableDataTool(final ConnectorRepository connectorRepository, final int chunkSize, final int leafChunkSize) {
+    assert connectorRepository != null : "connectorRepository != null";
+    assert leafChunkSize > 0 : "leafChunkSize > 0";
+    assert chunkSize >= leafChunkSize : "chunkSize >= leafChunkSize";
+
+    _connectorRepository = connectorRepository;
+    _chunkSize = chunkSize;
+    _leafChunkSize = leafChunkSize;
+  }
+
+  /**
+   * @return number of rows inserted, updated or deleted in the target data base
+   */
+  public int synchronizeTableData(final String sourceConnectorId, final String targetConnectorId) throws SQLException {
+    final List<TableMetaData> sourceTableMetaDatas = TableOrderHint.getSortedTables(_connectorRepository, sourceConnectorId);
+    final TableMapper tableMapper = _connectorRepository.getConnectorHint(targetConnectorId, TableMapper.class).getValue();
+    final DatabaseMetaData targetDatabaseMetaData = _connectorRepository.getDatabaseMetaData(targetConnectorId);
+    final SourceDatabaseConfiguration sourceDatabaseConfiguration = _connectorRepository
+      .getSourceDatabaseConfiguration(sourceConnectorId);
+    final TargetDatabaseConfiguration targetDatabaseConfiguration = _connectorRepository
+      .getTargetDatabaseConfiguration(targetConnectorId);
+    final Connector sourceConnector = _connectorRepository.createConnector(sourceConnectorId);
+    final Connector targetConnector = _connectorRepository.createConnector(targetConnectorId);
+    final List<String> targetTableNames = new ArrayList<>();
+    Connection targetConnection = null;
+    int result = 0;
+
+    try {
+      final Connection sourceConnection = sourceConnector.openConnection();
+      targetConnection = targetConnector.openConnection();
+
+      sourceDatabaseConfiguration.initializeSourceConnection(sourceConnection, sourceConnectorId);
+      targetDatabaseConfiguration.initializeTargetConnection(targetConnection, targetConnectorId);
+
+      for (final TableMetaData sourceTableMetaData : sourceTableMetaDatas) {
+        final TableMetaData targetTableMetaData = tableMapper.map(sourceTableMetaData, targetDatabaseMetaData);
+
+        if (targetTableMetaData == null) {
+          throw new TableConfigurationException("No matching table for " + sourceTableMetaData + " in target data base!!!");
+        }
+
+        if (targetTableMetaData.getPrimaryKeyColumns().isEmpty()) {
+          LOG.warn("Skipping " + targetTableMetaData.getTableName() + ", since it has no primary key");
+          continue;
+        }
+
+        sourceDatabaseConfiguration.beforeTableCopy(sourceConnection, sourceConnectorId, sourceTableMetaData);
+        targetDatabaseConfiguration.beforeTableCopy(targetConnection, targetConnectorId, targetTableMetaData);
+
+        result += new TableSynchronizer(sourceConnectorId, sourceConnection, sourceDatabaseConfiguration, sourceTableMetaData,
+          targetConnectorId, targetConnection, targetDatabaseConfiguration, targetTableMetaData).synchronize();
+
+        sourceDatabaseConfiguration.afterTableCopy(sourceConnection, sourceConnectorId, sourceTableMetaData);
+        targetDatabaseConfiguration.afterTableCopy(targetConnection, targetConnectorId, targetTableMetaData);
+        targetTableNames.add(targetTableMetaData.getTableName());
+      }
+
+      sourceDatabaseConfiguration.finalizeSourceConnection(sourceConnection, sourceConnectorId);
+      targetDatabaseConfiguration.finalizeTargetConnection(targetConnection, targetConnectorId);
+    } catch (final SQLException | RuntimeException e) {
+      rollback(targetConnection, e);
+      throw e;
+    } finally {
+      try {
+        sourceConnector.closeConnection();
+      } finally {
+        targetConnector.closeConnection();
+      }
+    }
+
+    _connectorRepository.refreshDatabaseMetaData(targetConnectorId, targetTableNames);
+    return result;
+  }
+
+  /**
+   * Changes of a failed synchronization must not be committed when the connection is closed.
+   */
+  private static void rollback(final Connection targetConnection, final Exception failure) {
+    try {
+      if (targetConnection != null && !targetConnection.isClosed() && !targetConnection.getAutoCommit()) {
+        targetConnection.rollback();
+      }
+    } catch (final SQLException e) {
+      failure.addSuppressed(e);
+    }
+  }
+
+  /**
+   * Create expression computing the number of rows and an order-independent checksum of the given columns in a SELECT
+   * statement, e.g. "COUNT(*), SUM(...)".
+   *
+   * @return null if the data base does not support it
+   */
+  protected String createChecksumExpression(final DatabaseType databaseType, final List<String> columnNames) {
+    final StringBuilder buf = new StringBuilder();
+
+    switch (databaseType) {
+      case MYSQL:
+        // ISNULL() distinguishes NULL from empty strings, which are both skipped by CONCAT_WS()
+        for (final String columnName : columnNames) {
+          buf.append(", ").append(columnName).append(", ISNULL(").append(columnName).append(")");
+        }
+
+        return "COUNT(*), SUM(CRC32(CONCAT_WS('|'" + buf + ")))";
+      case POSTGRESQL:
+        for (final String columnName : columnNames) {
+          buf.append(buf.length() > 0 ? ", " : "").append(columnName);
+        }
+
+        return "COUNT(*), SUM(('x' || SUBSTR(MD5(ROW(" + buf + ")::TEXT), 1, 8))::BIT(32)::BIGINT)";
+      default:
+        return null;
+    }
+  }
+
+  private static List<String> normalize(final Object[] row, final int[] indexes) throws SQLException {
+    final List<String> result = new ArrayList<>(indexes.length);
+
+    for (final int index : indexes) {
+      result.add(DataComparisonUtil.normalize(row[index]));
+    }
+
+    return result;
+  }
+
+  private static int[] getAllIndexes(final int length) {
+    final int[] result = new int[length];
+
+    for (int i = 0; i < length; i++) {
+      result[i] = i;
+    }
+
+    return result;
+  }
+
+  /**
+   * Synchronizes a single table.
+   */
+  private final class TableSynchronizer {
+    private final String _sourceConnectorId;
+    private final Connection _sourceConnection;
+    private final SourceDatabaseConfiguration _sourceDatabaseConfiguration;
+    private final TableMetaData _sourceTableMetaData;
+    private final String _targetConnectorId;
+    private final Connection _targetConnection;
+    private final TargetDatabaseConfiguration _targetDatabaseConfiguration;
+    private final TableMetaData _targetTableMetaData;
+
+    private final String _sourceTableName;
+    private final String _targetTableName;
+    private final ColumnMetaData _sourceSplitColumn;
+    private final ColumnMetaData _targetSplitColumn;
+    private final InsertStatementFiller _insertStatementFiller;
+    private final UpsertStatementCreator _upsertStatementCreator;
+    private final int[] _keyColumnIndexes;
+    private final int[] _updateColumnIndexes;
+    private final int[] _allColumnIndexes;
+    private final String _sourceChecksumSql;
+    private final String _targetChecksumSql;
+
+    private TableSynchronizer(final String sourceConnectorId, final Connection sourceConnection,
+                              final SourceDatabaseConfiguration sourceDatabaseConfiguration, final TableMetaData sourceTableMetaData,
+                              final String targetConnectorId, final Connection targetConnection,
+                              final TargetDatabaseConfiguration targetDatabaseConfiguration, final TableMetaData targetTableMetaData)
+      throws SQLException {
+      _sourceConnectorId = sourceConnectorId;
+      _sourceConnection = sourceConnection;
+      _sourceDatabaseConfiguration = sourceDatabaseConfiguration;
+      _sourceTableMetaData = sourceTableMetaData;
+      _targetConnectorId = targetConnectorId;
+      _targetConnection = targetConnection;
+      _targetDatabaseConfiguration = targetDatabaseConfiguration;
+      _targetTableMetaData = targetTableMetaData;
+
+      _sourceTableName = _connectorRepository.getConnectorHint(sourceConnectorId, TableMapper.class).getValue()
+        .fullyQualifiedTableName(sourceTableMetaData, sourceTableMetaData.getDatabaseMetaData());
+      _targetTableName = _connectorRepository.getConnectorHint(targetConnectorId, TableMapper.class).getValue()
+        .fullyQualifiedTableName(targetTableMetaData, targetTableMetaData.getDatabaseMetaData());
+      _sourceSplitColumn = _connectorRepository.getConnectorHint(sourceConnectorId, SplitColumn.class).getValue()
+        .getSplitColumn(sourceTableMetaData);
+
+      final List<ColumnMetaData> targetSplitColumns = _connectorRepository.getConnectorHint(targetConnectorId, ColumnMapper.class)
+        .getValue().map(_sourceSplitColumn, targetTableMetaData).getColumns();
+
+      if (targetSplitColumns.isEmpty()) {
+        throw new TableConfigurationException("No matching column for split column " + _sourceSplitColumn + " in "
+          + _targetTableName);
+      }
+
+      _targetSplitColumn = targetSplitColumns.get(0);
+      _insertStatementFiller = new InsertStatementFiller(_connectorRepository);
+      _upsertStatementCreator = new UpsertStatementCreator(_connectorRepository, targetConnectorId);
+      _keyColumnIndexes = _upsertStatementCreator.getKeyColumnIndexes(sourceConnectorId, sourceTableMetaData, targetTableMetaData);
+      _updateColumnIndexes = _upsertStatementCreator.getUpdateColumnIndexes(sourceConnectorId, sourceTableMetaData,
+        targetTableMetaData);
+      _allColumnIndexes = getAllIndexes(_updateColumnIndexes.length);
+
+      final DatabaseType sourceDatabaseType = sourceTableMetaData.getDatabaseMetaData().getDatabaseType();
+      final DatabaseType targetDatabaseType = targetTableMetaData.getDatabaseMetaData().getDatabaseType();
+
+      if (sourceDatabaseType == targetDatabaseType) {
+        _sourceChecksumSql = createChecksumSql(sourceConnectorId, _sourceTableName, sourceTableMetaData, _sourceSplitColumn,
+          ColumnOrderHint.getSortedColumns(_connectorRepository, sourceConnectorId, sourceTableMetaData));
+        _targetChecksumSql = createChecksumSql(targetConnectorId, _targetTableName, targetTableMetaData, _targetSplitColumn,
+          _upsertStatementCreator.getMappedTargetColumns(sourceTableMetaData, targetTableMetaData, sourceConnectorId));
+      } else {
+        _sourceChecksumSql = null;
+        _targetChecksumSql = null;
+      }
+    }
+
+    private int synchronize() throws SQLException {
+      final long[] sourceRange = getRange(_sourceConnection, _sourceConnectorId, _sourceTableName, _sourceTableMetaData,
+        _sourceSplitColumn);
+      final long[] targetRange = getRange(_targetConnection, _targetConnectorId, _targetTableName, _targetTableMetaData,
+        _targetSplitColumn);
+      int result = 0;
+
+      if (sourceRange != null || targetRange != null) {
+        final long minValue = sourceRange == null ? targetRange[0] : targetRange == null ? sourceRange[0]
+          : Math.min(sourceRange[0], targetRange[0]);
+        final long maxValue = sourceRange == null ? targetRange[1] : targetRange == null ? sourceRange[1]
+          : Math.max(sourceRange[1], targetRange[1]);
+
+        for (long start = minValue; start <= maxValue; start += _chunkSize) {
+          result += synchronizeChunk(start, Math.min(maxValue, start + _chunkSize - 1));
+
+          if (start > Long.MAX_VALUE - _chunkSize) {
+            break;
+          }
+        }
+      }
+
+      LOG.info("Synchronizing " + _sourceTableName + " <--> " + _targetTableName + ": " + result + " rows changed");
+      return result;
+    }
+
+    private int synchronizeChunk(final long minValue, final long maxValue) throws SQLException {
+      if (_sourceChecksumSql != null) {
+        final Object[] sourceChecksum = getChecksum(_sourceConnection, _sourceChecksumSql, minValue, maxValue);
+        final Object[] targetChecksum = getChecksum(_targetConnection, _targetChecksumSql, minValue, maxValue);
+
+        if (Arrays.equals(sourceChecksum, targetChecksum)) {
+          return 0;
+        }
+
+        final long range = maxValue - minValue + 1;
+
+        if (range > _leafChunkSize) {
+          final long subChunkSize = Math.max(_leafChunkSize, (range + FAN_OUT - 1) / FAN_OUT);
+          int result = 0;
+
+          for (long start = minValue; start <= maxValue; start += subChunkSize) {
+            result += synchronizeChunk(start, Math.min(maxValue, start + subChunkSize - 1));
+          }
+
+          return result;
+        }
+      }
+
+      return synchronizeRows(minValue, maxValue);
+    }
+
+    /**
+     * Compare the rows of the chunk by primary key and repair the target table
+     */
+    private int synchronizeRows(final long minValue, final long maxValue) throws SQLException {
+      final Map<List<String>, Object[]> sourceRows = readSourceRows(minValue, maxValue);
+      final Map<List<String>, Object[]> targetRows = readTargetRows(minValue, maxValue);
+      final List<Object[]> insertedRows = new ArrayList<>();
+      final List<Object[]> updatedRows = new ArrayList<>();
+
+      for (final Map.Entry<List<String>, Object[]> entry : sourceRows.entrySet()) {
+        final Object[] targetRow = targetRows.remove(entry.getKey());
+
+        if (targetRow == null) {
+          insertedRows.add(entry.getValue());
+        } else if (!normalize(entry.getValue(), _allColumnIndexes).equals(normalize(targetRow, _allColumnIndexes))) {
+          updatedRows.add(entry.getValue());
+        }
+      }
+
+      final int result = insertedRows.size() + updatedRows.size() + targetRows.size();
+
+      if (result > 0) {
+        repair(insertedRows, updatedRows, new ArrayList<>(targetRows.values()));
+      }
+
+      return result;
+    }
+
+    /**
+     * Statements are created only if needed, e.g. tables consisting only of key columns cannot be updated
+     */
+    private void repair(final List<Object[]> insertedRows, final List<Object[]> updatedRows, final List<Object[]> deletedRows)
+      throws SQLException {
+      _targetDatabaseConfiguration.beforeInsert(_targetConnection, _targetConnectorId, _targetTableMetaData);
+
+      if (!deletedRows.isEmpty()) {
+        try (final PreparedStatement deleteStatement = _upsertStatementCreator.createDeleteStatement(_targetTableName,
+          _targetTableMetaData, _targetConnection)) {
+          for (final Object[] row : deletedRows) {
+            for (int i = 0; i < _keyColumnIndexes.length; i++) {
+              deleteStatement.setObject(i + 1, row[_keyColumnIndexes[i]]);
+            }
+
+            deleteStatement.addBatch();
+          }
+
+          deleteStatement.executeBatch();
+        }
+      }
+
+      if (!updatedRows.isEmpty()) {
+        try (final PreparedStatement updateStatement = _upsertStatementCreator.createUpdateStatement(_sourceConnectorId,
+          _sourceTableMetaData, _targetTableName, _targetTableMetaData, _targetConnection)) {
+          for (final Object[] row : updatedRows) {
+            _insertStatementFiller.fillStatementFromRow(_sourceConnectorId, _sourceTableMetaData, _targetConnectorId,
+              _targetTableMetaData, row, updateStatement, _updateColumnIndexes);
+          }
+
+          updateStatement.executeBatch();
+        }
+      }
+
+      if (!insertedRows.isEmpty()) {
+        try (final PreparedStatement insertStatement = new InsertStatementCreator(_connectorRepository, _targetConnectorId)
+          .createInsertStatement(_sourceConnectorId, _sourceTableMetaData, _targetTableName, _targetTableMetaData,
+            _targetConnection, 1, false)) {
+          _insertStatementFiller.fillInsertStatementFromRows(_sourceConnectorId, _sourceTableMetaData, _targetConnectorId,
+            _targetTableMetaData, _targetDatabaseConfiguration, _targetConnection, insertedRows.toArray(new Object[0][]),
+            insertStatement, insertedRows.size(), false);
+          insertStatement.executeBatch();
+        }
+      }
+
+      if (_targetDatabaseConfiguration.isMayCommit()) {
+        _targetConnection.commit();
+      }
+
+      _insertStatementFiller.clear();
+      _targetDatabaseConfiguration.afterInsert(_targetConnection, _targetConnectorId, _targetTableMetaData);
+    }
+
+    /**
+     * @return mapped values of the source rows by normalized primary key
+     */
+    private Map<List<String>, Object[]> readSourceRows(final long minValue, final long maxValue) throws SQLException {
+      final ChunkSelectStatementCreator selectStatementCreator = new ChunkSelectStatementCreator(_connectorRepository,
+        _sourceConnectorId, _sourceSplitColumn);
+      final Map<List<String>, Object[]> result = new LinkedHashMap<>();
+
+      try (final PreparedStatement selectStatement = selectStatementCreator.createSelectStatement(_sourceConnection,
+        _sourceTableName, _sourceTableMetaData)) {
+        selectStatementCreator.setRange(selectStatement, minValue, maxValue);
+
+        _sourceDatabaseConfiguration.beforeSelect(_sourceConnection, _sourceConnectorId, _sourceTableMetaData);
+
+        try (final ResultSet resultSet = selectStatement.executeQuery()) {
+          _sourceDatabaseConfiguration.afterSelect(_sourceConnection, _sourceConnectorId, _sourceTableMetaData);
+
+          final Object[][] rows = new Object[NUMBER_OF_BUFFERED_ROWS][];
+          int numberOfRows;
+
+          do {
+            numberOfRows = _insertStatementFiller.readAvailableRows(_sourceConnectorId, _sourceTableMetaData, _targetConnectorId,
+              _targetTableMetaData, resultSet, rows, NUMBER_OF_BUFFERED_ROWS, new int[0], new Object[0]);
+
+            for (int i = 0; i < numberOfRows; i++) {
+              result.put(normalize(rows[i], _keyColumnIndexes), rows[i]);
+
+              // Row is kept, thus the buffer must not reuse it
+              rows[i] = null;
+            }
+          }
+          while (numberOfRows == NUMBER_OF_BUFFERED_ROWS);
+        }
+      }
+
+      return result;
+    }
+
+    /**
+     * @return values of the mapped target columns by normalized primary key
+     */
+    private Map<List<String>, Object[]> readTargetRows(final long minValue, final long maxValue) throws SQLException {
+      final ChunkSelectStatementCreator selectStatementCreator = new ChunkSelectStatementCreator(_connectorRepository,
+        _targetConnectorId, _targetSplitColumn);
+      final Map<List<String>, Object[]> result = new LinkedHashMap<>();
+
+      try (final PreparedStatement selectStatement = selectStatementCreator.createMappedSelectStatement(_targetConnection,
+        _sourceTableMetaData, _targetTableName, _targetTableMetaData, _sourceConnectorId)) {
+        selectStatementCreator.setRange(selectStatement, minValue, maxValue);
+
+        try (final ResultSet resultSet = selectStatement.executeQuery()) {
+          final int columnCount = resultSet.getMetaData().getColumnCount();
+
+          while (resultSet.next()) {
+            final Object[] row = new Object[columnCount];
+
+            for (int i = 0; i < columnCount; i++) {
+              final Object value = resultSet.getObject(i + 1);
+
+              // LOBs may not be valid after the result set has been closed
+              row[i] = value instanceof Blob || value instanceof Clob ? DataComparisonUtil.normalize(value) : value;
+            }
+
+            result.put(normalize(row, _keyColumnIndexes), row);
+          }
+        }
+      }
+
+      return result;
+    }
+
+    /**
+     * @return minimum and maximum value of split column or null if the table contains no matching rows
+     */
+    private long[] getRange(final Connection connection, final String connectorId, final String tableName,
+                            final TableMetaData tableMetaData, final ColumnMetaData splitColumn) throws SQLException {
+      final String columnName = _connectorRepository.getConnectorHint(connectorId, ColumnMapper.class).getValue()
+        .mapColumnName(splitColumn, tableMetaData);
+
+      return DataComparisonUtil.getRange(connection, tableName, columnName,
+        DataComparisonUtil.getWhereClause(_connectorRepository, connectorId, tableMetaData));
+    }
+
+    /**
+     * The checksum covers the same rows as the SELECT statements reading the rows of a chunk, i.e. the configured
+     * {@link SelectWhereClause} is applied.
+     */
+    private String createChecksumSql(final String connectorId, final String tableName, final TableMetaData tableMetaData,
+                                     final ColumnMetaData splitColumn, final List<ColumnMetaData> columns) throws SQLException {
+      final ColumnMapper columnMapper = _connectorRepository.getConnectorHint(connectorId, ColumnMapper.class).getValue();
+      final List<String> columnNames = new ArrayList<>();
+
+      for (final ColumnMetaData column : columns) {
+        columnNames.add(columnMapper.mapColumnName(column, tableMetaData));
+      }
+
+      final String checksumExpression = createChecksumExpression(tableMetaData.getDatabaseMetaData().getDatabaseType(),
+        columnNames);
+      final String splitColumnName = columnMapper.mapColumnName(splitColumn, tableMetaData);
+      final String whereClause = AbstractSelectStatementCreator.appendCondition(
+        DataComparisonUtil.getWhereClause(_connectorRepository, connectorId, tableMetaData),
+        splitColumnName + " >= ? AND " + splitColumnName + " <= ?");
+
+      return checksumExpression == null ? null : "SELECT " + checksumExpression + " FROM " + tableName + " " + whereClause;
+    }
+
+    private Object[] getChecksum(final Connection connection, final String sql, final long minValue, final long maxValue)
+      throws SQLException {
+      try (final PreparedStatement statement = connection.prepareStatement(sql)) {
+        statement.setLong(1, minValue);
+        statement.setLong(2, maxValue);
+
+        try (final ResultSet resultSet = statement.executeQuery()) {
+          resultSet.next();
+          return new Object[]{resultSet.getLong(1), DataComparisonUtil.normalize(resultSet.getObject(2))};
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,188 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Store the copy progress in a table of the target data base, which is created on demand. Positions and ranges are recorded in
+ * the same transaction as the copied data, i.e. data and progress are committed atomically.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class TableCopyCheckpointJournal implements CopyCheckpointJournal {
+  public static final String DEFAULT_TABLE_NAME = "GB_COPY_CHECKPOINT";
+
+  private static final String POSITION = "<POSITION>";
+  private static final String COMPLETED = "<COMPLETED>";
+
+  private final String _tableName;
+  private boolean _tableCreated;
+
+  public TableCopyCheckpointJournal() {
+    this(DEFAULT_TABLE_NAME);
+  }
+
+  /**
+   * @param tableName name of table, optionally qualified with schema
+   */
+  public TableCopyCheckpointJournal(final String tableName) {
+    assert tableName != null : "tableName != null";
+    _tableName = tableName;
+  }
+
+  @Override
+  public void clear(final Connection targetConnection) throws SQLException {
+    createTable(targetConnection);
+
+    try (final Statement statement = targetConnection.createStatement()) {
+      statement.executeUpdate("DELETE FROM " + _tableName);
+    }
+  }
+
+  @Override
+  public boolean isTableCompleted(final Connection targetConnection, final TableMetaData sourceTableMetaData) throws SQLException {
+    return !getEntries(targetConnection, sourceTableMetaData, COMPLETED).isEmpty();
+  }
+
+  @Override
+  public String getPosition(final Connection targetConnection, final TableMetaData sourceTableMetaData) throws SQLException {
+    final List<String> result = getEntries(targetConnection, sourceTableMetaData, POSITION);
+
+    return result.isEmpty() ? null : result.get(0);
+  }
+
+  @Override
+  public void positionCommitting(final Connection targetConnection, final TableMetaData sourceTableMetaData,
+                                 final String position) throws SQLException {
+    try (final PreparedStatement statement = targetConnection.prepareStatement("UPDATE " + _tableName
+        + " SET ENTRY_VALUE = ? WHERE TABLE_NAME = ? AND ENTRY_KEY = ?")) {
+      statement.setString(1, position);
+      statement.setString(2, getKey(sourceTableMetaData));
+      statement.setString(3, POSITION);
+
+      if (statement.executeUpdate() > 0) {
+        return;
+      }
+    }
+
+    insertEntry(targetConnection, sourceTableMetaData, POSITION, position);
+  }
+
+  @Override
+  public void positionCommitted(final TableMetaData sourceTableMetaData, final String position) {
+  }
+
+  @Override
+  public Collection<String> getCommittedRanges(final Connection targetConnection, final TableMetaData sourceTableMetaData)
+      throws SQLException {
+    return getEntries(targetConnection, sourceTableMetaData, null);
+  }
+
+  @Override
+  public void rangeCommitting(final Connection targetConnection, final TableMetaData sourceTableMetaData, final String range)
+      throws SQLException {
+    insertEntry(targetConnection, sourceTableMetaData, range, null);
+  }
+
+  @Override
+  public void rangeCommitted(final TableMetaData sourceTableMetaData, final String range) {
+  }
+
+  @Override
+  public void tableCompleted(final Connection targetConnection, final TableMetaData sourceTableMetaData) throws SQLException {
+    try (final PreparedStatement statement = targetConnection.prepareStatement("DELETE FROM " + _tableName
+        + " WHERE TABLE_NAME = ?")) {
+      statement.setString(1, getKey(sourceTableMetaData));
+      statement.executeUpdate();
+    }
+
+    insertEntry(targetConnection, sourceTableMetaData, COMPLETED, null);
+  }
+
+  private void insertEntry(final Connection targetConnection, final TableMetaData sourceTableMetaData, final String key,
+                           final String value) throws SQLException {
+    try (final PreparedStatement statement = targetConnection.prepareStatement("INSERT INTO " + _tableName
+        + " (TABLE_NAME, ENTRY_KEY, ENTRY_VALUE) VALUES (?, ?, ?)")) {
+      statement.setString(1, getKey(sourceTableMetaData));
+      statement.setString(2, key);
+      statement.setString(3, value);
+      statement.executeUpdate();
+    }
+  }
+
+  /**
+   * @param key entry to look up or null for all ranges
+   * @return value of the given entry, or the keys of all ranges
+   */
+  private List<String> getEntries(final Connection targetConnection, final TableMetaData sourceTableMetaData, final String key)
+      throws SQLException {
+    final List<String> result = new ArrayList<>();
+
+    createTable(targetConnection);
+
+    try (final PreparedStatement statement = targetConnection.prepareStatement("SELECT ENTRY_KEY, ENTRY_VALUE FROM " + _tableName
+        + " WHERE TABLE_NAME = ?")) {
+      statement.setString(1, getKey(sourceTableMetaData));
+
+      try (final ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          final String entryKey = resultSet.getString(1);
+
+          if (key == null && !POSITION.equals(entryKey) && !COMPLETED.equals(entryKey)) {
+            result.add(entryKey);
+          } else if (entryKey.equals(key)) {
+            result.add(resultSet.getString(2));
+          }
+        }
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Create table if it does not exist yet, i.e. a copy process may also be resumed with an empty journal
+   */
+  private synchronized void createTable(final Connection targetConnection) throws SQLException {
+    if (!_tableCreated && !tableExists(targetConnection)) {
+      try (final Statement statement = targetConnection.createStatement()) {
+        statement.execute("CREATE TABLE " + _tableName + " (TABLE_NAME VARCHAR(255) NOT NULL, ENTRY_KEY VARCHAR(255) NOT NULL,"
+            + " ENTRY_VALUE VARCHAR(4000), PRIMARY KEY (TABLE_NAME, ENTRY_KEY))");
+      }
+    }
+
+    _tableCreated = true;
+  }
+
+  private boolean tableExists(final Connection targetConnection) throws SQLException {
+    final int index = _tableName.lastIndexOf('.');
+    final String schema = index < 0 ? null : _tableName.substring(0, index);
+    final String tableName = _tableName.substring(index + 1);
+    final java.sql.DatabaseMetaData metaData = targetConnection.getMetaData();
+
+    for (final String name : new String[]{tableName, tableName.toUpperCase(), tableName.toLowerCase()}) {
+      try (final ResultSet resultSet = metaData.getTables(null, schema, name, null)) {
+        if (resultSet.next()) {
+          return true;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  private static String getKey(final TableMetaData sourceTableMetaData) {
+    return sourceTableMetaData.getTableName().toUpperCase();
+  }
+}
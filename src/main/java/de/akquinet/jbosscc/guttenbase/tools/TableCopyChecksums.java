@@ -0,0 +1,64 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Record a checksum per table in memory, combining the checksums of all batches. Since the checksums are order-independent,
+ * tables may be copied in ranges by several threads.
+ * <br>
+ * Register an instance with the {@link de.akquinet.jbosscc.guttenbase.hints.CopyChecksumsHint} of the target connector and use
+ * the same repository for {@link CheckEqualTableDataTool#checkCopyChecksums(String, String)} afterwards.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class TableCopyChecksums implements CopyChecksums {
+  private final Map<String, RangeChecksum> _checksums = new ConcurrentHashMap<>();
+
+  @Override
+  public boolean isComputingChecksums() {
+    return true;
+  }
+
+  @Override
+  public void tableCopyStarted(final TableMetaData targetTableMetaData) {
+    _checksums.put(getKey(targetTableMetaData), new RangeChecksum());
+  }
+
+  @Override
+  public void batchCopied(final TableMetaData targetTableMetaData, final RangeChecksum checksum) {
+    final RangeChecksum tableChecksum = _checksums.get(getKey(targetTableMetaData));
+
+    if (tableChecksum != null) {
+      synchronized (tableChecksum) {
+        tableChecksum.add(checksum);
+      }
+    }
+  }
+
+  @Override
+  public RangeChecksum getChecksum(final TableMetaData targetTableMetaData) {
+    final RangeChecksum tableChecksum = _checksums.get(getKey(targetTableMetaData));
+
+    if (tableChecksum == null) {
+      return null;
+    }
+
+    final RangeChecksum result = new RangeChecksum();
+
+    synchronized (tableChecksum) {
+      result.add(tableChecksum);
+    }
+
+    return result;
+  }
+
+  private static String getKey(final TableMetaData tableMetaData) {
+    return tableMetaData.getTableName().toUpperCase();
+  }
+}
@@ -0,0 +1,185 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.ForeignKeyMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hand out tables to concurrent copy threads. The foreign keys of the schema spawn a directed (possibly cyclic!) graph of
+ * dependencies, just as in {@link TableOrderTool}. A table is handed out only after all the tables it references have been
+ * copied. Tables without pending dependencies are handed out in the order of the given list.
+ * <br>
+ * If there are cycles in the dependencies and no other table is being copied, we choose the table with the fewest pending
+ * dependencies.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class TableCopyScheduler
+{
+  private final Map<String, TableNode> _pendingTables = new LinkedHashMap<>();
+  private final Set<String> _copiedTables = new HashSet<>();
+  private int _runningTables;
+  private boolean _aborted;
+
+  public TableCopyScheduler(final List<TableMetaData> tableMetaData)
+  {
+    assert tableMetaData != null : "tableMetaData != null";
+
+    for (final TableMetaData table : tableMetaData)
+    {
+      _pendingTables.put(table.getTableName().toUpperCase(), new TableNode(table));
+    }
+
+    for (final TableNode tableNode : _pendingTables.values())
+    {
+      for (final ForeignKeyMetaData foreignKeyMetaData : tableNode.getTableMetaData().getImportedForeignKeys())
+      {
+        final String referencedTableName = foreignKeyMetaData.getReferencedColumn().getTableMetaData().getTableName().toUpperCase();
+
+        // Ignore self references and tables not being copied
+        if (!referencedTableName.equals(tableNode.getTableName()) && _pendingTables.containsKey(referencedTableName))
+        {
+          tableNode.addReferencedTable(referencedTableName);
+        }
+      }
+    }
+  }
+
+  /**
+   * Wait until the next table may be copied.
+   *
+   * @return next table or null if there are no more tables or the process has been aborted
+   */
+  public synchronized TableMetaData nextTable() throws InterruptedException
+  {
+    while (!_aborted && !_pendingTables.isEmpty())
+    {
+      TableNode tableNode = findReadyTable();
+
+      if (tableNode == null && _runningTables == 0)
+      {
+        tableNode = findTableWithFewestDependencies();
+      }
+
+      if (tableNode != null)
+      {
+        _pendingTables.remove(tableNode.getTableName());
+        _runningTables++;
+
+        return tableNode.getTableMetaData();
+      }
+
+      wait();
+    }
+
+    return null;
+  }
+
+  /**
+   * Table has been copied, tables depending on it may be handed out now.
+   */
+  public synchronized void tableCopied(final TableMetaData tableMetaData)
+  {
+    _copiedTables.add(tableMetaData.getTableName().toUpperCase());
+    _runningTables--;
+
+    notifyAll();
+  }
+
+  /**
+   * Stop handing out tables, e.g. because copying a table failed.
+   */
+  public synchronized void abort()
+  {
+    _aborted = true;
+
+    notifyAll();
+  }
+
+  private TableNode findReadyTable()
+  {
+    for (final TableNode tableNode : _pendingTables.values())
+    {
+      if (getNumberOfPendingDependencies(tableNode) == 0)
+      {
+        return tableNode;
+      }
+    }
+
+    return null;
+  }
+
+  private TableNode findTableWithFewestDependencies()
+  {
+    TableNode result = null;
+    int minimum = Integer.MAX_VALUE;
+
+    for (final TableNode tableNode : _pendingTables.values())
+    {
+      final int numberOfPendingDependencies = getNumberOfPendingDependencies(tableNode);
+
+      if (numberOfPendingDependencies < minimum)
+      {
+        minimum = numberOfPendingDependencies;
+        result = tableNode;
+      }
+    }
+
+    return result;
+  }
+
+  private int getNumberOfPendingDependencies(final TableNode tableNode)
+  {
+    int result = 0;
+
+    for (final String referencedTable : tableNode.getReferencedTables())
+    {
+      if (!_copiedTables.contains(referencedTable))
+      {
+        result++;
+      }
+    }
+
+    return result;
+  }
+
+  private static class TableNode
+  {
+    private final TableMetaData _tableMetaData;
+    private final List<String> _referencedTables = new ArrayList<>();
+
+    public TableNode(final TableMetaData tableMetaData)
+    {
+      _tableMetaData = tableMetaData;
+    }
+
+    public void addReferencedTable(final String tableName)
+    {
+      _referencedTables.add(tableName);
+    }
+
+    public List<String> getReferencedTables()
+    {
+      return _referencedTables;
+    }
+
+    public TableMetaData getTableMetaData()
+    {
+      return _tableMetaData;
+    }
+
+    public String getTableName()
+    {
+      return _tableMetaData.getTableName().toUpperCase();
+    }
+  }
+}
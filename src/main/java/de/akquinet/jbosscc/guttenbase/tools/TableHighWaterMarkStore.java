@@ -0,0 +1,124 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.utils.Util;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Base64;
+
+/**
+ * Store high-water marks in a table of the target data base, which is created on demand. Marks are updated in the same
+ * transaction as the copied data, i.e. data and mark are committed atomically.
+ * <br>
+ * Values are serialized and Base64-encoded, so any serializable type of change column is supported.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class TableHighWaterMarkStore implements HighWaterMarkStore {
+  public static final String DEFAULT_TABLE_NAME = "GB_HIGH_WATER_MARK";
+
+  private final String _tableName;
+
+  public TableHighWaterMarkStore() {
+    this(DEFAULT_TABLE_NAME);
+  }
+
+  /**
+   * @param tableName name of table, optionally qualified with schema
+   */
+  public TableHighWaterMarkStore(final String tableName) {
+    assert tableName != null : "tableName != null";
+    _tableName = tableName;
+  }
+
+  @Override
+  public synchronized Object getHighWaterMark(final Connection targetConnection, final TableMetaData sourceTableMetaData)
+      throws SQLException {
+    if (!tableExists(targetConnection)) {
+      try (final Statement statement = targetConnection.createStatement()) {
+        statement.execute("CREATE TABLE " + _tableName
+            + " (TABLE_NAME VARCHAR(255) NOT NULL PRIMARY KEY, HIGH_WATER_MARK VARCHAR(4000))");
+      }
+
+      return null;
+    }
+
+    try (final PreparedStatement statement = targetConnection.prepareStatement("SELECT HIGH_WATER_MARK FROM " + _tableName
+        + " WHERE TABLE_NAME = ?")) {
+      statement.setString(1, getKey(sourceTableMetaData));
+
+      try (final ResultSet resultSet = statement.executeQuery()) {
+        return resultSet.next() ? decode(resultSet.getString(1)) : null;
+      }
+    }
+  }
+
+  @Override
+  public void updateHighWaterMark(final Connection targetConnection, final TableMetaData sourceTableMetaData,
+                                  final Object highWaterMark) throws SQLException {
+    final String key = getKey(sourceTableMetaData);
+    final String value = encode(highWaterMark);
+
+    try (final PreparedStatement statement = targetConnection.prepareStatement("UPDATE " + _tableName
+        + " SET HIGH_WATER_MARK = ? WHERE TABLE_NAME = ?")) {
+      statement.setString(1, value);
+      statement.setString(2, key);
+
+      if (statement.executeUpdate() > 0) {
+        return;
+      }
+    }
+
+    try (final PreparedStatement statement = targetConnection.prepareStatement("INSERT INTO " + _tableName
+        + " (TABLE_NAME, HIGH_WATER_MARK) VALUES (?, ?)")) {
+      statement.setString(1, key);
+      statement.setString(2, value);
+      statement.executeUpdate();
+    }
+  }
+
+  private boolean tableExists(final Connection targetConnection) throws SQLException {
+    final int index = _tableName.lastIndexOf('.');
+    final String schema = index < 0 ? null : _tableName.substring(0, index);
+    final String tableName = _tableName.substring(index + 1);
+    final java.sql.DatabaseMetaData metaData = targetConnection.getMetaData();
+
+    for (final String name : new String[]{tableName, tableName.toUpperCase(), tableName.toLowerCase()}) {
+      try (final ResultSet resultSet = metaData.getTables(null, schema, name, null)) {
+        if (resultSet.next()) {
+          return true;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  private static String getKey(final TableMetaData sourceTableMetaData) {
+    return sourceTableMetaData.getTableName().toUpperCase();
+  }
+
+  private static String encode(final Object highWaterMark) throws SQLException {
+    try {
+      return Base64.getEncoder().encodeToString(Util.toByteArray(highWaterMark));
+    } catch (final IOException e) {
+      throw new SQLException("Cannot serialize high-water mark", e);
+    }
+  }
+
+  private static Object decode(final String value) throws SQLException {
+    try {
+      return Util.fromByteArray(Object.class, Base64.getDecoder().decode(value));
+    } catch (final Exception e) {
+      throw new SQLException("Cannot deserialize high-water mark " + value, e);
+    }
+  }
+}
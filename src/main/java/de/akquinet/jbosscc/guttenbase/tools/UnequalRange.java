@@ -0,0 +1,63 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+/**
+ * Range of a table whose data differs between source and target, as reported by
+ * {@link CheckEqualTableDataTool#checkTableChecksums(String, String)}.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class UnequalRange {
+  private final String _sourceTableName;
+  private final String _targetTableName;
+  private final Long _minValue;
+  private final Long _maxValue;
+  private final long _sourceRowCount;
+  private final long _targetRowCount;
+
+  /**
+   * @param minValue minimum value of split column or null, if the whole table has been checked at once
+   * @param maxValue maximum value of split column or null, if the whole table has been checked at once
+   */
+  public UnequalRange(final String sourceTableName, final String targetTableName, final Long minValue, final Long maxValue,
+                      final long sourceRowCount, final long targetRowCount) {
+    _sourceTableName = sourceTableName;
+    _targetTableName = targetTableName;
+    _minValue = minValue;
+    _maxValue = maxValue;
+    _sourceRowCount = sourceRowCount;
+    _targetRowCount = targetRowCount;
+  }
+
+  public String getSourceTableName() {
+    return _sourceTableName;
+  }
+
+  public String getTargetTableName() {
+    return _targetTableName;
+  }
+
+  public Long getMinValue() {
+    return _minValue;
+  }
+
+  public Long getMaxValue() {
+    return _maxValue;
+  }
+
+  public long getSourceRowCount() {
+    return _sourceRowCount;
+  }
+
+  public long getTargetRowCount() {
+    return _targetRowCount;
+  }
+
+  @Override
+  public String toString() {
+    return _sourceTableName + " <--> " + _targetTableName + (_minValue == null ? "" : " [" + _minValue + ", " + _maxValue + "]")
+      + ": " + _sourceRowCount + " vs. " + _targetRowCount + " rows";
+  }
+}
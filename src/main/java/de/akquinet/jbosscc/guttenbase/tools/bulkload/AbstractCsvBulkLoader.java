@@ -0,0 +1,202 @@
+package de.akquinet.jbosscc.guttenbase.tools.bulkload;
+
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.statements.InsertStatementFiller;
+import de.akquinet.jbosscc.guttenbase.statements.TableCopyPlan;
+import de.akquinet.jbosscc.guttenbase.tools.BulkLoader;
+import de.akquinet.jbosscc.guttenbase.tools.CopyChecksums;
+import de.akquinet.jbosscc.guttenbase.tools.RangeChecksum;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Write the rows of the source table to a temporary CSV file, which is then imported by the target data base.
+ * <br>
+ * Fields are separated by commas, strings are enclosed in double quotes. NULL values are written as empty fields without quotes.
+ * Only tables with numeric, character and date/time columns are supported, since binary data and LOBs are handled differently
+ * by each data base.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public abstract class AbstractCsvBulkLoader implements BulkLoader {
+  private static final int NUMBER_OF_BUFFERED_ROWS = 1000;
+
+  @Override
+  public boolean isApplicable(final TableMetaData targetTableMetaData) {
+    for (final ColumnMetaData columnMetaData : targetTableMetaData.getColumnMetaData()) {
+      if (!isSupportedColumnType(columnMetaData.getColumnType())) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  @Override
+  public boolean isCommitting(final TableMetaData targetTableMetaData) {
+    return false;
+  }
+
+  @Override
+  public int load(final ConnectorRepository connectorRepository, final String sourceConnectorId,
+                  final TableMetaData sourceTableMetaData, final ResultSet resultSet, final String targetConnectorId,
+                  final Connection targetConnection, final TableMetaData targetTableMetaData, final String targetTableName)
+      throws SQLException {
+    final InsertStatementFiller insertStatementFiller = new InsertStatementFiller(connectorRepository);
+    final TableCopyPlan plan = insertStatementFiller.getTableCopyPlan(sourceConnectorId, sourceTableMetaData, targetConnectorId,
+        targetTableMetaData);
+    final List<ColumnMetaData> targetColumns = new ArrayList<>();
+
+    for (int step = 0; step < plan.getNumberOfSteps(); step++) {
+      if (!plan.isSkipped(step)) {
+        targetColumns.add(plan.getTargetColumn(step));
+      }
+    }
+
+    final File file = createTempFile();
+
+    try {
+      final CopyChecksums copyChecksums = connectorRepository.getConnectorHint(targetConnectorId, CopyChecksums.class).getValue();
+      final int numberOfRows = writeFile(file, insertStatementFiller, sourceConnectorId, sourceTableMetaData, resultSet,
+          targetConnectorId, targetTableMetaData, copyChecksums);
+
+      if (numberOfRows > 0) {
+        importFile(connectorRepository, targetConnectorId, targetConnection, targetTableMetaData, targetTableName, targetColumns,
+            file);
+      }
+
+      return numberOfRows;
+    } finally {
+      if (!file.delete()) {
+        file.deleteOnExit();
+      }
+    }
+  }
+
+  /**
+   * Import the CSV file into the target table.
+   *
+   * @param targetColumns columns in the order of the fields in the file
+   */
+  protected abstract void importFile(ConnectorRepository connectorRepository, String targetConnectorId, Connection targetConnection,
+                                     TableMetaData targetTableMetaData, String targetTableName, List<ColumnMetaData> targetColumns,
+                                     File file) throws SQLException;
+
+  protected boolean isSupportedColumnType(final int columnType) {
+    switch (columnType) {
+      case Types.TINYINT:
+      case Types.SMALLINT:
+      case Types.INTEGER:
+      case Types.BIGINT:
+      case Types.REAL:
+      case Types.FLOAT:
+      case Types.DOUBLE:
+      case Types.DECIMAL:
+      case Types.NUMERIC:
+      case Types.CHAR:
+      case Types.VARCHAR:
+      case Types.NCHAR:
+      case Types.NVARCHAR:
+      case Types.LONGVARCHAR:
+      case Types.LONGNVARCHAR:
+      case Types.DATE:
+      case Types.TIME:
+      case Types.TIMESTAMP:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  protected File createTempFile() throws SQLException {
+    try {
+      return File.createTempFile("guttenbase", ".csv");
+    } catch (final IOException e) {
+      throw new SQLException("Cannot create temporary file", e);
+    }
+  }
+
+  private int writeFile(final File file, final InsertStatementFiller insertStatementFiller, final String sourceConnectorId,
+                        final TableMetaData sourceTableMetaData, final ResultSet resultSet, final String targetConnectorId,
+                        final TableMetaData targetTableMetaData, final CopyChecksums copyChecksums) throws SQLException {
+    final Object[][] rows = new Object[NUMBER_OF_BUFFERED_ROWS][];
+    final RangeChecksum checksum = copyChecksums.isComputingChecksums() ? new RangeChecksum() : null;
+    int totalRows = 0;
+    int numberOfRows;
+
+    try (final Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+      do {
+        numberOfRows = insertStatementFiller.readAvailableRows(sourceConnectorId, sourceTableMetaData, targetConnectorId,
+            targetTableMetaData, resultSet, rows, NUMBER_OF_BUFFERED_ROWS, new int[0], new Object[0]);
+
+        for (int i = 0; i < numberOfRows; i++) {
+          writeRow(writer, rows[i]);
+
+          if (checksum != null) {
+            checksum.addRow(rows[i]);
+          }
+        }
+
+        if (checksum != null && numberOfRows > 0) {
+          copyChecksums.batchCopied(targetTableMetaData, checksum);
+          checksum.reset();
+        }
+
+        totalRows += numberOfRows;
+      }
+      while (numberOfRows == NUMBER_OF_BUFFERED_ROWS);
+    } catch (final IOException e) {
+      throw new SQLException("Cannot write " + file, e);
+    }
+
+    return totalRows;
+  }
+
+  private static void writeRow(final Writer writer, final Object[] row) throws IOException, SQLException {
+    for (int i = 0; i < row.length; i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+
+      writeValue(writer, row[i]);
+    }
+
+    writer.write('\n');
+  }
+
+  private static void writeValue(final Writer writer, final Object value) throws IOException, SQLException {
+    if (value == null) {
+      return;
+    }
+
+    if (value instanceof String || value instanceof Character) {
+      writer.write('"');
+      writer.write(value.toString().replace("\"", "\"\""));
+      writer.write('"');
+    } else if (value instanceof BigDecimal) {
+      writer.write(((BigDecimal) value).toPlainString());
+    } else if (value instanceof Number || value instanceof Boolean || value instanceof java.util.Date) {
+      writer.write(value.toString());
+    } else {
+      throw new SQLException("Unsupported value type for bulk load: " + value.getClass().getName());
+    }
+  }
+}
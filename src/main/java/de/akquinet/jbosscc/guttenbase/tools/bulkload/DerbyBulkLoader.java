@@ -0,0 +1,71 @@
+package de.akquinet.jbosscc.guttenbase.tools.bulkload;
+
+import de.akquinet.jbosscc.guttenbase.mapping.ColumnMapper;
+import de.akquinet.jbosscc.guttenbase.mapping.TableMapper;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+
+import java.io.File;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Import CSV file into Derby data base using the SYSCS_UTIL.SYSCS_IMPORT_DATA procedure. The procedure commits the current
+ * transaction of the target connection on success, and rolls it back on failure. Table and column names are obtained
+ * from the {@link TableMapper} and {@link ColumnMapper} of the target connector.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class DerbyBulkLoader extends AbstractCsvBulkLoader {
+  private static final String IMPORT_STATEMENT = "CALL SYSCS_UTIL.SYSCS_IMPORT_DATA(?, ?, ?, NULL, ?, NULL, NULL, 'UTF-8', 0)";
+
+  @Override
+  public boolean isCommitting(final TableMetaData targetTableMetaData) {
+    return true;
+  }
+
+  @Override
+  protected void importFile(final ConnectorRepository connectorRepository, final String targetConnectorId,
+                            final Connection targetConnection, final TableMetaData targetTableMetaData, final String targetTableName,
+                            final List<ColumnMetaData> targetColumns, final File file) throws SQLException {
+    final TableMapper tableMapper = connectorRepository.getConnectorHint(targetConnectorId, TableMapper.class).getValue();
+    final ColumnMapper columnMapper = connectorRepository.getConnectorHint(targetConnectorId, ColumnMapper.class).getValue();
+    final String schema = targetTableMetaData.getDatabaseMetaData().getSchema();
+    final String tableName = tableMapper.mapTableName(targetTableMetaData, targetTableMetaData.getDatabaseMetaData());
+    final StringBuilder columnList = new StringBuilder();
+
+    for (final ColumnMetaData columnMetaData : targetColumns) {
+      if (columnList.length() > 0) {
+        columnList.append(',');
+      }
+
+      columnList.append(toProcedureArgument(columnMapper.mapColumnName(columnMetaData, targetTableMetaData)));
+    }
+
+    try (final CallableStatement statement = targetConnection.prepareCall(IMPORT_STATEMENT)) {
+      statement.setString(1, "".equals(schema) ? null : toProcedureArgument(schema));
+      statement.setString(2, toProcedureArgument(tableName));
+      statement.setString(3, columnList.toString());
+      statement.setString(4, file.getAbsolutePath());
+      statement.execute();
+    }
+  }
+
+  /**
+   * The procedure expects case-sensitive names without delimiters, while undelimited identifiers are stored in upper case by
+   * Derby.
+   */
+  private static String toProcedureArgument(final String identifier) {
+    if (identifier.length() > 1 && identifier.startsWith("\"") && identifier.endsWith("\"")) {
+      return identifier.substring(1, identifier.length() - 1).replace("\"\"", "\"");
+    } else {
+      return identifier.toUpperCase();
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package de.akquinet.jbosscc.guttenbase.tools.bulkload;
+
+import de.akquinet.jbosscc.guttenbase.mapping.ColumnMapper;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Import CSV file into H2 data base using INSERT ... DIRECT SELECT FROM CSVREAD().
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class H2BulkLoader extends AbstractCsvBulkLoader {
+  @Override
+  protected boolean isSupportedColumnType(final int columnType) {
+    return columnType == java.sql.Types.BOOLEAN || super.isSupportedColumnType(columnType);
+  }
+
+  @Override
+  protected void importFile(final ConnectorRepository connectorRepository, final String targetConnectorId,
+                            final Connection targetConnection, final TableMetaData targetTableMetaData, final String targetTableName,
+                            final List<ColumnMetaData> targetColumns, final File file) throws SQLException {
+    final ColumnMapper columnMapper = connectorRepository.getConnectorHint(targetConnectorId, ColumnMapper.class).getValue();
+    final StringBuilder columnClause = new StringBuilder();
+    final StringBuilder csvColumns = new StringBuilder();
+
+    for (int i = 0; i < targetColumns.size(); i++) {
+      final ColumnMetaData columnMetaData = targetColumns.get(i);
+
+      if (i > 0) {
+        columnClause.append(", ");
+        csvColumns.append(',');
+      }
+
+      columnClause.append(columnMapper.mapColumnName(columnMetaData, targetTableMetaData));
+      csvColumns.append('C').append(i + 1);
+    }
+
+    final String sql = "INSERT INTO " + targetTableName + " (" + columnClause + ") DIRECT SELECT * FROM CSVREAD('"
+        + file.getAbsolutePath().replace("'", "''") + "', '" + csvColumns + "', 'charset=UTF-8')";
+
+    try (final Statement statement = targetConnection.createStatement()) {
+      statement.executeUpdate(sql);
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package de.akquinet.jbosscc.guttenbase.tools.bulkload;
+
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.tools.BulkLoader;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Choose bulk loader according to the type of the target data base. Currently there are implementations for H2 and Derby.
+ * Further loaders may be added with {@link #addBulkLoader(DatabaseType, BulkLoader)}.
+ * <p>
+ * &copy; 2012-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class VendorBulkLoader implements BulkLoader {
+  private final Map<DatabaseType, BulkLoader> _bulkLoaders = new EnumMap<>(DatabaseType.class);
+
+  public VendorBulkLoader() {
+    addBulkLoader(DatabaseType.H2DB, new H2BulkLoader());
+    addBulkLoader(DatabaseType.DERBY, new DerbyBulkLoader());
+  }
+
+  public final VendorBulkLoader addBulkLoader(final DatabaseType databaseType, final BulkLoader bulkLoader) {
+    assert databaseType != null : "databaseType != null";
+    assert bulkLoader != null : "bulkLoader != null";
+
+    _bulkLoaders.put(databaseType, bulkLoader);
+    return this;
+  }
+
+  @Override
+  public boolean isApplicable(final TableMetaData targetTableMetaData) {
+    final BulkLoader bulkLoader = getBulkLoader(targetTableMetaData);
+
+    return bulkLoader != null && bulkLoader.isApplicable(targetTableMetaData);
+  }
+
+  @Override
+  public boolean isCommitting(final TableMetaData targetTableMetaData) {
+    return getBulkLoader(targetTableMetaData).isCommitting(targetTableMetaData);
+  }
+
+  @Override
+  public int load(final ConnectorRepository connectorRepository, final String sourceConnectorId,
+                  final TableMetaData sourceTableMetaData, final ResultSet resultSet, final String targetConnectorId,
+                  final Connection targetConnection, final TableMetaData targetTableMetaData, final String targetTableName)
+      throws SQLException {
+    return getBulkLoader(targetTableMetaData).load(connectorRepository, sourceConnectorId, sourceTableMetaData, resultSet,
+        targetConnectorId, targetConnection, targetTableMetaData, targetTableName);
+  }
+
+  private BulkLoader getBulkLoader(final TableMetaData targetTableMetaData) {
+    return _bulkLoaders.get(targetTableMetaData.getDatabaseMetaData().getDatabaseType());
+  }
+}
@@ -98,7 +98,11 @@ public class SwingTableCopyProgressIndicator implements TableCopyProgressIndicat
   {
     _timingDelegate.endExecution(totalCopiedRows);
 
+    // Tables may be copied concurrently, show the table of the current thread
+    _panel.getTableProgress().setMaximum(_timingDelegate.getRowCount());
     _panel.getTableProgress().setValue(totalCopiedRows);
+    _panel.getSourceTable().setText(_timingDelegate.getSourceTableName());
+    _panel.getTargetTable().setText(_timingDelegate.getTargetTableName());
     updateTimers();
   }
 
@@ -0,0 +1,91 @@
+package de.akquinet.jbosscc.guttenbase.utils;
+
+/**
+ * Thread-safe wrapper around another progress indicator. Used when multiple threads report their progress to the same
+ * indicator, e.g. when copying tables concurrently.
+ * <br>
+ * The wrapper only serializes the calls. The state of the table being copied must be kept per thread by the delegate, as
+ * the implementations based on {@link TimingProgressIndicator} do. Otherwise tables copied concurrently would overwrite
+ * each other's names, row counts and timings.
+ * <p>
+ * &copy; 2013-2020 akquinet tech@spree
+ * </p>
+ *
+ * @author M. Dahm
+ */
+public class SynchronizedTableCopyProgressIndicator implements TableCopyProgressIndicator
+{
+  private final TableCopyProgressIndicator _delegate;
+
+  public SynchronizedTableCopyProgressIndicator(final TableCopyProgressIndicator delegate)
+  {
+    assert delegate != null : "delegate != null";
+    _delegate = delegate;
+  }
+
+  @Override
+  public synchronized void startCopyTable(final String sourceTableName, final int rowCount, final String targetTableName)
+  {
+    _delegate.startCopyTable(sourceTableName, rowCount, targetTableName);
+  }
+
+  @Override
+  public synchronized void initializeIndicator()
+  {
+    _delegate.initializeIndicator();
+  }
+
+  @Override
+  public synchronized void startProcess(final int totalNumberOfProcesses)
+  {
+    _delegate.startProcess(totalNumberOfProcesses);
+  }
+
+  @Override
+  public synchronized void startExecution()
+  {
+    _delegate.startExecution();
+  }
+
+  @Override
+  public synchronized void endExecution(final int numberOfFinishedItems)
+  {
+    _delegate.endExecution(numberOfFinishedItems);
+  }
+
+  @Override
+  public synchronized void endProcess()
+  {
+    _delegate.endProcess();
+  }
+
+  @Override
+  public synchronized void updateTimers()
+  {
+    _delegate.updateTimers();
+  }
+
+  @Override
+  public synchronized void finalizeIndicator()
+  {
+    _delegate.finalizeIndicator();
+  }
+
+  @Override
+  public synchronized void warn(final String text)
+  {
+    _delegate.warn(text);
+  }
+
+  @Override
+  public synchronized void info(final String text)
+  {
+    _delegate.info(text);
+  }
+
+  @Override
+  public synchronized void debug(final String text)
+  {
+    _delegate.debug(text);
+  }
+}
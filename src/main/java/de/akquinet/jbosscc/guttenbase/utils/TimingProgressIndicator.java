@@ -1,7 +1,12 @@
 package de.akquinet.jbosscc.guttenbase.utils;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Record timings.
+ * <br>
+ * The timings of the current table (process) are recorded per thread, since tables may be copied concurrently. Threads not
+ * copying any table themselves, e.g. a timer thread, see the table started most recently.
  * <p>
  * &copy; 2013-2020 akquinet tech@spree
  * </p>
@@ -10,17 +15,12 @@ package de.akquinet.jbosscc.guttenbase.utils;
  */
 public class TimingProgressIndicator implements TableCopyProgressIndicator
 {
-  private long _startTotalTime;
-  private long _startProcessTime;
-  private long _startExecutionTime;
-  private int _itemCounter;
-  private String _sourceTableName;
-  private String _targetTableName;
-  private int _rowCount;
-  private int _numberOfTables;
-  private long _elapsedExecutionTime;
-  private long _elapsedProcessTime;
-  private long _elapsedTotalTime;
+  private final ThreadLocal<ProcessTiming> _currentProcess = new ThreadLocal<>();
+  private final AtomicInteger _itemCounter = new AtomicInteger();
+  private volatile ProcessTiming _lastProcess = new ProcessTiming(null, 0, null);
+  private volatile long _startTotalTime;
+  private volatile int _numberOfTables;
+  private volatile long _elapsedTotalTime;
 
   @Override
   public void initializeIndicator()
@@ -32,22 +32,22 @@ public class TimingProgressIndicator implements TableCopyProgressIndicator
     setNumberOfItems(numberOfItems);
     setItemCounter(1);
     setStartTotalTime(System.currentTimeMillis());
-    setStartProcessTime(System.currentTimeMillis());
+    getProcess()._startProcessTime = System.currentTimeMillis();
   }
 
   @Override
   public void startCopyTable(final String sourceTableName, final int rowCount, final String targetTableName)
   {
-    setSourceTableName(sourceTableName);
-    setRowCount(rowCount);
-    setTargetTableName(targetTableName);
-    setStartProcessTime(System.currentTimeMillis());
+    final ProcessTiming processTiming = new ProcessTiming(sourceTableName, rowCount, targetTableName);
+
+    _currentProcess.set(processTiming);
+    _lastProcess = processTiming;
   }
 
   @Override
   public void startExecution()
   {
-    setStartExecutionTime(System.currentTimeMillis());
+    getProcess()._startExecutionTime = System.currentTimeMillis();
   }
 
   @Override
@@ -60,7 +60,7 @@ public class TimingProgressIndicator implements TableCopyProgressIndicator
   public void endProcess()
   {
     updateTimers();
-    _itemCounter++;
+    _itemCounter.incrementAndGet();
   }
 
   @Override
@@ -93,52 +93,27 @@ public class TimingProgressIndicator implements TableCopyProgressIndicator
 
   public final long getStartProcessTime()
   {
-    return _startProcessTime;
-  }
-
-  private void setStartProcessTime(final long startCopyTable)
-  {
-    _startProcessTime = startCopyTable;
+    return getProcess()._startProcessTime;
   }
 
   public final long getStartExecutionTime()
   {
-    return _startExecutionTime;
-  }
-
-  private void setStartExecutionTime(final long startBatch)
-  {
-    _startExecutionTime = startBatch;
+    return getProcess()._startExecutionTime;
   }
 
   public final String getSourceTableName()
   {
-    return _sourceTableName;
-  }
-
-  private void setSourceTableName(final String sourceTableName)
-  {
-    _sourceTableName = sourceTableName;
+    return getProcess()._sourceTableName;
   }
 
   public final String getTargetTableName()
   {
-    return _targetTableName;
-  }
-
-  private void setTargetTableName(final String targetTableName)
-  {
-    _targetTableName = targetTableName;
+    return getProcess()._targetTableName;
   }
 
   public final int getRowCount()
   {
-    return _rowCount;
-  }
-
-  private void setRowCount(final int rowCount)
-  {
-    _rowCount = rowCount;
+    return getProcess()._rowCount;
   }
 
   public final int getNumberOfTables()
@@ -153,22 +128,12 @@ public class TimingProgressIndicator implements TableCopyProgressIndicator
 
   public final long getElapsedExecutionTime()
   {
-    return _elapsedExecutionTime;
-  }
-
-  private void setElapsedExecutionTime(final long elapsedBatchTime)
-  {
-    _elapsedExecutionTime = elapsedBatchTime;
+    return getProcess()._elapsedExecutionTime;
   }
 
   public final long getElapsedProcessTime()
   {
-    return _elapsedProcessTime;
-  }
-
-  private void setElapsedProcessTime(final long elapsedTableCopyTime)
-  {
-    _elapsedProcessTime = elapsedTableCopyTime;
+    return getProcess()._elapsedProcessTime;
   }
 
   public final long getElapsedTotalTime()
@@ -179,9 +144,12 @@ public class TimingProgressIndicator implements TableCopyProgressIndicator
   @Override
   public final void updateTimers()
   {
-    setElapsedExecutionTime(System.currentTimeMillis() - getStartExecutionTime());
-    setElapsedTotalTime(System.currentTimeMillis() - getStartTotalTime());
-    setElapsedProcessTime(System.currentTimeMillis() - getStartProcessTime());
+    final ProcessTiming processTiming = getProcess();
+    final long currentTime = System.currentTimeMillis();
+
+    processTiming._elapsedExecutionTime = currentTime - processTiming._startExecutionTime;
+    processTiming._elapsedProcessTime = currentTime - processTiming._startProcessTime;
+    setElapsedTotalTime(currentTime - getStartTotalTime());
   }
 
   private void setElapsedTotalTime(final long elapsedTotalTime)
@@ -191,11 +159,39 @@ public class TimingProgressIndicator implements TableCopyProgressIndicator
 
   public final int getItemCounter()
   {
-    return _itemCounter;
+    return _itemCounter.get();
   }
 
   private void setItemCounter(final int tableCounter)
   {
-    _itemCounter = tableCounter;
+    _itemCounter.set(tableCounter);
+  }
+
+  /**
+   * @return timings of the table copied by the current thread or the table started most recently
+   */
+  private ProcessTiming getProcess()
+  {
+    final ProcessTiming processTiming = _currentProcess.get();
+
+    return processTiming != null ? processTiming : _lastProcess;
+  }
+
+  private static final class ProcessTiming
+  {
+    private final String _sourceTableName;
+    private final String _targetTableName;
+    private final int _rowCount;
+    private volatile long _startProcessTime = System.currentTimeMillis();
+    private volatile long _startExecutionTime = _startProcessTime;
+    private volatile long _elapsedExecutionTime;
+    private volatile long _elapsedProcessTime;
+
+    private ProcessTiming(final String sourceTableName, final int rowCount, final String targetTableName)
+    {
+      _sourceTableName = sourceTableName;
+      _rowCount = rowCount;
+      _targetTableName = targetTableName;
+    }
   }
 }
@@ -1,11 +1,14 @@
 package de.akquinet.jbosscc.guttenbase.hints;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import de.akquinet.jbosscc.guttenbase.configuration.TestHsqlConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
 import de.akquinet.jbosscc.guttenbase.repository.RepositoryColumnFilter;
 import de.akquinet.jbosscc.guttenbase.tools.AbstractGuttenBaseTest;
 import de.akquinet.jbosscc.guttenbase.tools.ScriptExecutorTool;
@@ -45,4 +48,33 @@ public class RepositoryColumnFilterHintTest extends AbstractGuttenBaseTest
 
     assertEquals("After", 5, _connectorRepository.getDatabaseMetaData(SOURCE).getTableMetaData("FOO_USER").getColumnCount());
   }
+
+  @Test
+  public void testFilteredMetaDataIsShared() throws Exception
+  {
+    final DatabaseMetaData databaseMetaData = _connectorRepository.getDatabaseMetaData(SOURCE);
+
+    assertSame(databaseMetaData, _connectorRepository.getDatabaseMetaData(SOURCE));
+
+    _connectorRepository.addConnectorHint(SOURCE, new RepositoryColumnFilterHint()
+    {
+      @Override
+      public RepositoryColumnFilter getValue()
+      {
+        return column -> !column.getColumnName().equalsIgnoreCase("password");
+      }
+    });
+
+    final DatabaseMetaData filteredDatabaseMetaData = _connectorRepository.getDatabaseMetaData(SOURCE);
+
+    assertNotSame(databaseMetaData, filteredDatabaseMetaData);
+    assertSame(filteredDatabaseMetaData.getTableMetaData("FOO_USER").getColumnMetaData("NAME"),
+        databaseMetaData.getTableMetaData("FOO_USER").getColumnMetaData("NAME"));
+    assertEquals(6, databaseMetaData.getTableMetaData("FOO_USER").getColumnCount());
+    assertEquals(5, filteredDatabaseMetaData.getTableMetaData("FOO_USER").getColumnCount());
+
+    _connectorRepository.refreshDatabaseMetaData(SOURCE);
+
+    assertNotSame(filteredDatabaseMetaData, _connectorRepository.getDatabaseMetaData(SOURCE));
+  }
 }
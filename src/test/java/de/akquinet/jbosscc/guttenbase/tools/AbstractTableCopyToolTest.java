@@ -67,8 +67,8 @@ public abstract class AbstractTableCopyToolTest extends AbstractGuttenBaseTest {
     new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
   }
 
-  private void addNumberOfRowsPerBatchHint(final int numberOfRowsPerBatch, final boolean useMultipleValuesClauses) {
-    _connectorRepository.addConnectorHint(CONNECTOR_SOURCE, new NumberOfRowsPerBatchHint() {
+  protected void addNumberOfRowsPerBatchHint(final int numberOfRowsPerBatch, final boolean useMultipleValuesClauses) {
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new NumberOfRowsPerBatchHint() {
       @Override
       public NumberOfRowsPerBatch getValue() {
         return new NumberOfRowsPerBatch() {
@@ -86,7 +86,7 @@ public abstract class AbstractTableCopyToolTest extends AbstractGuttenBaseTest {
     });
   }
 
-  private void setupSourceData() throws SQLException {
+  protected void setupSourceData() throws SQLException {
     new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, "/ddl/tables.sql");
     new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_TARGET, "/ddl/tables.sql");
     new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, false, false, "/data/test-data.sql");
@@ -0,0 +1,8 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+public class AdaptiveBatchSizeSplitByRangeTableCopyToolTest extends AdaptiveBatchSizeTableCopyToolTest {
+  @Override
+  protected AbstractTableCopyTool getCopyTool() {
+    return new SplitByRangeTableCopyTool(_connectorRepository);
+  }
+}
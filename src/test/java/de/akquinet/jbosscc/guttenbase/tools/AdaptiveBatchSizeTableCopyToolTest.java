@@ -0,0 +1,119 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.hints.BatchExecutionListenerHint;
+import de.akquinet.jbosscc.guttenbase.hints.MemoryGovernorHint;
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfRowsPerBatchHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.impl.DatabaseMetaDataImpl;
+import de.akquinet.jbosscc.guttenbase.meta.impl.TableMetaDataImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveBatchSizeTableCopyToolTest extends AbstractTableCopyToolTest {
+  private static final TableMetaData TABLE = new TableMetaDataImpl("FOO",
+    new DatabaseMetaDataImpl("", new HashMap<>(), DatabaseType.DERBY), "TABLE");
+
+  // Change batch size and mode frequently
+  private AdaptiveNumberOfRowsPerBatch _numberOfRowsPerBatch = new AdaptiveNumberOfRowsPerBatch(1, 3, 1, true);
+
+  @Before
+  public void setupAdaptiveNumberOfRowsPerBatch() {
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new NumberOfRowsPerBatchHint() {
+      @Override
+      public NumberOfRowsPerBatch getValue() {
+        return _numberOfRowsPerBatch;
+      }
+    });
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new BatchExecutionListenerHint() {
+      @Override
+      public BatchExecutionListener getValue() {
+        return _numberOfRowsPerBatch;
+      }
+    });
+  }
+
+  @Test
+  public void testIncreaseAdditivelyDecreaseMultiplicatively() {
+    final AdaptiveNumberOfRowsPerBatch numberOfRowsPerBatch = new AdaptiveNumberOfRowsPerBatch(2, 10, 2, false);
+    final List<Integer> numbersOfRows = new ArrayList<>();
+
+    // Constant throughput until 6 rows per batch, then half the throughput
+    for (final long nanosPerRow : new long[]{1000, 1000, 1000, 2000, 2000, 2000, 2000, 2000}) {
+      final int numberOfRows = numberOfRowsPerBatch.getNumberOfRowsPerBatch(TABLE);
+
+      numbersOfRows.add(numberOfRows);
+      numberOfRowsPerBatch.batchExecuted(TABLE, numberOfRows, false, numberOfRows * nanosPerRow);
+    }
+
+    assertEquals(Arrays.asList(2, 4, 6, 8, 4, 6, 8, 10), numbersOfRows);
+    assertEquals(10, numberOfRowsPerBatch.getNumberOfRowsPerBatch(TABLE));
+  }
+
+  @Test
+  public void testFinalBatchIsIgnored() {
+    final AdaptiveNumberOfRowsPerBatch numberOfRowsPerBatch = new AdaptiveNumberOfRowsPerBatch(4, 10, 2, false);
+
+    numberOfRowsPerBatch.batchExecuted(TABLE, 1, false, 1000000);
+
+    assertEquals(4, numberOfRowsPerBatch.getNumberOfRowsPerBatch(TABLE));
+    assertEquals(0, numberOfRowsPerBatch.getThroughput(TABLE), 0);
+  }
+
+  /**
+   * The tools trim the batches to 5 rows, e.g. because of the memory budget. The number of rows is adapted nevertheless.
+   */
+  @Test
+  public void testAdaptTrimmedBatches() {
+    final AdaptiveNumberOfRowsPerBatch numberOfRowsPerBatch = new AdaptiveNumberOfRowsPerBatch(2, 100, 10, false);
+
+    numberOfRowsPerBatch.batchExecuted(TABLE, 2, false, 2000);
+    numberOfRowsPerBatch.batchExecuted(TABLE, 12, false, 12000);
+    assertEquals(22, numberOfRowsPerBatch.getNumberOfRowsPerBatch(TABLE));
+
+    numberOfRowsPerBatch.batchExecuted(TABLE, 5, false, 5000);
+    assertEquals(22, numberOfRowsPerBatch.getNumberOfRowsPerBatch(TABLE));
+
+    numberOfRowsPerBatch.batchExecuted(TABLE, 5, false, 50000);
+    assertEquals(2, numberOfRowsPerBatch.getNumberOfRowsPerBatch(TABLE));
+  }
+
+  @Test
+  public void testAdaptToMemoryBudget() throws Exception {
+    _numberOfRowsPerBatch = new AdaptiveNumberOfRowsPerBatch(3, 10, 1, false);
+
+    // Budget is exceeded by a single row with BLOB columns
+    final MemoryGovernor memoryGovernor = new ByteBudgetMemoryGovernor(4096, 8192);
+    final MemoryGovernorHint hint = new MemoryGovernorHint() {
+      @Override
+      public MemoryGovernor getValue() {
+        return memoryGovernor;
+      }
+    };
+
+    _connectorRepository.addConnectorHint(CONNECTOR_SOURCE, hint);
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, hint);
+
+    setupSourceData();
+
+    getCopyTool().copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    final TableMetaData tableMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_TARGET).getTableMetaData("FOO_DATA");
+    assertTrue(_numberOfRowsPerBatch.getThroughput(tableMetaData) > 0);
+  }
+
+  @Override
+  protected AbstractTableCopyTool getCopyTool() {
+    return new DefaultTableCopyTool(_connectorRepository);
+  }
+}
@@ -0,0 +1,60 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import de.akquinet.jbosscc.guttenbase.sql.AffectedTablesAnalyzer;
+import de.akquinet.jbosscc.guttenbase.sql.SQLLexer;
+
+public class AffectedTablesAnalyzerTest
+{
+  @Test
+  public void testDDL() throws Exception
+  {
+    assertEquals(tables("FOO_USER", "FOO_ROLE", "FOO_COMPANY", "FOO_DATA", "OLD_NAME", "NEW_NAME"), analyze(
+        "CREATE CACHED TABLE IF NOT EXISTS FOO_USER(ID bigint PRIMARY KEY, NAME varchar(100));",
+        "-- comment;",
+        "ALTER TABLE PUBLIC.\"FOO_ROLE\" ADD CONSTRAINT FK FOREIGN KEY (ID) REFERENCES FOO_USER(ID);",
+        "CREATE UNIQUE INDEX COMPANY_NAME_IDX ON FOO_COMPANY(NAME);",
+        "DROP TABLE IF EXISTS FOO_DATA CASCADE;",
+        "ALTER TABLE OLD_NAME RENAME TO NEW_NAME;",
+        "CREATE SEQUENCE FOO_SEQ;"));
+  }
+
+  @Test
+  public void testDML() throws Exception
+  {
+    assertEquals(tables("FOO_USER", "FOO_ROLE", "FOO_COMPANY"), analyze(
+        "INSERT INTO FOO_USER(ID, NAME) VALUES(1, 'DROP TABLE X');",
+        "UPDATE foo_role SET NAME = 'x';",
+        "DELETE FROM FOO_COMPANY WHERE ID > 1;",
+        "SELECT * FROM FOO_DATA;",
+        "COMMIT;"));
+  }
+
+  @Test
+  public void testUnknownStatements() throws Exception
+  {
+    assertNull(analyze("DROP INDEX COMPANY_NAME_IDX;"));
+    assertNull(analyze("CREATE VIEW FOO_VIEW AS SELECT * FROM FOO_USER;"));
+    assertNull(analyze("SET SCHEMA OTHER;"));
+  }
+
+  private static Set<String> analyze(final String... lines)
+  {
+    return new AffectedTablesAnalyzer(new SQLLexer(Arrays.asList(lines)).parse()).getAffectedTables();
+  }
+
+  private static Set<String> tables(final String... tableNames)
+  {
+    final Set<String> result = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    result.addAll(Arrays.asList(tableNames));
+    return result;
+  }
+}
@@ -0,0 +1,195 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TargetDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.configuration.TestH2ConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.configuration.impl.DerbyTargetDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.configuration.impl.H2DbTargetDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.defaults.impl.DefaultColumnMapper;
+import de.akquinet.jbosscc.guttenbase.defaults.impl.DefaultTableMapper;
+import de.akquinet.jbosscc.guttenbase.hints.BulkLoaderHint;
+import de.akquinet.jbosscc.guttenbase.hints.CaseConversionMode;
+import de.akquinet.jbosscc.guttenbase.hints.ColumnMapperHint;
+import de.akquinet.jbosscc.guttenbase.hints.CopyCheckpointJournalHint;
+import de.akquinet.jbosscc.guttenbase.hints.TableMapperHint;
+import de.akquinet.jbosscc.guttenbase.mapping.ColumnMapper;
+import de.akquinet.jbosscc.guttenbase.mapping.TableMapper;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.tools.bulkload.VendorBulkLoader;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class BulkLoadTableCopyToolTest extends AbstractTableCopyToolTest {
+  public static final String CONNECTOR_H2_TARGET = "h2";
+  private static final String BULK_LOADED_TABLES = "[FOO_COMPANY, FOO_ROLE, FOO_USER, FOO_USER_COMPANY, FOO_USER_ROLES]";
+  private static final String SIMULATED_FAILURE = "Simulated failure";
+
+  private final Set<String> _bulkLoadedTables = new TreeSet<>();
+  private String _failingTable;
+
+  @Before
+  public void setupBulkLoader() {
+    addBulkLoaderHint(CONNECTOR_TARGET);
+  }
+
+  @Test
+  public void testTablesWithLobsAreCopiedByTool() throws Exception {
+    setupSourceData();
+
+    getCopyTool().copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+    assertEquals(BULK_LOADED_TABLES, _bulkLoadedTables.toString());
+  }
+
+  @Test
+  public void testDerbyBulkLoaderUsesMappedNames() throws Exception {
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new TableMapperHint() {
+      @Override
+      public TableMapper getValue() {
+        return new DefaultTableMapper(CaseConversionMode.LOWER);
+      }
+    });
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new ColumnMapperHint() {
+      @Override
+      public ColumnMapper getValue() {
+        return new DefaultColumnMapper(CaseConversionMode.LOWER);
+      }
+    });
+    setupSourceData();
+
+    getCopyTool().copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+    assertEquals(BULK_LOADED_TABLES, _bulkLoadedTables.toString());
+  }
+
+  @Test
+  public void testH2BulkLoader() throws Exception {
+    _connectorRepository.addConnectionInfo(CONNECTOR_H2_TARGET, new TestH2ConnectionInfo());
+    addBulkLoaderHint(CONNECTOR_H2_TARGET);
+    setupSourceData();
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_H2_TARGET, "/ddl/tables.sql");
+
+    getCopyTool().copyTables(CONNECTOR_SOURCE, CONNECTOR_H2_TARGET);
+
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_H2_TARGET);
+    assertEquals(BULK_LOADED_TABLES, _bulkLoadedTables.toString());
+  }
+
+  /**
+   * Derby's import procedure commits on its own
+   */
+  @Test
+  public void testResumeAfterCommittingBulkLoad() throws Exception {
+    setupSourceData();
+
+    checkResumeAfterBulkLoad(CONNECTOR_TARGET, new DerbyTargetDatabaseConfiguration(_connectorRepository) {
+      @Override
+      public void afterTableCopy(final Connection connection, final String connectorId, final TableMetaData table)
+        throws SQLException {
+        super.afterTableCopy(connection, connectorId, table);
+        failOnce(table);
+      }
+    }, DatabaseType.DERBY);
+  }
+
+  @Test
+  public void testResumeAfterBulkLoad() throws Exception {
+    _connectorRepository.addConnectionInfo(CONNECTOR_H2_TARGET, new TestH2ConnectionInfo());
+    addBulkLoaderHint(CONNECTOR_H2_TARGET);
+    setupSourceData();
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_H2_TARGET, "/ddl/tables.sql");
+
+    checkResumeAfterBulkLoad(CONNECTOR_H2_TARGET, new H2DbTargetDatabaseConfiguration(_connectorRepository) {
+      @Override
+      public void afterTableCopy(final Connection connection, final String connectorId, final TableMetaData table)
+        throws SQLException {
+        super.afterTableCopy(connection, connectorId, table);
+        failOnce(table);
+      }
+    }, DatabaseType.H2DB);
+  }
+
+  /**
+   * A failure after loading the table must neither lose the data nor load it again when resuming
+   */
+  private void checkResumeAfterBulkLoad(final String targetConnectorId, final TargetDatabaseConfiguration targetDatabaseConfiguration,
+                                        final DatabaseType databaseType) throws Exception {
+    final CopyCheckpointJournal journal = new TableCopyCheckpointJournal();
+
+    _connectorRepository.addConnectorHint(targetConnectorId, new CopyCheckpointJournalHint() {
+      @Override
+      public CopyCheckpointJournal getValue() {
+        return journal;
+      }
+    });
+    _connectorRepository.addTargetDatabaseConfiguration(databaseType, targetDatabaseConfiguration);
+    _failingTable = "FOO_USER";
+
+    try {
+      getCopyTool().copyTables(CONNECTOR_SOURCE, targetConnectorId);
+      fail("Copy should fail");
+    } catch (final SQLException e) {
+      assertEquals(SIMULATED_FAILURE, e.getMessage());
+    }
+
+    getCopyTool().resume(CONNECTOR_SOURCE, targetConnectorId);
+
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, targetConnectorId);
+  }
+
+  private void failOnce(final TableMetaData table) throws SQLException {
+    if (table.getTableName().equalsIgnoreCase(_failingTable)) {
+      _failingTable = null;
+      throw new SQLException(SIMULATED_FAILURE);
+    }
+  }
+
+  @Override
+  protected AbstractTableCopyTool getCopyTool() {
+    return new DefaultTableCopyTool(_connectorRepository);
+  }
+
+  private void addBulkLoaderHint(final String connectorId) {
+    final BulkLoader vendorBulkLoader = new VendorBulkLoader();
+
+    _connectorRepository.addConnectorHint(connectorId, new BulkLoaderHint() {
+      @Override
+      public BulkLoader getValue() {
+        return new BulkLoader() {
+          @Override
+          public boolean isApplicable(final TableMetaData targetTableMetaData) {
+            return vendorBulkLoader.isApplicable(targetTableMetaData);
+          }
+
+          @Override
+          public boolean isCommitting(final TableMetaData targetTableMetaData) {
+            return vendorBulkLoader.isCommitting(targetTableMetaData);
+          }
+
+          @Override
+          public int load(final ConnectorRepository connectorRepository, final String sourceConnectorId,
+                          final TableMetaData sourceTableMetaData, final ResultSet resultSet, final String targetConnectorId,
+                          final Connection targetConnection, final TableMetaData targetTableMetaData, final String targetTableName)
+              throws SQLException {
+            _bulkLoadedTables.add(targetTableMetaData.getTableName().toUpperCase());
+
+            return vendorBulkLoader.load(connectorRepository, sourceConnectorId, sourceTableMetaData, resultSet, targetConnectorId,
+                targetConnection, targetTableMetaData, targetTableName);
+          }
+        };
+      }
+    });
+  }
+}
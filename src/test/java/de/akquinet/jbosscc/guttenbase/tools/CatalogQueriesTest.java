@@ -0,0 +1,102 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TestDerbyConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.configuration.TestH2ConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.configuration.TestHsqlConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.hints.CatalogQueriesHint;
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.CatalogQueries;
+import de.akquinet.jbosscc.guttenbase.repository.impl.InformationSchemaCatalogQueries;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class CatalogQueriesTest extends AbstractGuttenBaseTest {
+  private static final String CONNECTOR_HSQLDB = "hsqldb";
+  private static final String CONNECTOR_H2 = "h2";
+  private static final String CONNECTOR_DERBY = "derby";
+
+  @Before
+  public void setup() throws Exception {
+    _connectorRepository.addConnectionInfo(CONNECTOR_HSQLDB, new TestHsqlConnectionInfo());
+    _connectorRepository.addConnectionInfo(CONNECTOR_H2, new TestH2ConnectionInfo());
+    _connectorRepository.addConnectionInfo(CONNECTOR_DERBY, new TestDerbyConnectionInfo());
+
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_HSQLDB, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_H2, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_DERBY, "/ddl/tables.sql");
+  }
+
+  @Test
+  public void testHsqldb() throws Exception {
+    checkSameResultAsInspectionPerTable(CONNECTOR_HSQLDB, 6);
+  }
+
+  @Test
+  public void testH2() throws Exception {
+    checkSameResultAsInspectionPerTable(CONNECTOR_H2, 6);
+  }
+
+  /**
+   * Key columns are extracted from the index descriptors, including descending and composite keys
+   */
+  @Test
+  public void testDerby() throws Exception {
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_DERBY,
+      "CREATE INDEX FOO_USER_NAME_IDX ON FOO_USER(NAME DESC, ID);",
+      "CREATE TABLE FOO_USER_ROLES_AUDIT(ID BIGINT NOT NULL PRIMARY KEY, ROLE_ID BIGINT, USER_ID BIGINT,"
+        + " CONSTRAINT FK_FOO_USER_ROLES_AUDIT FOREIGN KEY (USER_ID, ROLE_ID) REFERENCES FOO_USER_ROLES(USER_ID, ROLE_ID));");
+
+    final DatabaseMetaData databaseMetaData = checkSameResultAsInspectionPerTable(CONNECTOR_DERBY, 7);
+
+    assertEquals(2, databaseMetaData.getTableMetaData("FOO_USER").getIndexMetaData("FOO_USER_NAME_IDX").getColumnMetaData().size());
+    assertEquals(1, databaseMetaData.getTableMetaData("FOO_USER_ROLES_AUDIT").getImportedForeignKeys().size());
+  }
+
+  private DatabaseMetaData checkSameResultAsInspectionPerTable(final String connectorId, final int numberOfTables)
+    throws Exception {
+    final AtomicInteger numberOfQueries = new AtomicInteger();
+
+    _connectorRepository.addConnectorHint(connectorId, new CatalogQueriesHint() {
+      @Override
+      public CatalogQueries getValue() {
+        return new InformationSchemaCatalogQueries() {
+          @Override
+          public String getPrimaryKeysQuery(final DatabaseType databaseType) {
+            numberOfQueries.incrementAndGet();
+            return super.getPrimaryKeysQuery(databaseType);
+          }
+        };
+      }
+    });
+    _connectorRepository.refreshDatabaseMetaData(connectorId);
+
+    final DatabaseMetaData bulk = _connectorRepository.getDatabaseMetaData(connectorId);
+    assertEquals(1, numberOfQueries.get());
+
+    _connectorRepository.addConnectorHint(connectorId, new CatalogQueriesHint() {
+      @Override
+      public CatalogQueries getValue() {
+        return new InformationSchemaCatalogQueries() {
+          @Override
+          public String getPrimaryKeysQuery(final DatabaseType databaseType) {
+            return null;
+          }
+        };
+      }
+    });
+    _connectorRepository.refreshDatabaseMetaData(connectorId);
+
+    final DatabaseMetaData perTable = _connectorRepository.getDatabaseMetaData(connectorId);
+
+    assertEquals(numberOfTables, bulk.getTableMetaData().size());
+    assertEquals(2, bulk.getTableMetaData("FOO_USER_ROLES").getPrimaryKeyColumns().size());
+    assertEquals(2, bulk.getTableMetaData("FOO_USER_ROLES").getImportedForeignKeys().size());
+    assertEquals(ParallelMetaDataInspectionTest.describe(perTable), ParallelMetaDataInspectionTest.describe(bulk));
+    return bulk;
+  }
+}
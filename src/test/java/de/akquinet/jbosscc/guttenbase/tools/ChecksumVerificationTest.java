@@ -0,0 +1,101 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TestDerbyConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.configuration.TestHsqlConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.hints.ChecksumVerificationHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ChecksumVerificationTest extends AbstractGuttenBaseTest {
+  public static final String CONNECTOR_SOURCE = "hsqldb";
+  public static final String CONNECTOR_TARGET = "derby";
+
+  private final CheckEqualTableDataTool _objectUnderTest = new CheckEqualTableDataTool(_connectorRepository);
+
+  @Before
+  public void setup() throws Exception {
+    _connectorRepository.addConnectionInfo(CONNECTOR_SOURCE, new TestHsqlConnectionInfo());
+    _connectorRepository.addConnectionInfo(CONNECTOR_TARGET, new TestDerbyConnectionInfo());
+
+    // Small ranges, so that the tables are checked in several steps
+    _connectorRepository.addConnectorHint(CONNECTOR_SOURCE, new ChecksumVerificationHint() {
+      @Override
+      public ChecksumVerification getValue() {
+        return new ChecksumVerification() {
+          @Override
+          public int getNumberOfThreads() {
+            return 3;
+          }
+
+          @Override
+          public long getRangeSize(final TableMetaData sourceTableMetaData) {
+            return 2;
+          }
+        };
+      }
+    });
+
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_TARGET, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, false, false, "/data/test-data.sql");
+
+    for (int i = 1; i <= 3; i++) {
+      insertBinaryData(CONNECTOR_SOURCE, i);
+    }
+
+    new DefaultTableCopyTool(_connectorRepository).copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+  }
+
+  @Test
+  public void testEqualData() throws Exception {
+    assertTrue(_objectUnderTest.checkTableChecksums(CONNECTOR_SOURCE, CONNECTOR_TARGET).isEmpty());
+  }
+
+  @Test
+  public void testDifferentData() throws Exception {
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_TARGET,
+      "UPDATE FOO_USER SET NAME = 'Drifted' WHERE ID = 2;",
+      "DELETE FROM FOO_DATA WHERE ID = 3;");
+
+    final List<UnequalRange> unequalRanges = _objectUnderTest.checkTableChecksums(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    assertEquals(2, unequalRanges.size());
+
+    final UnequalRange dataRange = unequalRanges.get(0);
+    assertTrue(dataRange.getSourceTableName().toUpperCase().endsWith("FOO_DATA"));
+    assertEquals(3, dataRange.getSourceRowCount());
+    assertEquals(2, dataRange.getTargetRowCount());
+
+    final UnequalRange userRange = unequalRanges.get(1);
+    assertTrue(userRange.getSourceTableName().toUpperCase().endsWith("FOO_USER"));
+    assertTrue(userRange.getMinValue() <= 2 && 2 <= userRange.getMaxValue());
+    assertEquals(userRange.getSourceRowCount(), userRange.getTargetRowCount());
+  }
+
+  /**
+   * Checking every range of two values between 1 and 10^12 would take forever
+   */
+  @Test
+  public void testSparseSplitColumnValues() throws Exception {
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_SOURCE,
+      "INSERT INTO FOO_COMPANY (ID, SUPPLIER, NAME) VALUES(1000000000000, 'N', 'Company X');");
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_TARGET,
+      "INSERT INTO FOO_COMPANY (ID, SUPPLIER, NAME) VALUES(1000000000000, 'N', 'Drifted');");
+
+    final List<UnequalRange> unequalRanges = _objectUnderTest.checkTableChecksums(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    assertEquals(1, unequalRanges.size());
+
+    final UnequalRange companyRange = unequalRanges.get(0);
+    assertTrue(companyRange.getSourceTableName().toUpperCase().endsWith("FOO_COMPANY"));
+    assertTrue(companyRange.getMinValue() <= 1000000000000L && 1000000000000L <= companyRange.getMaxValue());
+    assertEquals(1, companyRange.getSourceRowCount());
+    assertEquals(1, companyRange.getTargetRowCount());
+  }
+}
@@ -0,0 +1,106 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TestHsqlConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfMetaDataInspectionThreadsHint;
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfRowsPerBatchHint;
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.NumberOfMetaDataInspectionThreads;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+public class ConcurrentConnectorRepositoryTest extends AbstractGuttenBaseTest {
+  private static final String CONNECTOR_ID = "hsqldb";
+  private static final int NUMBER_OF_THREADS = 8;
+
+  private final AtomicInteger _numberOfInspections = new AtomicInteger();
+
+  @Before
+  public void setup() throws Exception {
+    _connectorRepository.addConnectionInfo(CONNECTOR_ID, new TestHsqlConnectionInfo());
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_ID, "/ddl/tables.sql");
+
+    _connectorRepository.addConnectorHint(CONNECTOR_ID, new NumberOfMetaDataInspectionThreadsHint() {
+      @Override
+      public NumberOfMetaDataInspectionThreads getValue() {
+        _numberOfInspections.incrementAndGet();
+        return () -> 1;
+      }
+    });
+    _connectorRepository.refreshDatabaseMetaData(CONNECTOR_ID);
+  }
+
+  @Test
+  public void testMetaDataIsLoadedOnce() throws Exception {
+    final ExecutorService executorService = Executors.newFixedThreadPool(NUMBER_OF_THREADS + 1);
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Future<DatabaseMetaData>> futures = new ArrayList<>();
+
+    for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+      futures.add(executorService.submit(() -> {
+        start.await();
+
+        for (int j = 0; j < 1000; j++) {
+          assertNotNull(_connectorRepository.getConnectorHint(CONNECTOR_ID, NumberOfRowsPerBatch.class).getValue());
+        }
+
+        return _connectorRepository.getDatabaseMetaData(CONNECTOR_ID);
+      }));
+    }
+
+    // Hints are replaced while being read by the other threads
+    final Future<?> hintFuture = executorService.submit((Callable<Void>) () -> {
+      start.await();
+
+      for (int j = 0; j < 1000; j++) {
+        _connectorRepository.addConnectorHint(CONNECTOR_ID, new NumberOfRowsPerBatchHint() {
+          @Override
+          public NumberOfRowsPerBatch getValue() {
+            return new NumberOfRowsPerBatch() {
+              @Override
+              public int getNumberOfRowsPerBatch(final TableMetaData targetTableMetaData) {
+                return 100;
+              }
+
+              @Override
+              public boolean useMultipleValuesClauses(final TableMetaData targetTableMetaData) {
+                return true;
+              }
+            };
+          }
+        });
+      }
+
+      return null;
+    });
+
+    start.countDown();
+
+    final DatabaseMetaData databaseMetaData = futures.get(0).get();
+
+    for (final Future<DatabaseMetaData> future : futures) {
+      assertSame(databaseMetaData, future.get());
+    }
+
+    hintFuture.get();
+    executorService.shutdown();
+    executorService.awaitTermination(10, TimeUnit.SECONDS);
+
+    assertEquals(1, _numberOfInspections.get());
+    assertEquals(6, databaseMetaData.getTableMetaData().size());
+  }
+}
@@ -0,0 +1,74 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TestDerbyConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.configuration.TestHsqlConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.hints.CopyChecksumsHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class CopyChecksumsTest extends AbstractGuttenBaseTest {
+  public static final String CONNECTOR_SOURCE = "hsqldb";
+  public static final String CONNECTOR_TARGET = "derby";
+
+  private final TableCopyChecksums _copyChecksums = new TableCopyChecksums();
+  private final CheckEqualTableDataTool _objectUnderTest = new CheckEqualTableDataTool(_connectorRepository);
+
+  @Before
+  public void setup() throws Exception {
+    _connectorRepository.addConnectionInfo(CONNECTOR_SOURCE, new TestHsqlConnectionInfo());
+    _connectorRepository.addConnectionInfo(CONNECTOR_TARGET, new TestDerbyConnectionInfo());
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new CopyChecksumsHint() {
+      @Override
+      public CopyChecksums getValue() {
+        return _copyChecksums;
+      }
+    });
+
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_TARGET, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, false, false, "/data/test-data.sql");
+
+    for (int i = 1; i <= 3; i++) {
+      insertBinaryData(CONNECTOR_SOURCE, i);
+    }
+
+    new DefaultTableCopyTool(_connectorRepository).copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+  }
+
+  @Test
+  public void testChecksumsRecorded() throws Exception {
+    for (final TableMetaData tableMetaData : _connectorRepository.getDatabaseMetaData(CONNECTOR_TARGET).getTableMetaData()) {
+      final RangeChecksum checksum = _copyChecksums.getChecksum(tableMetaData);
+
+      assertNotNull(tableMetaData.getTableName(), checksum);
+      assertEquals(tableMetaData.getTableName(), tableMetaData.getTotalRowCount(), checksum.getNumberOfRows());
+    }
+  }
+
+  @Test
+  public void testEqualData() throws Exception {
+    assertTrue(_objectUnderTest.checkCopyChecksums(CONNECTOR_SOURCE, CONNECTOR_TARGET).isEmpty());
+  }
+
+  @Test
+  public void testDifferentData() throws Exception {
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_TARGET,
+      "UPDATE FOO_ROLE SET ROLE_NAME = 'Drifted' WHERE ID = 1;",
+      "DELETE FROM FOO_DATA WHERE ID = 3;");
+
+    final List<UnequalRange> unequalRanges = _objectUnderTest.checkCopyChecksums(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    assertEquals(2, unequalRanges.size());
+    assertTrue(unequalRanges.get(0).getSourceTableName().toUpperCase().endsWith("FOO_DATA"));
+    assertEquals(3, unequalRanges.get(0).getSourceRowCount());
+    assertEquals(2, unequalRanges.get(0).getTargetRowCount());
+    assertTrue(unequalRanges.get(1).getSourceTableName().toUpperCase().endsWith("FOO_ROLE"));
+  }
+}
@@ -1,8 +1,57 @@
 package de.akquinet.jbosscc.guttenbase.tools;
 
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
 public class DefaultTableCopyToolTest extends AbstractTableCopyToolTest {
   @Override
   protected AbstractTableCopyTool getCopyTool() {
     return new DefaultTableCopyTool(_connectorRepository);
   }
+
+  @Test
+  public void testCopyWithOutdatedRowCount() throws Exception {
+    addNumberOfRowsPerBatchHint(2, true);
+
+    setupSourceData();
+
+    // Row counts are determined now
+    _connectorRepository.getDatabaseMetaData(CONNECTOR_SOURCE);
+
+    for (int i = 5; i < 8; i++) {
+      insertBinaryData(CONNECTOR_SOURCE, i);
+    }
+
+    getCopyTool().copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    _connectorRepository.refreshDatabaseMetaData(CONNECTOR_SOURCE);
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+  }
+
+  /**
+   * The row count determined before must not be relied upon when filling statements with multiple VALUES clauses.
+   */
+  @Test
+  public void testCopyWithRowsDeletedAfterCounting() throws Exception {
+    addNumberOfRowsPerBatchHint(2, true);
+
+    setupSourceData();
+
+    for (int i = 5; i < 9; i++) {
+      insertBinaryData(CONNECTOR_SOURCE, i);
+    }
+
+    // Row counts are determined now
+    assertEquals(8, _connectorRepository.getDatabaseMetaData(CONNECTOR_SOURCE).getTableMetaData("FOO_DATA").getFilteredRowCount());
+
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_SOURCE, false, false, "DELETE FROM FOO_DATA WHERE ID > 3;");
+
+    getCopyTool().copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    _connectorRepository.refreshDatabaseMetaData(CONNECTOR_SOURCE);
+    _connectorRepository.refreshDatabaseMetaData(CONNECTOR_TARGET);
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+    assertEquals(3, _connectorRepository.getDatabaseMetaData(CONNECTOR_TARGET).getTableMetaData("FOO_DATA").getTotalRowCount());
+  }
 }
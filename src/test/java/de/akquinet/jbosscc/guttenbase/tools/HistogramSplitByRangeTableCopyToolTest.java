@@ -0,0 +1,132 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.connector.Connector;
+import de.akquinet.jbosscc.guttenbase.hints.SelectWhereClauseHint;
+import de.akquinet.jbosscc.guttenbase.hints.SplitRangePlannerHint;
+import de.akquinet.jbosscc.guttenbase.meta.InternalTableMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class HistogramSplitByRangeTableCopyToolTest extends AbstractTableCopyToolTest {
+  private SplitRangePlanner _splitRangePlanner = new HistogramSplitRangePlanner();
+
+  @Before
+  public void setupPlanner() {
+    _connectorRepository.addConnectorHint(CONNECTOR_SOURCE, new SplitRangePlannerHint() {
+      @Override
+      public SplitRangePlanner getValue() {
+        return _splitRangePlanner;
+      }
+    });
+  }
+
+  @Test
+  public void testCopyWithSelectWhereClause() throws Exception {
+    _connectorRepository.addConnectorHint(CONNECTOR_SOURCE, new SelectWhereClauseHint() {
+      @Override
+      public SelectWhereClause getValue() {
+        return tableMetaData -> {
+          switch (tableMetaData.getTableName()) {
+            case "FOO_USER":
+              return "WHERE ID <= 3";
+            case "FOO_USER_COMPANY":
+            case "FOO_USER_ROLES":
+              return "WHERE USER_ID <= 3";
+            default:
+              return "";
+          }
+        };
+      }
+    });
+    addNumberOfRowsPerBatchHint(1, false);
+
+    setupSourceData();
+
+    getCopyTool().copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    _connectorRepository.refreshDatabaseMetaData(CONNECTOR_TARGET);
+    assertEquals(3, _connectorRepository.getDatabaseMetaData(CONNECTOR_TARGET).getTableMetaData("FOO_USER").getTotalRowCount());
+  }
+
+  /**
+   * Rows inserted after planning between the observed values must be copied, too, even though the range then contains more
+   * rows than estimated.
+   */
+  @Test
+  public void testCopyRowsInsertedAfterPlanning() throws Exception {
+    final SplitRangePlanner histogramSplitRangePlanner = _splitRangePlanner;
+    _splitRangePlanner = (connectorRepository, connectorId, connection, tableMetaData, numberOfRowsPerBatch) -> {
+      final SplitRangePlan splitRangePlan = histogramSplitRangePlanner.createPlan(connectorRepository, connectorId, connection,
+        tableMetaData, numberOfRowsPerBatch);
+
+      if (tableMetaData.getTableName().equalsIgnoreCase("FOO_COMPANY")) {
+        new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_SOURCE,
+          "INSERT INTO FOO_COMPANY (ID, SUPPLIER, NAME) VALUES(5, 'N', 'Company 5');");
+      }
+
+      return splitRangePlan;
+    };
+    addNumberOfRowsPerBatchHint(1, true);
+
+    setupSourceData();
+
+    getCopyTool().copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    final TableMetaData tableMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_SOURCE).getTableMetaData("FOO_COMPANY");
+    final Connector connector = _connectorRepository.createConnector(CONNECTOR_SOURCE);
+
+    try {
+      final SplitRangePlan splitRangePlan = histogramSplitRangePlanner.createPlan(_connectorRepository, CONNECTOR_SOURCE,
+        connector.openConnection(), tableMetaData, 1);
+
+      for (int i = 1; i < splitRangePlan.getNumberOfRanges(); i++) {
+        assertEquals(splitRangePlan.getRange(i - 1).getEnd() + 1, splitRangePlan.getRange(i).getStart());
+      }
+    } finally {
+      connector.closeConnection();
+    }
+  }
+
+  @Test
+  public void testFallbackToFixedSteps() throws Exception {
+    _splitRangePlanner = new HistogramSplitRangePlanner(0);
+    addNumberOfRowsPerBatchHint(2, true);
+
+    setupSourceData();
+
+    getCopyTool().copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+  }
+
+  /**
+   * The row count of the table may be an estimate, thus the number of values read is limited while reading.
+   */
+  @Test
+  public void testFallbackToFixedStepsWithoutRowCount() throws Exception {
+    setupSourceData();
+
+    final TableMetaData tableMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_SOURCE).getTableMetaData("FOO_COMPANY");
+    ((InternalTableMetaData) tableMetaData).setTotalRowCount(0);
+    final Connector connector = _connectorRepository.createConnector(CONNECTOR_SOURCE);
+
+    try {
+      final SplitRangePlan splitRangePlan = new HistogramSplitRangePlanner(2).createPlan(_connectorRepository, CONNECTOR_SOURCE,
+        connector.openConnection(), tableMetaData, 1);
+
+      assertEquals(SplitRange.UNKNOWN_ROW_COUNT, splitRangePlan.getRange(0).getRowCount());
+    } finally {
+      connector.closeConnection();
+    }
+  }
+
+  @Override
+  protected AbstractTableCopyTool getCopyTool() {
+    return new SplitByRangeTableCopyTool(_connectorRepository);
+  }
+}
@@ -0,0 +1,86 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TestHsqlConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.connector.Connector;
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class IncrementalMetaDataRefreshTest extends AbstractGuttenBaseTest {
+  private static final String CONNECTOR_ID = "hsqldb";
+
+  @Before
+  public void setup() throws Exception {
+    _connectorRepository.addConnectionInfo(CONNECTOR_ID, new TestHsqlConnectionInfo());
+
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_ID, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_ID, false, false, "/data/test-data.sql");
+  }
+
+  @Test
+  public void testRefreshAffectedTables() throws Exception {
+    final DatabaseMetaData databaseMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_ID);
+    final TableMetaData roleTableMetaData = databaseMetaData.getTableMetaData("FOO_ROLE");
+    final TableMetaData userTableMetaData = databaseMetaData.getTableMetaData("FOO_USER");
+
+    assertEquals(4, roleTableMetaData.getTotalRowCount());
+
+    // Not noticed by the repository
+    final Connector connector = _connectorRepository.createConnector(CONNECTOR_ID);
+
+    try (Statement statement = connector.openConnection().createStatement()) {
+      statement.executeUpdate("INSERT INTO FOO_ROLE (ID, FIXED_ROLE, ROLE_NAME) VALUES(5, 'Y', 'Role 5')");
+    } finally {
+      connector.closeConnection();
+    }
+
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_ID, "ALTER TABLE FOO_USER ADD COLUMN EXTRA INTEGER;",
+        "DROP TABLE FOO_DATA;");
+
+    final DatabaseMetaData alteredDatabaseMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_ID);
+    final TableMetaData alteredUserTableMetaData = alteredDatabaseMetaData.getTableMetaData("FOO_USER");
+
+    // Other tables have not been inspected again
+    assertEquals(4, alteredDatabaseMetaData.getTableMetaData("FOO_ROLE").getTotalRowCount());
+    assertNotSame(userTableMetaData.getColumnMetaData("ID"), alteredUserTableMetaData.getColumnMetaData("ID"));
+
+    // Meta data may still be read by other threads and is not modified
+    assertNull(userTableMetaData.getColumnMetaData("EXTRA"));
+    assertNotNull(databaseMetaData.getTableMetaData("FOO_DATA"));
+    assertNotNull(alteredUserTableMetaData.getColumnMetaData("EXTRA"));
+    assertEquals(5, alteredUserTableMetaData.getTotalRowCount());
+    assertNull(alteredDatabaseMetaData.getTableMetaData("FOO_DATA"));
+    assertSame(alteredUserTableMetaData.getColumnMetaData("COMPANY_ID").getReferencedColumn(),
+        alteredDatabaseMetaData.getTableMetaData("FOO_COMPANY").getColumnMetaData("ID"));
+    assertEquals(2, alteredUserTableMetaData.getColumnMetaData("ID").getReferencedByColumn().size());
+
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_ID,
+        "CREATE TABLE FOO_ADDRESS(ID BIGINT PRIMARY KEY, USER_ID BIGINT, CONSTRAINT FK_FOO_ADDRESS_USER FOREIGN KEY (USER_ID) REFERENCES FOO_USER(ID));");
+
+    final DatabaseMetaData extendedDatabaseMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_ID);
+
+    assertEquals(2, alteredUserTableMetaData.getColumnMetaData("ID").getReferencedByColumn().size());
+    assertEquals(3, extendedDatabaseMetaData.getTableMetaData("FOO_USER").getColumnMetaData("ID").getReferencedByColumn().size());
+
+    try (Statement statement = connector.openConnection().createStatement()) {
+      statement.executeUpdate("DELETE FROM FOO_ROLE WHERE ID = 5");
+    } finally {
+      connector.closeConnection();
+    }
+
+    final String description = ParallelMetaDataInspectionTest.describe(extendedDatabaseMetaData);
+
+    _connectorRepository.refreshDatabaseMetaData(CONNECTOR_ID);
+
+    assertEquals(ParallelMetaDataInspectionTest.describe(_connectorRepository.getDatabaseMetaData(CONNECTOR_ID)), description);
+  }
+}
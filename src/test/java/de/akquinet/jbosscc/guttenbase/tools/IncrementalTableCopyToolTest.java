@@ -0,0 +1,176 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TestDerbyConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.configuration.TestH2ConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.configuration.TestHsqlConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.hints.BatchExecutionListenerHint;
+import de.akquinet.jbosscc.guttenbase.hints.ChangeColumnHint;
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfRowsPerBatchHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class IncrementalTableCopyToolTest extends AbstractGuttenBaseTest {
+  public static final String CONNECTOR_SOURCE = "hsqldb";
+  public static final String CONNECTOR_DERBY = "derby";
+  public static final String CONNECTOR_H2 = "h2";
+
+  private static final String CREATE_TABLE = "CREATE TABLE FOO_ITEM(ID bigint PRIMARY KEY, NAME varchar(100), VERSION bigint);";
+
+  @Before
+  public void setup() throws Exception {
+    _connectorRepository.addConnectionInfo(CONNECTOR_SOURCE, new TestHsqlConnectionInfo());
+    _connectorRepository.addConnectionInfo(CONNECTOR_DERBY, new TestDerbyConnectionInfo());
+    _connectorRepository.addConnectionInfo(CONNECTOR_H2, new TestH2ConnectionInfo());
+    _connectorRepository.addConnectorHint(CONNECTOR_SOURCE, new ChangeColumnHint() {
+      @Override
+      public ChangeColumn getValue() {
+        return sourceTableMetaData -> sourceTableMetaData.getColumnMetaData("VERSION");
+      }
+    });
+
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_SOURCE, CREATE_TABLE,
+        "INSERT INTO FOO_ITEM VALUES(1, 'Item 1', 1);",
+        "INSERT INTO FOO_ITEM VALUES(2, 'Item 2', 2);",
+        "INSERT INTO FOO_ITEM VALUES(3, 'Item 3', 3);");
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_DERBY, CREATE_TABLE);
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_H2, CREATE_TABLE);
+  }
+
+  @Test
+  public void testDeleteAndInsert() throws Exception {
+    checkIncrementalCopy(CONNECTOR_DERBY);
+  }
+
+  @Test
+  public void testUpsert() throws Exception {
+    checkIncrementalCopy(CONNECTOR_H2);
+  }
+
+  @Test
+  public void testRowsWithoutChangeValue() throws Exception {
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_SOURCE,
+        "INSERT INTO FOO_ITEM VALUES(5, 'Item 5', NULL);");
+
+    new IncrementalTableCopyTool(_connectorRepository).copyTables(CONNECTOR_SOURCE, CONNECTOR_H2);
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_H2);
+
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_SOURCE,
+        "UPDATE FOO_ITEM SET NAME = 'Item 5 modified' WHERE ID = 5;");
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_H2,
+        "UPDATE FOO_ITEM SET NAME = 'Unchanged' WHERE ID = 1;");
+
+    new IncrementalTableCopyTool(_connectorRepository).copyTables(CONNECTOR_SOURCE, CONNECTOR_H2);
+
+    final List<Map<String, Object>> data = new ScriptExecutorTool(_connectorRepository).executeQuery(CONNECTOR_H2,
+        "SELECT ID, NAME FROM FOO_ITEM ORDER BY ID");
+
+    // The mark must still be the highest change value, not NULL
+    assertEquals(4, data.size());
+    assertEquals("Unchanged", data.get(0).get("NAME"));
+    assertEquals("Item 5 modified", data.get(3).get("NAME"));
+  }
+
+  /**
+   * A run failing after some of the rows sharing a change value have been committed must not lose the others.
+   */
+  @Test
+  public void testResumeWithinEqualChangeValues() throws Exception {
+    new IncrementalTableCopyTool(_connectorRepository).copyTables(CONNECTOR_SOURCE, CONNECTOR_H2);
+
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_SOURCE,
+        "UPDATE FOO_ITEM SET NAME = 'Item 1 modified', VERSION = 4 WHERE ID = 1;",
+        "UPDATE FOO_ITEM SET NAME = 'Item 2 modified', VERSION = 4 WHERE ID = 2;");
+    _connectorRepository.addConnectorHint(CONNECTOR_H2, new NumberOfRowsPerBatchHint() {
+      @Override
+      public NumberOfRowsPerBatch getValue() {
+        return new NumberOfRowsPerBatch() {
+          @Override
+          public int getNumberOfRowsPerBatch(final TableMetaData targetTableMetaData) {
+            return 1;
+          }
+
+          @Override
+          public boolean useMultipleValuesClauses(final TableMetaData targetTableMetaData) {
+            return false;
+          }
+        };
+      }
+    });
+    _connectorRepository.addConnectorHint(CONNECTOR_H2, new BatchExecutionListenerHint() {
+      @Override
+      public BatchExecutionListener getValue() {
+        return (targetTableMetaData, numberOfRows, useMultipleValuesClauses, durationNanos) -> {
+          throw new IllegalStateException("Simulated failure");
+        };
+      }
+    });
+
+    try {
+      new IncrementalTableCopyTool(_connectorRepository).copyTables(CONNECTOR_SOURCE, CONNECTOR_H2);
+      fail("Copy should fail");
+    } catch (final IllegalStateException expected) {
+      // Only the first batch has been committed
+    }
+
+    _connectorRepository.addConnectorHint(CONNECTOR_H2, new BatchExecutionListenerHint() {
+      @Override
+      public BatchExecutionListener getValue() {
+        return (targetTableMetaData, numberOfRows, useMultipleValuesClauses, durationNanos) -> {
+        };
+      }
+    });
+
+    new IncrementalTableCopyTool(_connectorRepository).copyTables(CONNECTOR_SOURCE, CONNECTOR_H2);
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_H2);
+  }
+
+  @Test
+  public void testTableWithoutPrimaryKeyIsSkipped() throws Exception {
+    final String createTable = "CREATE TABLE FOO_LOG(ID bigint, MESSAGE varchar(100), VERSION bigint);";
+
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_SOURCE, createTable,
+        "INSERT INTO FOO_LOG VALUES(1, 'Message 1', 1);");
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_H2, createTable);
+
+    new IncrementalTableCopyTool(_connectorRepository).copyTables(CONNECTOR_SOURCE, CONNECTOR_H2);
+
+    assertEquals(0, new ScriptExecutorTool(_connectorRepository).executeQuery(CONNECTOR_H2, "SELECT * FROM FOO_LOG").size());
+    assertEquals(3, new ScriptExecutorTool(_connectorRepository).executeQuery(CONNECTOR_H2, "SELECT * FROM FOO_ITEM").size());
+  }
+
+  private void checkIncrementalCopy(final String targetConnectorId) throws Exception {
+    new IncrementalTableCopyTool(_connectorRepository).copyTables(CONNECTOR_SOURCE, targetConnectorId);
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, targetConnectorId);
+
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_SOURCE,
+        "UPDATE FOO_ITEM SET NAME = 'Item 2 modified', VERSION = 4 WHERE ID = 2;",
+        "INSERT INTO FOO_ITEM VALUES(4, 'Item 4', 5);");
+
+    // Rows not changed since the last run shall not be copied again
+    new ScriptExecutorTool(_connectorRepository).executeScript(targetConnectorId,
+        "UPDATE FOO_ITEM SET NAME = 'Unchanged' WHERE ID = 1;");
+
+    new IncrementalTableCopyTool(_connectorRepository).copyTables(CONNECTOR_SOURCE, targetConnectorId);
+
+    final List<Map<String, Object>> data = new ScriptExecutorTool(_connectorRepository).executeQuery(targetConnectorId,
+        "SELECT ID, NAME FROM FOO_ITEM ORDER BY ID");
+
+    assertEquals(4, data.size());
+    assertEquals("Unchanged", data.get(0).get("NAME"));
+    assertEquals("Item 2 modified", data.get(1).get("NAME"));
+    assertEquals("Item 4", data.get(3).get("NAME"));
+
+    final List<Map<String, Object>> marks = new ScriptExecutorTool(_connectorRepository).executeQuery(targetConnectorId,
+        "SELECT TABLE_NAME FROM " + TableHighWaterMarkStore.DEFAULT_TABLE_NAME);
+
+    assertEquals(1, marks.size());
+    assertEquals("FOO_ITEM", marks.get(0).get("TABLE_NAME"));
+  }
+}
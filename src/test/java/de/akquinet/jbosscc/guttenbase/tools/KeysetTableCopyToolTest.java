@@ -0,0 +1,8 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+public class KeysetTableCopyToolTest extends AbstractTableCopyToolTest {
+  @Override
+  protected AbstractTableCopyTool getCopyTool() {
+    return new KeysetTableCopyTool(_connectorRepository);
+  }
+}
@@ -0,0 +1,57 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.hints.LobStreamingHint;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LobStreamingTableCopyToolTest extends AbstractTableCopyToolTest {
+  @Before
+  public void setupLobStreaming() {
+    // Test image fits into a buffer
+    addLobStreamingHint(new LobBufferPool());
+  }
+
+  @Test
+  public void testBuffersAreReused() throws Exception {
+    final LobBufferPool bufferPool = new LobBufferPool();
+    addLobStreamingHint(bufferPool);
+    setupSourceData();
+
+    getCopyTool().copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+    assertTrue(bufferPool.getNumberOfPooledBuffers() > 0);
+  }
+
+  @Test
+  public void testStreamLargeLobs() throws Exception {
+    // Test image exceeds buffer, i.e. the source stream is passed on
+    final LobBufferPool bufferPool = new LobBufferPool(1024, 4);
+    addLobStreamingHint(bufferPool);
+    setupSourceData();
+
+    getCopyTool().copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+    assertEquals(0, bufferPool.getNumberOfPooledBuffers());
+  }
+
+  private void addLobStreamingHint(final LobBufferPool bufferPool) {
+    final LobStreaming lobStreaming = new PooledLobStreaming(3, bufferPool);
+
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new LobStreamingHint() {
+      @Override
+      public LobStreaming getValue() {
+        return lobStreaming;
+      }
+    });
+  }
+
+  @Override
+  protected AbstractTableCopyTool getCopyTool() {
+    return new DefaultTableCopyTool(_connectorRepository);
+  }
+}
@@ -0,0 +1,114 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.hints.BatchExecutionListenerHint;
+import de.akquinet.jbosscc.guttenbase.hints.MemoryGovernorHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.statements.SelectStatementCreator;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MemoryGovernedTableCopyToolTest extends AbstractTableCopyToolTest {
+  @Before
+  public void setupMemoryGovernor() {
+    // Budget is exceeded by a single row with BLOB columns
+    addMemoryGovernorHint(new ByteBudgetMemoryGovernor(4096, 8192));
+  }
+
+  /**
+   * The declared size of LOBs is overestimated, the batch size is increased once the actual sizes have been reported
+   */
+  @Test
+  public void testLobSizesAreReported() throws Exception {
+    final RecordingMemoryGovernor memoryGovernor = new RecordingMemoryGovernor(2L * IMAGE.length + 1000, 4 * IMAGE.length);
+    final List<Integer> numbersOfRows = Collections.synchronizedList(new ArrayList<>());
+
+    addMemoryGovernorHint(memoryGovernor);
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new BatchExecutionListenerHint() {
+      @Override
+      public BatchExecutionListener getValue() {
+        return (targetTableMetaData, numberOfRows, useMultipleValuesClauses, durationNanos) -> {
+          if (targetTableMetaData.getTableName().equalsIgnoreCase("FOO_DATA")) {
+            numbersOfRows.add(numberOfRows);
+          }
+        };
+      }
+    });
+
+    setupSourceData();
+
+    getCopyTool().copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    assertEquals(4, memoryGovernor._numberOfRows);
+    assertTrue(memoryGovernor._numberOfBytes >= 4L * IMAGE.length);
+    assertEquals(1, numbersOfRows.get(0).intValue());
+    assertTrue(numbersOfRows.toString(), numbersOfRows.contains(2));
+    assertEquals(4, numbersOfRows.stream().mapToInt(Integer::intValue).sum());
+  }
+
+  @Test
+  public void testFetchSizeFitsIntoBudget() throws Exception {
+    final MemoryGovernor memoryGovernor = new ByteBudgetMemoryGovernor(4096, 8192);
+    addMemoryGovernorHint(memoryGovernor);
+    setupSourceData();
+
+    final TableMetaData tableMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_SOURCE).getTableMetaData("FOO_USER");
+    final int configuredFetchSize = _connectorRepository.getConnectorHint(CONNECTOR_SOURCE, ResultSetParameters.class).getValue()
+      .getFetchSize(tableMetaData);
+    final int expectedFetchSize = memoryGovernor.getFetchSize(tableMetaData, configuredFetchSize);
+
+    try (final Connection connection = _connectorRepository.createConnector(CONNECTOR_SOURCE).openConnection();
+         final PreparedStatement statement = new SelectStatementCreator(_connectorRepository, CONNECTOR_SOURCE)
+           .createSelectStatement(connection, "FOO_USER", tableMetaData)) {
+      assertTrue(expectedFetchSize > 1 && expectedFetchSize < configuredFetchSize);
+      assertEquals(expectedFetchSize, statement.getFetchSize());
+    }
+  }
+
+  private void addMemoryGovernorHint(final MemoryGovernor memoryGovernor) {
+    final MemoryGovernorHint hint = new MemoryGovernorHint() {
+      @Override
+      public MemoryGovernor getValue() {
+        return memoryGovernor;
+      }
+    };
+
+    _connectorRepository.addConnectorHint(CONNECTOR_SOURCE, hint);
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, hint);
+  }
+
+  @Override
+  protected AbstractTableCopyTool getCopyTool() {
+    return new DefaultTableCopyTool(_connectorRepository);
+  }
+
+  private static final class RecordingMemoryGovernor extends ByteBudgetMemoryGovernor {
+    private long _numberOfBytes;
+    private int _numberOfRows;
+
+    private RecordingMemoryGovernor(final long byteBudget, final int lobSize) {
+      super(byteBudget, lobSize);
+    }
+
+    @Override
+    public synchronized void valuesObserved(final TableMetaData targetTableMetaData, final long numberOfBytes,
+                                            final int numberOfRows) {
+      super.valuesObserved(targetTableMetaData, numberOfBytes, numberOfRows);
+
+      if (targetTableMetaData.getTableName().equalsIgnoreCase("FOO_DATA")) {
+        _numberOfBytes += numberOfBytes;
+        _numberOfRows += numberOfRows;
+      }
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TestHsqlConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.connector.ConnectorInfo;
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.hints.CatalogQueriesHint;
+import de.akquinet.jbosscc.guttenbase.hints.MetaDataCacheHint;
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.CatalogQueries;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import de.akquinet.jbosscc.guttenbase.repository.MetaDataCache;
+import de.akquinet.jbosscc.guttenbase.repository.impl.ConnectorRepositoryImpl;
+import de.akquinet.jbosscc.guttenbase.repository.impl.FileMetaDataCache;
+import de.akquinet.jbosscc.guttenbase.repository.impl.InformationSchemaCatalogQueries;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class MetaDataCacheTest extends AbstractGuttenBaseTest {
+  public static final String CONNECTOR_ID = "hsqldb";
+
+  private static final long OUTDATED = 1000000000000L;
+
+  private final ConnectorInfo _connectorInfo = new TestHsqlConnectionInfo();
+  private final FileMetaDataCache _metaDataCache = new FileMetaDataCache(new File(DB_DIRECTORY, "cache"));
+  private CatalogQueries _catalogQueries = new InformationSchemaCatalogQueries();
+
+  @Before
+  public void setup() throws Exception {
+    _metaDataCache.getCacheFile(CONNECTOR_ID).delete();
+
+    new ScriptExecutorTool(createRepository()).executeFileScript(CONNECTOR_ID, "/ddl/tables.sql");
+  }
+
+  @Test
+  public void testCache() throws Exception {
+    final File cacheFile = _metaDataCache.getCacheFile(CONNECTOR_ID);
+    final DatabaseMetaData databaseMetaData = createRepository().getDatabaseMetaData(CONNECTOR_ID);
+
+    assertTrue(cacheFile.exists());
+    assertEquals(0, databaseMetaData.getTableMetaData("FOO_USER").getTotalRowCount());
+
+    // Unchanged schema, cached meta data is used, but rows are counted again
+    assertTrue(cacheFile.setLastModified(OUTDATED));
+    new ScriptExecutorTool(createRepository()).executeFileScript(CONNECTOR_ID, false, false, "/data/test-data.sql");
+
+    final DatabaseMetaData cachedDatabaseMetaData = createRepository().getDatabaseMetaData(CONNECTOR_ID);
+    final TableMetaData cachedTableMetaData = cachedDatabaseMetaData.getTableMetaData("FOO_USER");
+
+    assertEquals(OUTDATED, cacheFile.lastModified());
+    assertEquals(databaseMetaData.getTableMetaData().size(), cachedDatabaseMetaData.getTableMetaData().size());
+    assertEquals(6, cachedTableMetaData.getColumnCount());
+    assertEquals(1, cachedTableMetaData.getPrimaryKeyColumns().size());
+    assertEquals(5, cachedTableMetaData.getTotalRowCount());
+    assertEquals(5, cachedTableMetaData.getFilteredRowCount());
+
+    // Changed schema, data base is inspected again
+    new ScriptExecutorTool(createRepository()).executeScript(CONNECTOR_ID, "ALTER TABLE FOO_USER ADD COLUMN EXTRA INTEGER;");
+
+    final TableMetaData changedTableMetaData = createRepository().getDatabaseMetaData(CONNECTOR_ID).getTableMetaData("FOO_USER");
+
+    assertTrue(cacheFile.lastModified() != OUTDATED);
+    assertNotNull(changedTableMetaData.getColumnMetaData("EXTRA"));
+    assertEquals(5, changedTableMetaData.getTotalRowCount());
+  }
+
+  @Test
+  public void testChangedKeysAndIndexes() throws Exception {
+    checkChangedKeysAndIndexes();
+  }
+
+  @Test
+  public void testChangedKeysAndIndexesWithoutCatalogQueries() throws Exception {
+    _catalogQueries = new InformationSchemaCatalogQueries() {
+      @Override
+      public String getPrimaryKeysQuery(final DatabaseType databaseType) {
+        return null;
+      }
+    };
+
+    checkChangedKeysAndIndexes();
+  }
+
+  /**
+   * Neither tables nor columns change, the cache must be invalidated nevertheless
+   */
+  private void checkChangedKeysAndIndexes() throws Exception {
+    assertEquals(1, createRepository().getDatabaseMetaData(CONNECTOR_ID).getTableMetaData("FOO_USER").getImportedForeignKeys()
+      .size());
+
+    new ScriptExecutorTool(createRepository()).executeScript(CONNECTOR_ID, "CREATE INDEX FOO_USER_NAME_IDX ON FOO_USER(NAME);");
+
+    assertNotNull(createRepository().getDatabaseMetaData(CONNECTOR_ID).getTableMetaData("FOO_USER")
+      .getIndexMetaData("FOO_USER_NAME_IDX"));
+
+    new ScriptExecutorTool(createRepository()).executeScript(CONNECTOR_ID, "ALTER TABLE FOO_USER DROP CONSTRAINT FK_FOO_COMPANY;");
+
+    assertTrue(createRepository().getDatabaseMetaData(CONNECTOR_ID).getTableMetaData("FOO_USER").getImportedForeignKeys()
+      .isEmpty());
+  }
+
+  /**
+   * Simulate a new run using the same data base
+   */
+  private ConnectorRepository createRepository() {
+    final ConnectorRepository connectorRepository = new ConnectorRepositoryImpl();
+
+    connectorRepository.addConnectionInfo(CONNECTOR_ID, _connectorInfo);
+    connectorRepository.addConnectorHint(CONNECTOR_ID, new MetaDataCacheHint() {
+      @Override
+      public MetaDataCache getValue() {
+        return _metaDataCache;
+      }
+    });
+    connectorRepository.addConnectorHint(CONNECTOR_ID, new CatalogQueriesHint() {
+      @Override
+      public CatalogQueries getValue() {
+        return _catalogQueries;
+      }
+    });
+
+    return connectorRepository;
+  }
+}
@@ -0,0 +1,79 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TestDerbyConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfMetaDataInspectionThreadsHint;
+import de.akquinet.jbosscc.guttenbase.meta.ColumnMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.IndexMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.NumberOfMetaDataInspectionThreads;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class ParallelMetaDataInspectionTest extends AbstractGuttenBaseTest {
+  private static final String CONNECTOR_ID = "derby";
+
+  @Before
+  public void setup() throws Exception {
+    _connectorRepository.addConnectionInfo(CONNECTOR_ID, new TestDerbyConnectionInfo());
+
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_ID, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_ID, false, false, "/data/test-data.sql");
+  }
+
+  @Test
+  public void testSameResultAsSequentialInspection() throws Exception {
+    final DatabaseMetaData sequential = _connectorRepository.getDatabaseMetaData(CONNECTOR_ID);
+
+    _connectorRepository.addConnectorHint(CONNECTOR_ID, new NumberOfMetaDataInspectionThreadsHint() {
+      @Override
+      public NumberOfMetaDataInspectionThreads getValue() {
+        return () -> 3;
+      }
+    });
+    _connectorRepository.refreshDatabaseMetaData(CONNECTOR_ID);
+
+    final DatabaseMetaData parallel = _connectorRepository.getDatabaseMetaData(CONNECTOR_ID);
+
+    assertEquals(6, parallel.getTableMetaData().size());
+    assertEquals(2, parallel.getTableMetaData("FOO_USER_ROLES").getImportedForeignKeys().size());
+    assertEquals(describe(sequential), describe(parallel));
+  }
+
+  static String describe(final DatabaseMetaData databaseMetaData) {
+    final StringBuilder builder = new StringBuilder();
+
+    for (final TableMetaData tableMetaData : databaseMetaData.getTableMetaData()) {
+      builder.append(tableMetaData.getTableName()).append(':').append(tableMetaData.getTotalRowCount()).append('\n');
+
+      for (final ColumnMetaData columnMetaData : tableMetaData.getColumnMetaData()) {
+        builder.append("  ").append(columnMetaData.getColumnName()).append(' ').append(columnMetaData.getColumnTypeName())
+            .append(columnMetaData.isPrimaryKey() ? " PK" : "")
+            .append(columnMetaData.getReferencedColumn() == null ? "" : " -> " + describe(columnMetaData.getReferencedColumn()))
+            .append(columnMetaData.getReferencedByColumn().stream().map(ParallelMetaDataInspectionTest::describe).sorted()
+                .collect(Collectors.joining(", ", " <- ", "")))
+            .append('\n');
+      }
+
+      // Order of indexes depends on the driver
+      for (final IndexMetaData indexMetaData : tableMetaData.getIndexes().stream()
+          .sorted(Comparator.comparing(IndexMetaData::getIndexName)).collect(Collectors.toList())) {
+        builder.append("  ").append(indexMetaData.getIndexName()).append(indexMetaData.isUnique() ? " UNIQUE" : "")
+            .append(indexMetaData.getColumnMetaData().stream().map(ColumnMetaData::getColumnName)
+                .collect(Collectors.joining(", ", " (", ")")))
+            .append('\n');
+      }
+    }
+
+    return builder.toString();
+  }
+
+  private static String describe(final ColumnMetaData columnMetaData) {
+    return columnMetaData.getTableMetaData().getTableName() + "." + columnMetaData.getColumnName();
+  }
+}
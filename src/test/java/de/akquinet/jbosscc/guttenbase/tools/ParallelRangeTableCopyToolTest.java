@@ -0,0 +1,110 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.configuration.impl.DerbyTargetDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.hints.ParallelRangeCopyHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.ConnectorRepository;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelRangeTableCopyToolTest extends AbstractTableCopyToolTest {
+  private static final int NUMBER_OF_THREADS = 3;
+
+  private boolean _orderedCommits = true;
+
+  @Before
+  public void setupThreads() {
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new ParallelRangeCopyHint() {
+      @Override
+      public ParallelRangeCopy getValue() {
+        return new ParallelRangeCopy() {
+          @Override
+          public int getNumberOfThreads(final TableMetaData targetTableMetaData) {
+            return NUMBER_OF_THREADS;
+          }
+
+          @Override
+          public boolean isOrderedCommits(final TableMetaData targetTableMetaData) {
+            return _orderedCommits;
+          }
+        };
+      }
+    });
+  }
+
+  @Test
+  public void testCopyWithUnorderedCommits() throws Exception {
+    _orderedCommits = false;
+    addNumberOfRowsPerBatchHint(1, false);
+
+    setupSourceData();
+
+    getCopyTool().copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+  }
+
+  @Test
+  public void testAllConnectionsArePreparedForTableCopy() throws Exception {
+    final RecordingTargetDatabaseConfiguration targetDatabaseConfiguration = new RecordingTargetDatabaseConfiguration(_connectorRepository);
+    _connectorRepository.addTargetDatabaseConfiguration(DatabaseType.DERBY, targetDatabaseConfiguration);
+    addNumberOfRowsPerBatchHint(1, false);
+
+    setupSourceData();
+
+    getCopyTool().copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    final Set<Connection> connections = targetDatabaseConfiguration._beforeTableCopy.get("FOO_USER");
+    assertEquals(NUMBER_OF_THREADS, connections.size());
+    assertEquals(targetDatabaseConfiguration._beforeTableCopy, targetDatabaseConfiguration._afterTableCopy);
+
+    for (final Connection connection : connections) {
+      assertTrue(connection.isClosed());
+    }
+  }
+
+  @Override
+  protected AbstractTableCopyTool getCopyTool() {
+    return new SplitByRangeTableCopyTool(_connectorRepository);
+  }
+
+  private static final class RecordingTargetDatabaseConfiguration extends DerbyTargetDatabaseConfiguration {
+    private final Map<String, Set<Connection>> _beforeTableCopy = new HashMap<>();
+    private final Map<String, Set<Connection>> _afterTableCopy = new HashMap<>();
+
+    private RecordingTargetDatabaseConfiguration(final ConnectorRepository connectorRepository) {
+      super(connectorRepository);
+    }
+
+    @Override
+    public void beforeTableCopy(final Connection connection, final String connectorId, final TableMetaData table) throws SQLException {
+      super.beforeTableCopy(connection, connectorId, table);
+      record(_beforeTableCopy, connection, table);
+    }
+
+    @Override
+    public void afterTableCopy(final Connection connection, final String connectorId, final TableMetaData table) throws SQLException {
+      record(_afterTableCopy, connection, table);
+      super.afterTableCopy(connection, connectorId, table);
+    }
+
+    private synchronized void record(final Map<String, Set<Connection>> map, final Connection connection, final TableMetaData table) {
+      map.computeIfAbsent(table.getTableName().toUpperCase(), name -> Collections.newSetFromMap(new IdentityHashMap<>()))
+          .add(connection);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfTableCopyThreadsHint;
+import de.akquinet.jbosscc.guttenbase.hints.TableCopyProgressIndicatorHint;
+import de.akquinet.jbosscc.guttenbase.utils.TableCopyProgressIndicator;
+import de.akquinet.jbosscc.guttenbase.utils.TimingProgressIndicator;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ParallelTableCopyToolTest extends AbstractTableCopyToolTest {
+  @Before
+  public void setupThreads() {
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new NumberOfTableCopyThreadsHint() {
+      @Override
+      public NumberOfTableCopyThreads getValue() {
+        return () -> 3;
+      }
+    });
+  }
+
+  @Test
+  public void testProgressIsRecordedPerTable() throws Exception {
+    final List<String> startedTables = Collections.synchronizedList(new ArrayList<>());
+    final List<String> finishedTables = Collections.synchronizedList(new ArrayList<>());
+
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new TableCopyProgressIndicatorHint() {
+      @Override
+      public TableCopyProgressIndicator getValue() {
+        return new TimingProgressIndicator() {
+          @Override
+          public void startCopyTable(final String sourceTableName, final int rowCount, final String targetTableName) {
+            super.startCopyTable(sourceTableName, rowCount, targetTableName);
+            startedTables.add(sourceTableName);
+          }
+
+          @Override
+          public void endExecution(final int numberOfItems) {
+            super.endExecution(numberOfItems);
+
+            // Slow down copying, so tables overlap
+            try {
+              Thread.sleep(10);
+            } catch (final InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+
+          @Override
+          public void endProcess() {
+            super.endProcess();
+            finishedTables.add(getSourceTableName());
+          }
+        };
+      }
+    });
+
+    addNumberOfRowsPerBatchHint(1, false);
+    setupSourceData();
+
+    getCopyTool().copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    Collections.sort(startedTables);
+    Collections.sort(finishedTables);
+
+    assertEquals(6, startedTables.size());
+    assertEquals(startedTables, finishedTables);
+  }
+
+  @Override
+  protected AbstractTableCopyTool getCopyTool() {
+    return new DefaultTableCopyTool(_connectorRepository);
+  }
+}
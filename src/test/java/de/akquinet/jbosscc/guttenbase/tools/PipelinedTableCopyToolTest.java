@@ -0,0 +1,63 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.hints.BatchExecutionListenerHint;
+import de.akquinet.jbosscc.guttenbase.hints.CopyPipelineHint;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class PipelinedTableCopyToolTest extends AbstractTableCopyToolTest {
+  private static final String SIMULATED_FAILURE = "Simulated failure";
+  private static final long THREAD_EXIT_TIMEOUT_MILLIS = 1000;
+
+  @Before
+  public void setupPipeline() {
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new CopyPipelineHint() {
+      @Override
+      public CopyPipeline getValue() {
+        return targetTableMetaData -> 2;
+      }
+    });
+  }
+
+  /**
+   * The reader fills all buffers and waits for the writer, which fails
+   */
+  @Test
+  public void testReaderTerminatesWhenWriterFails() throws Exception {
+    addNumberOfRowsPerBatchHint(1, false);
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new BatchExecutionListenerHint() {
+      @Override
+      public BatchExecutionListener getValue() {
+        return (targetTableMetaData, numberOfRows, useMultipleValuesClauses, durationNanos) -> {
+          throw new IllegalStateException(SIMULATED_FAILURE);
+        };
+      }
+    });
+
+    setupSourceData();
+
+    try {
+      getCopyTool().copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+      fail("Copy should fail");
+    } catch (final IllegalStateException e) {
+      assertEquals(SIMULATED_FAILURE, e.getMessage());
+    }
+
+    // The task has terminated, but its thread may still be exiting
+    for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+      if (thread.getName().startsWith("Reader of ")) {
+        thread.join(THREAD_EXIT_TIMEOUT_MILLIS);
+        assertFalse(thread.getName(), thread.isAlive());
+      }
+    }
+  }
+
+  @Override
+  protected AbstractTableCopyTool getCopyTool() {
+    return new DefaultTableCopyTool(_connectorRepository);
+  }
+}
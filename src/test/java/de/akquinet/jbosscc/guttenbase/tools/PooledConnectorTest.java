@@ -0,0 +1,206 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TestDerbyConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.configuration.TestHsqlConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.connector.Connector;
+import de.akquinet.jbosscc.guttenbase.connector.impl.ConnectionPool;
+import de.akquinet.jbosscc.guttenbase.connector.impl.PooledConnectorInfo;
+import de.akquinet.jbosscc.guttenbase.exceptions.TableConfigurationException;
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfTableCopyThreadsHint;
+import de.akquinet.jbosscc.guttenbase.hints.RowCountStrategyHint;
+import de.akquinet.jbosscc.guttenbase.repository.RowCountStrategy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PooledConnectorTest extends AbstractGuttenBaseTest {
+  public static final String CONNECTOR_SOURCE = "hsqldb";
+  public static final String CONNECTOR_TARGET = "derby";
+
+  private final PooledConnectorInfo _sourceConnectorInfo = new PooledConnectorInfo(new TestHsqlConnectionInfo(), 1, 2, 500);
+  private final PooledConnectorInfo _targetConnectorInfo = new PooledConnectorInfo(new TestDerbyConnectionInfo(), 2);
+
+  @Before
+  public void setup() {
+    _connectorRepository.addConnectionInfo(CONNECTOR_SOURCE, _sourceConnectorInfo);
+    _connectorRepository.addConnectionInfo(CONNECTOR_TARGET, _targetConnectorInfo);
+  }
+
+  @After
+  public void closePools() {
+    _sourceConnectorInfo.closeConnectionPool();
+    _targetConnectorInfo.closeConnectionPool();
+  }
+
+  @Test
+  public void testConnectionIsReused() throws Exception {
+    final Connector connector1 = _connectorRepository.createConnector(CONNECTOR_SOURCE);
+    final Connector connector2 = _connectorRepository.createConnector(CONNECTOR_SOURCE);
+    final Connection connection = connector1.openConnection();
+
+    assertSame(connection, connector1.openConnection());
+    assertNotSame(connection, connector2.openConnection());
+    assertEquals(2, _sourceConnectorInfo.getConnectionPool().getNumberOfLeasedConnections());
+
+    connector2.closeConnection();
+    connector1.closeConnection();
+
+    assertEquals(0, _sourceConnectorInfo.getConnectionPool().getNumberOfLeasedConnections());
+    assertSame(connection, connector2.openConnection());
+    assertTrue(!connection.isClosed());
+    connector2.closeConnection();
+  }
+
+  @Test(expected = SQLException.class)
+  public void testNumberOfConnectionsIsBounded() throws Exception {
+    _connectorRepository.createConnector(CONNECTOR_SOURCE).openConnection();
+    _connectorRepository.createConnector(CONNECTOR_SOURCE).openConnection();
+    _connectorRepository.createConnector(CONNECTOR_SOURCE).openConnection();
+  }
+
+  @Test
+  public void testCopyConcurrently() throws Exception {
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new NumberOfTableCopyThreadsHint() {
+      @Override
+      public NumberOfTableCopyThreads getValue() {
+        return () -> 2;
+      }
+    });
+
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_TARGET, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, false, false, "/data/test-data.sql");
+
+    new DefaultTableCopyTool(_connectorRepository).copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    assertEquals(0, _sourceConnectorInfo.getConnectionPool().getNumberOfLeasedConnections());
+    assertEquals(0, _targetConnectorInfo.getConnectionPool().getNumberOfLeasedConnections());
+    assertTrue(_sourceConnectorInfo.getConnectionPool().getNumberOfIdleConnections() <= 2);
+    assertTrue(_targetConnectorInfo.getConnectionPool().getNumberOfIdleConnections() <= 2);
+  }
+
+  /**
+   * Rows are counted lazily using the connections of the copying thread, since no further connection can be leased.
+   */
+  @Test
+  public void testCopyWithLazyRowCounts() throws Exception {
+    final TestHsqlConnectionInfo sourceConnectionInfo = new TestHsqlConnectionInfo();
+    final TestDerbyConnectionInfo targetConnectionInfo = new TestDerbyConnectionInfo();
+    final PooledConnectorInfo sourceConnectorInfo = new PooledConnectorInfo(sourceConnectionInfo, 1, 1, 500);
+    final PooledConnectorInfo targetConnectorInfo = new PooledConnectorInfo(targetConnectionInfo, 1, 1, 500);
+    final RowCountStrategyHint rowCountStrategyHint = new RowCountStrategyHint() {
+      @Override
+      public RowCountStrategy getValue() {
+        return RowCountStrategy.LAZY;
+      }
+    };
+
+    // Executing scripts needs further connections
+    _connectorRepository.addConnectionInfo(CONNECTOR_SOURCE, sourceConnectionInfo);
+    _connectorRepository.addConnectionInfo(CONNECTOR_TARGET, targetConnectionInfo);
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_TARGET, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, false, false, "/data/test-data.sql");
+
+    _connectorRepository.addConnectionInfo(CONNECTOR_SOURCE, sourceConnectorInfo);
+    _connectorRepository.addConnectionInfo(CONNECTOR_TARGET, targetConnectorInfo);
+    _connectorRepository.addConnectorHint(CONNECTOR_SOURCE, rowCountStrategyHint);
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, rowCountStrategyHint);
+    _connectorRepository.refreshDatabaseMetaData(CONNECTOR_SOURCE);
+    _connectorRepository.refreshDatabaseMetaData(CONNECTOR_TARGET);
+
+    try {
+      new DefaultTableCopyTool(_connectorRepository).copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+      new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+      assertEquals(5, _connectorRepository.getDatabaseMetaData(CONNECTOR_TARGET).getTableMetaData("FOO_USER")
+        .getFilteredRowCount());
+      assertEquals(0, sourceConnectorInfo.getConnectionPool().getNumberOfLeasedConnections());
+      assertEquals(0, targetConnectorInfo.getConnectionPool().getNumberOfLeasedConnections());
+    } finally {
+      sourceConnectorInfo.closeConnectionPool();
+      targetConnectorInfo.closeConnectionPool();
+    }
+  }
+
+  @Test
+  public void testStateIsResetWhenReleased() throws Exception {
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_TARGET, "/ddl/tables.sql");
+
+    final ConnectionPool connectionPool = _targetConnectorInfo.getConnectionPool();
+    final Connection connection = connectionPool.lease();
+    final boolean autoCommit = connection.getAutoCommit();
+    final int transactionIsolation = connection.getTransactionIsolation();
+
+    connection.setAutoCommit(false);
+    connection.setTransactionIsolation(transactionIsolation == Connection.TRANSACTION_SERIALIZABLE
+      ? Connection.TRANSACTION_READ_COMMITTED : Connection.TRANSACTION_SERIALIZABLE);
+
+    try (final Statement statement = connection.createStatement()) {
+      statement.executeUpdate("INSERT INTO FOO_COMPANY (ID, SUPPLIER, NAME) VALUES(1, 'Y', 'Company 1')");
+    }
+
+    connectionPool.release(connection);
+
+    final Connection reusedConnection = connectionPool.lease();
+
+    try {
+      assertSame(connection, reusedConnection);
+      assertEquals(autoCommit, reusedConnection.getAutoCommit());
+      assertEquals(transactionIsolation, reusedConnection.getTransactionIsolation());
+
+      try (final Statement statement = reusedConnection.createStatement();
+           final ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM FOO_COMPANY")) {
+        resultSet.next();
+        assertEquals(0, resultSet.getInt(1));
+      }
+    } finally {
+      connectionPool.release(reusedConnection);
+    }
+  }
+
+  @Test
+  public void testConnectionsAreReleasedAfterFailure() throws Exception {
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, false, false, "/data/test-data.sql");
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_TARGET, "CREATE TABLE DUMMY(ID BIGINT);");
+
+    try {
+      new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+      fail("Target tables are missing");
+    } catch (final TableConfigurationException expected) {
+      assertNoLeasedConnections();
+    }
+
+    try {
+      new CheckEqualTableDataTool(_connectorRepository).checkTableChecksums(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+      fail("Target tables are missing");
+    } catch (final TableConfigurationException expected) {
+      assertNoLeasedConnections();
+    }
+
+    try {
+      new SynchronizeTableDataTool(_connectorRepository).synchronizeTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+      fail("Target tables are missing");
+    } catch (final TableConfigurationException expected) {
+      assertNoLeasedConnections();
+    }
+  }
+
+  private void assertNoLeasedConnections() {
+    assertEquals(0, _sourceConnectorInfo.getConnectionPool().getNumberOfLeasedConnections());
+    assertEquals(0, _targetConnectorInfo.getConnectionPool().getNumberOfLeasedConnections());
+  }
+}
@@ -0,0 +1,288 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TestDerbyConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.configuration.TestHsqlConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.hints.CopyCheckpointJournalHint;
+import de.akquinet.jbosscc.guttenbase.hints.NumberOfRowsPerBatchHint;
+import de.akquinet.jbosscc.guttenbase.hints.ParallelRangeCopyHint;
+import de.akquinet.jbosscc.guttenbase.hints.SplitRangePlannerHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ResumeTableCopyToolTest extends AbstractGuttenBaseTest {
+  public static final String CONNECTOR_SOURCE = "hsqldb";
+  public static final String CONNECTOR_TARGET = "derby";
+  private static final String SIMULATED_FAILURE = "Simulated failure";
+
+  private final File _journalFile = new File(DB_DIRECTORY, "checkpoint.properties");
+  private CopyCheckpointJournal _journal;
+
+  @Before
+  public void setup() throws Exception {
+    _connectorRepository.addConnectionInfo(CONNECTOR_SOURCE, new TestHsqlConnectionInfo());
+    _connectorRepository.addConnectionInfo(CONNECTOR_TARGET, new TestDerbyConnectionInfo());
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new CopyCheckpointJournalHint() {
+      @Override
+      public CopyCheckpointJournal getValue() {
+        return _journal;
+      }
+    });
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new NumberOfRowsPerBatchHint() {
+      @Override
+      public NumberOfRowsPerBatch getValue() {
+        return new NumberOfRowsPerBatch() {
+          @Override
+          public int getNumberOfRowsPerBatch(final TableMetaData targetTableMetaData) {
+            return 1;
+          }
+
+          @Override
+          public boolean useMultipleValuesClauses(final TableMetaData targetTableMetaData) {
+            return false;
+          }
+        };
+      }
+    });
+
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_TARGET, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, false, false, "/data/test-data.sql");
+
+    for (int i = 1; i < 5; i++) {
+      insertBinaryData(CONNECTOR_SOURCE, i);
+    }
+  }
+
+  @Test
+  public void testResumeDefaultTableCopyTool() throws Exception {
+    checkResume(new DefaultTableCopyTool(_connectorRepository));
+  }
+
+  @Test
+  public void testResumeKeysetTableCopyTool() throws Exception {
+    checkResume(new KeysetTableCopyTool(_connectorRepository));
+  }
+
+  @Test
+  public void testResumeSplitByRangeTableCopyTool() throws Exception {
+    checkResume(new SplitByRangeTableCopyTool(_connectorRepository));
+  }
+
+  @Test
+  public void testResumeParallelSplitByRangeTableCopyToolWithUnorderedCommits() throws Exception {
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new ParallelRangeCopyHint() {
+      @Override
+      public ParallelRangeCopy getValue() {
+        return new ParallelRangeCopy() {
+          @Override
+          public int getNumberOfThreads(final TableMetaData targetTableMetaData) {
+            return 3;
+          }
+
+          @Override
+          public boolean isOrderedCommits(final TableMetaData targetTableMetaData) {
+            return false;
+          }
+        };
+      }
+    });
+
+    checkResume(new SplitByRangeTableCopyTool(_connectorRepository));
+  }
+
+  /**
+   * Committed intervals ending with Long.MAX_VALUE must neither be merged nor split by incrementing their end.
+   */
+  @Test
+  public void testResumeSplitByRangeTableCopyToolWithUnboundedRanges() throws Exception {
+    addUnboundedSplitRangePlanner();
+
+    checkResume(new SplitByRangeTableCopyTool(_connectorRepository));
+  }
+
+  @Test
+  public void testResumeParallelSplitByRangeTableCopyToolWithUnboundedRanges() throws Exception {
+    addUnboundedSplitRangePlanner();
+    _connectorRepository.addConnectorHint(CONNECTOR_TARGET, new ParallelRangeCopyHint() {
+      @Override
+      public ParallelRangeCopy getValue() {
+        return new ParallelRangeCopy() {
+          @Override
+          public int getNumberOfThreads(final TableMetaData targetTableMetaData) {
+            return 2;
+          }
+
+          @Override
+          public boolean isOrderedCommits(final TableMetaData targetTableMetaData) {
+            return false;
+          }
+        };
+      }
+    });
+
+    checkResume(new SplitByRangeTableCopyTool(_connectorRepository));
+  }
+
+  @Test
+  public void testResumeWithTableJournalDefaultTableCopyTool() throws Exception {
+    checkTableJournalResume(new DefaultTableCopyTool(_connectorRepository));
+  }
+
+  @Test
+  public void testResumeWithTableJournalKeysetTableCopyTool() throws Exception {
+    checkTableJournalResume(new KeysetTableCopyTool(_connectorRepository));
+  }
+
+  @Test
+  public void testResumeWithTableJournalSplitByRangeTableCopyTool() throws Exception {
+    checkTableJournalResume(new SplitByRangeTableCopyTool(_connectorRepository));
+  }
+
+  private void checkResume(final AbstractTableCopyTool copyTool) throws Exception {
+    _journal = new FailingCopyCheckpointJournal(new FileCopyCheckpointJournal(_journalFile), 5, false);
+
+    try {
+      copyTool.copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+      fail("Copy should fail");
+    } catch (final SQLException e) {
+      assertEquals(SIMULATED_FAILURE, e.getMessage());
+    }
+
+    // Read journal from file as a restarted process would do
+    _journal = new FileCopyCheckpointJournal(_journalFile);
+    copyTool.resume(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+  }
+
+  /**
+   * The first and the last range cover all remaining values of the split column
+   */
+  private void addUnboundedSplitRangePlanner() {
+    final List<SplitRange> ranges = Arrays.asList(new SplitRange(Long.MIN_VALUE, 1, SplitRange.UNKNOWN_ROW_COUNT),
+      new SplitRange(2, 3, SplitRange.UNKNOWN_ROW_COUNT), new SplitRange(4, Long.MAX_VALUE, SplitRange.UNKNOWN_ROW_COUNT));
+
+    _connectorRepository.addConnectorHint(CONNECTOR_SOURCE, new SplitRangePlannerHint() {
+      @Override
+      public SplitRangePlanner getValue() {
+        return (connectorRepository, connectorId, connection, tableMetaData, numberOfRowsPerBatch) -> new SplitRangePlan() {
+          @Override
+          public long getNumberOfRanges() {
+            return ranges.size();
+          }
+
+          @Override
+          public SplitRange getRange(final long index) {
+            return ranges.get((int) index);
+          }
+        };
+      }
+    });
+  }
+
+  /**
+   * Fail before the commit, i.e. the copied data and the recorded position must be rolled back together.
+   */
+  private void checkTableJournalResume(final AbstractTableCopyTool copyTool) throws Exception {
+    _journal = new FailingCopyCheckpointJournal(new TableCopyCheckpointJournal(), 5, true);
+
+    try {
+      copyTool.copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+      fail("Copy should fail");
+    } catch (final SQLException e) {
+      assertEquals(SIMULATED_FAILURE, e.getMessage());
+    }
+
+    // Read journal from target data base as a restarted process would do
+    _journal = new TableCopyCheckpointJournal();
+    copyTool.resume(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+  }
+
+  /**
+   * Fail after the given number of batches, either before the commit or after it.
+   */
+  private static final class FailingCopyCheckpointJournal implements CopyCheckpointJournal {
+    private final CopyCheckpointJournal _delegate;
+    private final boolean _failBeforeCommit;
+    private int _remainingCommits;
+
+    private FailingCopyCheckpointJournal(final CopyCheckpointJournal delegate, final int numberOfCommits,
+                                         final boolean failBeforeCommit) {
+      _delegate = delegate;
+      _remainingCommits = numberOfCommits;
+      _failBeforeCommit = failBeforeCommit;
+    }
+
+    @Override
+    public void clear(final Connection targetConnection) throws SQLException {
+      _delegate.clear(targetConnection);
+    }
+
+    @Override
+    public boolean isTableCompleted(final Connection targetConnection, final TableMetaData sourceTableMetaData)
+      throws SQLException {
+      return _delegate.isTableCompleted(targetConnection, sourceTableMetaData);
+    }
+
+    @Override
+    public String getPosition(final Connection targetConnection, final TableMetaData sourceTableMetaData) throws SQLException {
+      return _delegate.getPosition(targetConnection, sourceTableMetaData);
+    }
+
+    @Override
+    public synchronized void positionCommitting(final Connection targetConnection, final TableMetaData sourceTableMetaData,
+                                                final String position) throws SQLException {
+      _delegate.positionCommitting(targetConnection, sourceTableMetaData, position);
+      committed(true);
+    }
+
+    @Override
+    public synchronized void positionCommitted(final TableMetaData sourceTableMetaData, final String position) throws SQLException {
+      _delegate.positionCommitted(sourceTableMetaData, position);
+      committed(false);
+    }
+
+    @Override
+    public Collection<String> getCommittedRanges(final Connection targetConnection, final TableMetaData sourceTableMetaData)
+      throws SQLException {
+      return _delegate.getCommittedRanges(targetConnection, sourceTableMetaData);
+    }
+
+    @Override
+    public synchronized void rangeCommitting(final Connection targetConnection, final TableMetaData sourceTableMetaData,
+                                             final String range) throws SQLException {
+      _delegate.rangeCommitting(targetConnection, sourceTableMetaData, range);
+      committed(true);
+    }
+
+    @Override
+    public synchronized void rangeCommitted(final TableMetaData sourceTableMetaData, final String range) throws SQLException {
+      _delegate.rangeCommitted(sourceTableMetaData, range);
+      committed(false);
+    }
+
+    private void committed(final boolean beforeCommit) throws SQLException {
+      if (beforeCommit == _failBeforeCommit && --_remainingCommits == 0) {
+        throw new SQLException(SIMULATED_FAILURE);
+      }
+    }
+
+    @Override
+    public void tableCompleted(final Connection targetConnection, final TableMetaData sourceTableMetaData) throws SQLException {
+      _delegate.tableCompleted(targetConnection, sourceTableMetaData);
+    }
+  }
+}
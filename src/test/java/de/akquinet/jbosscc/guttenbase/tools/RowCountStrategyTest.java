@@ -0,0 +1,87 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TestDerbyConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.configuration.TestHsqlConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.hints.CatalogQueriesHint;
+import de.akquinet.jbosscc.guttenbase.hints.RowCountStrategyHint;
+import de.akquinet.jbosscc.guttenbase.meta.DatabaseMetaData;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import de.akquinet.jbosscc.guttenbase.repository.CatalogQueries;
+import de.akquinet.jbosscc.guttenbase.repository.RowCountStrategy;
+import de.akquinet.jbosscc.guttenbase.repository.impl.InformationSchemaCatalogQueries;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class RowCountStrategyTest extends AbstractGuttenBaseTest {
+  public static final String CONNECTOR_SOURCE = "hsqldb";
+  public static final String CONNECTOR_TARGET = "derby";
+
+  @Before
+  public void setup() throws Exception {
+    _connectorRepository.addConnectionInfo(CONNECTOR_SOURCE, new TestHsqlConnectionInfo());
+    _connectorRepository.addConnectionInfo(CONNECTOR_TARGET, new TestDerbyConnectionInfo());
+
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_TARGET, "/ddl/tables.sql");
+  }
+
+  @Test
+  public void testLazy() throws Exception {
+    setRowCountStrategy(CONNECTOR_SOURCE, RowCountStrategy.LAZY);
+    setRowCountStrategy(CONNECTOR_TARGET, RowCountStrategy.LAZY);
+
+    // Read before the data is inserted, rows are counted when first accessed
+    final DatabaseMetaData databaseMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_SOURCE);
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, false, false, "/data/test-data.sql");
+
+    final TableMetaData userTableMetaData = databaseMetaData.getTableMetaData("FOO_USER");
+    assertEquals(5, userTableMetaData.getTotalRowCount());
+    assertEquals(5, userTableMetaData.getFilteredRowCount());
+
+    new DefaultTableCopyTool(_connectorRepository).copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+
+    assertEquals(5, _connectorRepository.getDatabaseMetaData(CONNECTOR_TARGET).getTableMetaData("FOO_USER_ROLES")
+        .getFilteredRowCount());
+  }
+
+  @Test
+  public void testEstimated() throws Exception {
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, false, false, "/data/test-data.sql");
+
+    setRowCountStrategy(CONNECTOR_SOURCE, RowCountStrategy.ESTIMATED);
+    _connectorRepository.addConnectorHint(CONNECTOR_SOURCE, new CatalogQueriesHint() {
+      @Override
+      public CatalogQueries getValue() {
+        return new InformationSchemaCatalogQueries() {
+          @Override
+          public String getRowCountEstimatesQuery(final DatabaseType databaseType) {
+            return "SELECT TABLE_NAME, 42 AS ROW_COUNT FROM INFORMATION_SCHEMA.SYSTEM_TABLES"
+                + " WHERE TABLE_SCHEM = ? AND TABLE_NAME <> 'FOO_ROLE'";
+          }
+        };
+      }
+    });
+
+    final DatabaseMetaData databaseMetaData = _connectorRepository.getDatabaseMetaData(CONNECTOR_SOURCE);
+    final TableMetaData userTableMetaData = databaseMetaData.getTableMetaData("FOO_USER");
+    final TableMetaData roleTableMetaData = databaseMetaData.getTableMetaData("FOO_ROLE");
+
+    assertEquals(42, userTableMetaData.getTotalRowCount());
+    assertEquals(5, userTableMetaData.getFilteredRowCount());
+    assertEquals(4, roleTableMetaData.getTotalRowCount());
+    assertEquals(4, roleTableMetaData.getFilteredRowCount());
+  }
+
+  private void setRowCountStrategy(final String connectorId, final RowCountStrategy rowCountStrategy) {
+    _connectorRepository.addConnectorHint(connectorId, new RowCountStrategyHint() {
+      @Override
+      public RowCountStrategy getValue() {
+        return rowCountStrategy;
+      }
+    });
+  }
+}
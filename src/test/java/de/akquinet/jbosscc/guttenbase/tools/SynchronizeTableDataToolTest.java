@@ -0,0 +1,165 @@
+package de.akquinet.jbosscc.guttenbase.tools;
+
+import de.akquinet.jbosscc.guttenbase.configuration.TestDerbyConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.configuration.TestHsqlConnectionInfo;
+import de.akquinet.jbosscc.guttenbase.configuration.impl.DerbySourceDatabaseConfiguration;
+import de.akquinet.jbosscc.guttenbase.connector.DatabaseType;
+import de.akquinet.jbosscc.guttenbase.hints.SelectWhereClauseHint;
+import de.akquinet.jbosscc.guttenbase.meta.TableMetaData;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class SynchronizeTableDataToolTest extends AbstractGuttenBaseTest {
+  public static final String CONNECTOR_SOURCE = "hsqldb";
+  public static final String CONNECTOR_TARGET = "derby";
+  public static final String CONNECTOR_DERBY_SOURCE = "derbySource";
+  public static final String CONNECTOR_DERBY_TARGET = "derbyTarget";
+
+  private final Map<String, Integer> _numberOfSelects = new HashMap<>();
+
+  @Before
+  public void setup() throws Exception {
+    _connectorRepository.addConnectionInfo(CONNECTOR_SOURCE, new TestHsqlConnectionInfo());
+    _connectorRepository.addConnectionInfo(CONNECTOR_TARGET, new TestDerbyConnectionInfo());
+
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_TARGET, "/ddl/tables.sql");
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_SOURCE, false, false, "/data/test-data.sql");
+
+    new DefaultTableCopyTool(_connectorRepository).copyTables(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+  }
+
+  @Test
+  public void testSynchronizeEqualData() throws Exception {
+    assertEquals(0, new SynchronizeTableDataTool(_connectorRepository).synchronizeTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET));
+  }
+
+  @Test
+  public void testSynchronizeDriftedData() throws Exception {
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_TARGET,
+      "UPDATE FOO_USER SET NAME = 'Drifted' WHERE ID = 2;",
+      "DELETE FROM FOO_USER_ROLES WHERE USER_ID = 3 AND ROLE_ID = 4;",
+      "INSERT INTO FOO_COMPANY (ID, SUPPLIER, NAME) VALUES(42, 'N', 'Company 42');");
+
+    // Small chunks, so that the data is compared in several steps
+    assertEquals(3, new SynchronizeTableDataTool(_connectorRepository, 2, 1).synchronizeTableData(CONNECTOR_SOURCE,
+      CONNECTOR_TARGET));
+
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_SOURCE, CONNECTOR_TARGET);
+  }
+
+  @Test
+  public void testChecksumsSkipEqualData() throws Exception {
+    setupDerbyConnectors();
+
+    assertEquals(0, new DerbyChecksumSynchronizeTableDataTool(5, 1).synchronizeTableData(CONNECTOR_DERBY_SOURCE,
+      CONNECTOR_DERBY_TARGET));
+    assertEquals(0, getNumberOfSelects("FOO_USER"));
+    assertEquals(0, getNumberOfSelects("FOO_USER_ROLES"));
+  }
+
+  @Test
+  public void testChecksumsNarrowDownDriftedChunks() throws Exception {
+    setupDerbyConnectors();
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_DERBY_TARGET,
+      "UPDATE FOO_USER SET NAME = 'Drifted' WHERE ID = 2;",
+      "UPDATE FOO_USER SET PERSONAL_NUMBER = 4711 WHERE ID = 4;");
+
+    assertEquals(2, new DerbyChecksumSynchronizeTableDataTool(5, 1).synchronizeTableData(CONNECTOR_DERBY_SOURCE,
+      CONNECTOR_DERBY_TARGET));
+
+    // Only the leaf chunks containing the drifted rows are read
+    assertEquals(2, getNumberOfSelects("FOO_USER"));
+    assertEquals(0, getNumberOfSelects("FOO_COMPANY"));
+
+    new CheckEqualTableDataTool(_connectorRepository).checkTableData(CONNECTOR_DERBY_SOURCE, CONNECTOR_DERBY_TARGET);
+  }
+
+  @Test
+  public void testChecksumsApplySelectWhereClause() throws Exception {
+    setupDerbyConnectors();
+    addSelectWhereClauseHint(CONNECTOR_DERBY_SOURCE);
+    addSelectWhereClauseHint(CONNECTOR_DERBY_TARGET);
+    new ScriptExecutorTool(_connectorRepository).executeScript(CONNECTOR_DERBY_TARGET,
+      "UPDATE FOO_USER SET NAME = 'Drifted' WHERE ID = 4;");
+
+    // The excluded row lies within the range of the chunk, but must not be part of the checksum
+    assertEquals(0, new DerbyChecksumSynchronizeTableDataTool(5, 1).synchronizeTableData(CONNECTOR_DERBY_SOURCE,
+      CONNECTOR_DERBY_TARGET));
+    assertEquals(0, getNumberOfSelects("FOO_USER"));
+  }
+
+  private void setupDerbyConnectors() throws Exception {
+    _connectorRepository.addConnectionInfo(CONNECTOR_DERBY_SOURCE, new TestDerbyConnectionInfo());
+    _connectorRepository.addConnectionInfo(CONNECTOR_DERBY_TARGET, new TestDerbyConnectionInfo());
+
+    for (final String connectorId : new String[]{CONNECTOR_DERBY_SOURCE, CONNECTOR_DERBY_TARGET}) {
+      new ScriptExecutorTool(_connectorRepository).executeFileScript(connectorId, "/ddl/tables.sql");
+      new ScriptExecutorTool(_connectorRepository).executeScript(connectorId,
+        "CREATE FUNCTION TEST_HASH(VALUE VARCHAR(32672)) RETURNS BIGINT LANGUAGE JAVA PARAMETER STYLE JAVA NO SQL"
+          + " EXTERNAL NAME '" + SynchronizeTableDataToolTest.class.getName() + ".hash';");
+    }
+
+    new ScriptExecutorTool(_connectorRepository).executeFileScript(CONNECTOR_DERBY_SOURCE, false, false, "/data/test-data.sql");
+    new DefaultTableCopyTool(_connectorRepository).copyTables(CONNECTOR_DERBY_SOURCE, CONNECTOR_DERBY_TARGET);
+
+    // Only reading the rows of a chunk calls beforeSelect()
+    _connectorRepository.addSourceDatabaseConfiguration(DatabaseType.DERBY,
+      new DerbySourceDatabaseConfiguration(_connectorRepository) {
+        @Override
+        public void beforeSelect(final Connection connection, final String connectorId, final TableMetaData table)
+          throws SQLException {
+          super.beforeSelect(connection, connectorId, table);
+          _numberOfSelects.merge(table.getTableName().toUpperCase(), 1, Integer::sum);
+        }
+      });
+  }
+
+  private void addSelectWhereClauseHint(final String connectorId) {
+    _connectorRepository.addConnectorHint(connectorId, new SelectWhereClauseHint() {
+      @Override
+      public SelectWhereClause getValue() {
+        return tableMetaData -> tableMetaData.getTableName().equalsIgnoreCase("FOO_USER") ? "WHERE ID <> 4" : "";
+      }
+    });
+  }
+
+  private int getNumberOfSelects(final String tableName) {
+    return _numberOfSelects.getOrDefault(tableName, 0);
+  }
+
+  /**
+   * Called by Derby to compute the checksum of a row
+   */
+  public static long hash(final String value) {
+    return value.hashCode();
+  }
+
+  /**
+   * Derby has no built-in hash function, thus the checksum is computed by {@link #hash(String)}.
+   */
+  private class DerbyChecksumSynchronizeTableDataTool extends SynchronizeTableDataTool {
+    private DerbyChecksumSynchronizeTableDataTool(final int chunkSize, final int leafChunkSize) {
+      super(_connectorRepository, chunkSize, leafChunkSize);
+    }
+
+    @Override
+    protected String createChecksumExpression(final DatabaseType databaseType, final List<String> columnNames) {
+      final StringBuilder buf = new StringBuilder();
+
+      for (final String columnName : columnNames) {
+        buf.append(buf.length() > 0 ? " || '|' || " : "").append("COALESCE(TRIM(CHAR(").append(columnName).append(")), '<NULL>')");
+      }
+
+      return "COUNT(*), SUM(TEST_HASH(" + buf + "))";
+    }
+  }
+}